@@ -0,0 +1,89 @@
+package com.kautiainen.antti.infinitybot.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kautiainen.antti.infinitybot.DiscordBot;
+import com.kautiainen.antti.infinitybot.model.DiceRoller;
+import com.kautiainen.antti.infinitybot.model.RandomStrategy;
+
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.object.command.ApplicationCommandInteraction;
+import discord4j.core.object.command.ApplicationCommandOption;
+import discord4j.discordjson.json.ApplicationCommandInteractionData;
+import discord4j.discordjson.json.ApplicationCommandInteractionOptionData;
+import reactor.core.publisher.Mono;
+
+/**
+ * Benchmark of the action roll command hot path.
+ *
+ * The command interaction is built from the interaction data with a gateway
+ * client which is never connected, so the benchmark measures the option
+ * parsing, the roll, and the reply formatting of the command.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionRollCommandBenchmark {
+
+	private DiscordBot.ActionRollCommand command;
+
+	private ApplicationCommandInteraction interaction;
+
+	/**
+	 * Create integer option of the interaction.
+	 *
+	 * @param name  The option name.
+	 * @param value The option value.
+	 * @return The option data.
+	 */
+	static ApplicationCommandInteractionOptionData option(String name, long value) {
+		return ApplicationCommandInteractionOptionData.builder().name(name)
+				.type(ApplicationCommandOption.Type.INTEGER.getValue()).value(Long.toString(value)).build();
+	}
+
+	/**
+	 * Create the stubbed interaction of the action roll command.
+	 *
+	 * @return The interaction of a gateway client which is never connected.
+	 */
+	static ApplicationCommandInteraction actionInteraction() {
+		GatewayDiscordClient offline = new GatewayDiscordClient(null, null, Mono.never(), null, null,
+				(GatewayDiscordClient gateway) -> null, Collections.emptySet());
+		return new ApplicationCommandInteraction(offline,
+				ApplicationCommandInteractionData.builder().name("infinitytest").addOption(option("difficulty", 2))
+						.addOption(option("dice", 3)).addOption(option("tn", 12)).addOption(option("focus", 2))
+						.addOption(option("complication", 19)).build(),
+				null);
+	}
+
+	@Setup
+	public void setup() {
+		DiscordBot bot = new DiscordBot() {
+		};
+		command = bot.new ActionRollCommand(new DiceRoller(RandomStrategy.seeded(42L)));
+		interaction = actionInteraction();
+	}
+
+	@Benchmark
+	public String execute() {
+		return command.execute(interaction);
+	}
+}
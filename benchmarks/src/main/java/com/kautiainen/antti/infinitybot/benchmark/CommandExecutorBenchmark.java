@@ -0,0 +1,89 @@
+package com.kautiainen.antti.infinitybot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kautiainen.antti.infinitybot.CommandExecutor;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Benchmarks of the throughput of the command executor with blocking commands.
+ *
+ * Each operation executes a burst of concurrent commands blocking for a while,
+ * like a command waiting for the configuration, the persistence, or a REST
+ * follow-up. The <code>platform</code> mode runs the commands on the bounded
+ * worker threads also in the virtual-thread execution mode, and the
+ * <code>virtual</code> mode runs each command on its own virtual thread. The virtual mode requires a Java 21 or later platform
+ * running the benchmarks, as the virtual threads are looked up at run time.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandExecutorBenchmark {
+
+	/**
+	 * The execution mode.
+	 */
+	@Param({ "virtual", "platform" })
+	public String mode;
+
+	/**
+	 * The number of concurrent commands of an operation.
+	 */
+	@Param({ "64", "512" })
+	public int commands;
+
+	/**
+	 * The time each command blocks in milliseconds.
+	 */
+	@Param({ "1" })
+	public long blockingMillis;
+
+	/**
+	 * The benchmarked executor.
+	 */
+	private CommandExecutor executor;
+
+	@Setup
+	public void setUp() {
+		executor = "virtual".equals(mode) ? CommandExecutor.virtual(commands)
+				: new CommandExecutor(
+						Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, commands, "command",
+								CommandExecutor.WORKER_TTL_SECONDS, true),
+						Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, commands);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.close();
+	}
+
+	@Benchmark
+	public long executeBlockingCommands() {
+		return Flux.range(0, commands).flatMap((Integer index) -> executor.execute(() -> {
+			Thread.sleep(blockingMillis);
+			return Mono.just(index);
+		}), commands).count().block();
+	}
+}
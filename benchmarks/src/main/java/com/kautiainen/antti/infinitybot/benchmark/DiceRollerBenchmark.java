@@ -0,0 +1,116 @@
+package com.kautiainen.antti.infinitybot.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.kautiainen.antti.infinitybot.DiscordBot;
+import com.kautiainen.antti.infinitybot.model.ActionRollKernel;
+import com.kautiainen.antti.infinitybot.model.DiceRoller;
+import com.kautiainen.antti.infinitybot.model.RandomStrategy;
+import com.kautiainen.antti.infinitybot.model.Special;
+import com.kautiainen.antti.infinitybot.model.SpecialAccumulator;
+
+/**
+ * Benchmarks of the dice rolling and the special stacking of the dice roller.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiceRollerBenchmark {
+
+	/**
+	 * The number of dice rolled.
+	 */
+	@Param({ "2", "5" })
+	public int dice;
+
+	/**
+	 * The number of specials of the combat dice roll.
+	 */
+	@Param({ "1", "4" })
+	public int specialCount;
+
+	private DiceRoller roller;
+
+	private ActionRollKernel kernel;
+
+	private List<Special> specials;
+
+	@Setup
+	public void setup() {
+		roller = new DiceRoller(RandomStrategy.seeded(42L));
+		kernel = new ActionRollKernel();
+		List<Special> available = Arrays.asList(new DiscordBot.Vicious(1), new DiscordBot.Special("Piercing", 2, false),
+				new DiscordBot.StackingSpecial("Effect", 1), new DiscordBot.Vicious(2),
+				new DiscordBot.Special("Area", null));
+		specials = new ArrayList<>();
+		for (int i = 0; i < specialCount; i++) {
+			specials.add(available.get(i % available.size()));
+		}
+	}
+
+	@Benchmark
+	public Object rollAction() {
+		return roller.rollAction(dice, 12, 2, 20);
+	}
+
+	@Benchmark
+	public int rollActionKernel() {
+		return roller.rollAction(kernel, dice, 12, 2, 20);
+	}
+
+	@Benchmark
+	public Object rollCD() {
+		return roller.rollCD(1, dice, specials);
+	}
+
+	@Benchmark
+	public Object combineSpecials() {
+		return roller.combineSpecials(specials);
+	}
+
+	@Benchmark
+	public void addSpecial(Blackhole blackhole) {
+		List<Special> result = new ArrayList<>();
+		roller.addSpecial(result, specials);
+		roller.addSpecial(result, specials);
+		blackhole.consume(result);
+	}
+
+	@Benchmark
+	public void addSpecialPerEffect(Blackhole blackhole) {
+		List<Special> result = new ArrayList<>();
+		for (int effect = 0; effect < dice; effect++) {
+			roller.addSpecial(result, specials);
+		}
+		blackhole.consume(result);
+	}
+
+	@Benchmark
+	public List<Special> accumulateEffects() {
+		SpecialAccumulator result = new SpecialAccumulator(specials.size());
+		result.addRepeated(specials, dice);
+		return result.toList();
+	}
+}
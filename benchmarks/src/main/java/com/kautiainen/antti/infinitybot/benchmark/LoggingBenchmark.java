@@ -0,0 +1,105 @@
+package com.kautiainen.antti.infinitybot.benchmark;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kautiainen.antti.infinitybot.Logging;
+
+/**
+ * Benchmarks of the escaping of the debug log lines.
+ *
+ * The benchmark <code>legacyEscape</code> runs the escaping the logging used
+ * before the escape table, and shows the cost every debug line paid.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+	/**
+	 * The logged command echo line.
+	 */
+	@Param({ "Command action dice:3 tn:12 focus:2 complication:1", "Adding Vicious(s1) to [Area, Piercing(2)] at index -2",
+			"Result pattern: \"%s\"\n\"Hyökkäys\", 2, 0, [1, 20]\tS" })
+	public String line;
+
+	@Benchmark
+	public String escape() {
+		return Logging.escape(line);
+	}
+
+	@Benchmark
+	public String legacyEscape() {
+		return legacyEscape(line);
+	}
+
+	/**
+	 * The escaping of the logging before the escape table.
+	 *
+	 * @param source The source.
+	 * @return The escaped sequence.
+	 */
+	static String legacyEscape(CharSequence source) {
+		if (source == null)
+			return null;
+		final Map<Integer, String> encodingMap = new TreeMap<>();
+		encodingMap.put(Integer.valueOf('\n'), "\\n");
+		encodingMap.put(Integer.valueOf('\t'), "\\t");
+		encodingMap.put(Integer.valueOf('\f'), "\\f");
+		encodingMap.put(Integer.valueOf('\r'), "\\r");
+		encodingMap.put(Integer.valueOf('\''), "\\\'");
+		encodingMap.put(Integer.valueOf('`'), "\\`");
+		encodingMap.put(Integer.valueOf('´'), "\\´");
+		encodingMap.put(Integer.valueOf('"'), "\\\"");
+		encodingMap.put(Integer.valueOf('\\'), "\\\\");
+		encodingMap.put(Integer.parseInt("5d", 16), "\\\u005d");
+		encodingMap.put(Integer.parseInt("5b", 16), "\\\u005b");
+		encodingMap.put(Integer.parseInt("2c", 16), "\\\u002c");
+		
+		final StringBuilder result = new StringBuilder();
+		source.codePoints().forEachOrdered((int i) -> {
+			if (Character.isUnicodeIdentifierPart(i) 
+					// Punctuation characters not requiring escapes. 
+					|| (i >= '\u0020' && i <= '\u002f') || (i >= '\u003a' && i <= '\u0040')
+					|| (i == '\u005b' || i >= '\u005d' && i <= '\u0060') ||
+					(i >= '\u007b' && i <= '\u007e') ) {
+				// Printing the character.
+				result.appendCodePoint(i);
+			} else {
+				if (encodingMap.containsKey(i)) {
+					result.append(encodingMap.get(i)); 
+				} else {
+					// Escaping the character with unicode escape.
+					StringBuilder escapeBuilder = new StringBuilder(); 
+					escapeBuilder.appendCodePoint(i); 
+					for (int index = escapeBuilder.length()-1; index >= 0; index--) { 
+						char charValue = escapeBuilder.charAt(index); 
+						escapeBuilder.replace(index, index+1,
+							String.format("%04x", (int)charValue)); 
+					}
+					escapeBuilder.insert(0, "\\x"); 
+					result.append(escapeBuilder.toString());
+				}
+			}
+		});
+		return result.toString();
+	}
+}
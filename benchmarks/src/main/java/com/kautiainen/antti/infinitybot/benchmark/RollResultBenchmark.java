@@ -0,0 +1,59 @@
+package com.kautiainen.antti.infinitybot.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kautiainen.antti.infinitybot.DiscordBot;
+import com.kautiainen.antti.infinitybot.model.DiceRoller;
+import com.kautiainen.antti.infinitybot.model.RandomStrategy;
+import com.kautiainen.antti.infinitybot.model.RollResult;
+
+/**
+ * Benchmarks of the rendering of the roll results.
+ *
+ * The results are rolled once, so the benchmarks measure only the rendering.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollResultBenchmark {
+
+	private RollResult actionResult;
+
+	private RollResult cdResult;
+
+	@Setup
+	public void setup() {
+		DiceRoller roller = new DiceRoller(RandomStrategy.seeded(42L));
+		actionResult = roller.rollAction(5, 12, 2, 19);
+		cdResult = roller.rollCD(2, 6, Arrays.asList(new DiscordBot.Vicious(2),
+				new DiscordBot.Special("Piercing", 2, false), new DiscordBot.StackingSpecial("Effect", 1)));
+	}
+
+	@Benchmark
+	public String actionToString() {
+		return actionResult.toString();
+	}
+
+	@Benchmark
+	public String cdToString() {
+		return cdResult.toString();
+	}
+}
@@ -0,0 +1,91 @@
+package com.kautiainen.antti.infinitybot.benchmark;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kautiainen.antti.infinitybot.DiscordBot;
+import com.kautiainen.antti.infinitybot.model.BasicSpecial;
+import com.kautiainen.antti.infinitybot.model.Special;
+
+/**
+ * Benchmarks of the trait string parsing of the effect command.
+ *
+ * The benchmark <code>compileGrammar</code> compiles the special grammar
+ * without cache, and shows the cost the parsing paid on every trait before the
+ * grammars were cached.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecialParsingBenchmark {
+
+	/**
+	 * The bot exposing the trait parsing of the effect command.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	static class TraitParsingBot extends DiscordBot {
+		public List<com.kautiainen.antti.infinitybot.model.Special> parse(String traits) throws ParseException {
+			return parseTraits(traits);
+		}
+	}
+
+	/**
+	 * The trait string of the effect command.
+	 */
+	@Param({ "Vicious(2)", "Vicious(s2) Piercing(1) Area \"Close Quarters\"(1=2)" })
+	public String traits;
+
+	private TraitParsingBot bot;
+
+	@Setup
+	public void setup() {
+		bot = new TraitParsingBot();
+	}
+
+	@Benchmark
+	public List<Special> parseTraits() throws ParseException {
+		return bot.parse(traits);
+	}
+
+	@Benchmark
+	public Object specialOf() {
+		return DiscordBot.Special.of("Piercing(+2)");
+	}
+
+	@Benchmark
+	public Object basicSpecialFromString() {
+		return new BasicSpecial("Piercing(2)");
+	}
+
+	@Benchmark
+	public Object specialFromStringPattern() {
+		return Special.fromStringPattern();
+	}
+
+	@Benchmark
+	public Pattern compileGrammar() {
+		return Pattern.compile(Special.fromStringPattern().pattern(), Pattern.UNICODE_CHARACTER_CLASS);
+	}
+}
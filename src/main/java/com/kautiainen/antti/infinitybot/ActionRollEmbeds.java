@@ -0,0 +1,167 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+
+import com.kautiainen.antti.infinitybot.model.ActionRollResult;
+import com.kautiainen.antti.infinitybot.model.RollResultRenderer;
+
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.rest.util.Color;
+
+/**
+ * The embed replies of the action rolls.
+ *
+ * The embed shows the dice, the successes, the momentum, and the complications
+ * of the roll as fields. The names of the fields are read from a message
+ * bundle, and cached per locale, so a reply only fills the title, the color,
+ * and the values of the fields.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class ActionRollEmbeds {
+
+	/**
+	 * The default prefix of the message names of the field names.
+	 */
+	public static final String DEFAULT_KEY_PREFIX = "action_roll.embed";
+
+	/**
+	 * The message name suffix of the dice field.
+	 */
+	public static final String DICE_MESSAGE = "dice";
+
+	/**
+	 * The message name suffix of the successes field.
+	 */
+	public static final String SUCCESSES_MESSAGE = "successes";
+
+	/**
+	 * The message name suffix of the momentum field.
+	 */
+	public static final String MOMENTUM_MESSAGE = "momentum";
+
+	/**
+	 * The message name suffix of the complications field.
+	 */
+	public static final String COMPLICATIONS_MESSAGE = "complications";
+
+	/**
+	 * The name of the cached templates.
+	 */
+	private static final String TEMPLATE_NAME = "action";
+
+	/**
+	 * The message bundle of the field names.
+	 */
+	private final MessageTemplates messages;
+
+	/**
+	 * The prefix of the message names of the field names.
+	 */
+	private final String keyPrefix;
+
+	/**
+	 * The cached templates by the locale.
+	 */
+	private final EmbedTemplates templates = new EmbedTemplates();
+
+	/**
+	 * Create new action roll embeds with the default message name prefix.
+	 *
+	 * @param messages The message bundle of the field names.
+	 * @throws IllegalArgumentException The message bundle was undefined.
+	 */
+	public ActionRollEmbeds(MessageTemplates messages) throws IllegalArgumentException {
+		this(messages, DEFAULT_KEY_PREFIX);
+	}
+
+	/**
+	 * Create new action roll embeds.
+	 *
+	 * @param messages  The message bundle of the field names.
+	 * @param keyPrefix The prefix of the message names of the field names.
+	 * @throws IllegalArgumentException The message bundle or the prefix was
+	 *                                  undefined.
+	 */
+	public ActionRollEmbeds(MessageTemplates messages, String keyPrefix) throws IllegalArgumentException {
+		if (messages == null) {
+			throw new IllegalArgumentException("Undefined message bundle");
+		}
+		if (keyPrefix == null) {
+			throw new IllegalArgumentException("Undefined message name prefix");
+		}
+		this.messages = messages;
+		this.keyPrefix = keyPrefix;
+	}
+
+	/**
+	 * Get the message name of a field name.
+	 *
+	 * @param suffix The message name suffix of the field.
+	 * @return The message name of the field name.
+	 */
+	public String getMessageName(String suffix) {
+		return keyPrefix + "." + suffix;
+	}
+
+	/**
+	 * Get the name of a field. The name of a missing or an invalid message is
+	 * the message name.
+	 *
+	 * @param suffix The message name suffix of the field.
+	 * @param locale The locale of the name, or undefined value for the default
+	 *               locale.
+	 * @return The name of the field.
+	 */
+	protected String getFieldName(String suffix, Locale locale) {
+		String messageName = getMessageName(suffix);
+		try {
+			return messages.get(messageName, locale).getPattern();
+		} catch (MissingResourceException | IllegalArgumentException e) {
+			return messageName;
+		}
+	}
+
+	/**
+	 * Create the embed template of a locale.
+	 *
+	 * @param locale The locale of the template, or undefined value for the
+	 *               default locale.
+	 * @return The embed template.
+	 */
+	protected EmbedTemplate createTemplate(Locale locale) {
+		return new EmbedTemplate(EmbedCreateSpec.builder().build(),
+				new String[] { getFieldName(DICE_MESSAGE, locale), getFieldName(SUCCESSES_MESSAGE, locale),
+						getFieldName(MOMENTUM_MESSAGE, locale), getFieldName(COMPLICATIONS_MESSAGE, locale) },
+				new boolean[] { false, true, true, true });
+	}
+
+	/**
+	 * Render the embed of an action roll. The momentum is left out of a failed
+	 * roll.
+	 *
+	 * @param title      The title of the embed.
+	 * @param difficulty The difficulty of the roll.
+	 * @param result     The result of the roll.
+	 * @param locale     The locale of the embed, or undefined value for the
+	 *                   default locale.
+	 * @return The embed of the roll.
+	 */
+	public EmbedCreateSpec render(String title, long difficulty, ActionRollResult result, Locale locale) {
+		int value = result.getValue();
+		return templates.get(TEMPLATE_NAME, locale, this::createTemplate)
+				.render(title, RollResultRenderer.DEFAULT.renderRoll(result), Integer.toString(value),
+						value < difficulty ? null : Long.toString(value - difficulty),
+						Integer.toString(result.getComplications()))
+				.withColor(value < difficulty ? Color.RED : Color.GREEN);
+	}
+
+	/**
+	 * Remove the cached templates, e.g. after the messages have been reloaded.
+	 */
+	public void clear() {
+		templates.clear();
+	}
+}
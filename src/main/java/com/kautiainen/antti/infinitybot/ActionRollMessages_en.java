@@ -1,11 +0,0 @@
-package com.kautiainen.antti.infinitybot;
-
-/**
- * English messages uses default messages. 
- * 
- * @author Antti Kautiainen
- *
- */
-public class ActionRollMessages_en extends ActionRollMessages {
-	
-}
\ No newline at end of file
@@ -0,0 +1,508 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.io.PrintStream;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * The asynchronous log sink writing the log lines on a background thread.
+ *
+ * The producers publish the log lines into a bounded lock-free ring buffer, and
+ * a single daemon writer thread takes the lines in batches, adds the time
+ * stamps and the tags, writes the batch to the output stream, and flushes it.
+ * The logging thread only stores the message and the time of the message. When
+ * the buffer is full, the line is either dropped or the producer waits for
+ * free space depending on the {@link OverflowPolicy} of the sink.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class AsyncLogSink implements AutoCloseable {
+
+	/**
+	 * The system property enabling the asynchronous default logging.
+	 */
+	public static final String LOGGING_ASYNC_PROPERTY = "logging.async";
+
+	/**
+	 * The system property of the buffer capacity of the default sinks.
+	 */
+	public static final String LOGGING_ASYNC_CAPACITY_PROPERTY = "logging.async.capacity";
+
+	/**
+	 * The system property of the overflow policy of the default sinks.
+	 */
+	public static final String LOGGING_ASYNC_POLICY_PROPERTY = "logging.async.policy";
+
+	/**
+	 * The default capacity of the ring buffer.
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/**
+	 * The largest capacity of the ring buffer.
+	 */
+	public static final int MAX_CAPACITY = 1 << 24;
+
+	/**
+	 * The largest number of lines written in one batch.
+	 */
+	public static final int MAX_BATCH_SIZE = 256;
+
+	/**
+	 * The longest time the idle writer sleeps before checking the buffer.
+	 */
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * The handling of the log lines published into the full buffer.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public static enum OverflowPolicy {
+		/**
+		 * The line is dropped and counted to the dropped lines.
+		 */
+		DROP,
+		/**
+		 * The producer waits until the writer has freed space.
+		 */
+		BLOCK;
+	}
+
+	/**
+	 * The log line waiting for the writer.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	private static final class LogLine {
+		final long time;
+		final String tag;
+		final String message;
+		final boolean escaped;
+
+		LogLine(long time, String tag, String message, boolean escaped) {
+			this.time = time;
+			this.tag = tag;
+			this.message = message;
+			this.escaped = escaped;
+		}
+	}
+
+	/**
+	 * The output stream of the lines.
+	 */
+	private final PrintStream out;
+
+	/**
+	 * The overflow policy.
+	 */
+	private final OverflowPolicy policy;
+
+	/**
+	 * The lines of the ring buffer.
+	 */
+	private final AtomicReferenceArray<LogLine> lines;
+
+	/**
+	 * The sequence numbers of the ring buffer slots. The slot is free for the
+	 * producer of position p, when its sequence is p, and filled for the writer
+	 * of position p, when its sequence is p+1.
+	 */
+	private final AtomicLongArray sequences;
+
+	/**
+	 * The mask of the slot index.
+	 */
+	private final int mask;
+
+	/**
+	 * The next position of the producers.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * The next position of the writer. Only the writer thread updates the head.
+	 */
+	private volatile long head = 0;
+
+	/**
+	 * The number of dropped lines.
+	 */
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * The number of written lines.
+	 */
+	private final LongAdder written = new LongAdder();
+
+	/**
+	 * Is the sink closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * The number of producers publishing a line. The producer is counted before
+	 * it checks whether the sink is closed, so the writer does not exit before
+	 * the line published by a producer which saw the open sink.
+	 */
+	private final AtomicInteger publishers = new AtomicInteger();
+
+	/**
+	 * Is the writer parked waiting for lines.
+	 */
+	private volatile boolean idle = false;
+
+	/**
+	 * The writer thread.
+	 */
+	private final Thread writer;
+
+	/**
+	 * Create a new asynchronous log sink with default capacity dropping the lines
+	 * of the full buffer.
+	 *
+	 * @param out The output stream of the lines.
+	 */
+	public AsyncLogSink(PrintStream out) {
+		this(out, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+	}
+
+	/**
+	 * Create a new asynchronous log sink.
+	 *
+	 * @param out      The output stream of the lines.
+	 * @param capacity The capacity of the buffer. The capacity is rounded up to
+	 *                 the next power of two.
+	 * @param policy   The overflow policy. Defaults to {@link OverflowPolicy#DROP}.
+	 * @throws IllegalArgumentException The output stream was undefined, or the
+	 *                                  capacity was not positive or was too
+	 *                                  large.
+	 */
+	public AsyncLogSink(PrintStream out, int capacity, OverflowPolicy policy) throws IllegalArgumentException {
+		if (out == null) {
+			throw new IllegalArgumentException("Undefined output stream");
+		}
+		if (capacity <= 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Invalid capacity");
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.out = out;
+		this.policy = policy == null ? OverflowPolicy.DROP : policy;
+		this.lines = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int index = 0; index < size; index++) {
+			sequences.set(index, index);
+		}
+		this.mask = size - 1;
+		this.writer = new Thread(this::writeLines, "AsyncLogSink-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Get the capacity of the buffer.
+	 *
+	 * @return The number of lines the buffer holds.
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Get the overflow policy.
+	 *
+	 * @return The overflow policy of the sink.
+	 */
+	public OverflowPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Get the number of dropped lines.
+	 *
+	 * @return The number of lines dropped due full buffer or closed sink.
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Get the number of written lines.
+	 *
+	 * @return The number of lines written to the output stream.
+	 */
+	public long getWrittenCount() {
+		return written.sum();
+	}
+
+	/**
+	 * Create a log message consumer publishing into this sink.
+	 *
+	 * @param tag    The tag of the log type.
+	 * @param escape Does the writer escape the messages.
+	 * @return The consumer publishing the messages with given tag.
+	 */
+	public Consumer<String> createLogConsumer(String tag, boolean escape) {
+		return (String message) -> publish(tag, message, escape);
+	}
+
+	/**
+	 * Create a consumer publishing raw lines into this sink. The writer writes
+	 * the raw lines as is without the time stamp and the tag, e.g. the JSON lines
+	 * of the log events.
+	 *
+	 * @return The consumer publishing the raw lines.
+	 */
+	public Consumer<String> createRawConsumer() {
+		return (String line) -> publish(null, line, false);
+	}
+
+	/**
+	 * Publish a log line.
+	 *
+	 * @param tag     The tag of the log type. Undefined tag publishes a raw line
+	 *                written without the time stamp and the tag.
+	 * @param message The message.
+	 * @param escape  Does the writer escape the message.
+	 * @return True, if and only if the line was added to the buffer.
+	 */
+	public boolean publish(String tag, String message, boolean escape) {
+		if (message == null) {
+			return false;
+		}
+		LogLine line = new LogLine(System.currentTimeMillis(), tag, message, escape);
+		publishers.incrementAndGet();
+		try {
+			if (offer(line)) {
+				return true;
+			}
+		} finally {
+			publishers.decrementAndGet();
+		}
+		dropped.increment();
+		return false;
+	}
+
+	/**
+	 * Add the line to the buffer.
+	 *
+	 * @param line The added line.
+	 * @return True, if and only if the line was added to the buffer.
+	 */
+	private boolean offer(LogLine line) {
+		int spins = 0;
+		while (!closed) {
+			long position = tail.get();
+			int slot = (int) position & mask;
+			long sequence = sequences.get(slot);
+			if (sequence == position) {
+				if (tail.compareAndSet(position, position + 1)) {
+					lines.set(slot, line);
+					sequences.set(slot, position + 1);
+					if (idle) {
+						LockSupport.unpark(writer);
+					}
+					return true;
+				}
+			} else if (sequence < position + 1) {
+				// The buffer is full.
+				if (policy == OverflowPolicy.DROP) {
+					return false;
+				}
+				LockSupport.unpark(writer);
+				if (++spins < 64) {
+					Thread.onSpinWait();
+				} else {
+					LockSupport.parkNanos(this, 50_000L);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Take the next line of the buffer.
+	 *
+	 * @return The next line, or undefined value, if the buffer is empty.
+	 */
+	private LogLine take() {
+		long position = head;
+		int slot = (int) position & mask;
+		if (sequences.get(slot) != position + 1) {
+			return null;
+		}
+		LogLine result = lines.get(slot);
+		lines.set(slot, null);
+		sequences.set(slot, position + mask + 1);
+		head = position + 1;
+		return result;
+	}
+
+	/**
+	 * Append the formatted line to the batch.
+	 *
+	 * @param batch The batch of the lines.
+	 * @param line  The appended line.
+	 */
+	private static void appendLine(StringBuilder batch, LogLine line) {
+		if (line.tag == null) {
+			batch.append(line.message).append(System.lineSeparator());
+			return;
+		}
+		batch.append(String.format(Logging.LinePrefixFormaterString, new Date(line.time), line.tag))
+				.append(line.escaped ? Logging.escape(line.message) : line.message).append(System.lineSeparator());
+	}
+
+	/**
+	 * Write the lines of the buffer until the sink is closed, no producer is
+	 * publishing, and the buffer is empty.
+	 */
+	private void writeLines() {
+		StringBuilder batch = new StringBuilder();
+		while (true) {
+			int count = 0;
+			LogLine line;
+			while (count < MAX_BATCH_SIZE && (line = take()) != null) {
+				appendLine(batch, line);
+				count++;
+			}
+			if (count > 0) {
+				out.print(batch);
+				out.flush();
+				written.add(count);
+				batch.setLength(0);
+			} else if (closed && publishers.get() == 0 && tail.get() == head) {
+				return;
+			} else {
+				idle = true;
+				if (sequences.get((int) head & mask) != head + 1 && !closed) {
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				}
+				idle = false;
+			}
+		}
+	}
+
+	/**
+	 * Close the sink. The lines already in the buffer, and the lines of the
+	 * producers publishing while the sink is closed, are written before this
+	 * method returns, and the lines published after closing are dropped.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(writer);
+		if (Thread.currentThread() != writer) {
+			try {
+				writer.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * The holder of the default sinks of the standard streams. The sinks are
+	 * created when the asynchronous default logging is first used.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	static final class Defaults {
+
+		/**
+		 * The sink of the standard output stream.
+		 */
+		static final AsyncLogSink OUT = createDefault(System.out);
+
+		/**
+		 * The sink of the standard error stream.
+		 */
+		static final AsyncLogSink ERR = createDefault(System.err);
+
+		/**
+		 * Create a default sink configured by the system properties.
+		 *
+		 * @param out The output stream.
+		 * @return The created sink.
+		 */
+		private static AsyncLogSink createDefault(PrintStream out) {
+			int capacity = parseCapacity(System.getProperty(LOGGING_ASYNC_CAPACITY_PROPERTY));
+			OverflowPolicy policy = OverflowPolicy.DROP;
+			try {
+				policy = OverflowPolicy.valueOf(
+						System.getProperty(LOGGING_ASYNC_POLICY_PROPERTY, policy.name()).toUpperCase());
+			} catch (IllegalArgumentException iae) {
+				// Using the default policy.
+			}
+			AsyncLogSink result = new AsyncLogSink(out, capacity, policy);
+			Runtime.getRuntime().addShutdownHook(new Thread(result::close, "AsyncLogSink-shutdown"));
+			return result;
+		}
+
+		private Defaults() {
+		}
+	}
+
+	/**
+	 * Parse the configured capacity of the default sinks. The default sinks are
+	 * created by a static initializer, so an invalid capacity must not fail.
+	 *
+	 * @param value The configured capacity, or undefined value for the default
+	 *              capacity.
+	 * @return The capacity limited to {@link #MAX_CAPACITY}, or
+	 *         {@link #DEFAULT_CAPACITY}, if the value was not a positive number.
+	 */
+	static int parseCapacity(String value) {
+		if (value == null) {
+			return DEFAULT_CAPACITY;
+		}
+		try {
+			int capacity = Integer.parseInt(value.trim());
+			return capacity > 0 ? Math.min(capacity, MAX_CAPACITY) : DEFAULT_CAPACITY;
+		} catch (NumberFormatException nfe) {
+			return DEFAULT_CAPACITY;
+		}
+	}
+
+	/**
+	 * Is the asynchronous default logging enabled.
+	 *
+	 * @return True, if and only if the system property
+	 *         {@link #LOGGING_ASYNC_PROPERTY} is true.
+	 */
+	public static boolean isDefaultAsync() {
+		return Boolean.getBoolean(LOGGING_ASYNC_PROPERTY);
+	}
+
+	/**
+	 * Get the default sink of the standard output stream.
+	 *
+	 * @return The shared sink of the standard output stream.
+	 */
+	public static AsyncLogSink getDefaultOut() {
+		return Defaults.OUT;
+	}
+
+	/**
+	 * Get the default sink of the standard error stream.
+	 *
+	 * @return The shared sink of the standard error stream.
+	 */
+	public static AsyncLogSink getDefaultErr() {
+		return Defaults.ERR;
+	}
+}
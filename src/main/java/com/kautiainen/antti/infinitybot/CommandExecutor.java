@@ -0,0 +1,513 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.object.component.LayoutComponent;
+import discord4j.core.object.entity.Message;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.InteractionApplicationCommandCallbackSpec;
+import discord4j.core.spec.InteractionFollowupCreateSpec;
+import discord4j.core.spec.InteractionReplyEditSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The executor of the command bodies.
+ *
+ * The executor moves the command bodies from the thread delivering the gateway
+ * events to its scheduler, so a slow command does not stall the gateway. The
+ * number of commands in flight is limited, and the commands exceeding the
+ * limit are rejected with {@link RejectedExecutionException}. The logging
+ * context of the submitting thread is carried to the command body, and to the
+ * subscription of its reply, so the lazy reply created by the body runs in the
+ * context when it is subscribed. The stages of the reply running later on
+ * other threads open the context themselves, e.g. with
+ * {@link LogContext#wrap(java.util.function.Supplier)}.
+ *
+ * The executor also executes the registered commands of the bots with
+ * {@link #executeCommand(ChatInputInteractionEvent, CommandRegistry.RegisteredCommand, Replies, Logging)}.
+ * The command which cannot start at once, because every worker is busy, is
+ * acknowledged with a deferred reply before it waits for a worker, so it does
+ * not miss the acknowledgement window of the Discord.
+ *
+ * In the virtual-thread execution mode of {@link VirtualThreads} each command
+ * body runs on its own virtual thread instead of the bounded worker threads.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class CommandExecutor implements AutoCloseable {
+
+	/**
+	 * The default maximal number of commands in flight.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+	/**
+	 * The time in seconds the idle worker threads are kept alive.
+	 */
+	public static final int WORKER_TTL_SECONDS = 60;
+
+	/**
+	 * The scheduler executing the command bodies.
+	 */
+	private final Scheduler scheduler;
+
+	/**
+	 * The number of commands the scheduler starts at once.
+	 */
+	private final int workers;
+
+	/**
+	 * The maximal number of commands in flight.
+	 */
+	private final int maxInFlight;
+
+	/**
+	 * The number of command bodies running on a worker.
+	 */
+	private final AtomicInteger running = new AtomicInteger();
+
+	/**
+	 * The number of commands in flight.
+	 */
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	/**
+	 * The number of commands waiting for a worker.
+	 */
+	private final AtomicInteger queueDepth = new AtomicInteger();
+
+	/**
+	 * The number of completed commands.
+	 */
+	private final LongAdder completed = new LongAdder();
+
+	/**
+	 * The number of rejected commands.
+	 */
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * Create a new executor with default number of workers and default limit of
+	 * commands in flight.
+	 */
+	public CommandExecutor() {
+		this(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, DEFAULT_MAX_IN_FLIGHT);
+	}
+
+	/**
+	 * Create a new executor with a bounded elastic scheduler, or a virtual thread
+	 * per command in the virtual-thread execution mode.
+	 *
+	 * @param threads     The maximal number of worker threads. The virtual-thread
+	 *                    execution mode ignores the number of threads.
+	 * @param maxInFlight The maximal number of commands in flight.
+	 * @throws IllegalArgumentException Either value was not positive.
+	 */
+	public CommandExecutor(int threads, int maxInFlight) throws IllegalArgumentException {
+		this(createScheduler(threads, maxInFlight), VirtualThreads.isEnabled() ? maxInFlight : threads,
+				maxInFlight);
+	}
+
+	/**
+	 * Create a new executor with given scheduler starting every command in
+	 * flight at once.
+	 *
+	 * @param scheduler   The scheduler executing the commands.
+	 * @param maxInFlight The maximal number of commands in flight.
+	 * @throws IllegalArgumentException The scheduler was undefined, or the limit
+	 *                                  was not positive.
+	 */
+	public CommandExecutor(Scheduler scheduler, int maxInFlight) throws IllegalArgumentException {
+		this(scheduler, maxInFlight, maxInFlight);
+	}
+
+	/**
+	 * Create a new executor with given scheduler.
+	 *
+	 * @param scheduler   The scheduler executing the commands.
+	 * @param workers     The number of commands the scheduler starts at once.
+	 * @param maxInFlight The maximal number of commands in flight.
+	 * @throws IllegalArgumentException The scheduler was undefined, or either
+	 *                                  value was not positive.
+	 */
+	public CommandExecutor(Scheduler scheduler, int workers, int maxInFlight) throws IllegalArgumentException {
+		if (scheduler == null) {
+			throw new IllegalArgumentException("Undefined scheduler");
+		}
+		if (workers <= 0) {
+			throw new IllegalArgumentException("Invalid number of workers");
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Invalid maximal number of commands in flight");
+		}
+		this.scheduler = scheduler;
+		this.workers = workers;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Create the scheduler of the command bodies.
+	 *
+	 * @param threads     The maximal number of worker threads.
+	 * @param maxInFlight The maximal number of commands in flight.
+	 * @return The scheduler starting a virtual thread for each command in the
+	 *         virtual-thread execution mode, or the bounded elastic scheduler
+	 *         with daemon worker threads.
+	 * @throws IllegalArgumentException Either value was not positive.
+	 */
+	private static Scheduler createScheduler(int threads, int maxInFlight) throws IllegalArgumentException {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Invalid number of worker threads");
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Invalid maximal number of commands in flight");
+		}
+		if (VirtualThreads.isEnabled()) {
+			return createVirtualScheduler();
+		}
+		return Schedulers.newBoundedElastic(threads, maxInFlight, "command", WORKER_TTL_SECONDS, true);
+	}
+
+	/**
+	 * Create the scheduler starting a virtual thread for each command.
+	 *
+	 * @return The scheduler of the virtual threads.
+	 * @throws UnsupportedOperationException The platform has no virtual threads.
+	 */
+	private static Scheduler createVirtualScheduler() throws UnsupportedOperationException {
+		return Schedulers.fromExecutorService(VirtualThreads.newVirtualThreadPerTaskExecutor(), "command-virtual");
+	}
+
+	/**
+	 * Create a new executor running each command on its own virtual thread
+	 * regardless of the execution mode.
+	 *
+	 * @param maxInFlight The maximal number of commands in flight.
+	 * @return The executor of the virtual threads.
+	 * @throws UnsupportedOperationException The platform has no virtual threads.
+	 * @throws IllegalArgumentException      The limit was not positive.
+	 */
+	public static CommandExecutor virtual(int maxInFlight)
+			throws UnsupportedOperationException, IllegalArgumentException {
+		return new CommandExecutor(createVirtualScheduler(), maxInFlight);
+	}
+
+	/**
+	 * Execute the command body on the scheduler of the executor. The body is
+	 * called when the result is subscribed.
+	 *
+	 * @param body The command body producing the reply of the command.
+	 * @return The flux of the reply of the command, or the flux signalling
+	 *         {@link RejectedExecutionException}, if too many commands are in
+	 *         flight.
+	 */
+	public Flux<Object> execute(Callable<? extends Publisher<?>> body) {
+		final LogContext context = LogContext.current();
+		return Flux.defer(() -> {
+			if (inFlight.incrementAndGet() > maxInFlight) {
+				inFlight.decrementAndGet();
+				rejected.increment();
+				return Flux.error(new RejectedExecutionException("Too many commands in flight"));
+			}
+			final AtomicBoolean started = new AtomicBoolean(false), released = new AtomicBoolean(false);
+			final Runnable release = () -> {
+				if (released.compareAndSet(false, true)) {
+					if (started.compareAndSet(false, true)) {
+						// Cancelled before a worker was available.
+						queueDepth.decrementAndGet();
+					}
+					inFlight.decrementAndGet();
+					completed.increment();
+				}
+			};
+			queueDepth.incrementAndGet();
+			return Flux.defer(() -> {
+				if (started.compareAndSet(false, true)) {
+					queueDepth.decrementAndGet();
+				}
+				// The reply is subscribed in the context, as the lazy reply runs on
+				// the subscription.
+				return Flux.<Object>from((Subscriber<? super Object> subscriber) -> {
+					LogContext.Scope scope = LogContext.open(context);
+					running.incrementAndGet();
+					try {
+						Publisher<?> reply;
+						try {
+							reply = body.call();
+						} catch (Exception e) {
+							reply = Flux.error(e);
+						}
+						Flux.<Object>from(reply).subscribe(subscriber);
+					} finally {
+						running.decrementAndGet();
+						scope.close();
+					}
+				});
+			}).subscribeOn(scheduler).doOnTerminate(release).doOnCancel(release);
+		});
+	}
+
+	/**
+	 * The replies of the bot to the commands it could not execute.
+	 */
+	public static interface Replies {
+
+		/**
+		 * Get the reply to the command rejected due too many commands in flight.
+		 *
+		 * @param event The event of the rejected command.
+		 * @return The reply message.
+		 */
+		public String getBusyMessage(ChatInputInteractionEvent event);
+
+		/**
+		 * Get the reply to the failed command.
+		 *
+		 * @param event   The event of the failed command.
+		 * @param failure The failure.
+		 * @return The reply message.
+		 */
+		public String getFailureMessage(ChatInputInteractionEvent event, Throwable failure);
+	}
+
+	/**
+	 * Execute the registered command triggered by the given event on the
+	 * scheduler of the executor. The command with {@link DeferredCommandHandler},
+	 * and the command which cannot start at once, is acknowledged with a deferred
+	 * reply before it is queued for the execution. The replies of the command
+	 * acknowledged due busy workers are sent as follow-ups.
+	 *
+	 * @param event   The event causing the command.
+	 * @param command The registered command.
+	 * @param replies The replies of the bot to the rejected and failed commands.
+	 * @param logging The logging of the bot.
+	 * @return The flux of the reply of the command.
+	 */
+	public Flux<Object> executeCommand(ChatInputInteractionEvent event, CommandRegistry.RegisteredCommand command,
+			Replies replies, Logging logging) {
+		return Flux.defer(() -> {
+			if (command.getHandler() instanceof DeferredCommandHandler) {
+				return executeDeferred(event, event, command, replies, logging);
+			} else if (isSaturated()) {
+				logging.debugEvent("command.deferred", "command", event.getCommandName(), "queueDepth",
+						getQueueDepth());
+				return executeDeferred(event, new AcknowledgedEvent(event), command, replies, logging);
+			}
+			return executeQueued(event, command, false, replies, logging);
+		});
+	}
+
+	/**
+	 * Execute the command after acknowledging it with a deferred reply.
+	 *
+	 * @param event   The event causing the command.
+	 * @param target  The event given to the command.
+	 * @param command The registered command.
+	 * @param replies The replies of the bot to the rejected and failed commands.
+	 * @param logging The logging of the bot.
+	 * @return The flux of the reply of the command.
+	 */
+	private Flux<Object> executeDeferred(ChatInputInteractionEvent event, ChatInputInteractionEvent target,
+			CommandRegistry.RegisteredCommand command, Replies replies, Logging logging) {
+		return event.deferReply().thenMany(executeQueued(target, command, true, replies, logging)
+				.onErrorResume((Throwable e) -> Flux.<Object>from(replyFailure(event, e, true, replies, logging))));
+	}
+
+	/**
+	 * Queue the command for the execution. The rejected command is replied with
+	 * the busy message of the bot.
+	 *
+	 * @param event    The event causing the command.
+	 * @param command  The registered command.
+	 * @param deferred Has the command been acknowledged with a deferred reply.
+	 * @param replies  The replies of the bot to the rejected and failed commands.
+	 * @param logging  The logging of the bot.
+	 * @return The flux of the reply of the command.
+	 */
+	private Flux<Object> executeQueued(ChatInputInteractionEvent event, CommandRegistry.RegisteredCommand command,
+			boolean deferred, Replies replies, Logging logging) {
+		return execute(() -> executeBody(event, command, deferred, replies, logging))
+				.onErrorResume(RejectedExecutionException.class, (RejectedExecutionException e) -> {
+					logging.warn("Command %s rejected: %s", event.getCommandName(), e.getMessage());
+					String message = replies.getBusyMessage(event);
+					return deferred ? event.createFollowup(message).withEphemeral(true)
+							: event.reply(message).withEphemeral(true);
+				});
+	}
+
+	/**
+	 * Executes the registered command on the current thread.
+	 *
+	 * @param event    The event causing the command.
+	 * @param command  The registered command.
+	 * @param deferred Has the command been acknowledged with a deferred reply.
+	 * @param replies  The replies of the bot to the failed commands.
+	 * @param logging  The logging of the bot.
+	 * @return The resulting reply message of the command execution.
+	 */
+	private Publisher<?> executeBody(ChatInputInteractionEvent event, CommandRegistry.RegisteredCommand command,
+			boolean deferred, Replies replies, Logging logging) {
+		final long start = System.nanoTime();
+		final LogContext context = LogContext.current();
+		Publisher<?> reply;
+		try {
+			reply = command.execute(event);
+		} catch (Exception e) {
+			reply = replyFailure(event, e, deferred, replies, logging);
+		}
+		// The reply of a deferred command is lazy, so the execution ends with the
+		// reply on the thread of its last signal.
+		return Flux.from(reply).doFinally((SignalType signal) -> logging.debugEvent(context, "command.executed",
+				"command", event.getCommandName(), "elapsedMicros", (System.nanoTime() - start) / 1000,
+				"queueDepth", getQueueDepth()));
+	}
+
+	/**
+	 * Replies the failure of the command execution.
+	 *
+	 * @param event    The event causing the command.
+	 * @param e        The failure.
+	 * @param deferred Has the command been acknowledged with a deferred reply.
+	 * @param replies  The replies of the bot to the failed commands.
+	 * @param logging  The logging of the bot.
+	 * @return The reply of the failure.
+	 */
+	private static Publisher<?> replyFailure(ChatInputInteractionEvent event, Throwable e, boolean deferred,
+			Replies replies, Logging logging) {
+		// The stack trace is reported with the event, so it is written by the
+		// consumers of the logging instead of the standard error stream.
+		logging.errorEvent("command.failed", "command", event.getCommandName(), "exception", e.getClass().getName(),
+				"message", e.getMessage(), "stackTrace", Logging.getStackTrace(e));
+		logging.error("Command execution failed due event %s with message %s", e.getClass(), e.getMessage());
+		String message = replies.getFailureMessage(event, e);
+		return deferred ? event.createFollowup(message) : event.reply(message);
+	}
+
+	/**
+	 * The event of a command acknowledged with a deferred reply before the
+	 * execution of a command replying directly. The replies of the command are
+	 * sent as follow-ups of the acknowledged event.
+	 */
+	private static class AcknowledgedEvent extends ChatInputInteractionEvent {
+
+		/**
+		 * The event acknowledged with a deferred reply.
+		 */
+		private final ChatInputInteractionEvent event;
+
+		/**
+		 * Create the acknowledged event of an event.
+		 *
+		 * @param event The event acknowledged with a deferred reply.
+		 */
+		AcknowledgedEvent(ChatInputInteractionEvent event) {
+			super(event.getClient(), event.getShardInfo(), event.getInteraction());
+			this.event = event;
+		}
+
+		@Override
+		public Mono<Void> reply(InteractionApplicationCommandCallbackSpec spec) {
+			return event.createFollowup(InteractionFollowupCreateSpec.builder().content(spec.content())
+					.tts(spec.tts().toOptional().orElse(false))
+					.embeds(spec.embeds().toOptional().orElse(List.<EmbedCreateSpec>of()))
+					.allowedMentions(spec.allowedMentions())
+					.components(spec.components().toOptional().orElse(List.<LayoutComponent>of()))
+					.ephemeral(spec.ephemeral()).build()).then();
+		}
+
+		@Override
+		public Mono<Message> editReply(InteractionReplyEditSpec spec) {
+			return event.editReply(spec);
+		}
+
+		@Override
+		public Mono<Message> createFollowup(InteractionFollowupCreateSpec spec) {
+			return event.createFollowup(spec);
+		}
+	}
+
+	/**
+	 * Test whether the command submitted now cannot start at once.
+	 *
+	 * @return True, if and only if every worker is busy.
+	 */
+	public boolean isSaturated() {
+		return running.get() + queueDepth.get() >= workers;
+	}
+
+	/**
+	 * Get the number of commands the scheduler starts at once.
+	 *
+	 * @return The number of workers.
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * Get the maximal number of commands in flight.
+	 *
+	 * @return The maximal number of commands in flight.
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * Get the number of commands in flight.
+	 *
+	 * @return The number of commands either waiting or executing.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Get the queue depth.
+	 *
+	 * @return The number of commands waiting for a worker.
+	 */
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * Get the number of completed commands.
+	 *
+	 * @return The number of commands whose execution has terminated.
+	 */
+	public long getCompleted() {
+		return completed.sum();
+	}
+
+	/**
+	 * Get the number of rejected commands.
+	 *
+	 * @return The number of commands rejected due too many commands in flight.
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Dispose the scheduler of the executor.
+	 */
+	@Override
+	public void close() {
+		scheduler.dispose();
+	}
+}
@@ -0,0 +1,27 @@
+package com.kautiainen.antti.infinitybot;
+
+import org.reactivestreams.Publisher;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+
+/**
+ * The handler executing an application command.
+ *
+ * The handlers are bound to the command names when the commands are added to
+ * the {@link CommandRegistry} of the bot.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@FunctionalInterface
+public interface CommandHandler {
+
+	/**
+	 * Execute the command.
+	 *
+	 * @param event The event of the command.
+	 * @return The publisher replying to the command.
+	 * @throws Exception The execution of the command failed.
+	 */
+	public Publisher<?> execute(ChatInputInteractionEvent event) throws Exception;
+}
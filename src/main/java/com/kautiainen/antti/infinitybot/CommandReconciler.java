@@ -0,0 +1,381 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import discord4j.discordjson.json.ApplicationCommandData;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import discord4j.rest.service.ApplicationService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The reconciler of the application commands of the guilds.
+ *
+ * The reconciler keeps the content hashes of the command sets written to the
+ * guilds in a cache file. A guild whose cached hash matches the hash of the
+ * desired command set is skipped without any calls, also after a restart.
+ * Otherwise the commands of the guild are compared with the desired commands,
+ * and the desired command set is written with a single bulk overwrite, if any
+ * command differs. The commands changed on the server outside the reconciler
+ * are not noticed until the guild is compared again after
+ * {@link #invalidate(long, long)}, or the cache file is removed.
+ *
+ * The commands can also be updated without replacing the command set of the
+ * guild with {@link #update(Target, long, List)}.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class CommandReconciler {
+
+	/**
+	 * The guild commands of an application.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public static interface Target {
+
+		/**
+		 * Get the application identifier.
+		 *
+		 * @return The application identifier.
+		 */
+		public long getApplicationId();
+
+		/**
+		 * Get the commands of a guild.
+		 *
+		 * @param guildId The guild identifier.
+		 * @return The flux of the commands of the guild.
+		 */
+		public Flux<ApplicationCommandData> getCommands(long guildId);
+
+		/**
+		 * Replace the commands of a guild.
+		 *
+		 * @param guildId  The guild identifier.
+		 * @param commands The new commands of the guild.
+		 * @return The flux of the written commands.
+		 */
+		public Flux<ApplicationCommandData> overwriteCommands(long guildId, List<ApplicationCommandRequest> commands);
+
+		/**
+		 * Create a command of a guild.
+		 *
+		 * @param guildId The guild identifier.
+		 * @param command The created command.
+		 * @return The mono emitting the created command.
+		 */
+		public Mono<ApplicationCommandData> createCommand(long guildId, ApplicationCommandRequest command);
+
+		/**
+		 * Modify a command of a guild.
+		 *
+		 * @param guildId   The guild identifier.
+		 * @param commandId The identifier of the modified command.
+		 * @param command   The new definition of the command.
+		 * @return The mono emitting the modified command.
+		 */
+		public Mono<ApplicationCommandData> modifyCommand(long guildId, long commandId,
+				ApplicationCommandRequest command);
+	}
+
+	/**
+	 * Create the target of the guild commands of an application.
+	 *
+	 * @param service The application service.
+	 * @param appId   The application identifier.
+	 * @return The target using the given service.
+	 */
+	public static Target target(ApplicationService service, long appId) {
+		return new Target() {
+
+			@Override
+			public long getApplicationId() {
+				return appId;
+			}
+
+			@Override
+			public Flux<ApplicationCommandData> getCommands(long guildId) {
+				return service.getGuildApplicationCommands(appId, guildId);
+			}
+
+			@Override
+			public Flux<ApplicationCommandData> overwriteCommands(long guildId,
+					List<ApplicationCommandRequest> commands) {
+				return service.bulkOverwriteGuildApplicationCommand(appId, guildId, commands);
+			}
+
+			@Override
+			public Mono<ApplicationCommandData> createCommand(long guildId, ApplicationCommandRequest command) {
+				return service.createGuildApplicationCommand(appId, guildId, command);
+			}
+
+			@Override
+			public Mono<ApplicationCommandData> modifyCommand(long guildId, long commandId,
+					ApplicationCommandRequest command) {
+				return service.modifyGuildApplicationCommand(appId, guildId, commandId, command);
+			}
+		};
+	}
+
+	/**
+	 * The type of the chat input commands. The server reports the type of the
+	 * commands requested without type.
+	 */
+	public static final int CHAT_INPUT_COMMAND_TYPE = 1;
+
+	/**
+	 * Are the request and command equals. The absent values of the request are
+	 * compared with the defaults the server reports for them.
+	 *
+	 * @param command The command on server.
+	 * @param request The request defining the command.
+	 * @return True, if and only if the values are equals.
+	 */
+	public static boolean equalCommand(ApplicationCommandData command, Optional<ApplicationCommandRequest> request) {
+		if (request.isPresent() && command != null) {
+			ApplicationCommandRequest req = request.get();
+			return req.type().toOptional().orElse(CHAT_INPUT_COMMAND_TYPE)
+					.equals(command.type().toOptional().orElse(CHAT_INPUT_COMMAND_TYPE))
+					&& req.description().toOptional().orElse("").equals(command.description())
+					&& req.options().toOptional().orElse(List.of()).equals(command.options().toOptional().orElse(List.of()))
+					&& req.name().equals(command.name());
+		} else {
+			// Empty is not equal with non-empty.
+			return command == null && !request.isPresent();
+		}
+	}
+
+	/**
+	 * Compute the content hash of a command set. The hash does not depend on the
+	 * order of the commands.
+	 *
+	 * @param commands The commands.
+	 * @return The hexadecimal SHA-256 hash of the commands.
+	 */
+	public static String hash(List<ApplicationCommandRequest> commands) {
+		List<ApplicationCommandRequest> sorted = new ArrayList<>(commands);
+		sorted.sort(Comparator.comparing(ApplicationCommandRequest::name));
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (ApplicationCommandRequest command : sorted) {
+				digest.update(command.toString().getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			StringBuilder result = new StringBuilder();
+			for (byte b : digest.digest()) {
+				result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException nsae) {
+			// Every Java platform supports SHA-256.
+			throw new IllegalStateException("SHA-256 is not supported", nsae);
+		}
+	}
+
+	/**
+	 * The cache file of the hashes. Undefined value keeps the hashes only in
+	 * memory.
+	 */
+	private final Path cacheFile;
+
+	/**
+	 * The logger of the reconciler.
+	 */
+	private final Logging logger;
+
+	/**
+	 * The hashes of the command sets by "application@guild". The hashes are
+	 * loaded on first use.
+	 */
+	private Properties hashes;
+
+	/**
+	 * Create a new reconciler.
+	 *
+	 * @param cacheFile The cache file of the hashes. Undefined value keeps the
+	 *                  hashes only in memory.
+	 * @param logger    The logger of the reconciler.
+	 */
+	public CommandReconciler(Path cacheFile, Logging logger) {
+		this.cacheFile = cacheFile;
+		this.logger = logger == null ? new Logging() : logger;
+	}
+
+	/**
+	 * Reconcile the commands of a guild.
+	 *
+	 * @param target   The guild commands of the application.
+	 * @param guildId  The guild identifier.
+	 * @param commands The desired commands. The commands replace all commands of
+	 *                 the guild.
+	 * @return The flux emitting the names of the added commands.
+	 */
+	public Flux<String> reconcile(Target target, long guildId, List<ApplicationCommandRequest> commands) {
+		final String key = target.getApplicationId() + "@" + guildId;
+		final String hash = hash(commands);
+		if (isUpToDate(key, hash)) {
+			logger.debug("Commands of guild %s are up to date", guildId);
+			return Flux.empty();
+		}
+		return target.getCommands(guildId).collectMap(ApplicationCommandData::name).flatMapMany(
+				(Map<String, ApplicationCommandData> existing) -> reconcile(target, guildId, commands, existing)
+						.concatWith(Mono.fromRunnable(() -> setHash(key, hash))));
+	}
+
+	/**
+	 * Reconcile the commands of a guild with the existing commands.
+	 *
+	 * @param target   The guild commands of the application.
+	 * @param guildId  The guild identifier.
+	 * @param commands The desired commands.
+	 * @param existing The existing commands of the guild by name.
+	 * @return The flux emitting the names of the added commands.
+	 */
+	private Flux<String> reconcile(Target target, long guildId, List<ApplicationCommandRequest> commands,
+			Map<String, ApplicationCommandData> existing) {
+		List<String> added = new ArrayList<>();
+		boolean changed = existing.size() != commands.size();
+		for (ApplicationCommandRequest command : commands) {
+			ApplicationCommandData current = existing.get(command.name());
+			if (current == null) {
+				added.add(command.name());
+				changed = true;
+			} else if (!equalCommand(current, Optional.of(command))) {
+				logger.debug("Altering existing command %1$s#%3$s on server %2$s", command.name(), guildId,
+						current.id());
+				changed = true;
+			}
+		}
+		if (!changed) {
+			logger.debug("Nothing to do - the commands on server %s are up to date", guildId);
+			return Flux.empty();
+		}
+		logger.debug("Overwriting %d commands on server %s", commands.size(), guildId);
+		return target.overwriteCommands(guildId, commands).thenMany(Flux.fromIterable(added));
+	}
+
+	/**
+	 * Add or update the commands of a guild. Unlike
+	 * {@link #reconcile(Target, long, List)}, the other commands of the guild
+	 * are kept. The missing commands are created, and the differing commands are
+	 * modified.
+	 *
+	 * @param target   The guild commands of the application.
+	 * @param guildId  The guild identifier.
+	 * @param commands The added or updated commands.
+	 * @return The flux emitting the names of the added commands.
+	 */
+	public Flux<String> update(Target target, long guildId, List<ApplicationCommandRequest> commands) {
+		return target.getCommands(guildId).collectMap(ApplicationCommandData::name)
+				.flatMapMany((Map<String, ApplicationCommandData> existing) -> {
+					List<Mono<String>> changes = new ArrayList<>();
+					for (ApplicationCommandRequest command : commands) {
+						ApplicationCommandData current = existing.get(command.name());
+						if (current == null) {
+							logger.debug("Adding command %s on server %s", command.name(), guildId);
+							changes.add(target.createCommand(guildId, command).thenReturn(command.name()));
+						} else if (!equalCommand(current, Optional.of(command))) {
+							logger.debug("Altering existing command %1$s#%3$s on server %2$s", command.name(),
+									guildId, current.id());
+							changes.add(target.modifyCommand(guildId, Long.parseLong(current.id()), command)
+									.then(Mono.empty()));
+						}
+					}
+					if (changes.isEmpty()) {
+						logger.debug("Nothing to do - the commands on server %s are up to date", guildId);
+						return Flux.<String>empty();
+					}
+					// The command set of the guild changed, so the next reconciliation compares it again.
+					return Flux.concat(changes).concatWith(Mono.fromRunnable(
+							() -> invalidate(target.getApplicationId(), guildId)));
+				});
+	}
+
+	/**
+	 * Forget the cached hash of the commands of a guild. The next reconciliation
+	 * of the guild compares the commands on the server.
+	 *
+	 * @param appId   The application identifier.
+	 * @param guildId The guild identifier.
+	 */
+	public synchronized void invalidate(long appId, long guildId) {
+		String key = appId + "@" + guildId;
+		if (getHashes().remove(key) != null) {
+			setHash(null, null);
+		}
+	}
+
+	/**
+	 * Is the cached hash of a guild equal to the given hash.
+	 *
+	 * @param key  The key of the command set.
+	 * @param hash The hash of the desired command set.
+	 * @return True, if and only if the command set of the hash was written to
+	 *         the guild, or found on the guild.
+	 */
+	private synchronized boolean isUpToDate(String key, String hash) {
+		return hash.equals(getHashes().getProperty(key));
+	}
+
+	/**
+	 * Get the hashes of the command sets.
+	 *
+	 * @return The hashes loaded from the cache file.
+	 */
+	private synchronized Properties getHashes() {
+		if (hashes == null) {
+			hashes = new Properties();
+			if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+				try (InputStream in = Files.newInputStream(cacheFile)) {
+					hashes.load(in);
+				} catch (IOException | IllegalArgumentException e) {
+					logger.error("Could not read command cache %s: %s", cacheFile, e.getMessage());
+				}
+			}
+		}
+		return hashes;
+	}
+
+	/**
+	 * Set the hash of a command set, and write the cache file.
+	 *
+	 * @param key  The key of the command set. Undefined key only writes the
+	 *             cache file.
+	 * @param hash The hash of the command set.
+	 */
+	private synchronized void setHash(String key, String hash) {
+		if (key != null) {
+			getHashes().setProperty(key, hash);
+		}
+		if (cacheFile != null) {
+			try {
+				Path parent = cacheFile.toAbsolutePath().getParent();
+				Files.createDirectories(parent);
+				Path temp = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+				try (OutputStream out = Files.newOutputStream(temp)) {
+					hashes.store(out, "Application command hashes");
+				}
+				Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				logger.error("Could not write command cache %s: %s", cacheFile, e.getMessage());
+			}
+		}
+	}
+}
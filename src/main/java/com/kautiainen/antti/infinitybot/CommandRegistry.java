@@ -0,0 +1,230 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Publisher;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * The registry of the application commands of a bot.
+ *
+ * The registry maps the command names to the command definitions and their
+ * handlers, so the dispatch of a command is a single hash lookup. Every
+ * registered command keeps the metrics of its executions.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class CommandRegistry {
+
+	/**
+	 * The command registered with its handler.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public static final class RegisteredCommand {
+
+		/**
+		 * The definition of the command.
+		 */
+		private volatile ApplicationCommandRequest definition;
+
+		/**
+		 * The handler of the command.
+		 */
+		private final CommandHandler handler;
+
+		/**
+		 * The number of executions.
+		 */
+		private final LongAdder executions = new LongAdder();
+
+		/**
+		 * The number of failed executions.
+		 */
+		private final LongAdder failures = new LongAdder();
+
+		/**
+		 * The total time of the executions in nanoseconds.
+		 */
+		private final LongAdder executionNanos = new LongAdder();
+
+		/**
+		 * Create a new registered command.
+		 *
+		 * @param definition The definition of the command.
+		 * @param handler    The handler of the command.
+		 */
+		private RegisteredCommand(ApplicationCommandRequest definition, CommandHandler handler) {
+			this.definition = definition;
+			this.handler = handler;
+		}
+
+		/**
+		 * Get the name of the command.
+		 *
+		 * @return The command name.
+		 */
+		public String getName() {
+			return definition.name();
+		}
+
+		/**
+		 * Get the definition of the command.
+		 *
+		 * @return The command definition.
+		 */
+		public ApplicationCommandRequest getDefinition() {
+			return definition;
+		}
+
+		/**
+		 * Get the handler of the command.
+		 *
+		 * @return The command handler.
+		 */
+		public CommandHandler getHandler() {
+			return handler;
+		}
+
+		/**
+		 * Execute the command and record the metrics of the execution. The
+		 * execution ends when the returned publisher terminates or is
+		 * cancelled, so the lazy replies of the deferred commands are measured
+		 * as well.
+		 *
+		 * @param event The event of the command.
+		 * @return The publisher replying to the command.
+		 * @throws Exception The execution failed.
+		 */
+		public Publisher<?> execute(ChatInputInteractionEvent event) throws Exception {
+			final long start = System.nanoTime();
+			executions.increment();
+			Publisher<?> reply;
+			try {
+				reply = handler.execute(event);
+			} catch (Exception | Error e) {
+				failures.increment();
+				executionNanos.add(System.nanoTime() - start);
+				throw e;
+			}
+			return Flux.from(reply).doOnError((Throwable e) -> failures.increment())
+					.doFinally((SignalType signal) -> executionNanos.add(System.nanoTime() - start));
+		}
+
+		/**
+		 * Get the number of executions.
+		 *
+		 * @return The number of executions of the command.
+		 */
+		public long getExecutions() {
+			return executions.sum();
+		}
+
+		/**
+		 * Get the number of failed executions.
+		 *
+		 * @return The number of executions throwing an exception.
+		 */
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		/**
+		 * Get the total time of the executions.
+		 *
+		 * @return The total execution time in nanoseconds.
+		 */
+		public long getExecutionNanos() {
+			return executionNanos.sum();
+		}
+	}
+
+	/**
+	 * The registered commands by the name.
+	 */
+	private final ConcurrentHashMap<String, RegisteredCommand> commands = new ConcurrentHashMap<>();
+
+	/**
+	 * Register a command.
+	 *
+	 * @param definition The definition of the command.
+	 * @param handler    The handler of the command.
+	 * @return The replaced command, if any exists.
+	 * @throws IllegalArgumentException Either the definition or the handler was
+	 *                                  undefined.
+	 */
+	public Optional<RegisteredCommand> register(ApplicationCommandRequest definition, CommandHandler handler)
+			throws IllegalArgumentException {
+		if (definition == null) {
+			throw new IllegalArgumentException("Undefined command");
+		}
+		if (handler == null) {
+			throw new IllegalArgumentException("Undefined command handler");
+		}
+		return Optional.ofNullable(commands.put(definition.name(), new RegisteredCommand(definition, handler)));
+	}
+
+	/**
+	 * Replace the definition of a registered command. The handler and the metrics
+	 * of the command are kept.
+	 *
+	 * @param cmdName    The command name.
+	 * @param definition The new definition of the command.
+	 * @return The replaced definition, if any exists.
+	 * @throws IllegalArgumentException The command was not registered, or the
+	 *                                  definition was undefined or had different
+	 *                                  name.
+	 */
+	public Optional<ApplicationCommandRequest> setDefinition(String cmdName, ApplicationCommandRequest definition)
+			throws IllegalArgumentException {
+		if (definition == null || !definition.name().equals(cmdName)) {
+			throw new IllegalArgumentException("Invalid command");
+		}
+		RegisteredCommand command = commands.get(cmdName);
+		if (command == null) {
+			throw new IllegalArgumentException("Unknown command " + cmdName);
+		}
+		ApplicationCommandRequest previous = command.definition;
+		command.definition = definition;
+		return Optional.of(previous);
+	}
+
+	/**
+	 * Get the registered command.
+	 *
+	 * @param cmdName The command name.
+	 * @return The registered command, or undefined value, if no command exists.
+	 */
+	public RegisteredCommand get(String cmdName) {
+		return cmdName == null ? null : commands.get(cmdName);
+	}
+
+	/**
+	 * Remove a command.
+	 *
+	 * @param cmdName The command name.
+	 * @return The removed command, if any exists.
+	 */
+	public Optional<RegisteredCommand> remove(String cmdName) {
+		return Optional.ofNullable(cmdName == null ? null : commands.remove(cmdName));
+	}
+
+	/**
+	 * Get the names of the registered commands.
+	 *
+	 * @return The unmodifiable view of the command names.
+	 */
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet(commands.keySet());
+	}
+}
@@ -0,0 +1,87 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.object.entity.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The handler of a long-running application command.
+ *
+ * The bot acknowledges the command of a deferred handler with a deferred reply
+ * before the command is executed, so the slow computation does not exceed the
+ * acknowledgement window of the Discord. The handler computes the messages of
+ * the reply: the messages before the last one are partial results replacing
+ * the deferred response, and the last message is the result sent as a
+ * follow-up.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@FunctionalInterface
+public interface DeferredCommandHandler extends CommandHandler {
+
+	/**
+	 * Compute the messages of the reply.
+	 *
+	 * @param event The event of the command.
+	 * @return The publisher of the partial results followed by the result.
+	 * @throws Exception The execution of the command failed.
+	 */
+	public Publisher<String> compute(ChatInputInteractionEvent event) throws Exception;
+
+	/**
+	 * Execute the command replying to the deferred response.
+	 *
+	 * @param event The event of the command.
+	 * @return The publisher of the sent messages.
+	 * @throws Exception The execution of the command failed.
+	 */
+	@Override
+	public default Publisher<?> execute(ChatInputInteractionEvent event) throws Exception {
+		return reply(event, compute(event));
+	}
+
+	/**
+	 * The follow-up replied when the command computes no messages.
+	 */
+	public static final String EMPTY_REPLY_MESSAGE = "I have nothing to tell about that.";
+
+	/**
+	 * Reply the messages to the deferred response of the event. The messages
+	 * before the last one edit the deferred response, and the last message is
+	 * sent as a follow-up. If there are no messages, the
+	 * {@link #EMPTY_REPLY_MESSAGE} is sent as a follow-up.
+	 *
+	 * @param event    The event with deferred response.
+	 * @param messages The partial results followed by the result.
+	 * @return The flux of the sent messages.
+	 */
+	public static Flux<Message> reply(ChatInputInteractionEvent event, Publisher<String> messages) {
+		return reply(event, messages, EMPTY_REPLY_MESSAGE);
+	}
+
+	/**
+	 * Reply the messages to the deferred response of the event. The messages
+	 * before the last one edit the deferred response, and the last message is
+	 * sent as a follow-up.
+	 *
+	 * @param event        The event with deferred response.
+	 * @param messages     The partial results followed by the result.
+	 * @param emptyMessage The follow-up sent if there are no messages, so the
+	 *                     deferred response does not wait for the reply forever.
+	 * @return The flux of the sent messages.
+	 */
+	public static Flux<Message> reply(ChatInputInteractionEvent event, Publisher<String> messages,
+			String emptyMessage) {
+		// The window of the last message contains only the last message.
+		return Flux.from(messages).switchIfEmpty(Mono.just(emptyMessage)).buffer(2, 1)
+				.concatMap((List<String> window) -> window.size() > 1
+						? event.editReply(window.get(0))
+						: event.createFollowup(window.get(0)));
+	}
+}
@@ -2,39 +2,53 @@ package com.kautiainen.antti.infinitybot;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.text.ParseException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Optional;
-import java.util.Random;
-import java.util.ResourceBundle;
 import java.util.ServiceConfigurationError;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.reactivestreams.Publisher;
 
+import com.kautiainen.antti.infinitybot.model.ActionRollResult;
+import com.kautiainen.antti.infinitybot.model.CombatDiceOdds;
 import com.kautiainen.antti.infinitybot.model.DiceRoller;
 import com.kautiainen.antti.infinitybot.model.QualityTemplate;
+import com.kautiainen.antti.infinitybot.model.RandomStrategy;
 import com.kautiainen.antti.infinitybot.model.RollResult;
+import com.kautiainen.antti.infinitybot.model.RollResultRenderer;
+import com.kautiainen.antti.infinitybot.model.RollSimulator;
+import com.kautiainen.antti.infinitybot.model.SimulationResult;
+import com.kautiainen.antti.infinitybot.model.SpecialValue;
 
 import discord4j.common.util.Snowflake;
 import discord4j.core.DiscordClient;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.ReactiveEventAdapter;
+import discord4j.core.event.domain.guild.GuildCreateEvent;
+import discord4j.core.event.domain.guild.GuildUpdateEvent;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import discord4j.core.object.command.ApplicationCommandInteraction;
 import discord4j.core.object.command.ApplicationCommandInteractionOption;
 import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
 import discord4j.core.object.command.ApplicationCommandOption;
+import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.discordjson.json.ApplicationCommandData;
 import discord4j.discordjson.json.ApplicationCommandOptionData;
 import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 
@@ -115,6 +129,36 @@ public class DiscordBot extends Logging implements Runnable {
 	 */
 	protected static final String INFINITYBOT_TOKEN = "infinitybot.token";
 
+	/**
+	 * The configuration key for the seed of the deterministic dice rolls.
+	 */
+	protected static final String INFINITYBOT_RANDOM_SEED = "infinitybot.random.seed";
+
+	/**
+	 * The configuration key for the largest number of trials of a simulation.
+	 */
+	protected static final String INFINITYBOT_SIMULATION_MAX_TRIALS = "infinitybot.simulation.max_trials";
+
+	/**
+	 * The configuration key for the largest number of command worker threads.
+	 */
+	protected static final String INFINITYBOT_EXECUTOR_THREADS = "infinitybot.executor.threads";
+
+	/**
+	 * The configuration key for the largest number of commands in flight.
+	 */
+	protected static final String INFINITYBOT_EXECUTOR_MAX_IN_FLIGHT = "infinitybot.executor.max_in_flight";
+
+	/**
+	 * The configuration key for the replies with embeds.
+	 */
+	protected static final String INFINITYBOT_REPLY_EMBEDS = "infinitybot.reply.embeds";
+
+	/**
+	 * The default largest number of trials of a simulation.
+	 */
+	public static final long DEFAULT_SIMULATION_MAX_TRIALS = 1000000L;
+
 	/**
 	 * The logger used to send messages.
 	 */
@@ -137,10 +181,35 @@ public class DiscordBot extends Logging implements Runnable {
 	public static final Pattern LIST_GAMES = Pattern
 			.compile("^((?:list\\s+)?(games))((?:\\s+" + WORD_PATTERN.toString() + ")*)$");
 
+	/**
+	 * Pattern matching the simulation command with the simulated roll type and
+	 * its parameters.
+	 */
+	public static final Pattern SIMULATE_PATTERN = Pattern.compile("^sim(?:ulate)?\\s+(action|effect|cd)(?:\\s+(.*))?$",
+			Pattern.CASE_INSENSITIVE);
+
 	/**
 	 * The discord client used to communicate with the serve.r
 	 */
-	private GatewayDiscordClient connection;
+	private volatile GatewayDiscordClient connection;
+
+	/**
+	 * The client logging in to the discord. The client is created by the
+	 * configuration, and logged in by {@link #start()}.
+	 */
+	private DiscordClient client;
+
+	/**
+	 * The cached application identifier of the connection. The identifier is
+	 * fetched once per connection, and shared by all guilds.
+	 */
+	private volatile Mono<Long> applicationId;
+
+	/**
+	 * The reconciler of the guild commands.
+	 */
+	private final CommandReconciler reconciler = new CommandReconciler(
+			java.nio.file.Paths.get(".infinitybot", "commands.properties"), this);
 
 	/**
 	 * The guild identifiers of the Discord guild identifiers this bot serves.
@@ -169,7 +238,17 @@ public class DiscordBot extends Logging implements Runnable {
 						.description("The smallest number causing complication (16 to 21, default 20)")
 						.type(ApplicationCommandOption.Type.INTEGER.getValue()).required(false).build())
 				.build();
-		this.addCommand(action);
+		this.addCommand(action, (ChatInputInteractionEvent event) -> {
+			ApplicationCommandInteraction acid = getCommandInteraction(event);
+			Locale locale = guildLocales.getLocale(event.getInteraction());
+			if (isEmbedReplies()) {
+				EmbedActionRollCommand command = this.new EmbedActionRollCommand(dice, locale);
+				String reply = command.execute(acid);
+				return command.getEmbed().map((EmbedCreateSpec embed) -> event.reply().withEmbeds(embed))
+						.orElseGet(() -> event.reply(reply));
+			}
+			return event.reply(executeAction(dice, acid, locale));
+		});
 
 		ApplicationCommandRequest effect = ApplicationCommandRequest.builder().name("effect")
 				.description("Rolls an effect check with combat dice")
@@ -182,7 +261,40 @@ public class DiscordBot extends Logging implements Runnable {
 						ApplicationCommandOptionData.builder().name("traits").description("The list of special traits")
 								.type(ApplicationCommandOption.Type.STRING.getValue()).required(false).build())
 				.build();
-		this.addCommand(effect);
+		this.addCommand(effect, (ChatInputInteractionEvent event) -> isEmbedReplies()
+				? executeEffect(dice, getCommandInteraction(event),
+						(RollResult result) -> event.reply()
+								.withEmbeds(getEffectEmbed(result, guildLocales.getLocale(event.getInteraction()))),
+						event::reply)
+				: event.reply(executeEffect(dice, getCommandInteraction(event))));
+
+		ApplicationCommandRequest effectOdds = ApplicationCommandRequest.builder().from(effect).name("effectodds")
+				.description("Calculates the damage and effect odds of combat dice").build();
+		this.addCommand(effectOdds,
+				(DeferredCommandHandler) (ChatInputInteractionEvent event) -> Mono
+						.fromCallable(() -> executeEffectOdds(dice, getCommandInteraction(event),
+								guildLocales.getLocale(event.getInteraction()))));
+
+		ApplicationCommandOptionData trials = ApplicationCommandOptionData.builder().name("trials")
+				.description("The number of simulated rolls (default 10000)")
+				.type(ApplicationCommandOption.Type.INTEGER.getValue()).required(false).build();
+		ApplicationCommandOptionData seed = ApplicationCommandOptionData.builder().name("seed")
+				.description("The seed of the simulation (default random)")
+				.type(ApplicationCommandOption.Type.INTEGER.getValue()).required(false).build();
+		ApplicationCommandRequest simulateAction = ApplicationCommandRequest.builder().from(action)
+				.name("simulateaction").description("Simulates a large number of skill tests").addOption(trials)
+				.addOption(seed).build();
+		this.addCommand(simulateAction,
+				(DeferredCommandHandler) (ChatInputInteractionEvent event) -> Mono
+						.fromCallable(() -> executeSimulateAction(getCommandInteraction(event),
+								guildLocales.getLocale(event.getInteraction()))));
+		ApplicationCommandRequest simulateEffect = ApplicationCommandRequest.builder().from(effect)
+				.name("simulateeffect").description("Simulates a large number of effect checks").addOption(trials)
+				.addOption(seed).build();
+		this.addCommand(simulateEffect,
+				(DeferredCommandHandler) (ChatInputInteractionEvent event) -> Mono
+						.fromCallable(() -> executeSimulateEffect(getCommandInteraction(event),
+								guildLocales.getLocale(event.getInteraction()))));
 	}
 
 	/**
@@ -199,16 +311,30 @@ public class DiscordBot extends Logging implements Runnable {
 	 * Adds command to the known commands of the system.
 	 * 
 	 * @param command The added Discord command
+	 * @param handler The handler executing the command.
 	 */
-	private void addCommand(ApplicationCommandRequest command) {
-		if (command == null) {
+	protected void addCommand(ApplicationCommandRequest command, CommandHandler handler) {
+		if (command == null || handler == null) {
 			debug("Cannot register undefined command");
 		} else {
-			this.commands.put(command.name(), command);
+			this.commands.register(command, handler);
 			debugMessage("Command {0} registered", command.name());
 		}
 	}
 
+	/**
+	 * Get the command interaction of the event.
+	 * 
+	 * @param event The interaction event.
+	 * @return The command interaction of the event.
+	 * @throws java.util.NoSuchElementException The event had no command
+	 *                                          interaction.
+	 */
+	protected static ApplicationCommandInteraction getCommandInteraction(ChatInputInteractionEvent event)
+			throws java.util.NoSuchElementException {
+		return event.getInteraction().getCommandInteraction().get();
+	}
+
 	/**
 	 * Configures the server from given command line arguments.
 	 * 
@@ -246,9 +372,46 @@ public class DiscordBot extends Logging implements Runnable {
 		} else {
 			Optional<String> property = config.getProperty(INFINITYBOT_TOKEN);
 			debug("Using token {0}", property.orElse("!!NO TOKEN!!"));
-			connection = DiscordClient.create(property.orElseThrow(
-					() -> (new java.util.ServiceConfigurationError("Cannot start service without valid token"))))
-					.login().block();
+			client = DiscordClient.create(property.orElseThrow(
+					() -> (new java.util.ServiceConfigurationError("Cannot start service without valid token"))));
+
+			if ((property = config.getProperty(INFINITYBOT_RANDOM_SEED)).isPresent()) {
+				try {
+					dice.setRandomStrategy(RandomStrategy.seeded(Long.parseLong(property.get().trim())));
+					debug("Config: Deterministic dice rolls with seed %s", property.get());
+				} catch (NumberFormatException nfe) {
+					throw new ServiceConfigurationError("Invalid random seed");
+				}
+			}
+
+			if (config.getProperty(INFINITYBOT_EXECUTOR_THREADS).isPresent()
+					|| config.getProperty(INFINITYBOT_EXECUTOR_MAX_IN_FLIGHT).isPresent()) {
+				try {
+					setExecutor(new CommandExecutor(
+							Integer.parseInt(config.getProperty(INFINITYBOT_EXECUTOR_THREADS)
+									.orElse(String.valueOf(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE)).trim()),
+							Integer.parseInt(config.getProperty(INFINITYBOT_EXECUTOR_MAX_IN_FLIGHT)
+									.orElse(String.valueOf(CommandExecutor.DEFAULT_MAX_IN_FLIGHT)).trim())));
+					debug("Config: Commands executed with at most %d commands in flight",
+							getExecutor().getMaxInFlight());
+				} catch (IllegalArgumentException iae) {
+					throw new ServiceConfigurationError("Invalid command executor");
+				}
+			}
+
+			if ((property = config.getProperty(INFINITYBOT_REPLY_EMBEDS)).isPresent()) {
+				setEmbedReplies(Boolean.parseBoolean(property.get().trim()));
+				debug("Config: Replies with embeds %s", isEmbedReplies());
+			}
+
+			if ((property = config.getProperty(INFINITYBOT_SIMULATION_MAX_TRIALS)).isPresent()) {
+				try {
+					setMaxSimulationTrials(Long.parseLong(property.get().trim()));
+					debug("Config: Simulations limited to %s trials", property.get());
+				} catch (IllegalArgumentException iae) {
+					throw new ServiceConfigurationError("Invalid simulation trial cap");
+				}
+			}
 
 			if ((property = config.getProperty(INFINITYBOT_GUILDS)).isPresent()) {
 				// WE have application id.
@@ -283,38 +446,57 @@ public class DiscordBot extends Logging implements Runnable {
 	 * Add given handlers to the handlers of the bot.
 	 * 
 	 * @param adapters The adapters registered as handlers of the bot.
+	 * @return The mono completing when the connection stops emitting events to
+	 *         the handlers.
 	 */
-	protected void addHandlers(ReactiveEventAdapter... adapters) {
-		if (adapters != null) {
-			for (ReactiveEventAdapter adapter : adapters) {
-				connection.on(adapter).blockLast();
-			}
+	protected Mono<Void> addHandlers(ReactiveEventAdapter... adapters) {
+		if (adapters == null || adapters.length == 0) {
+			return Mono.empty();
 		}
+		return Flux.fromArray(adapters).flatMap((ReactiveEventAdapter adapter) -> connection.on(adapter)).then();
 	}
 
 	/**
 	 * Add default handlers to the discord bot server.
 	 * 
+	 * @return The mono completing when the connection stops emitting events to
+	 *         the handlers.
 	 */
-	protected void addHandlers() {
-		addHandlers(new ReactiveEventAdapter() {
+	protected Mono<Void> addHandlers() {
+		return addHandlers(new ReactiveEventAdapter() {
 
 			public Publisher<?> onChatInputInteraction(ChatInputInteractionEvent event) {
 				Optional<Snowflake> gid = event.getInteraction().getGuildId();
-				if (gid.isPresent()) {
-					Set<String> names = DiscordBot.this.getKnownCommandNames();
-					debug("Checking command {0}", event.getCommandName());
-					if (names != null && names.contains(event.getCommandName())) {
-						debug("Executing command %s on guild %s", event.getCommandName(), gid.get().asString());
-						return executeCommand(event, getCommand(event.getCommandName()).orElse(null));
-					} else {
-						debug("Ignoring unknown command %s not in %s", event.getCommandName(),
-								String.join(", ", names));
-						return event.reply(
-								String.format("I am sorry, I did not recognize command %s", event.getCommandName()));
+				LogContext.Scope scope = LogContext.open(LogContext.of(event));
+				try {
+					debugEvent("interaction.received", "command", event.getCommandName());
+					if (gid.isPresent()) {
+						CommandRegistry.RegisteredCommand command = commands.get(event.getCommandName());
+						debug("Checking command {0}", event.getCommandName());
+						if (command != null) {
+							debug("Executing command %s on guild %s", event.getCommandName(), gid.get().asString());
+							return executeCommand(event, command);
+						} else {
+							debug("Ignoring unknown command %s not in %s", event.getCommandName(),
+									String.join(", ", getKnownCommandNames()));
+							return event.reply(
+									String.format("I am sorry, I did not recognize command %s", event.getCommandName()));
+						}
 					}
+
+					return Mono.empty();
+				} finally {
+					scope.close();
 				}
+			}
+
+			public Publisher<?> onGuildCreate(GuildCreateEvent event) {
+				guildLocales.update(event.getGuild());
+				return Mono.empty();
+			}
 
+			public Publisher<?> onGuildUpdate(GuildUpdateEvent event) {
+				guildLocales.update(event.getCurrent());
 				return Mono.empty();
 			}
 		});
@@ -330,22 +512,128 @@ public class DiscordBot extends Logging implements Runnable {
 		this();
 
 		configure(args);
+	}
+
+	/**
+	 * Dice roller performing the dice rolling. Each thread uses its own random
+	 * number generator.
+	 */
+	private final DiceRoller dice = new DiceRoller(RandomStrategy.threadLocal());
+
+	/**
+	 * The compiled templates of the action roll messages shared by the action
+	 * roll commands.
+	 */
+	private final MessageTemplates actionRollMessages = new MessageTemplates("ActionRollMessages");
+
+	/**
+	 * The cached embed templates of the replies.
+	 */
+	private final EmbedTemplates embedTemplates = new EmbedTemplates();
+
+	/**
+	 * The embeds of the action rolls.
+	 */
+	private final ActionRollEmbeds actionRollEmbeds = new ActionRollEmbeds(actionRollMessages);
+
+	/**
+	 * Do the roll commands reply with embeds.
+	 */
+	private volatile boolean embedReplies = false;
+
+	/**
+	 * The preferred locales of the guilds by the guild identifier.
+	 */
+	private final GuildLocales guildLocales = new GuildLocales();
 
-		registerCommands();
+	/**
+	 * Get the preferred locales of the guilds used by the replies.
+	 * 
+	 * @return The preferred locales of the guilds.
+	 */
+	public GuildLocales getGuildLocales() {
+		return guildLocales;
+	}
+
+	/**
+	 * Reload the message bundles. The changed messages are used by the next
+	 * replies.
+	 */
+	public void reloadMessages() {
+		actionRollMessages.reload();
+		embedTemplates.clear();
+		actionRollEmbeds.clear();
+	}
 
-		addHandlers();
+	/**
+	 * Do the roll commands reply with embeds instead of plain text.
+	 * 
+	 * @return True, if and only if the roll commands reply with embeds.
+	 */
+	public boolean isEmbedReplies() {
+		return embedReplies;
+	}
+
+	/**
+	 * Set whether the roll commands reply with embeds instead of plain text.
+	 * 
+	 * @param embedReplies Do the roll commands reply with embeds.
+	 */
+	public void setEmbedReplies(boolean embedReplies) {
+		this.embedReplies = embedReplies;
+	}
 
+	/**
+	 * Get the compiled template of an action roll message.
+	 * 
+	 * @param messageName The message name.
+	 * @param locale      The locale of the message, or undefined value for the
+	 *                    default locale.
+	 * @return The compiled template. A missing or an invalid message is replaced
+	 *         with the message name.
+	 */
+	public MessageTemplate getActionRollMessageTemplate(String messageName, Locale locale) {
+		try {
+			return actionRollMessages.get(messageName, locale);
+		} catch (MissingResourceException mre) {
+			error("Could not load resource %s due missing resource error %s", messageName, mre);
+		} catch (IllegalArgumentException iae) {
+			error("Could not compile resource %s due error %s", messageName, iae.getMessage());
+		}
+		return MessageTemplate.compile(messageName.replace("%", "%%"));
 	}
 
 	/**
-	 * The random number generator. 
+	 * The simulator performing the bulk simulations.
+	 */
+	private final RollSimulator simulator = new RollSimulator();
+
+	/**
+	 * The largest number of trials of a simulation.
+	 */
+	private volatile long maxSimulationTrials = DEFAULT_SIMULATION_MAX_TRIALS;
+
+	/**
+	 * Get the largest number of trials of a simulation.
+	 * 
+	 * @return The largest number of simulated trials.
 	 */
-	private final Random random = new Random();
+	public long getMaxSimulationTrials() {
+		return maxSimulationTrials;
+	}
 
 	/**
-	 * Dice roller performing the dice rolling. 
+	 * Set the largest number of trials of a simulation.
+	 * 
+	 * @param maxTrials The largest number of simulated trials.
+	 * @throws IllegalArgumentException The trial cap was not positive.
 	 */
-	private final DiceRoller dice = new DiceRoller(random);
+	public void setMaxSimulationTrials(long maxTrials) throws IllegalArgumentException {
+		if (maxTrials <= 0) {
+			throw new IllegalArgumentException("Non-positive trial cap");
+		}
+		this.maxSimulationTrials = maxTrials;
+	}
 
 
 	/**
@@ -462,15 +750,37 @@ public class DiscordBot extends Logging implements Runnable {
 		public static final String DIFFICULTY_TOO_HARD_MESSAGE = MESSAGE_PREFIX + "difficulty.too_high";
 		private DiceRoller roller;
 
+		/**
+		 * The locale of the replies, or undefined value for the default locale.
+		 */
+		private final Locale locale;
+
 		public ActionRollCommand(DiceRoller roller) {
-			this.roller = roller;
+			this(roller, null);
 		}
 
+		/**
+		 * Create a new action roll command replying in the given locale.
+		 * 
+		 * @param roller The dice roller used to roll dice.
+		 * @param locale The locale of the replies, or undefined value for the
+		 *               default locale.
+		 */
+		public ActionRollCommand(DiceRoller roller, Locale locale) {
+			this.roller = roller;
+			this.locale = locale;
+		}
 
 		/**
-		 * The current message bundle.
+		 * Get the locale of the replies.
+		 *
+		 * @return The locale of the replies, or undefined value for the default
+		 *         locale.
 		 */
-		private ResourceBundle messages = ResourceBundle.getBundle("ActionRollMessages");
+		public Locale getLocale() {
+			return locale;
+		}
+
 
 		/**
 		 * Get message format. 
@@ -478,12 +788,18 @@ public class DiscordBot extends Logging implements Runnable {
 		 * @return The message format as string. 
 		 */
 		public String getMessageFormat(String messageName) {
-			try {
-				return messages.getString(messageName);
-			} catch (MissingResourceException mre) {
-				error("Could not load resource %s due missing resource error %s", messageName, mre);
-			}
-			return messageName; 
+			return getMessageTemplate(messageName).getPattern();
+		}
+
+		/**
+		 * Get the compiled message template. The template of a missing or invalid
+		 * message is the message name.
+		 * 
+		 * @param messageName The message name.
+		 * @return The compiled template of the message.
+		 */
+		public MessageTemplate getMessageTemplate(String messageName) {
+			return getActionRollMessageTemplate(messageName, locale);
 		}
 
 		/**
@@ -494,7 +810,7 @@ public class DiscordBot extends Logging implements Runnable {
 		 * @return The given message with message parameters.
 		 */
 		public String getMessage(String messageName, Object... values) {
-			if (values != null) {
+			if (values != null && values.length > 0) {
 				return MessageFormat.format(getMessageFormat(messageName), values);
 			} else {
 				return getMessageFormat(messageName);
@@ -520,102 +836,152 @@ public class DiscordBot extends Logging implements Runnable {
 					.flatMap(ApplicationCommandInteractionOption::getValue)
 					.map(ApplicationCommandInteractionOptionValue::asLong).orElse(20L);
 			boolean hasErrors = false;
+			debugEvent("action.execute", "difficulty", difficulty, "dice", dice, "tn", tn, "focus", critRange,
+					"complication", complicationRange);
 			
-			String actionFormat = getMessage(TITLE_FORMAT_MESSAGE); 
+			MessageTemplate actionFormat = getMessageTemplate(TITLE_FORMAT_MESSAGE); 
 
-			String titleMessage = String.format(actionFormat, difficulty, dice, critRange, tn, complicationRange); 
+			String titleMessage = actionFormat.format(difficulty, dice, critRange, tn, complicationRange); 
 			debug(titleMessage);
 			StringBuilder msg = new StringBuilder("I cannot do this as ");
 			if (difficulty < 0) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(DIFFICULTY_TOO_LOW_MESSAGE));
+				getMessageTemplate(DIFFICULTY_TOO_LOW_MESSAGE).formatTo(msg);
 			} else if (difficulty > 5) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(DIFFICULTY_TOO_HARD_MESSAGE));
+				getMessageTemplate(DIFFICULTY_TOO_HARD_MESSAGE).formatTo(msg);
 			}
 			if (dice < 0) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(TOO_FEW_DICE_MESSAGE));
+				getMessageTemplate(TOO_FEW_DICE_MESSAGE).formatTo(msg);
 			} else if (dice > 5) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(TOO_MANY_DICE_MESSAGE));
+				getMessageTemplate(TOO_MANY_DICE_MESSAGE).formatTo(msg);
 			}
 			if (tn < 1) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(TN_TOO_LOW_MESSAGE));
+				getMessageTemplate(TN_TOO_LOW_MESSAGE).formatTo(msg);
 			} else if (tn > 20) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(TN_TOO_HIGH_MESSAGE));
+				getMessageTemplate(TN_TOO_HIGH_MESSAGE).formatTo(msg);
 			}
 			if (critRange < 0) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(FOCUS_TOO_LOW_MESSAGE));
+				getMessageTemplate(FOCUS_TOO_LOW_MESSAGE).formatTo(msg);
 			} else if (critRange > 5) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(FOCUS_TOO_HIGH_MESSAGE));
+				getMessageTemplate(FOCUS_TOO_HIGH_MESSAGE).formatTo(msg);
 			}
 			if (complicationRange < 16) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(COMPLICATION_TOO_LOW_MESSAGE));
+				getMessageTemplate(COMPLICATION_TOO_LOW_MESSAGE).formatTo(msg);
 			} else if (complicationRange > 21) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(DELIMITER_MESSAGE));
+					getMessageTemplate(DELIMITER_MESSAGE).formatTo(msg);
 				}
-				msg.append(getMessage(COMPLICATION_TOO_HIGH_MESSAGE));
+				getMessageTemplate(COMPLICATION_TOO_HIGH_MESSAGE).formatTo(msg);
 			}
 			if (hasErrors) {
 				// Outputting error rather than performing action.
 				return msg.toString();
 			} else {
 				// Tossing the dice.
-				RollResult result = roller.rollAction((int) dice, (int) tn, (int) critRange, (int) complicationRange);
-				int complications = 0;
-				java.util.List<com.kautiainen.antti.infinitybot.model.Special> specials = result.getSpecials();
-				for (com.kautiainen.antti.infinitybot.model.Special  special: specials) {
-					if (special.getName().equalsIgnoreCase("complication")) {
-						complications += special.getValue();
-					}
-				}
-			
-				if (result.getValue() < difficulty) {
-					return String.format(getMessage("action_roll.messages.failure_format"), 
-							titleMessage, result.getValue(), complications, result.toString());
-				} else {
-					return String.format(getMessage("action_roll.messages.success_format"), 
-							titleMessage, result.getValue() - difficulty, complications, result.toString()); 
-				}
-				
-				// return result.toString(); 
+				ActionRollResult result = roller.rollAction((int) dice, (int) tn, (int) critRange, (int) complicationRange);
+				return formatResult(titleMessage, difficulty, result);
+			}
+
+		}
+
+		/**
+		 * Formats the result of the roll.
+		 * 
+		 * @param titleMessage The title of the reply.
+		 * @param difficulty   The difficulty of the test.
+		 * @param result       The result of the roll.
+		 * @return The reply of the command.
+		 */
+		protected String formatResult(String titleMessage, long difficulty, ActionRollResult result) {
+			int complications = result.getComplications();
+
+			if (result.getValue() < difficulty) {
+				return getMessageTemplate("action_roll.messages.failure_format").format(
+						titleMessage, result.getValue(), complications, RollResultRenderer.DEFAULT.render(result));
+			} else {
+				return getMessageTemplate("action_roll.messages.success_format").format(
+						titleMessage, result.getValue() - difficulty, complications, RollResultRenderer.DEFAULT.render(result)); 
 			}
+		}
+	}
+
+	/**
+	 * The action roll command replying with an embed.
+	 * 
+	 * The embed is rendered by the shared action roll embeds of the bot. The
+	 * reply of an invalid roll has no embed.
+	 * 
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public class EmbedActionRollCommand extends ActionRollCommand {
+
+		/**
+		 * The embed of the last roll.
+		 */
+		private EmbedCreateSpec embed = null;
+
+		/**
+		 * Create a new action roll command replying with an embed.
+		 * 
+		 * @param roller The dice roller used to roll dice.
+		 * @param locale The locale of the replies, or undefined value for the
+		 *               default locale.
+		 */
+		public EmbedActionRollCommand(DiceRoller roller, Locale locale) {
+			super(roller, locale);
+		}
+
+		/**
+		 * Get the embed of the last roll.
+		 * 
+		 * @return The embed of the last roll, if the command has rolled.
+		 */
+		public Optional<EmbedCreateSpec> getEmbed() {
+			return Optional.ofNullable(embed);
+		}
 
+		@Override
+		protected String formatResult(String titleMessage, long difficulty, ActionRollResult result) {
+			embed = actionRollEmbeds.render(titleMessage, difficulty, result, getLocale());
+			// The reply is the embed, so the text of the result is not formatted.
+			return titleMessage;
 		}
 	}
 
@@ -626,7 +992,20 @@ public class DiscordBot extends Logging implements Runnable {
 	 * @return The string of the action result.
 	 */
 	protected String executeAction(DiceRoller roller, ApplicationCommandInteraction acid) {
-		return (this.new ActionRollCommand(roller)).execute(acid);
+		return executeAction(roller, acid, null);
+	}
+
+	/**
+	 * Perform action roll.
+	 * 
+	 * @param roller The dice roller used to roll the dice.
+	 * @param acid   The acid event interaction with parameters.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the action result.
+	 */
+	protected String executeAction(DiceRoller roller, ApplicationCommandInteraction acid, Locale locale) {
+		return (this.new ActionRollCommand(roller, locale)).execute(acid);
 	}
 
 	/**
@@ -636,201 +1015,854 @@ public class DiscordBot extends Logging implements Runnable {
 	 * @return The string of the action result.
 	 */
 	protected String executeEffect(DiceRoller roller, ApplicationCommandInteraction acid) {
+		return executeEffect(roller, acid, (RollResult result) -> RollResultRenderer.DEFAULT.render(result),
+				(String error) -> error);
+	}
+
+	/**
+	 * Perform effect roll.
+	 * 
+	 * @param <T>     The type of the reply.
+	 * @param roller  The dice roller used to roll the dice.
+	 * @param acid    The acid event interaction with parameters.
+	 * @param reply   The function creating the reply of the roll result.
+	 * @param failure The function creating the reply of the error message.
+	 * @return The reply of the effect roll.
+	 */
+	protected <T> T executeEffect(DiceRoller roller, ApplicationCommandInteraction acid,
+			Function<RollResult, T> reply, Function<String, T> failure) {
 		long base = acid.getOption("base").flatMap(ApplicationCommandInteractionOption::getValue)
 				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
 		long dice = acid.getOption("dice").flatMap(ApplicationCommandInteractionOption::getValue)
 				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
 		String traits = acid.getOption("traits").flatMap(ApplicationCommandInteractionOption::getValue)
 				.map(ApplicationCommandInteractionOptionValue::asString).orElse("");
-		java.util.List<com.kautiainen.antti.infinitybot.model.Special> traitList = new ArrayList<>();
-		if (traits == null || traits.isEmpty()) {
-			// Adding basic stacking trait which does not affect the total
-			traitList.add(new StackingSpecial("Effect", 1));
-		} else {
-			// Calculating trait list.
-			Optional<? extends com.kautiainen.antti.infinitybot.model.Special> newTrait;
-			for (String trait : traits.split("\\s+")) {
-				if ((newTrait = getSpecial(trait)).isPresent()) {
-					traitList.add(newTrait.get());
-				} else {
-					debug("Unknown trait %s", trait);
-					traitList.add(new Special(trait, null));
-				}
-			}
+		java.util.List<com.kautiainen.antti.infinitybot.model.Special> traitList;
+		try {
+			traitList = parseTraits(traits);
+		} catch (ParseException pe) {
+			return failure.apply(getTraitsErrorMessage(traits, pe));
 		}
 		RollResult result = roller.rollCD(
 				Math.max(base > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) base, Integer.MIN_VALUE),
 				Math.max(dice > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) dice, 0), traitList);
-		return result.toString();
+		return reply.apply(result);
 	}
 
 	/**
-	 * Executes command triggered by the given event.
+	 * Create the embed of an effect roll. The field names are cached per
+	 * locale.
 	 * 
-	 * @param event      The event causing the command.
-	 * @param definition The definition of the command.
-	 * @return The resulting reply message of the command execution.
+	 * @param result The result of the effect roll.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The embed of the effect roll.
 	 */
-	protected Publisher<?> executeCommand(ChatInputInteractionEvent event, ApplicationCommandRequest definition) {
-		// TODO: add storage for command names of registered commands linked to their
-		// execution.
-		try {
-			if (definition == null) {
-				return event
-						.reply(String.format("I am sorry, but I have forgotten how to do %s", event.getCommandName()));
-			} else if (definition.name() == "action" || definition.name() == "infinitytest") {
-				// Rolling normal roll
-				return event.reply(executeAction(dice, event.getInteraction().getCommandInteraction().get()));
-			} else if (definition.name() == "effect" || definition.name() == "cd") {
-				// Rolling CD
-				return event.reply(executeEffect(dice, event.getInteraction().getCommandInteraction().get()));
-			} else {
-				return Mono.empty();
-			}
-		} catch (Exception e) {
-			error("Command execution failed due event %s with message %s", e.getClass(), e.getMessage());
-			e.printStackTrace(System.err);
-			return event.reply("Something weird happened. " + e.getMessage());
-		}
+	protected EmbedCreateSpec getEffectEmbed(RollResult result, Locale locale) {
+		EmbedTemplate template = embedTemplates.get("effect", locale,
+				(Locale templateLocale) -> new EmbedTemplate(EmbedCreateSpec.builder().build(),
+						new String[] { getActionRollMessageTemplate("effect.embed.result", templateLocale).getPattern(),
+								getActionRollMessageTemplate("effect.embed.effects", templateLocale).getPattern(),
+								getActionRollMessageTemplate("effect.embed.dice", templateLocale).getPattern() },
+						new boolean[] { true, true, false }));
+		return template.render(null, Integer.toString(result.getValue()),
+				RollResultRenderer.DEFAULT.renderSpecials(result), RollResultRenderer.DEFAULT.renderRoll(result));
 	}
 
 	/**
-	 * The commands known to the bot.
+	 * The message name of the effect odds reply.
 	 */
-	private java.util.TreeMap<String, ApplicationCommandRequest> commands = new java.util.TreeMap<>();
+	public static final String EFFECT_ODDS_RESULT_FORMAT_MESSAGE = "effect_odds.messages.result_format";
 
 	/**
-	 * The commands of specific guild.
+	 * The message name of the entry of the effect odds distribution.
 	 */
-	@SuppressWarnings("unused")
-	private java.util.TreeMap<Long, java.util.Set<String>> guildCommands = new java.util.TreeMap<>();
+	public static final String EFFECT_ODDS_ENTRY_FORMAT_MESSAGE = "effect_odds.messages.entry_format";
 
 	/**
-	 * The set of the known command names.
-	 * 
-	 * @return Always defined set of all known command names.
+	 * The message name of the delimiter of the effect odds distribution entries.
 	 */
-	public java.util.Set<String> getKnownCommandNames() {
-		return java.util.Collections.unmodifiableSet(commands.keySet());
-	}
+	public static final String EFFECT_ODDS_DELIMITER_MESSAGE = "effect_odds.messages.delimiter";
 
 	/**
-	 * Get known command with given name.
-	 * 
-	 * @param cmdName The command name.
-	 * @return The command request with given name.
+	 * The message name of the reply to the invalid number of dice.
 	 */
-	public Optional<ApplicationCommandRequest> getCommand(String cmdName) {
-		return Optional.ofNullable((cmdName == null ? null : commands.get(cmdName)));
-	}
+	public static final String EFFECT_ODDS_DICE_ERROR_MESSAGE = "effect_odds.messages.dice_error_format";
 
 	/**
-	 * Set the application command with given name.
-	 * 
-	 * @param cmdName The command name.
-	 * @param command The command with given name.
-	 * @return The replaced command, if any exists.
-	 * @throws IllegalArgumentException Either the command name or command was
-	 *                                  invalid.
+	 * The message name of the reply to the damage outside the integer range.
 	 */
-	protected Optional<ApplicationCommandRequest> setCommand(String cmdName, ApplicationCommandRequest command)
-			throws IllegalArgumentException {
-		if (command == null) {
-			return removeCommand(cmdName);
-		} else {
-			return Optional.ofNullable(this.commands.put(cmdName, command));
-		}
-	}
+	public static final String EFFECT_ODDS_DAMAGE_ERROR_MESSAGE = "effect_odds.messages.damage_error";
 
 	/**
-	 * Remove the given command.
-	 * 
-	 * @param cmdName The removed command name.
-	 * @return The previous value of the command, if any exists.
+	 * The message name of the entry of the damage range in the damage odds.
 	 */
-	public Optional<ApplicationCommandRequest> removeCommand(String cmdName) {
-		return Optional.ofNullable(cmdName == null ? null : this.commands.remove(cmdName));
-	}
+	public static final String EFFECT_ODDS_RANGE_ENTRY_FORMAT_MESSAGE = "effect_odds.messages.range_entry_format";
 
 	/**
-	 * Registers all known commands to all known guilds.
+	 * The largest number of entries in the damage odds. The damages are grouped
+	 * into ranges to keep the reply within the message length limit of the
+	 * discord.
 	 */
-	public void registerCommands() {
-		registerCommands(this.getKnownCommandNames());
-	}
+	public static final int MAX_EFFECT_ODDS_DAMAGE_ENTRIES = 32;
 
-	
 	/**
-	 * Are the request and command equals. 
-	 * @param command The command on server.  
-	 * @param request The request defining the command. 
-	 * @return True, if and only if the values are equals. 
+	 * Calculate the odds of the effect roll.
+	 * 
+	 * @param roller The dice roller.
+	 * @param acid   The acid event interaction with parameters.
+	 * @return The string of the odds of the effect roll.
 	 */
-	public boolean equalCommand(ApplicationCommandData command, Optional<ApplicationCommandRequest> request) {
-		if (request.isPresent() && command != null) {
-			ApplicationCommandRequest req = request.get();
-			return req.type().equals(command.type()) && 
-					req.description().equals(command.description()) &&
-					req.options().equals(command.options()) &&
-					req.name().equals(command.name());
-		} else {
-			// Empty is not equal with non-empty.
-			return command == null && !request.isPresent(); 
-		}
+	protected String executeEffectOdds(DiceRoller roller, ApplicationCommandInteraction acid) {
+		return executeEffectOdds(roller, acid, null);
 	}
-	
+
 	/**
-	 * Register given commands to the server. The commands are either updated or
-	 * registered on this command.
+	 * Calculate the odds of the effect roll.
 	 * 
-	 * @param commands The list of registered commands.
-	 * @return The list of added commands.
+	 * @param roller The dice roller.
+	 * @param acid   The acid event interaction with parameters.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the odds of the effect roll.
 	 */
-	public Set<String> registerCommands(java.util.Collection<String> commands) {
-		debug("Registering commands" + (commands == null ? "" : commands.toString()));
-		java.util.TreeSet<String> result = new java.util.TreeSet<>();
-		if (commands != null) {
-			// The added commands.
-			for (Long guildId : this.guildIds) {
-				long appId = connection.getRestClient().getApplicationId().block();
-				debug("Registering commands to server %s with appId %s", guildId, appId);
-				java.util.Map<String, ApplicationCommandData> discordCommands = connection.getRestClient()
-						.getApplicationService().getGuildApplicationCommands(appId, guildId)
-						.collectMap(ApplicationCommandData::name).block();
-				debug("We got the commands listing from server!");
-				for (String cmdName : commands) {
-					// Pulling the current command.
-					Optional<ApplicationCommandRequest> addedCommand = getCommand(cmdName);
-					if (addedCommand.isPresent()) {
-						ApplicationCommandData cmdOnServer = discordCommands.get(cmdName);
-						if (cmdOnServer == null) {
-							// We have new command.
-							debug("Adding new command %s to server %s", cmdName, guildId);
-							connection.getRestClient().getApplicationService()
-									.createGuildApplicationCommand(appId, guildId, addedCommand.get()).subscribe();
-							debug(MessageFormat.format("Command {0} succsssfully added", cmdName));
-							result.add(MessageFormat.format("{0}@{1}", cmdName, guildId));
-						} else if (equalCommand(cmdOnServer, addedCommand)) {
-							debug("Nothing to do - the command %1$s#%#%3$s on server %2$s", 
-									cmdName, guildId, cmdOnServer.id()); 
-						} else {
-							// We have command to alter.
-							debug("Altering existing command %1$s#%3$s on server %2$s", cmdName, guildId,
-									cmdOnServer.id());
-							long commandId = Long.parseLong(cmdOnServer.id());
-							connection.getRestClient().getApplicationService()
-									.modifyGuildApplicationCommand(appId, guildId, commandId, addedCommand.get())
-									.subscribe();
-						}
-					} else {
-						error("Application command %s did not exist!", cmdName);
-						removeCommand(cmdName);
-						error("Missing command %s removed!", cmdName);
-					}
-				}
+	protected String executeEffectOdds(DiceRoller roller, ApplicationCommandInteraction acid, Locale locale) {
+		long base = acid.getOption("base").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
+		long dice = acid.getOption("dice").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
+		String traits = acid.getOption("traits").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asString).orElse("");
+		return effectOdds(roller, base, dice, traits, locale);
+	}
+
+	/**
+	 * Calculate the odds of the effect roll.
+	 * 
+	 * The damages are calculated in long, and the damages outside the integer
+	 * range are rejected. At most {@link #MAX_EFFECT_ODDS_DAMAGE_ENTRIES} damage
+	 * entries are listed.
+	 * 
+	 * @param roller The dice roller.
+	 * @param base   The base number of the roll.
+	 * @param dice   The number of combat dice.
+	 * @param traits The trait list.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the odds of the effect roll, or the error message.
+	 */
+	protected String effectOdds(DiceRoller roller, long base, long dice, String traits, Locale locale) {
+		java.util.List<com.kautiainen.antti.infinitybot.model.Special> traitList;
+		try {
+			traitList = parseTraits(traits);
+		} catch (ParseException pe) {
+			return getTraitsErrorMessage(traits, pe, locale);
+		}
+		long specialTotal = roller.getSpecialsTotal(traitList);
+		CombatDiceOdds odds;
+		try {
+			odds = roller.getCDOdds(DiceRoller.OLD_COMBAT_DIE, (int) Math.max(Math.min(dice, Integer.MAX_VALUE), 0));
+		} catch (IllegalArgumentException iae) {
+			return getActionRollMessageTemplate(EFFECT_ODDS_DICE_ERROR_MESSAGE, locale).format(dice);
+		}
+		java.util.SortedMap<Long, Long> damageCounts;
+		try {
+			damageCounts = odds.getDamageCounts(base, specialTotal);
+		} catch (ArithmeticException ae) {
+			return getActionRollMessageTemplate(EFFECT_ODDS_DAMAGE_ERROR_MESSAGE, locale).format();
+		}
+		if (damageCounts.firstKey() < Integer.MIN_VALUE || damageCounts.lastKey() > Integer.MAX_VALUE) {
+			return getActionRollMessageTemplate(EFFECT_ODDS_DAMAGE_ERROR_MESSAGE, locale).format();
+		}
+		MessageTemplate entry = getActionRollMessageTemplate(EFFECT_ODDS_ENTRY_FORMAT_MESSAGE, locale),
+				rangeEntry = getActionRollMessageTemplate(EFFECT_ODDS_RANGE_ENTRY_FORMAT_MESSAGE, locale),
+				delimiter = getActionRollMessageTemplate(EFFECT_ODDS_DELIMITER_MESSAGE, locale);
+		StringBuilder damage = new StringBuilder(), effects = new StringBuilder();
+		// The damages are grouped into ranges of equal number of damages.
+		int rangeSize = (damageCounts.size() + MAX_EFFECT_ODDS_DAMAGE_ENTRIES - 1) / MAX_EFFECT_ODDS_DAMAGE_ENTRIES;
+		int inRange = 0;
+		long rangeStart = 0, rangeEnd = 0, rangeCount = 0;
+		for (java.util.Map.Entry<Long, Long> damageCount : damageCounts.entrySet()) {
+			if (inRange == 0) {
+				rangeStart = damageCount.getKey();
+			}
+			rangeEnd = damageCount.getKey();
+			rangeCount += damageCount.getValue();
+			if (++inRange == rangeSize || rangeEnd == damageCounts.lastKey()) {
+				if (damage.length() > 0) {
+					delimiter.formatTo(damage);
+				}
+				double probability = rangeCount * 100.0 / odds.getTotal();
+				if (rangeStart == rangeEnd) {
+					entry.formatTo(damage, rangeStart, probability);
+				} else {
+					rangeEntry.formatTo(damage, rangeStart, rangeEnd, probability);
+				}
+				inRange = 0;
+				rangeCount = 0;
+			}
+		}
+		for (int value = 0; value <= odds.getDicePool(); value++) {
+			if (effects.length() > 0) {
+				delimiter.formatTo(effects);
+			}
+			entry.formatTo(effects, value, odds.getEffectProbability(value) * 100.0);
+		}
+		return getActionRollMessageTemplate(EFFECT_ODDS_RESULT_FORMAT_MESSAGE, locale).format(
+				odds.getExpectedDamage(base, specialTotal), base, odds.getDicePool(),
+				traitList.isEmpty() ? "" : " " + traitList, damage, effects);
+	}
+
+	/**
+	 * The default number of trials of a simulation.
+	 */
+	public static final long DEFAULT_SIMULATION_TRIALS = 10000L;
+
+	/**
+	 * The largest number of dice of a simulated roll.
+	 */
+	public static final int MAX_SIMULATION_DICE = 40;
+
+	/**
+	 * The message name of the simulation reply.
+	 */
+	public static final String SIMULATION_RESULT_FORMAT_MESSAGE = "simulation.messages.result_format";
+
+	/**
+	 * The message name of the entry of the simulated distribution.
+	 */
+	public static final String SIMULATION_ENTRY_FORMAT_MESSAGE = "simulation.messages.entry_format";
+
+	/**
+	 * The message name of the delimiter of the simulated distribution entries.
+	 */
+	public static final String SIMULATION_DELIMITER_MESSAGE = "simulation.messages.delimiter";
+
+	/**
+	 * The message name of the reply to too few trials.
+	 */
+	public static final String SIMULATION_TRIALS_TOO_LOW_MESSAGE = "simulation.messages.trials.too_low";
+
+	/**
+	 * The message name of the reply to too many trials.
+	 */
+	public static final String SIMULATION_TRIALS_TOO_HIGH_MESSAGE = "simulation.messages.trials.too_high_format";
+
+	/**
+	 * The message name of the reply to the invalid number of dice.
+	 */
+	public static final String SIMULATION_DICE_ERROR_MESSAGE = "simulation.messages.dice_error_format";
+
+	/**
+	 * The message name of the reply to the invalid action roll.
+	 */
+	public static final String SIMULATION_ACTION_ERROR_MESSAGE = "simulation.messages.action_error";
+
+	/**
+	 * The message name of the reply to the too large damage.
+	 */
+	public static final String SIMULATION_DAMAGE_ERROR_MESSAGE = "simulation.messages.damage_error";
+
+	/**
+	 * The message name of the title of the simulated action roll.
+	 */
+	public static final String SIMULATION_ACTION_TITLE_MESSAGE = "simulation.messages.action_title_format";
+
+	/**
+	 * The message name of the title of the simulated effect roll.
+	 */
+	public static final String SIMULATION_EFFECT_TITLE_MESSAGE = "simulation.messages.effect_title_format";
+
+	/**
+	 * The message name of the successes of the simulated action roll.
+	 */
+	public static final String SIMULATION_SUCCESSES_MESSAGE = "simulation.messages.successes";
+
+	/**
+	 * The message name of the complications of the simulated action roll.
+	 */
+	public static final String SIMULATION_COMPLICATIONS_MESSAGE = "simulation.messages.complications";
+
+	/**
+	 * The message name of the damage of the simulated effect roll.
+	 */
+	public static final String SIMULATION_DAMAGE_MESSAGE = "simulation.messages.damage";
+
+	/**
+	 * The message name of the effects of the simulated effect roll.
+	 */
+	public static final String SIMULATION_EFFECTS_MESSAGE = "simulation.messages.effects";
+
+	/**
+	 * Format the distribution of the simulation result.
+	 * 
+	 * @param title         The title of the simulated roll.
+	 * @param result        The simulation result.
+	 * @param primaryName   The name of the primary value.
+	 * @param secondaryName The name of the secondary count.
+	 * @return The string representation of the simulation result.
+	 */
+	protected String formatSimulation(String title, SimulationResult result, String primaryName,
+			String secondaryName) {
+		return formatSimulation(title, result, primaryName, secondaryName, null);
+	}
+
+	/**
+	 * Format the distribution of the simulation result.
+	 * 
+	 * @param title         The title of the simulated roll.
+	 * @param result        The simulation result.
+	 * @param primaryName   The name of the primary value.
+	 * @param secondaryName The name of the secondary count.
+	 * @param locale        The locale of the reply, or undefined value for the
+	 *                      default locale.
+	 * @return The string representation of the simulation result.
+	 */
+	protected String formatSimulation(String title, SimulationResult result, String primaryName,
+			String secondaryName, Locale locale) {
+		MessageTemplate entry = getActionRollMessageTemplate(SIMULATION_ENTRY_FORMAT_MESSAGE, locale),
+				delimiter = getActionRollMessageTemplate(SIMULATION_DELIMITER_MESSAGE, locale);
+		StringBuilder primary = new StringBuilder(), secondary = new StringBuilder();
+		for (int value : result.getValues()) {
+			if (primary.length() > 0) {
+				delimiter.formatTo(primary);
+			}
+			entry.formatTo(primary, value, result.getFrequency(value) * 100.0);
+		}
+		for (int value = 0, end = result.getMaxSecondaryCount(); value <= end; value++) {
+			if (result.getSecondaryCount(value) > 0) {
+				if (secondary.length() > 0) {
+					delimiter.formatTo(secondary);
+				}
+				entry.formatTo(secondary, value, result.getSecondaryFrequency(value) * 100.0);
+			}
+		}
+		return getActionRollMessageTemplate(SIMULATION_RESULT_FORMAT_MESSAGE, locale).format(result.getTrials(),
+				title, result.getElapsedNanos() / 1.0e6, result.getTrialsPerSecond(), primaryName, result.getMean(),
+				secondaryName, result.getSecondaryMean(), primaryName, primary, secondaryName, secondary);
+	}
+
+	/**
+	 * Check the number of trials of a simulation.
+	 * 
+	 * @param trials The number of trials.
+	 * @return The error message, or an empty value if the number of trials is
+	 *         valid.
+	 */
+	protected Optional<String> checkSimulationTrials(long trials) {
+		return checkSimulationTrials(trials, null);
+	}
+
+	/**
+	 * Check the number of trials of a simulation.
+	 * 
+	 * @param trials The number of trials.
+	 * @param locale The locale of the error message, or undefined value for the
+	 *               default locale.
+	 * @return The error message, or an empty value if the number of trials is
+	 *         valid.
+	 */
+	protected Optional<String> checkSimulationTrials(long trials, Locale locale) {
+		if (trials <= 0) {
+			return Optional.of(getActionRollMessageTemplate(SIMULATION_TRIALS_TOO_LOW_MESSAGE, locale).format());
+		} else if (trials > getMaxSimulationTrials()) {
+			return Optional.of(getActionRollMessageTemplate(SIMULATION_TRIALS_TOO_HIGH_MESSAGE, locale)
+					.format(getMaxSimulationTrials()));
+		} else {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Simulate action rolls.
+	 * 
+	 * @param trials            The number of trials.
+	 * @param seed              The seed of the simulation.
+	 * @param dice              The number of dice.
+	 * @param tn                The target number of each die.
+	 * @param critRange         The critical range.
+	 * @param complicationRange The complication range.
+	 * @return The string of the simulation result, or the error message.
+	 */
+	protected String simulateAction(long trials, long seed, long dice, long tn, long critRange,
+			long complicationRange) {
+		return simulateAction(trials, seed, dice, tn, critRange, complicationRange, null);
+	}
+
+	/**
+	 * Simulate action rolls.
+	 * 
+	 * @param trials            The number of trials.
+	 * @param seed              The seed of the simulation.
+	 * @param dice              The number of dice.
+	 * @param tn                The target number of each die.
+	 * @param critRange         The critical range.
+	 * @param complicationRange The complication range.
+	 * @param locale            The locale of the reply, or undefined value for
+	 *                          the default locale.
+	 * @return The string of the simulation result, or the error message.
+	 */
+	protected String simulateAction(long trials, long seed, long dice, long tn, long critRange,
+			long complicationRange, Locale locale) {
+		Optional<String> error = checkSimulationTrials(trials, locale);
+		if (error.isPresent()) {
+			return error.get();
+		} else if (dice < 0 || dice > MAX_SIMULATION_DICE) {
+			return getActionRollMessageTemplate(SIMULATION_DICE_ERROR_MESSAGE, locale).format(MAX_SIMULATION_DICE);
+		} else if (tn < 1 || tn > 20 || critRange < 0 || critRange > 20 || complicationRange < 16
+				|| complicationRange > 21) {
+			return getActionRollMessageTemplate(SIMULATION_ACTION_ERROR_MESSAGE, locale).format();
+		}
+		SimulationResult result = simulator.simulateAction(trials, seed, (int) dice, (int) tn, (int) critRange,
+				(int) complicationRange);
+		return formatSimulation(
+				getActionRollMessageTemplate(SIMULATION_ACTION_TITLE_MESSAGE, locale).format(dice, tn, critRange,
+						complicationRange),
+				result, getActionRollMessageTemplate(SIMULATION_SUCCESSES_MESSAGE, locale).format(),
+				getActionRollMessageTemplate(SIMULATION_COMPLICATIONS_MESSAGE, locale).format(), locale);
+	}
+
+	/**
+	 * Simulate effect rolls.
+	 * 
+	 * @param trials The number of trials.
+	 * @param seed   The seed of the simulation.
+	 * @param base   The base number of the roll.
+	 * @param dice   The number of combat dice.
+	 * @param traits The trait list.
+	 * @return The string of the simulation result, or the error message.
+	 */
+	protected String simulateEffect(long trials, long seed, long base, long dice, String traits) {
+		return simulateEffect(trials, seed, base, dice, traits, null);
+	}
+
+	/**
+	 * Simulate effect rolls.
+	 * 
+	 * @param trials The number of trials.
+	 * @param seed   The seed of the simulation.
+	 * @param base   The base number of the roll.
+	 * @param dice   The number of combat dice.
+	 * @param traits The trait list.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the simulation result, or the error message.
+	 */
+	protected String simulateEffect(long trials, long seed, long base, long dice, String traits, Locale locale) {
+		Optional<String> error = checkSimulationTrials(trials, locale);
+		if (error.isPresent()) {
+			return error.get();
+		} else if (dice < 0 || dice > MAX_SIMULATION_DICE) {
+			return getActionRollMessageTemplate(SIMULATION_DICE_ERROR_MESSAGE, locale).format(MAX_SIMULATION_DICE);
+		}
+		java.util.List<com.kautiainen.antti.infinitybot.model.Special> traitList;
+		try {
+			traitList = parseTraits(traits);
+		} catch (ParseException pe) {
+			return getTraitsErrorMessage(traits, pe, locale);
+		}
+		int baseNumber = (int) Math.max(Math.min(base, Integer.MAX_VALUE), Integer.MIN_VALUE);
+		SimulationResult result;
+		try {
+			result = simulator.simulateCD(trials, seed, DiceRoller.OLD_COMBAT_DIE, (int) dice, baseNumber,
+					this.dice.getSpecialsValue(traitList));
+		} catch (IllegalArgumentException iae) {
+			return getActionRollMessageTemplate(SIMULATION_DAMAGE_ERROR_MESSAGE, locale).format();
+		}
+		return formatSimulation(
+				getActionRollMessageTemplate(SIMULATION_EFFECT_TITLE_MESSAGE, locale).format(baseNumber, dice,
+						traitList.isEmpty() ? "" : " " + traitList),
+				result, getActionRollMessageTemplate(SIMULATION_DAMAGE_MESSAGE, locale).format(),
+				getActionRollMessageTemplate(SIMULATION_EFFECTS_MESSAGE, locale).format(), locale);
+	}
+
+	/**
+	 * Get the seed of the simulation requested by the interaction.
+	 * 
+	 * @param acid The acid event interaction with parameters.
+	 * @return The requested seed, or a random seed.
+	 */
+	protected long getSimulationSeed(ApplicationCommandInteraction acid) {
+		return acid.getOption("seed").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong)
+				.orElseGet(() -> java.util.concurrent.ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Perform action roll simulation.
+	 * 
+	 * @param acid The acid event interaction with parameters.
+	 * @return The string of the simulation result.
+	 */
+	protected String executeSimulateAction(ApplicationCommandInteraction acid) {
+		return executeSimulateAction(acid, null);
+	}
+
+	/**
+	 * Perform action roll simulation.
+	 * 
+	 * @param acid   The acid event interaction with parameters.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the simulation result.
+	 */
+	protected String executeSimulateAction(ApplicationCommandInteraction acid, Locale locale) {
+		long trials = acid.getOption("trials").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(DEFAULT_SIMULATION_TRIALS);
+		long dice = acid.getOption("dice").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(2L);
+		long tn = acid.getOption("tn").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(1L);
+		long critRange = acid.getOption("focus").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
+		long complicationRange = acid.getOption("complication").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(20L);
+		return simulateAction(trials, getSimulationSeed(acid), dice, tn, critRange, complicationRange, locale);
+	}
+
+	/**
+	 * Perform effect roll simulation.
+	 * 
+	 * @param acid The acid event interaction with parameters.
+	 * @return The string of the simulation result.
+	 */
+	protected String executeSimulateEffect(ApplicationCommandInteraction acid) {
+		return executeSimulateEffect(acid, null);
+	}
+
+	/**
+	 * Perform effect roll simulation.
+	 * 
+	 * @param acid   The acid event interaction with parameters.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the simulation result.
+	 */
+	protected String executeSimulateEffect(ApplicationCommandInteraction acid, Locale locale) {
+		long trials = acid.getOption("trials").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(DEFAULT_SIMULATION_TRIALS);
+		long base = acid.getOption("base").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
+		long dice = acid.getOption("dice").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asLong).orElse(0L);
+		String traits = acid.getOption("traits").flatMap(ApplicationCommandInteractionOption::getValue)
+				.map(ApplicationCommandInteractionOptionValue::asString).orElse("");
+		return simulateEffect(trials, getSimulationSeed(acid), base, dice, traits, locale);
+	}
+
+	/**
+	 * Parse the trait list of the effect roll.
+	 * 
+	 * @param traits The trait list.
+	 * @return The list of the traits. An empty trait list contains the basic
+	 *         stacking effect.
+	 * @throws ParseException The trait list was invalid.
+	 * @see TraitListParser
+	 */
+	protected java.util.List<com.kautiainen.antti.infinitybot.model.Special> parseTraits(String traits)
+			throws ParseException {
+		java.util.List<com.kautiainen.antti.infinitybot.model.Special> traitList = new TraitListParser(
+				getSpecialRegistry()).parse(traits);
+		if (traitList.isEmpty()) {
+			// Adding basic stacking trait which does not affect the total
+			traitList.add(new StackingSpecial("Effect", 1));
+		}
+		return traitList;
+	}
+
+	/**
+	 * The message name of the reply to the invalid trait list.
+	 */
+	public static final String TRAITS_ERROR_FORMAT_MESSAGE = "traits.messages.error_format";
+
+	/**
+	 * Get the error message of the invalid trait list.
+	 * 
+	 * @param traits The trait list.
+	 * @param error  The parse error.
+	 * @return The error message pointing the position of the error.
+	 */
+	protected String getTraitsErrorMessage(String traits, ParseException error) {
+		return getTraitsErrorMessage(traits, error, null);
+	}
+
+	/**
+	 * Get the error message of the invalid trait list.
+	 * 
+	 * @param traits The trait list.
+	 * @param error  The parse error.
+	 * @param locale The locale of the error message, or undefined value for the
+	 *               default locale.
+	 * @return The error message pointing the position of the error.
+	 */
+	protected String getTraitsErrorMessage(String traits, ParseException error, Locale locale) {
+		int offset = Math.max(0, Math.min(error.getErrorOffset(), traits == null ? 0 : traits.length()));
+		return getActionRollMessageTemplate(TRAITS_ERROR_FORMAT_MESSAGE, locale).format(offset + 1,
+				error.getMessage(), traits == null ? "" : traits.replace('`', '\''), " ".repeat(offset));
+	}
+
+	/**
+	 * Executes command triggered by the given event.
+	 * 
+	 * @param event      The event causing the command.
+	 * @param definition The definition of the command.
+	 * @return The resulting reply message of the command execution.
+	 */
+	protected Publisher<?> executeCommand(ChatInputInteractionEvent event, ApplicationCommandRequest definition) {
+		if (definition == null) {
+			return event.reply(String.format("I am sorry, but I have forgotten how to do %s", event.getCommandName()));
+		}
+		CommandRegistry.RegisteredCommand command = commands.get(definition.name());
+		return command == null ? Mono.empty() : executeCommand(event, command);
+	}
+
+	/**
+	 * The message name of the reply to the command rejected due too many commands
+	 * in flight.
+	 */
+	public static final String COMMAND_BUSY_MESSAGE = "command.messages.busy";
+
+	/**
+	 * The message name of the reply to the failed command.
+	 */
+	public static final String COMMAND_EXECUTION_ERROR_FORMAT_MESSAGE = "command.messages.execution_error_format";
+
+	/**
+	 * Executes the registered command triggered by the given event. The command is
+	 * executed by the command executor instead of the thread delivering the event.
+	 * 
+	 * @param event   The event causing the command.
+	 * @param command The registered command.
+	 * @return The resulting reply message of the command execution.
+	 * @see CommandExecutor#executeCommand(ChatInputInteractionEvent, CommandRegistry.RegisteredCommand,
+	 *      CommandExecutor.Replies, Logging)
+	 */
+	protected Publisher<?> executeCommand(ChatInputInteractionEvent event, CommandRegistry.RegisteredCommand command) {
+		return getExecutor().executeCommand(event, command, commandReplies, this);
+	}
+
+	/**
+	 * The localized replies to the rejected and failed commands.
+	 */
+	private final CommandExecutor.Replies commandReplies = new CommandExecutor.Replies() {
+
+		@Override
+		public String getBusyMessage(ChatInputInteractionEvent event) {
+			return getActionRollMessageTemplate(COMMAND_BUSY_MESSAGE, guildLocales.getLocale(event.getInteraction())).format();
+		}
+
+		@Override
+		public String getFailureMessage(ChatInputInteractionEvent event, Throwable failure) {
+			return getActionRollMessageTemplate(COMMAND_EXECUTION_ERROR_FORMAT_MESSAGE,
+					guildLocales.getLocale(event.getInteraction())).format(failure.getMessage());
+		}
+	};
+
+	/**
+	 * The executor of the commands. The default executor is created on first use.
+	 */
+	private volatile CommandExecutor executor;
+
+	/**
+	 * Get the executor of the commands.
+	 * 
+	 * @return The command executor.
+	 */
+	public CommandExecutor getExecutor() {
+		CommandExecutor result = executor;
+		if (result == null) {
+			synchronized (this) {
+				if ((result = executor) == null) {
+					executor = result = new CommandExecutor();
+				}
 			}
 		}
-		return result; // Returning the added commands.
+		return result;
+	}
+
+	/**
+	 * Set the executor of the commands. The replaced executor is closed.
+	 * 
+	 * @param executor The new command executor.
+	 * @throws IllegalArgumentException The executor was undefined.
+	 */
+	public void setExecutor(CommandExecutor executor) throws IllegalArgumentException {
+		if (executor == null) {
+			throw new IllegalArgumentException("Undefined command executor");
+		}
+		CommandExecutor replaced;
+		synchronized (this) {
+			replaced = this.executor;
+			this.executor = executor;
+		}
+		if (replaced != null && replaced != executor) {
+			replaced.close();
+		}
+	}
+
+	/**
+	 * The commands known to the bot.
+	 */
+	private final CommandRegistry commands = new CommandRegistry();
+
+	/**
+	 * The commands of specific guild.
+	 */
+	@SuppressWarnings("unused")
+	private java.util.TreeMap<Long, java.util.Set<String>> guildCommands = new java.util.TreeMap<>();
+
+	/**
+	 * The set of the known command names.
+	 * 
+	 * @return Always defined set of all known command names.
+	 */
+	public java.util.Set<String> getKnownCommandNames() {
+		return commands.getNames();
+	}
+
+	/**
+	 * Get known command with given name.
+	 * 
+	 * @param cmdName The command name.
+	 * @return The command request with given name.
+	 */
+	public Optional<ApplicationCommandRequest> getCommand(String cmdName) {
+		return getRegisteredCommand(cmdName).map(CommandRegistry.RegisteredCommand::getDefinition);
+	}
+
+	/**
+	 * Get known command with given name with its handler and metrics.
+	 * 
+	 * @param cmdName The command name.
+	 * @return The registered command with given name.
+	 */
+	public Optional<CommandRegistry.RegisteredCommand> getRegisteredCommand(String cmdName) {
+		return Optional.ofNullable(commands.get(cmdName));
+	}
+
+	/**
+	 * Set the application command with given name.
+	 * 
+	 * @param cmdName The command name.
+	 * @param command The command with given name.
+	 * @return The replaced command, if any exists.
+	 * @throws IllegalArgumentException Either the command name or command was
+	 *                                  invalid, or the command was not added
+	 *                                  with its handler.
+	 */
+	protected Optional<ApplicationCommandRequest> setCommand(String cmdName, ApplicationCommandRequest command)
+			throws IllegalArgumentException {
+		if (command == null) {
+			return removeCommand(cmdName);
+		} else {
+			return this.commands.setDefinition(cmdName, command);
+		}
+	}
+
+	/**
+	 * Remove the given command.
+	 * 
+	 * @param cmdName The removed command name.
+	 * @return The previous value of the command, if any exists.
+	 */
+	public Optional<ApplicationCommandRequest> removeCommand(String cmdName) {
+		return this.commands.remove(cmdName).map(CommandRegistry.RegisteredCommand::getDefinition);
+	}
+
+	/**
+	 * Registers all known commands to all known guilds.
+	 */
+	public void registerCommands() {
+		registerCommands(this.getKnownCommandNames());
+	}
+
+	
+	/**
+	 * Are the request and command equals. 
+	 * @param command The command on server.  
+	 * @param request The request defining the command. 
+	 * @return True, if and only if the values are equals. 
+	 */
+	public boolean equalCommand(ApplicationCommandData command, Optional<ApplicationCommandRequest> request) {
+		return CommandReconciler.equalCommand(command, request);
+	}
+	
+	/**
+	 * Register given commands to the server. The commands are either updated or
+	 * registered on this command, and the other commands of the guilds are kept.
+	 * The method blocks until the commands of all guilds are registered.
+	 * 
+	 * @param commands The list of registered commands.
+	 * @return The list of added commands.
+	 * @throws IllegalStateException The bot is not connected.
+	 */
+	public Set<String> registerCommands(java.util.Collection<String> commands) throws IllegalStateException {
+		return updateCommands(commands).block();
+	}
+
+	/**
+	 * Add or update given commands on the served guilds. The other commands of
+	 * the guilds are kept. A failed guild does not prevent updating the other
+	 * guilds.
+	 * 
+	 * @param commands The list of added or updated commands.
+	 * @return The mono emitting the added commands as "command@guild".
+	 */
+	public Mono<Set<String>> updateCommands(java.util.Collection<String> commands) {
+		return applyCommands(commands, false);
+	}
+
+	/**
+	 * Reconcile given commands with the commands of the served guilds. The given
+	 * commands become the command set of each guild: the commands missing from
+	 * the given commands are deleted from the guilds. The guilds are reconciled
+	 * concurrently with the application identifier fetched once, and a guild
+	 * is written only if its commands have changed. A failed guild does not
+	 * prevent reconciling the other guilds.
+	 * 
+	 * @param commands The complete list of the commands of the guilds.
+	 * @return The mono emitting the added commands as "command@guild".
+	 */
+	public Mono<Set<String>> reconcileCommands(java.util.Collection<String> commands) {
+		return applyCommands(commands, true);
+	}
+
+	/**
+	 * Apply given commands to the served guilds concurrently.
+	 * 
+	 * @param commands The list of the commands.
+	 * @param replace  Do the commands replace the command sets of the guilds, or
+	 *                 are they added or updated.
+	 * @return The mono emitting the added commands as "command@guild".
+	 */
+	private Mono<Set<String>> applyCommands(java.util.Collection<String> commands, boolean replace) {
+		debug("Registering commands" + (commands == null ? "" : commands.toString()));
+		if (commands == null) {
+			return Mono.just(new java.util.TreeSet<>());
+		}
+		java.util.List<ApplicationCommandRequest> desired = new ArrayList<>();
+		for (String cmdName : commands) {
+			Optional<ApplicationCommandRequest> command = getCommand(cmdName);
+			if (command.isPresent()) {
+				desired.add(command.get());
+			} else {
+				error("Application command %s did not exist!", cmdName);
+				removeCommand(cmdName);
+				error("Missing command %s removed!", cmdName);
+			}
+		}
+		return getApplicationId().flatMapMany((Long appId) -> {
+			CommandReconciler.Target target = CommandReconciler
+					.target(connection.getRestClient().getApplicationService(), appId);
+			return Flux.fromIterable(this.guildIds).flatMap((Long guildId) -> (replace
+					? reconciler.reconcile(target, guildId, desired)
+					: reconciler.update(target, guildId, desired))
+					.map((String cmdName) -> MessageFormat.format("{0}@{1}", cmdName, guildId))
+					.onErrorResume((Throwable e) -> {
+						error("Registering commands to server %s failed: %s", guildId, e.getMessage());
+						return Flux.empty();
+					}));
+		}).collectList().map(java.util.TreeSet::new);
 	}
 
 	/**
@@ -840,9 +1872,9 @@ public class DiscordBot extends Logging implements Runnable {
 	 *
 	 */
 	public static class Special implements com.kautiainen.antti.infinitybot.model.Special {
-		private String name;
-		private int value = 1;
-		private boolean stacking = false;
+		private final String name;
+		private final int value;
+		private final boolean stacking;
 
 		/**
 		 * Creates a new special value.
@@ -873,6 +1905,15 @@ public class DiscordBot extends Logging implements Runnable {
 			this(name, value == null ? 1 : value, value != null && value != 0);
 		}
 
+		/**
+		 * The pattern matching the string representation of the special. The first
+		 * group contains the name, and the second group the value. The capturing
+		 * word pattern of the bot is used, as the inherited word pattern of the
+		 * special has no groups.
+		 */
+		public static final Pattern FROM_STRING_PATTERN = Pattern
+				.compile("^" + DiscordBot.WORD_PATTERN.toString() + "(?:\\(([+\\-\\s]\\d*)\\))?$");
+
 		/**
 		 * Create a special from its string representation.
 		 * 
@@ -880,9 +1921,7 @@ public class DiscordBot extends Logging implements Runnable {
 		 * @return THe created Special, if any exists.
 		 */
 		public static Optional<Special> of(String stringRep) {
-			Pattern pattern = Pattern.compile("^" + WORD_PATTERN.toString() + 
-					"(?:\\(([+\\-\\s]\\d*)\\))?$");
-			Matcher match = pattern.matcher(stringRep);
+			Matcher match = FROM_STRING_PATTERN.matcher(stringRep);
 			if (match.matches()) {
 				String name = match.group(1), value = match.group(2);
 				return Optional.of(new Special(name, value == null ? null : Integer.parseInt(value)));
@@ -910,9 +1949,20 @@ public class DiscordBot extends Logging implements Runnable {
 			return this.value;
 		}
 
+		/**
+		 * Get the stacked special.
+		 * 
+		 * @param value The added value.
+		 * @return The stacked special. The special is immutable, so the non-stacking
+		 *         special and the stacking of zero return this special. Otherwise
+		 *         the interned special value is returned.
+		 */
 		@Override
-		public Special getStacked(int value) {
-			return new Special(this.getName(), this.getValue() + (this.stacks() ? value : 0), this.stacks());
+		public com.kautiainen.antti.infinitybot.model.Special getStacked(int value) {
+			if (!this.stacks() || value == 0) {
+				return this;
+			}
+			return SpecialValue.of(this.getName(), true, this.getValue() + value, this.getNumberValue());
 		}
 
 		/**
@@ -981,6 +2031,70 @@ public class DiscordBot extends Logging implements Runnable {
 		public Optional<Integer> getNumberValue() {
 			return Optional.of(this.getValue());
 		}
+
+		/**
+		 * Get the stacked vicious.
+		 * 
+		 * @param value The added value.
+		 * @return The interned special value whose numeric value is the stacked value.
+		 */
+		@Override
+		public com.kautiainen.antti.infinitybot.model.Special getStacked(int value) {
+			if (value == 0) {
+				return this;
+			}
+			int stacked = this.getValue() + value;
+			return SpecialValue.of(this.getName(), true, stacked, Optional.of(stacked));
+		}
+	}
+
+	/**
+	 * Log in to the discord with the configured client.
+	 * 
+	 * @return The mono emitting the connection once logged in.
+	 */
+	protected Mono<GatewayDiscordClient> login() {
+		if (client == null) {
+			return Mono.error(new IllegalStateException("Cannot log in without configured client"));
+		}
+		return client.login().doOnNext((GatewayDiscordClient gateway) -> {
+			connection = gateway;
+			// A failed lookup is not cached, so the next caller fetches the identifier again.
+			applicationId = gateway.getRestClient().getApplicationId().cache(
+					(Long id) -> Duration.ofMillis(Long.MAX_VALUE), (Throwable error) -> Duration.ZERO,
+					() -> Duration.ZERO);
+		});
+	}
+
+	/**
+	 * Get the application identifier of the connection. The identifier is fetched
+	 * once per connection, and fetched again if the lookup failed.
+	 * 
+	 * @return The mono emitting the application identifier, or error, if the bot
+	 *         is not connected.
+	 */
+	protected Mono<Long> getApplicationId() {
+		Mono<Long> result = applicationId;
+		return result == null ? Mono.error(new IllegalStateException("Not connected")) : result;
+	}
+
+	/**
+	 * Start the bot. The bot logs in, adds the default handlers, and reconciles
+	 * the known commands of all guilds concurrently. A failed reconciliation is
+	 * logged, and does not stop the bot.
+	 * 
+	 * @return The mono completing when the bot disconnects.
+	 */
+	public Mono<Void> start() {
+		return login().flatMap((GatewayDiscordClient gateway) -> Mono.when(addHandlers(),
+				reconcileCommands(getKnownCommandNames())
+						.doOnNext((Set<String> added) -> info("Registered commands %s", added))
+						.onErrorResume((Throwable e) -> {
+							// The bot keeps serving the existing commands.
+							error("Registering commands failed: %s", e.getMessage());
+							return Mono.empty();
+						}),
+				gateway.onDisconnect()));
 	}
 
 	protected void connect() {
@@ -989,8 +2103,7 @@ public class DiscordBot extends Logging implements Runnable {
 
 	public void run() {
 		connect();
-		registerCommands();
-
+		start().block();
 	}
 
 	/**
@@ -1001,11 +2114,14 @@ public class DiscordBot extends Logging implements Runnable {
 	 * @param removed The removed commands list.
 	 */
 	public void unregisterCommands(Long guildId, String... removed) {
-		long appId = connection.getRestClient().getApplicationId().block();
+		long appId = getApplicationId().block();
 		java.util.Map<String, ApplicationCommandData> discordCommands = connection.getRestClient()
 				.getApplicationService().getGuildApplicationCommands(appId, guildId)
 				.collectMap(ApplicationCommandData::name).block();
 
+		if (guildId != null) {
+			reconciler.invalidate(appId, guildId);
+		}
 		for (String cmdName : removed) {
 			if (discordCommands.containsKey(cmdName)) {
 				long commandId = Long.parseLong(discordCommands.get(cmdName).id());
@@ -1068,12 +2184,49 @@ public class DiscordBot extends Logging implements Runnable {
 			return "DiscordBot> ";
 		}
 
+		/**
+		 * Perform the simulation command.
+		 * 
+		 * The action simulation takes the parameters
+		 * <code>trials dice tn [focus] [complication]</code>, and the effect
+		 * simulation takes the parameters <code>trials dice [base] [traits...]</code>.
+		 * 
+		 * @param type       The simulated roll type.
+		 * @param parameters The whitespace separated parameters.
+		 * @return The result of the simulation, or the usage message.
+		 */
+		public String simulate(String type, String parameters) {
+			String[] params = parameters == null || parameters.isBlank() ? new String[0]
+					: parameters.trim().split("\\s+");
+			long seed = java.util.concurrent.ThreadLocalRandom.current().nextLong();
+			try {
+				if ("action".equalsIgnoreCase(type)) {
+					if (params.length < 3 || params.length > 5) {
+						return "Usage: simulate action trials dice tn [focus] [complication]";
+					}
+					return simulateAction(Long.parseLong(params[0]), seed, Long.parseLong(params[1]),
+							Long.parseLong(params[2]), params.length > 3 ? Long.parseLong(params[3]) : 0L,
+							params.length > 4 ? Long.parseLong(params[4]) : 20L);
+				} else {
+					if (params.length < 2) {
+						return "Usage: simulate effect trials dice [base] [traits...]";
+					}
+					return simulateEffect(Long.parseLong(params[0]), seed, params.length > 2 ? Long.parseLong(params[2]) : 0L,
+							Long.parseLong(params[1]),
+							String.join(" ", Arrays.asList(params).subList(Math.min(3, params.length), params.length)));
+				}
+			} catch (NumberFormatException nfe) {
+				return "Invalid number " + nfe.getMessage();
+			}
+		}
+
 		/**
 		 * The main program running.
 		 */
 		public void run() {
 
 			String line;
+			Matcher matcher;
 			boolean goOn = true;
 			try {
 				if (interactive()) {
@@ -1088,6 +2241,8 @@ public class DiscordBot extends Logging implements Runnable {
 					} else if (LIST_GAMES.matcher(line).matches()) {
 						out.println("\n=======================\nListing games");
 						out.println("========================\n");
+					} else if ((matcher = SIMULATE_PATTERN.matcher(line)).matches()) {
+						out.println(simulate(matcher.group(1), matcher.group(2)));
 					} else if (!line.isEmpty()) {
 						out.println("Unknown command");
 					}
@@ -1111,9 +2266,10 @@ public class DiscordBot extends Logging implements Runnable {
 			DiscordBot bot = new DiscordBot(args);
 			// we do have a bot. Starting it.
 			CLI cli = bot.new CLI();
-			(new Thread(cli)).start();
+			VirtualThreads.start("cli", cli);
 
-			(new Thread(bot)).start();
+			// Running the bot until it disconnects.
+			bot.run();
 			System.exit(0);
 		} catch (java.util.ServiceConfigurationError sce) {
 			// Server startup failed.
@@ -1,6 +1,5 @@
 package com.kautiainen.antti.infinitybot;
 
-import java.text.MessageFormat;
 import java.util.ServiceConfigurationError;
 
 import discord4j.discordjson.json.ApplicationCommandRequest;
@@ -71,7 +70,8 @@ public class DuneBot extends Modiphius2d20SrdBot implements Runnable {
 	@Override
 	protected void initCommands() {
 		ApplicationCommandRequest action = getActionCommand();
-		this.addCommand(action);
+		this.addCommand(action, getActionCommandHandler());
+		this.addCommand(getOddsCommand(), getOddsCommandHandler());
 	}
 
 	
@@ -97,20 +97,6 @@ public class DuneBot extends Modiphius2d20SrdBot implements Runnable {
 	}
 
 
-	/**
-	 * Adds command to the known commands of the system.
-	 * 
-	 * @param command The added Discord command
-	 */
-	public void addCommand(ApplicationCommandRequest command) {
-		if (command == null) {
-			debug("Cannot register undefined command");
-		} else {
-			this.commands.put(command.name(), command);
-			debugMessage(MessageFormat.format("Command {0} registered", command.name()));
-		}
-	}
-
 	/**
 	 * Configures the server from given command line arguments.
 	 * 
@@ -146,11 +132,6 @@ public class DuneBot extends Modiphius2d20SrdBot implements Runnable {
 		this();
 
 		configure(args);
-
-		registerCommands();
-
-		addHandlers();
-
 	}
 
 	/**
@@ -0,0 +1,119 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import discord4j.core.spec.EmbedCreateFields;
+import discord4j.core.spec.EmbedCreateSpec;
+
+/**
+ * The template of an embed reply.
+ *
+ * The template keeps the base embed, and the localized names of the fields, so
+ * a reply only fills the title and the values of the fields.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class EmbedTemplate {
+
+	/**
+	 * The embed the replies are built on.
+	 */
+	private final EmbedCreateSpec base;
+
+	/**
+	 * The names of the fields.
+	 */
+	private final String[] fieldNames;
+
+	/**
+	 * Are the fields shown inline.
+	 */
+	private final boolean[] inline;
+
+	/**
+	 * Create a new template.
+	 *
+	 * @param base       The embed the replies are built on.
+	 * @param fieldNames The names of the fields.
+	 * @param inline     Are the fields shown inline. An undefined value shows
+	 *                   all fields inline.
+	 * @throws IllegalArgumentException The base or a field name was undefined,
+	 *                                  or the inline flags did not match the
+	 *                                  fields.
+	 */
+	public EmbedTemplate(EmbedCreateSpec base, String[] fieldNames, boolean[] inline)
+			throws IllegalArgumentException {
+		if (base == null) {
+			throw new IllegalArgumentException("Undefined base embed");
+		}
+		if (fieldNames == null || Arrays.asList(fieldNames).contains(null)) {
+			throw new IllegalArgumentException("Undefined field name");
+		}
+		if (inline != null && inline.length != fieldNames.length) {
+			throw new IllegalArgumentException("Invalid inline flags");
+		}
+		this.base = base;
+		this.fieldNames = fieldNames.clone();
+		if (inline == null) {
+			this.inline = new boolean[fieldNames.length];
+			Arrays.fill(this.inline, true);
+		} else {
+			this.inline = inline.clone();
+		}
+	}
+
+	/**
+	 * Get the embed the replies are built on.
+	 *
+	 * @return The base embed.
+	 */
+	public EmbedCreateSpec getBase() {
+		return base;
+	}
+
+	/**
+	 * Get the number of the fields.
+	 *
+	 * @return The number of the fields.
+	 */
+	public int getFieldCount() {
+		return fieldNames.length;
+	}
+
+	/**
+	 * Get the name of a field.
+	 *
+	 * @param index The index of the field.
+	 * @return The name of the field.
+	 * @throws IndexOutOfBoundsException The index was invalid.
+	 */
+	public String getFieldName(int index) throws IndexOutOfBoundsException {
+		return fieldNames[index];
+	}
+
+	/**
+	 * Render the embed of a reply. The fields with an undefined or empty value
+	 * are left out, as the Discord does not accept empty fields.
+	 *
+	 * @param title  The title of the reply.
+	 * @param values The values of the fields.
+	 * @return The embed of the reply.
+	 * @throws IllegalArgumentException The number of the values did not match
+	 *                                  the fields.
+	 */
+	public EmbedCreateSpec render(String title, String... values) throws IllegalArgumentException {
+		if (values == null || values.length != fieldNames.length) {
+			throw new IllegalArgumentException("Invalid number of field values");
+		}
+		List<EmbedCreateFields.Field> fields = new ArrayList<>(values.length);
+		for (int index = 0; index < values.length; index++) {
+			if (values[index] != null && !values[index].isEmpty()) {
+				fields.add(EmbedCreateFields.Field.of(fieldNames[index], values[index], inline[index]));
+			}
+		}
+		return (title == null ? base : base.withTitle(title)).withFields(fields);
+	}
+}
@@ -0,0 +1,47 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The cache of the embed templates by the command and the locale.
+ *
+ * The template of a command and a locale is built once on its first use.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class EmbedTemplates {
+
+	/**
+	 * The templates by the command name and the language tag of the locale.
+	 */
+	private final ConcurrentHashMap<String, EmbedTemplate> templates = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the template of a command.
+	 *
+	 * @param commandName The command name.
+	 * @param locale      The locale of the template, or undefined value for the
+	 *                    default locale.
+	 * @param factory     The factory building the template of the locale.
+	 * @return The cached template.
+	 */
+	public EmbedTemplate get(String commandName, Locale locale, Function<Locale, EmbedTemplate> factory) {
+		String key = commandName + "@" + (locale == null ? "" : locale.toLanguageTag());
+		EmbedTemplate result = templates.get(key);
+		if (result == null) {
+			result = templates.computeIfAbsent(key, (String name) -> factory.apply(locale));
+		}
+		return result;
+	}
+
+	/**
+	 * Remove the cached templates. The templates are built again on their next
+	 * use, e.g. after the messages have been reloaded.
+	 */
+	public void clear() {
+		templates.clear();
+	}
+}
@@ -0,0 +1,72 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.command.Interaction;
+import discord4j.core.object.entity.Guild;
+
+/**
+ * The preferred locales of the guilds served by a bot.
+ *
+ * The replies to an interaction use the preferred locale of its guild. The
+ * locale of the user is not used, as Discord4J does not provide it for the
+ * interactions.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class GuildLocales {
+
+	/**
+	 * The preferred locales of the guilds by the guild identifier.
+	 */
+	private final ConcurrentHashMap<Long, Locale> locales = new ConcurrentHashMap<>();
+
+	/**
+	 * Set the preferred locale of a guild.
+	 *
+	 * @param guildId The guild identifier.
+	 * @param locale  The preferred locale of the guild, or undefined value to use
+	 *                the default locale.
+	 */
+	public void set(long guildId, Locale locale) {
+		if (locale == null) {
+			locales.remove(guildId);
+		} else {
+			locales.put(guildId, locale);
+		}
+	}
+
+	/**
+	 * Update the preferred locale of a created or an updated guild.
+	 *
+	 * @param guild The guild.
+	 */
+	public void update(Guild guild) {
+		set(guild.getId().asLong(), guild.getPreferredLocale());
+	}
+
+	/**
+	 * Get the preferred locale of a guild.
+	 *
+	 * @param guildId The guild identifier.
+	 * @return The preferred locale of the guild, or undefined value for the
+	 *         default locale.
+	 */
+	public Locale get(long guildId) {
+		return locales.get(guildId);
+	}
+
+	/**
+	 * Get the locale of the replies to an interaction.
+	 *
+	 * @param interaction The interaction.
+	 * @return The locale of the replies, or undefined value for the default
+	 *         locale.
+	 */
+	public Locale getLocale(Interaction interaction) {
+		return interaction.getGuildId().map((Snowflake guildId) -> locales.get(guildId.asLong())).orElse(null);
+	}
+}
@@ -0,0 +1,228 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.event.domain.interaction.InteractionCreateEvent;
+
+/**
+ * The logging context of the command being handled.
+ *
+ * The context holds the correlation identifier of the handled interaction, and
+ * the snowflakes of the interaction, the guild, and the user. The context is
+ * bound to the current thread by {@link #open(LogContext)}, and the structured
+ * log events created while it is open carry its values. The work moved to
+ * other threads carries the context with {@link #wrap(Supplier)} and
+ * {@link #wrap(Runnable)}.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class LogContext {
+
+	/**
+	 * The undefined snowflake.
+	 */
+	public static final long UNDEFINED_SNOWFLAKE = 0L;
+
+	/**
+	 * The context of the current thread.
+	 */
+	private static final ThreadLocal<LogContext> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The scope of the open context. Closing the scope restores the context
+	 * replaced by the opening.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		/**
+		 * The replaced context.
+		 */
+		private final LogContext previous;
+
+		private Scope(LogContext previous) {
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Get the context of the current thread.
+	 *
+	 * @return The current context, or undefined value, if no context is open.
+	 */
+	public static LogContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Open the context on the current thread.
+	 *
+	 * @param context The opened context. Undefined context clears the context of
+	 *                the scope.
+	 * @return The scope restoring the previous context when closed.
+	 */
+	public static Scope open(LogContext context) {
+		LogContext previous = CURRENT.get();
+		if (context == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(context);
+		}
+		return new Scope(previous);
+	}
+
+	/**
+	 * Create the logging context of the interaction.
+	 *
+	 * @param event The interaction event.
+	 * @return The logging context with a new correlation identifier and the
+	 *         snowflakes of the interaction, the guild, and the user.
+	 */
+	public static LogContext of(InteractionCreateEvent event) {
+		return new LogContext(null, event.getInteraction().getId().asLong(),
+				event.getInteraction().getGuildId().map(Snowflake::asLong).orElse(UNDEFINED_SNOWFLAKE),
+				event.getInteraction().getUser().getId().asLong());
+	}
+
+	/**
+	 * Create a new correlation identifier.
+	 *
+	 * @return The new random correlation identifier.
+	 */
+	public static String newCorrelationId() {
+		String digits = Long.toHexString(ThreadLocalRandom.current().nextLong());
+		return "0".repeat(16 - digits.length()) + digits;
+	}
+
+	/**
+	 * Wrap the supplier to run in the current context.
+	 *
+	 * @param <T>      The type of the supplied value.
+	 * @param supplier The wrapped supplier.
+	 * @return The supplier opening the context of the caller around the given
+	 *         supplier.
+	 */
+	public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+		final LogContext context = current();
+		return () -> {
+			Scope scope = open(context);
+			try {
+				return supplier.get();
+			} finally {
+				scope.close();
+			}
+		};
+	}
+
+	/**
+	 * Wrap the task to run in the current context.
+	 *
+	 * @param task The wrapped task.
+	 * @return The task opening the context of the caller around the given task.
+	 */
+	public static Runnable wrap(Runnable task) {
+		final LogContext context = current();
+		return () -> {
+			Scope scope = open(context);
+			try {
+				task.run();
+			} finally {
+				scope.close();
+			}
+		};
+	}
+
+	/**
+	 * The correlation identifier.
+	 */
+	private final String correlationId;
+
+	/**
+	 * The snowflake of the interaction.
+	 */
+	private final long interactionId;
+
+	/**
+	 * The snowflake of the guild.
+	 */
+	private final long guildId;
+
+	/**
+	 * The snowflake of the user.
+	 */
+	private final long userId;
+
+	/**
+	 * Create a new logging context.
+	 *
+	 * @param correlationId The correlation identifier. Defaults to a new
+	 *                      correlation identifier.
+	 * @param interactionId The snowflake of the interaction, or
+	 *                      {@link #UNDEFINED_SNOWFLAKE}.
+	 * @param guildId       The snowflake of the guild, or
+	 *                      {@link #UNDEFINED_SNOWFLAKE}.
+	 * @param userId        The snowflake of the user, or
+	 *                      {@link #UNDEFINED_SNOWFLAKE}.
+	 */
+	public LogContext(String correlationId, long interactionId, long guildId, long userId) {
+		this.correlationId = correlationId == null ? newCorrelationId() : correlationId;
+		this.interactionId = interactionId;
+		this.guildId = guildId;
+		this.userId = userId;
+	}
+
+	/**
+	 * Get the correlation identifier.
+	 *
+	 * @return The correlation identifier.
+	 */
+	public String getCorrelationId() {
+		return correlationId;
+	}
+
+	/**
+	 * Get the snowflake of the interaction.
+	 *
+	 * @return The interaction snowflake, or {@link #UNDEFINED_SNOWFLAKE}.
+	 */
+	public long getInteractionId() {
+		return interactionId;
+	}
+
+	/**
+	 * Get the snowflake of the guild.
+	 *
+	 * @return The guild snowflake, or {@link #UNDEFINED_SNOWFLAKE}.
+	 */
+	public long getGuildId() {
+		return guildId;
+	}
+
+	/**
+	 * Get the snowflake of the user.
+	 *
+	 * @return The user snowflake, or {@link #UNDEFINED_SNOWFLAKE}.
+	 */
+	public long getUserId() {
+		return userId;
+	}
+
+	@Override
+	public String toString() {
+		return correlationId;
+	}
+}
@@ -0,0 +1,275 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The structured log event.
+ *
+ * The event has a name, a time, the key value fields in the order of adding,
+ * and the logging context current at the creation of the event. The event is
+ * written either as a JSON line by {@link #toJson()}, or as a text message by
+ * {@link #toString()}.
+ *
+ * The event is not thread safe.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class LogEvent {
+
+	/**
+	 * The name of the event.
+	 */
+	private final String name;
+
+	/**
+	 * The time of the event in milliseconds.
+	 */
+	private final long time;
+
+	/**
+	 * The logging context of the event.
+	 */
+	private final LogContext context;
+
+	/**
+	 * The keys of the fields.
+	 */
+	private final List<String> keys = new ArrayList<>(8);
+
+	/**
+	 * The values of the fields.
+	 */
+	private final List<Object> values = new ArrayList<>(8);
+
+	/**
+	 * Create a new event with the current logging context.
+	 *
+	 * @param name The name of the event.
+	 * @throws IllegalArgumentException The name was undefined or empty.
+	 */
+	public LogEvent(String name) throws IllegalArgumentException {
+		this(name, LogContext.current());
+	}
+
+	/**
+	 * Create a new event.
+	 *
+	 * @param name    The name of the event.
+	 * @param context The logging context of the event, if any.
+	 * @throws IllegalArgumentException The name was undefined or empty.
+	 */
+	public LogEvent(String name, LogContext context) throws IllegalArgumentException {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("Invalid event name");
+		}
+		this.name = name;
+		this.time = System.currentTimeMillis();
+		this.context = context;
+	}
+
+	/**
+	 * Add a field.
+	 *
+	 * @param key   The key of the field.
+	 * @param value The value of the field.
+	 * @return This event.
+	 * @throws IllegalArgumentException The key was undefined.
+	 */
+	public LogEvent with(String key, Object value) throws IllegalArgumentException {
+		if (key == null) {
+			throw new IllegalArgumentException("Undefined field key");
+		}
+		keys.add(key);
+		values.add(value);
+		return this;
+	}
+
+	/**
+	 * Add the fields.
+	 *
+	 * @param keyValues The keys followed by their values.
+	 * @return This event.
+	 * @throws IllegalArgumentException The number of the key values was odd, or a
+	 *                                  key was not a string.
+	 */
+	public LogEvent with(Object... keyValues) throws IllegalArgumentException {
+		if (keyValues != null) {
+			if (keyValues.length % 2 != 0) {
+				throw new IllegalArgumentException("Key without value");
+			}
+			for (int index = 0; index < keyValues.length; index += 2) {
+				if (!(keyValues[index] instanceof String)) {
+					throw new IllegalArgumentException("Invalid field key");
+				}
+				with((String) keyValues[index], keyValues[index + 1]);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Get the name of the event.
+	 *
+	 * @return The name of the event.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the time of the event.
+	 *
+	 * @return The time of the event in milliseconds since the epoch.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Get the logging context of the event.
+	 *
+	 * @return The logging context, or undefined value, if the event has no
+	 *         context.
+	 */
+	public LogContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Get the fields of the event.
+	 *
+	 * @return The unmodifiable list of the fields in the order of adding.
+	 */
+	public List<Map.Entry<String, Object>> getFields() {
+		List<Map.Entry<String, Object>> result = new ArrayList<>(keys.size());
+		for (int index = 0; index < keys.size(); index++) {
+			result.add(new java.util.AbstractMap.SimpleImmutableEntry<>(keys.get(index), values.get(index)));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Append the JSON string.
+	 *
+	 * @param result The builder of the result.
+	 * @param value  The string value.
+	 * @return The builder of the result.
+	 */
+	protected static StringBuilder appendJsonString(StringBuilder result, CharSequence value) {
+		result.append('"');
+		for (int index = 0, end = value.length(); index < end; index++) {
+			char c = value.charAt(index);
+			switch (c) {
+			case '"':
+				result.append("\\\"");
+				break;
+			case '\\':
+				result.append("\\\\");
+				break;
+			case '\n':
+				result.append("\\n");
+				break;
+			case '\r':
+				result.append("\\r");
+				break;
+			case '\t':
+				result.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					result.append(String.format("\\u%04x", (int) c));
+				} else {
+					result.append(c);
+				}
+			}
+		}
+		return result.append('"');
+	}
+
+	/**
+	 * Append the JSON value.
+	 *
+	 * @param result The builder of the result.
+	 * @param value  The value.
+	 * @return The builder of the result.
+	 */
+	protected static StringBuilder appendJsonValue(StringBuilder result, Object value) {
+		if (value == null) {
+			return result.append("null");
+		} else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+				|| value instanceof Short || value instanceof Byte) {
+			return result.append(value);
+		} else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+			return result.append(value);
+		} else {
+			return appendJsonString(result, value.toString());
+		}
+	}
+
+	/**
+	 * Get the JSON line of the event.
+	 *
+	 * The JSON object has the fields <code>time</code>, <code>event</code>, the
+	 * context fields <code>correlationId</code>, <code>interactionId</code>,
+	 * <code>guildId</code>, and <code>userId</code>, and the fields of the event.
+	 * The snowflakes are strings and the undefined snowflakes are left out.
+	 *
+	 * @return The JSON object of the event on single line.
+	 */
+	public String toJson() {
+		StringBuilder result = new StringBuilder(128);
+		result.append("{\"time\":");
+		appendJsonString(result, Instant.ofEpochMilli(time).toString());
+		result.append(",\"event\":");
+		appendJsonString(result, name);
+		if (context != null) {
+			result.append(",\"correlationId\":");
+			appendJsonString(result, context.getCorrelationId());
+			appendSnowflake(result, "interactionId", context.getInteractionId());
+			appendSnowflake(result, "guildId", context.getGuildId());
+			appendSnowflake(result, "userId", context.getUserId());
+		}
+		for (int index = 0; index < keys.size(); index++) {
+			result.append(',');
+			appendJsonString(result, keys.get(index)).append(':');
+			appendJsonValue(result, values.get(index));
+		}
+		return result.append('}').toString();
+	}
+
+	/**
+	 * Append the defined snowflake field.
+	 *
+	 * @param result    The builder of the result.
+	 * @param key       The key of the field.
+	 * @param snowflake The snowflake.
+	 */
+	private static void appendSnowflake(StringBuilder result, String key, long snowflake) {
+		if (snowflake != LogContext.UNDEFINED_SNOWFLAKE) {
+			result.append(",\"").append(key).append("\":\"").append(Long.toUnsignedString(snowflake)).append('"');
+		}
+	}
+
+	/**
+	 * Get the text message of the event.
+	 *
+	 * @return The event name followed by the correlation identifier and the
+	 *         fields.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder(64).append(name);
+		if (context != null) {
+			result.append(" [").append(context.getCorrelationId()).append(']');
+		}
+		for (int index = 0; index < keys.size(); index++) {
+			result.append(' ').append(keys.get(index)).append('=').append(values.get(index));
+		}
+		return result.toString();
+	}
+}
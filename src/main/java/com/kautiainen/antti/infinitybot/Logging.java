@@ -2,14 +2,18 @@ package com.kautiainen.antti.infinitybot;
 
 import java.text.MessageFormat;
 import java.util.Date;
-import java.util.Map;
-import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Class for logging objects.
  * 
+ * The logging does not lock: the logging level is volatile, and the message
+ * consumers are final. The level is checked before the message is formatted,
+ * so the formatting and the supplier based messages cost nothing when the
+ * level is disabled.
+ * 
  * @author Antti Kautiainen
  *
  */
@@ -18,14 +22,14 @@ public class Logging {
 	/**
 	 * The current logging level.
 	 */
-	private Level currentLoggingLevel = new Level(0);
+	private volatile Level currentLoggingLevel = new Level(0);
 
 	/**
 	 * Set the current logging level.
 	 * 
 	 * @param newLevel The new logging level.
 	 */
-	public synchronized void setLoggingLevel(Level newLevel) {
+	public void setLoggingLevel(Level newLevel) {
 		this.currentLoggingLevel = newLevel;
 	}
 
@@ -34,10 +38,45 @@ public class Logging {
 	 * 
 	 * @return The current logging level.
 	 */
-	public synchronized Level getLoggingLevel() {
+	public Level getLoggingLevel() {
 		return this.currentLoggingLevel;
 	}
 
+	/**
+	 * The system property selecting the output of the structured events. The
+	 * value <code>json</code> writes the events as JSON lines to the standard
+	 * output stream.
+	 */
+	public static final String LOGGING_EVENTS_PROPERTY = "logging.events";
+
+	/**
+	 * The consumer outputting the JSON lines of the structured events. Undefined
+	 * consumer sends the events as text messages to the consumer of the event
+	 * level.
+	 */
+	private volatile Consumer<String> events = null;
+
+	/**
+	 * Set the consumer of the structured events.
+	 * 
+	 * @param events The consumer receiving the JSON lines of the events. Undefined
+	 *               consumer sends the events as text messages to the consumer of
+	 *               the event level.
+	 */
+	public void setEventConsumer(Consumer<String> events) {
+		this.events = events;
+	}
+
+	/**
+	 * Get the consumer of the structured events.
+	 * 
+	 * @return The consumer of the JSON lines of the events, or undefined value,
+	 *         if the events are sent as text messages.
+	 */
+	public Consumer<String> getEventConsumer() {
+		return this.events;
+	}
+
 	/**
 	 * The consumer outputting the time stamped debug message.
 	 */
@@ -63,55 +102,141 @@ public class Logging {
 	 */
 	protected static final String DateFormaterString = "[%1$tF][%1$tH:%1$tT]";
 
+	/**
+	 * The formatter format of the prefix of the log lines with the date and the
+	 * tag. The tag is padded and truncated to five characters.
+	 */
+	protected static final String LinePrefixFormaterString = DateFormaterString + "[%2$5.5s]: ";
+
+	/**
+	 * The size of the escape table.
+	 */
+	private static final int ESCAPE_TABLE_SIZE = 256;
+
+	/**
+	 * The escapes of the characters of the escape table. The characters without
+	 * escape are printed as is.
+	 */
+	private static final String[] ESCAPE_TABLE = new String[ESCAPE_TABLE_SIZE];
+
+	/**
+	 * The hexadecimal digits of the unicode escapes.
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	static {
+		for (int codePoint = 0; codePoint < ESCAPE_TABLE_SIZE; codePoint++) {
+			ESCAPE_TABLE[codePoint] = createEscape(codePoint);
+		}
+	}
+
+	/**
+	 * Create the escape of the code point.
+	 * 
+	 * @param codePoint The code point.
+	 * @return The escape of the code point, or undefined value, if the code point
+	 *         is printed as is.
+	 */
+	private static String createEscape(int codePoint) {
+		if (Character.isUnicodeIdentifierPart(codePoint)
+				// Punctuation characters not requiring escapes.
+				|| (codePoint >= '\u0020' && codePoint <= '\u002f') || (codePoint >= '\u003a' && codePoint <= '\u0040')
+				|| (codePoint == '\u005b' || codePoint >= '\u005d' && codePoint <= '\u0060')
+				|| (codePoint >= '\u007b' && codePoint <= '\u007e')) {
+			return null;
+		}
+		switch (codePoint) {
+		case '\n':
+			return "\\n";
+		case '\t':
+			return "\\t";
+		case '\f':
+			return "\\f";
+		case '\r':
+			return "\\r";
+		case '\\':
+			return "\\\\";
+		case '\u00b4':
+			return "\\\u00b4";
+		default:
+			// Escaping the UTF-16 characters with unicode escapes.
+			StringBuilder result = new StringBuilder(10).append("\\x");
+			for (char charValue : Character.toChars(codePoint)) {
+				result.append(HEX_DIGITS[(charValue >> 12) & 0xf]).append(HEX_DIGITS[(charValue >> 8) & 0xf])
+						.append(HEX_DIGITS[(charValue >> 4) & 0xf]).append(HEX_DIGITS[charValue & 0xf]);
+			}
+			return result.toString();
+		}
+	}
+
+	/**
+	 * Get the escape of the code point.
+	 * 
+	 * @param codePoint The code point.
+	 * @return The escape of the code point, or undefined value, if the code point
+	 *         is printed as is.
+	 */
+	private static String getEscape(int codePoint) {
+		return codePoint < ESCAPE_TABLE_SIZE ? ESCAPE_TABLE[codePoint] : createEscape(codePoint);
+	}
+
 	/**
 	 * Escapes the given string
 	 * 
+	 * The characters are looked up from a precomputed table, and the source
+	 * without characters to escape is returned without copying.
+	 * 
 	 * @param source The source.
 	 * @return The escaped sequence.
 	 */
 	public static String escape(CharSequence source) {
 		if (source == null)
 			return null;
-		final Map<Integer, String> encodingMap = new TreeMap<>();
-		encodingMap.put(Integer.valueOf('\n'), "\\n");
-		encodingMap.put(Integer.valueOf('\t'), "\\t");
-		encodingMap.put(Integer.valueOf('\f'), "\\f");
-		encodingMap.put(Integer.valueOf('\r'), "\\r");
-		encodingMap.put(Integer.valueOf('\''), "\\\'");
-		encodingMap.put(Integer.valueOf('`'), "\\`");
-		encodingMap.put(Integer.valueOf('´'), "\\´");
-		encodingMap.put(Integer.valueOf('"'), "\\\"");
-		encodingMap.put(Integer.valueOf('\\'), "\\\\");
-		encodingMap.put(Integer.parseInt("5d", 16), "\\\u005d");
-		encodingMap.put(Integer.parseInt("5b", 16), "\\\u005b");
-		encodingMap.put(Integer.parseInt("2c", 16), "\\\u002c");
-		
-		final StringBuilder result = new StringBuilder();
-		source.codePoints().forEachOrdered((int i) -> {
-			if (Character.isUnicodeIdentifierPart(i) 
-					// Punctuation characters not requiring escapes. 
-					|| (i >= '\u0020' && i <= '\u002f') || (i >= '\u003a' && i <= '\u0040')
-					|| (i == '\u005b' || i >= '\u005d' && i <= '\u0060') ||
-					(i >= '\u007b' && i <= '\u007e') ) {
-				// Printing the character.
-				result.appendCodePoint(i);
+		final int length = source.length();
+		int index = 0;
+		String escape = null;
+		int codePoint = 0;
+		// Scanning the characters printed as is.
+		while (index < length) {
+			char charValue = source.charAt(index);
+			codePoint = Character.isSurrogate(charValue) ? Character.codePointAt(source, index) : charValue;
+			if ((escape = getEscape(codePoint)) != null) {
+				break;
+			}
+			index += Character.charCount(codePoint);
+		}
+		if (index == length) {
+			return source.toString();
+		}
+
+		final StringBuilder result = new StringBuilder(length + 16);
+		result.append(source, 0, index);
+		while (index < length) {
+			if (escape != null) {
+				result.append(escape);
 			} else {
-				if (encodingMap.containsKey(i)) {
-					result.append(encodingMap.get(i)); 
-				} else {
-					// Escaping the character with unicode escape.
-					StringBuilder escapeBuilder = new StringBuilder(); 
-					escapeBuilder.appendCodePoint(i); 
-					for (int index = escapeBuilder.length()-1; index >= 0; index--) { 
-						char charValue = escapeBuilder.charAt(index); 
-						escapeBuilder.replace(index, index+1,
-							String.format("%04x", (int)charValue)); 
-					}
-					escapeBuilder.insert(0, "\\x"); 
-					result.append(escapeBuilder.toString());
-				}
+				result.appendCodePoint(codePoint);
 			}
-		});
+			index += Character.charCount(codePoint);
+			if (index < length) {
+				char charValue = source.charAt(index);
+				codePoint = Character.isSurrogate(charValue) ? Character.codePointAt(source, index) : charValue;
+				escape = getEscape(codePoint);
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Get the stack trace of a failure.
+	 * 
+	 * @param failure The failure.
+	 * @return The stack trace of the failure as printed by
+	 *         {@link Throwable#printStackTrace()}.
+	 */
+	public static String getStackTrace(Throwable failure) {
+		java.io.StringWriter result = new java.io.StringWriter();
+		failure.printStackTrace(new java.io.PrintWriter(result));
 		return result.toString();
 	}
 
@@ -123,19 +248,43 @@ public class Logging {
 	 * @return The consumer sending the log to the given stream.
 	 */
 	public static Consumer<String> createLogConsumer(java.io.PrintStream out, String tag) {
-		return (String msg) -> out.printf(DateFormaterString + "[%2$5.5s]: %3$s\n", new Date(), "DEBUG", escape(msg));
+		return (String msg) -> out.printf(LinePrefixFormaterString + "%3$s\n", new Date(), tag, escape(msg));
+	}
+
+	/**
+	 * Create new asynchronous output consumer.
+	 * 
+	 * @param sink   The sink into which the result is published.
+	 * @param tag    The tag of the log type.
+	 * @param escape Does the sink escape the messages.
+	 * @return The consumer publishing the log to the given sink.
+	 */
+	public static Consumer<String> createLogConsumer(AsyncLogSink sink, String tag, boolean escape) {
+		return sink.createLogConsumer(tag, escape);
 	}
 
 	/**
 	 * Default logging using standard error stream as target of logging.
+	 * 
+	 * If the system property {@link AsyncLogSink#LOGGING_ASYNC_PROPERTY} is true,
+	 * the messages are written by the shared asynchronous sinks of the standard
+	 * streams.
 	 */
 	public Logging() {
-		this(createLogConsumer(System.out, "DEBUG"),
-				(String msg) -> System.err.printf(DateFormaterString + "[%2$5.5s]: %3$s\n", new Date(), "ERROR", msg),
-				(String msg) -> System.err.printf(DateFormaterString + "[%2$s]: %3$5.5s\n", new Date(), "WARNING", msg),
-				(String msg) -> System.err.printf(DateFormaterString + "[%2$.5.s]: %3$s\n", new Date(), "INFO", msg)
+		this(AsyncLogSink.isDefaultAsync() ? createLogConsumer(AsyncLogSink.getDefaultOut(), "DEBUG", true)
+				: createLogConsumer(System.out, "DEBUG"),
+				AsyncLogSink.isDefaultAsync() ? createLogConsumer(AsyncLogSink.getDefaultErr(), "ERROR", false)
+						: (String msg) -> System.err.printf(LinePrefixFormaterString + "%3$s\n", new Date(), "ERROR", msg),
+				AsyncLogSink.isDefaultAsync() ? createLogConsumer(AsyncLogSink.getDefaultErr(), "WARNING", false)
+						: (String msg) -> System.err.printf(LinePrefixFormaterString + "%3$s\n", new Date(), "WARNING", msg),
+				AsyncLogSink.isDefaultAsync() ? createLogConsumer(AsyncLogSink.getDefaultErr(), "INFO", false)
+						: (String msg) -> System.err.printf(LinePrefixFormaterString + "%3$s\n", new Date(), "INFO", msg)
 
 		);
+		if ("json".equalsIgnoreCase(System.getProperty(LOGGING_EVENTS_PROPERTY))) {
+			setEventConsumer(AsyncLogSink.isDefaultAsync() ? AsyncLogSink.getDefaultOut().createRawConsumer()
+					: (String line) -> System.out.println(line));
+		}
 	}
 
 	/**
@@ -258,7 +407,7 @@ public class Logging {
 	 * 
 	 * @return True, if and only if the debug messages are dispatched.
 	 */
-	public synchronized boolean allowDebug() {
+	public boolean allowDebug() {
 		return this.debug != null && Level.LEVEL_COMPARATOR.compare(currentLoggingLevel, Level.debug) <= 0;
 	}
 
@@ -267,7 +416,7 @@ public class Logging {
 	 * 
 	 * @return True, if and only if the debug messages are dispatched.
 	 */
-	public synchronized boolean allowError() {
+	public boolean allowError() {
 		return this.error != null && Level.LEVEL_COMPARATOR.compare(currentLoggingLevel, Level.error) <= 0;
 	}
 
@@ -276,7 +425,7 @@ public class Logging {
 	 * 
 	 * @return True, if and only if the warning messages are dispatched.
 	 */
-	public synchronized boolean allowWarning() {
+	public boolean allowWarning() {
 		return this.warning != null && Level.LEVEL_COMPARATOR.compare(currentLoggingLevel, Level.warning) <= 0;
 	}
 
@@ -285,7 +434,7 @@ public class Logging {
 	 * 
 	 * @return True, if and only if the warning messages are dispatched.
 	 */
-	public synchronized boolean allowInfo() {
+	public boolean allowInfo() {
 		return this.info != null && Level.LEVEL_COMPARATOR.compare(currentLoggingLevel, Level.info) <= 0;
 	}
 
@@ -295,23 +444,35 @@ public class Logging {
 	 * @param message The debug message.
 	 * @return The logged message without time stamp.
 	 */
-	public synchronized String debug(String message) {
-		if (allowDebug()) {
-			if (debug != null && message != null)
-				debug.accept(message);
+	public String debug(String message) {
+		if (message != null && allowDebug()) {
+			debug.accept(message);
 		}
 		return message;
 	}
 
+	/**
+	 * Logs a debug message with time stamp.
+	 * 
+	 * @param message The supplier of the debug message. The supplier is called
+	 *                only if the debug messages are dispatched.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         debug messages are not dispatched.
+	 */
+	public String debug(Supplier<String> message) {
+		return (message != null && allowDebug()) ? debug(message.get()) : null;
+	}
+
 	/**
 	 * Logs a debug message with time stamp.
 	 * 
 	 * @param message The message format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         debug messages are not dispatched.
 	 */
-	public synchronized String debug(String format, Object... params) {
-		if (format == null) {
+	public String debug(String format, Object... params) {
+		if (format == null || !allowDebug()) {
 			return null;
 		} else
 			return debug(java.lang.String.format(format, params));
@@ -322,10 +483,11 @@ public class Logging {
 	 * 
 	 * @param message The message format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         debug messages are not dispatched.
 	 */
 	public String debugMessage(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowDebug()) {
 			return null;
 		} else
 			return debug(MessageFormat.format(format, params));
@@ -337,23 +499,35 @@ public class Logging {
 	 * @param message The error message.
 	 * @return The logged message without time stamp.
 	 */
-	public synchronized String error(String message) {
-		if (allowError()) {
-			if (debug != null && message != null)
-				error.accept(message);
+	public String error(String message) {
+		if (message != null && allowError()) {
+			error.accept(message);
 		}
 		return message;
 	}
 
+	/**
+	 * Logs an error message with time stamp.
+	 * 
+	 * @param message The supplier of the error message. The supplier is called
+	 *                only if the error messages are dispatched.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         error messages are not dispatched.
+	 */
+	public String error(Supplier<String> message) {
+		return (message != null && allowError()) ? error(message.get()) : null;
+	}
+
 	/**
 	 * Logs an error message with time stamp.
 	 * 
 	 * @param message The format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         error messages are not dispatched.
 	 */
 	public String error(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowError()) {
 			return null;
 		} else
 			return error(String.format(format, params));
@@ -364,10 +538,11 @@ public class Logging {
 	 * 
 	 * @param message The message format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         error messages are not dispatched.
 	 */
 	public String errorMessage(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowError()) {
 			return null;
 		} else
 			return error(MessageFormat.format(format, params));
@@ -379,13 +554,23 @@ public class Logging {
 	 * @param message THe warning message.
 	 * @return The logged message without time stamp.
 	 */
-	public synchronized String warn(String message) {
-		if (allowWarning()) {
-			if (debug != null && message != null)
-				warning.accept(message);
+	public String warn(String message) {
+		if (message != null && allowWarning()) {
+			warning.accept(message);
 		}
 		return message;
+	}
 
+	/**
+	 * Logs a warning message with time stamp.
+	 * 
+	 * @param message The supplier of the warning message. The supplier is called
+	 *                only if the warning messages are dispatched.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         warning messages are not dispatched.
+	 */
+	public String warn(Supplier<String> message) {
+		return (message != null && allowWarning()) ? warn(message.get()) : null;
 	}
 
 	/**
@@ -393,10 +578,11 @@ public class Logging {
 	 * 
 	 * @param message The format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         warning messages are not dispatched.
 	 */
 	public String warn(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowWarning()) {
 			return null;
 		} else
 			return warn(String.format(format, params));
@@ -407,10 +593,11 @@ public class Logging {
 	 * 
 	 * @param message The message format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         warning messages are not dispatched.
 	 */
 	public String warnMessage(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowWarning()) {
 			return null;
 		} else
 			return warn(MessageFormat.format(format, params));
@@ -422,13 +609,23 @@ public class Logging {
 	 * @param message THe information message.
 	 * @return The logged message without time stamp.
 	 */
-	public synchronized String info(String message) {
-		if (allowWarning()) {
-			if (debug != null && message != null)
-				info.accept(message);
+	public String info(String message) {
+		if (message != null && allowInfo()) {
+			info.accept(message);
 		}
 		return message;
+	}
 
+	/**
+	 * Logs an information message with time stamp.
+	 * 
+	 * @param message The supplier of the information message. The supplier is called
+	 *                only if the information messages are dispatched.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         information messages are not dispatched.
+	 */
+	public String info(Supplier<String> message) {
+		return (message != null && allowInfo()) ? info(message.get()) : null;
 	}
 
 	/**
@@ -436,10 +633,11 @@ public class Logging {
 	 * 
 	 * @param message The format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         information messages are not dispatched.
 	 */
 	public String info(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowInfo()) {
 			return null;
 		} else
 			return info(String.format(format, params));
@@ -450,14 +648,129 @@ public class Logging {
 	 * 
 	 * @param message The message format.
 	 * @param params  The parameters for the format.
-	 * @return The logged message without time stamp.
+	 * @return The logged message without time stamp, or undefined value, if the
+	 *         information messages are not dispatched.
 	 */
 	public String infoMessage(String format, Object... params) {
-		if (format == null) {
+		if (format == null || !allowInfo()) {
 			return null;
 		} else
 			return info(MessageFormat.format(format, params));
 	}
 
-	
+	/**
+	 * Get the text message consumer of the level.
+	 * 
+	 * @param level The logging level.
+	 * @return The consumer of the messages of the level.
+	 */
+	private Consumer<String> getConsumer(Level level) {
+		if (level == Level.error) {
+			return error;
+		} else if (level == Level.warning) {
+			return warning;
+		} else if (level == Level.info) {
+			return info;
+		} else {
+			return debug;
+		}
+	}
+
+	/**
+	 * Does the system allow structured events of the level.
+	 * 
+	 * @param level The level of the event.
+	 * @return True, if and only if the events of the level are dispatched.
+	 */
+	public boolean allowEvent(Level level) {
+		return level != null && (events != null || getConsumer(level) != null)
+				&& Level.LEVEL_COMPARATOR.compare(currentLoggingLevel, level) <= 0;
+	}
+
+	/**
+	 * Logs a structured event of the current logging context.
+	 * 
+	 * The event is created only if the level is allowed.
+	 * 
+	 * @param level     The level of the event.
+	 * @param name      The name of the event.
+	 * @param keyValues The field keys followed by their values.
+	 * @return The logged event, or undefined value, if the events of the level are
+	 *         not dispatched.
+	 * @throws IllegalArgumentException The name or the fields were invalid.
+	 */
+	public LogEvent event(Level level, String name, Object... keyValues) throws IllegalArgumentException {
+		return event(level, LogContext.current(), name, keyValues);
+	}
+
+	/**
+	 * Logs a structured event of the given logging context, e.g. the context
+	 * captured before the work moved to another thread.
+	 * 
+	 * The event is created only if the level is allowed.
+	 * 
+	 * @param level     The level of the event.
+	 * @param context   The logging context of the event, or undefined value for
+	 *                  the event without context.
+	 * @param name      The name of the event.
+	 * @param keyValues The field keys followed by their values.
+	 * @return The logged event, or undefined value, if the events of the level are
+	 *         not dispatched.
+	 * @throws IllegalArgumentException The name or the fields were invalid.
+	 */
+	public LogEvent event(Level level, LogContext context, String name, Object... keyValues)
+			throws IllegalArgumentException {
+		if (!allowEvent(level)) {
+			return null;
+		}
+		LogEvent result = new LogEvent(name, context).with(keyValues);
+		Consumer<String> target = events;
+		if (target != null) {
+			target.accept(result.toJson());
+		} else {
+			getConsumer(level).accept(result.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Logs a structured debug event.
+	 * 
+	 * @param name      The name of the event.
+	 * @param keyValues The field keys followed by their values.
+	 * @return The logged event, or undefined value, if the debug events are not
+	 *         dispatched.
+	 * @throws IllegalArgumentException The name or the fields were invalid.
+	 */
+	public LogEvent debugEvent(String name, Object... keyValues) throws IllegalArgumentException {
+		return event(Level.debug, name, keyValues);
+	}
+
+	/**
+	 * Logs a structured debug event of the given logging context.
+	 * 
+	 * @param context   The logging context of the event.
+	 * @param name      The name of the event.
+	 * @param keyValues The field keys followed by their values.
+	 * @return The logged event, or undefined value, if the debug events are not
+	 *         dispatched.
+	 * @throws IllegalArgumentException The name or the fields were invalid.
+	 */
+	public LogEvent debugEvent(LogContext context, String name, Object... keyValues)
+			throws IllegalArgumentException {
+		return event(Level.debug, context, name, keyValues);
+	}
+
+	/**
+	 * Logs a structured error event.
+	 * 
+	 * @param name      The name of the event.
+	 * @param keyValues The field keys followed by their values.
+	 * @return The logged event, or undefined value, if the error events are not
+	 *         dispatched.
+	 * @throws IllegalArgumentException The name or the fields were invalid.
+	 */
+	public LogEvent errorEvent(String name, Object... keyValues) throws IllegalArgumentException {
+		return event(Level.error, name, keyValues);
+	}
 }
@@ -0,0 +1,261 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled binary cache of the messages of a message bundle.
+ *
+ * The cache file starts with a header containing the hash of the source of the
+ * messages, followed by an index of the messages sorted by the UTF-8 bytes of
+ * the message names, and the UTF-8 bytes of the names and the messages. The
+ * file is memory-mapped, and a message is looked up with a binary search of the
+ * index, so opening the cache does not read the messages.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class MessageCache {
+
+	/**
+	 * The magic number starting the cache file.
+	 */
+	private static final int MAGIC = 0x49424d43;
+
+	/**
+	 * The version of the cache file format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The length of the source hash.
+	 */
+	public static final int HASH_LENGTH = 32;
+
+	/**
+	 * The length of the header: the magic number, the version, the source hash,
+	 * and the number of the messages.
+	 */
+	private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 4;
+
+	/**
+	 * The length of an index entry: the offsets and the lengths of the name and
+	 * the message.
+	 */
+	private static final int ENTRY_LENGTH = 4 * 4;
+
+	/**
+	 * Calculate the hash of the source of the messages.
+	 *
+	 * @param source The source of the messages.
+	 * @return The SHA-256 hash of the source.
+	 */
+	public static byte[] hash(byte[] source) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(source);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	/**
+	 * Open a cache file.
+	 *
+	 * @param file The cache file.
+	 * @param hash The hash of the current source of the messages.
+	 * @return The cache, or undefined value, if the file did not exist, was
+	 *         invalid, or was compiled from another source.
+	 * @throws IOException The reading of the file failed.
+	 */
+	public static MessageCache open(Path file, byte[] hash) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+				return null;
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			return null;
+		}
+		byte[] fileHash = new byte[HASH_LENGTH];
+		buffer.get(8, fileHash);
+		if (!Arrays.equals(fileHash, hash)) {
+			return null;
+		}
+		int count = buffer.getInt(8 + HASH_LENGTH);
+		if (count < 0 || (long) HEADER_LENGTH + (long) count * ENTRY_LENGTH > buffer.capacity()) {
+			return null;
+		}
+		for (int index = 0; index < count; index++) {
+			int entry = HEADER_LENGTH + index * ENTRY_LENGTH;
+			for (int field = 0; field < ENTRY_LENGTH; field += 8) {
+				int offset = buffer.getInt(entry + field), length = buffer.getInt(entry + field + 4);
+				if (offset < 0 || length < 0 || (long) offset + length > buffer.capacity()) {
+					return null;
+				}
+			}
+		}
+		return new MessageCache(buffer, count);
+	}
+
+	/**
+	 * Write a cache file. The file is replaced atomically.
+	 *
+	 * @param file     The cache file.
+	 * @param hash     The hash of the source of the messages.
+	 * @param messages The messages by the message name.
+	 * @throws IOException The writing of the file failed.
+	 * @throws IllegalArgumentException The hash was invalid.
+	 */
+	public static void write(Path file, byte[] hash, Map<String, String> messages)
+			throws IOException, IllegalArgumentException {
+		if (hash == null || hash.length != HASH_LENGTH) {
+			throw new IllegalArgumentException("Invalid source hash");
+		}
+		List<byte[][]> entries = new ArrayList<>(messages.size());
+		for (Map.Entry<String, String> message : messages.entrySet()) {
+			entries.add(new byte[][] { message.getKey().getBytes(StandardCharsets.UTF_8),
+					message.getValue().getBytes(StandardCharsets.UTF_8) });
+		}
+		entries.sort((byte[][] first, byte[][] second) -> Arrays.compareUnsigned(first[0], second[0]));
+		Path parent = file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream stream = Files.newOutputStream(temp);
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.write(hash);
+				out.writeInt(entries.size());
+				int offset = HEADER_LENGTH + entries.size() * ENTRY_LENGTH;
+				for (byte[][] entry : entries) {
+					out.writeInt(offset);
+					out.writeInt(entry[0].length);
+					offset += entry[0].length;
+					out.writeInt(offset);
+					out.writeInt(entry[1].length);
+					offset += entry[1].length;
+				}
+				for (byte[][] entry : entries) {
+					out.write(entry[0]);
+					out.write(entry[1]);
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * The mapped cache file.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The number of the messages.
+	 */
+	private final int count;
+
+	private MessageCache(ByteBuffer buffer, int count) {
+		this.buffer = buffer;
+		this.count = count;
+	}
+
+	/**
+	 * Get the number of the messages.
+	 *
+	 * @return The number of the messages.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Get the message names.
+	 *
+	 * @return The list of the message names.
+	 */
+	public List<String> getNames() {
+		List<String> result = new ArrayList<>(count);
+		for (int index = 0; index < count; index++) {
+			result.add(getString(HEADER_LENGTH + index * ENTRY_LENGTH));
+		}
+		return result;
+	}
+
+	/**
+	 * Get a message.
+	 *
+	 * @param name The message name.
+	 * @return The message, or undefined value, if the cache has no such message.
+	 */
+	public String get(String name) {
+		byte[] key = name.getBytes(StandardCharsets.UTF_8);
+		int low = 0, high = count - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int entry = HEADER_LENGTH + middle * ENTRY_LENGTH;
+			int comparison = compare(buffer.getInt(entry), buffer.getInt(entry + 4), key);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return getString(entry + 8);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Compare the bytes of the mapped file with the key.
+	 *
+	 * @param offset The offset of the bytes.
+	 * @param length The length of the bytes.
+	 * @param key    The key.
+	 * @return The comparison of the bytes with the key as unsigned bytes.
+	 */
+	private int compare(int offset, int length, byte[] key) {
+		int shared = Math.min(length, key.length);
+		for (int index = 0; index < shared; index++) {
+			int comparison = Byte.compareUnsigned(buffer.get(offset + index), key[index]);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return Integer.compare(length, key.length);
+	}
+
+	/**
+	 * Decode the string of an index field.
+	 *
+	 * @param field The position of the offset and the length of the string.
+	 * @return The decoded string.
+	 */
+	private String getString(int field) {
+		byte[] bytes = new byte[buffer.getInt(field + 4)];
+		buffer.get(buffer.getInt(field), bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,282 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The compiled message template.
+ *
+ * The template is a {@link java.util.Formatter} format string parsed once into
+ * literal and argument segments. The plain string and integer arguments are
+ * appended directly to the target, and only the arguments with flags, width,
+ * precision, or other conversions are formatted with a formatter. The result
+ * is equal to the result of {@link String#format(Locale, String, Object...)}
+ * with the locale of the template.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class MessageTemplate {
+
+	/**
+	 * The pattern matching a format specifier.
+	 */
+	private static final Pattern SPECIFIER_PATTERN = Pattern
+			.compile("%(\\d+\\$|<)?([-#+ 0,(]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+	/**
+	 * The largest capacity of the reused builder kept by a thread.
+	 */
+	private static final int MAX_BUFFER_CAPACITY = 4096;
+
+	/**
+	 * The builder reused by the formatting of the current thread. The builder in
+	 * use is removed, so the nested formatting allocates its own builder.
+	 */
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+	/**
+	 * The segment of a template.
+	 */
+	private static final class Segment {
+
+		/**
+		 * The literal text, or undefined value for the argument segment.
+		 */
+		private final String text;
+
+		/**
+		 * The zero based index of the argument.
+		 */
+		private final int index;
+
+		/**
+		 * The conversion of the plain argument, or zero for the formatted argument.
+		 */
+		private final char conversion;
+
+		/**
+		 * The format of the argument formatted with a formatter.
+		 */
+		private final String format;
+
+		private Segment(String text, int index, char conversion, String format) {
+			this.text = text;
+			this.index = index;
+			this.conversion = conversion;
+			this.format = format;
+		}
+	}
+
+	/**
+	 * Compile a template.
+	 *
+	 * @param pattern The format string of the template.
+	 * @return The compiled template.
+	 * @throws IllegalArgumentException The pattern was undefined or had an
+	 *                                  argument without a preceding argument.
+	 */
+	public static MessageTemplate compile(String pattern) throws IllegalArgumentException {
+		return new MessageTemplate(pattern, null);
+	}
+
+	/**
+	 * Compile a template formatting its arguments in the given locale.
+	 *
+	 * @param pattern The format string of the template.
+	 * @param locale  The locale of the formatted arguments, or undefined value
+	 *                for the default format locale.
+	 * @return The compiled template.
+	 * @throws IllegalArgumentException The pattern was undefined or had an
+	 *                                  argument without a preceding argument.
+	 */
+	public static MessageTemplate compile(String pattern, Locale locale) throws IllegalArgumentException {
+		return new MessageTemplate(pattern, locale);
+	}
+
+	/**
+	 * The format string of the template.
+	 */
+	private final String pattern;
+
+	/**
+	 * The locale of the formatted arguments, or undefined value for the default
+	 * format locale.
+	 */
+	private final Locale locale;
+
+	/**
+	 * The segments of the template.
+	 */
+	private final Segment[] segments;
+
+	/**
+	 * The number of arguments the template uses.
+	 */
+	private final int argumentCount;
+
+	/**
+	 * Create a new template.
+	 *
+	 * @param pattern The format string of the template.
+	 * @param locale  The locale of the formatted arguments, or undefined value
+	 *                for the default format locale.
+	 * @throws IllegalArgumentException The pattern was undefined or had an
+	 *                                  argument without a preceding argument.
+	 */
+	private MessageTemplate(String pattern, Locale locale) throws IllegalArgumentException {
+		if (pattern == null) {
+			throw new IllegalArgumentException("Undefined pattern");
+		}
+		this.pattern = pattern;
+		this.locale = locale;
+		List<Segment> result = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+		Matcher matcher = SPECIFIER_PATTERN.matcher(pattern);
+		int start = 0, ordinary = 0, last = -1, count = 0;
+		while (matcher.find()) {
+			literal.append(pattern, start, matcher.start());
+			start = matcher.end();
+			char conversion = matcher.group(6).charAt(0);
+			if (conversion == '%' || conversion == 'n') {
+				if (matcher.group(3) != null || matcher.group(4) != null || matcher.group(5) != null) {
+					// Width applies to the percent sign.
+					literal.append(String.format(matcher.group()));
+				} else {
+					literal.append(conversion == '%' ? "%" : System.lineSeparator());
+				}
+				continue;
+			}
+			if (literal.length() > 0) {
+				result.add(new Segment(literal.toString(), -1, (char) 0, null));
+				literal.setLength(0);
+			}
+			int index;
+			if ("<".equals(matcher.group(1))) {
+				if (last < 0) {
+					throw new IllegalArgumentException("No previous argument for " + matcher.group());
+				}
+				index = last;
+			} else if (matcher.group(1) != null) {
+				index = Integer.parseInt(matcher.group(1).substring(0, matcher.group(1).length() - 1)) - 1;
+			} else {
+				index = ordinary++;
+			}
+			last = index;
+			count = Math.max(count, index + 1);
+			boolean plain = matcher.group(2).isEmpty() && matcher.group(3) == null && matcher.group(4) == null
+					&& matcher.group(5) == null && (conversion == 's' || conversion == 'd');
+			result.add(plain ? new Segment(null, index, conversion, null)
+					: new Segment(null, index, (char) 0,
+							"%" + matcher.group(2) + (matcher.group(3) == null ? "" : matcher.group(3))
+									+ (matcher.group(4) == null ? "" : matcher.group(4))
+									+ (matcher.group(5) == null ? "" : matcher.group(5)) + conversion));
+		}
+		literal.append(pattern, start, pattern.length());
+		if (literal.length() > 0) {
+			result.add(new Segment(literal.toString(), -1, (char) 0, null));
+		}
+		this.segments = result.toArray(new Segment[result.size()]);
+		this.argumentCount = count;
+	}
+
+	/**
+	 * Get the format string of the template.
+	 *
+	 * @return The format string.
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Get the locale of the formatted arguments.
+	 *
+	 * @return The locale of the template, or undefined value for the default
+	 *         format locale.
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Get the number of arguments the template uses.
+	 *
+	 * @return The number of arguments.
+	 */
+	public int getArgumentCount() {
+		return argumentCount;
+	}
+
+	/**
+	 * Format the template with the locale of the template.
+	 *
+	 * @param args The arguments.
+	 * @return The formatted message.
+	 * @throws java.util.IllegalFormatException An argument was missing or did not
+	 *                                          suit its conversion.
+	 */
+	public String format(Object... args) {
+		StringBuilder builder = BUFFER.get();
+		if (builder == null) {
+			builder = new StringBuilder();
+		} else {
+			BUFFER.set(null);
+		}
+		try {
+			builder.setLength(0);
+			return formatTo(builder, args).toString();
+		} finally {
+			if (builder.capacity() <= MAX_BUFFER_CAPACITY) {
+				BUFFER.set(builder);
+			}
+		}
+	}
+
+	/**
+	 * Format the template with the locale of the template to the target.
+	 *
+	 * @param target The target builder.
+	 * @param args   The arguments.
+	 * @return The target builder.
+	 * @throws java.util.IllegalFormatException An argument was missing or did not
+	 *                                          suit its conversion.
+	 */
+	public StringBuilder formatTo(StringBuilder target, Object... args) {
+		Formatter formatter = null;
+		for (Segment segment : segments) {
+			if (segment.text != null) {
+				target.append(segment.text);
+				continue;
+			}
+			if (args == null || segment.index >= args.length) {
+				throw new MissingFormatArgumentException(
+						segment.format == null ? "%" + segment.conversion : segment.format);
+			}
+			Object arg = args[segment.index];
+			if (segment.conversion == 's' && !(arg instanceof java.util.Formattable)) {
+				target.append(arg);
+			} else if (segment.conversion == 'd' && (arg instanceof Integer || arg instanceof Long
+					|| arg instanceof Short || arg instanceof Byte)) {
+				target.append(((Number) arg).longValue());
+			} else {
+				if (formatter == null) {
+					formatter = new Formatter(target,
+							locale == null ? Locale.getDefault(Locale.Category.FORMAT) : locale);
+				}
+				formatter.format(segment.format == null ? "%" + segment.conversion : segment.format, arg);
+			}
+		}
+		return target;
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
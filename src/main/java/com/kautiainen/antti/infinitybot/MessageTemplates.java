@@ -0,0 +1,236 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The cache of the compiled message templates of a resource bundle.
+ *
+ * All available localized bundles are loaded eagerly into an immutable map, so
+ * selecting the bundle of a locale is a map lookup. A locale without its own
+ * bundle uses the bundle of its language, or the bundle of the default locale.
+ * The templates are compiled once per locale on their first use, and they
+ * format their arguments in the locale of their bundle. Reloading
+ * clears the resource bundle cache and loads the bundles again, so the changed
+ * bundles are used by the next messages.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class MessageTemplates {
+
+	/**
+	 * The compiled templates of a locale.
+	 */
+	private static final class LocaleTemplates {
+
+		/**
+		 * The resource bundle of the locale.
+		 */
+		private final ResourceBundle bundle;
+
+		/**
+		 * The locale formatting the arguments of the templates, or undefined
+		 * value for the default format locale.
+		 */
+		private final Locale locale;
+
+		/**
+		 * The compiled templates by the message name.
+		 */
+		private final ConcurrentHashMap<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
+		private LocaleTemplates(ResourceBundle bundle, Locale locale) {
+			this.bundle = bundle;
+			this.locale = locale;
+		}
+	}
+
+	/**
+	 * The base name of the resource bundle.
+	 */
+	private final String baseName;
+
+	/**
+	 * The control loading the bundles.
+	 */
+	private final ResourceBundle.Control control;
+
+	/**
+	 * The compiled templates by the language tag of the bundle locale.
+	 */
+	private volatile Map<String, LocaleTemplates> locales;
+
+	/**
+	 * The compiled templates of the locales without their own bundle.
+	 */
+	private volatile LocaleTemplates defaultTemplates;
+
+	/**
+	 * Create a new template cache loading all available class and properties
+	 * bundles.
+	 *
+	 * @param baseName The base name of the resource bundle.
+	 * @throws IllegalArgumentException The base name was undefined.
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	public MessageTemplates(String baseName) throws IllegalArgumentException, MissingResourceException {
+		this(baseName, ResourceBundle.Control.getControl(ResourceBundle.Control.FORMAT_DEFAULT));
+	}
+
+	/**
+	 * Create a new template cache loading all available bundles with the given
+	 * control, e.g. the {@link XMLResourceBundle.Control} of the XML bundles.
+	 *
+	 * @param baseName The base name of the resource bundle.
+	 * @param control  The control loading the bundles.
+	 * @throws IllegalArgumentException The base name or the control was
+	 *                                  undefined.
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	public MessageTemplates(String baseName, ResourceBundle.Control control)
+			throws IllegalArgumentException, MissingResourceException {
+		if (baseName == null) {
+			throw new IllegalArgumentException("Undefined bundle name");
+		}
+		if (control == null) {
+			throw new IllegalArgumentException("Undefined bundle control");
+		}
+		this.baseName = baseName;
+		this.control = control;
+		load();
+	}
+
+	/**
+	 * Load all available bundles.
+	 *
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	private void load() throws MissingResourceException {
+		ClassLoader loader = MessageTemplates.class.getClassLoader();
+		List<String> suffixes = new ArrayList<>();
+		for (String format : control.getFormats(baseName)) {
+			if ("java.properties".equals(format)) {
+				suffixes.add("properties");
+			} else if ("java.class".equals(format)) {
+				suffixes.add("class");
+			} else {
+				suffixes.add(format);
+			}
+		}
+		Map<String, LocaleTemplates> result = new HashMap<>();
+		Set<Locale> candidates = new HashSet<>(Arrays.asList(Locale.getAvailableLocales()));
+		candidates.add(Locale.getDefault());
+		for (Locale locale : candidates) {
+			if (Locale.ROOT.equals(locale)) {
+				continue;
+			}
+			String bundleName = control.toBundleName(baseName, locale);
+			for (String suffix : suffixes) {
+				if (loader.getResource(control.toResourceName(bundleName, suffix)) != null) {
+					result.put(locale.toLanguageTag(),
+							new LocaleTemplates(ResourceBundle.getBundle(baseName, locale, loader, control), locale));
+					break;
+				}
+			}
+		}
+		LocaleTemplates fallback = result.get(Locale.getDefault().toLanguageTag());
+		if (fallback == null) {
+			fallback = result.get(Locale.getDefault().getLanguage());
+		}
+		this.defaultTemplates = fallback == null
+				? new LocaleTemplates(ResourceBundle.getBundle(baseName, Locale.ROOT, loader, control), null)
+				: fallback;
+		this.locales = Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Get the base name of the resource bundle.
+	 *
+	 * @return The bundle base name.
+	 */
+	public String getBaseName() {
+		return baseName;
+	}
+
+	/**
+	 * Get the locales having their own bundle.
+	 *
+	 * @return The immutable set of the locales.
+	 */
+	public Set<Locale> getLocales() {
+		return locales.keySet().stream().map(Locale::forLanguageTag)
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	/**
+	 * Get the compiled templates of a locale.
+	 *
+	 * @param locale The locale, or undefined value for the default locale.
+	 * @return The templates of the locale.
+	 */
+	private LocaleTemplates getLocaleTemplates(Locale locale) {
+		if (locale == null) {
+			return defaultTemplates;
+		}
+		Map<String, LocaleTemplates> current = locales;
+		LocaleTemplates result = current.get(locale.toLanguageTag());
+		if (result == null) {
+			result = current.getOrDefault(locale.getLanguage(), defaultTemplates);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the resource bundle of a locale.
+	 *
+	 * @param locale The locale, or undefined value for the default locale.
+	 * @return The resource bundle of the locale.
+	 */
+	public ResourceBundle getBundle(Locale locale) {
+		return getLocaleTemplates(locale).bundle;
+	}
+
+	/**
+	 * Get the compiled template of a message.
+	 *
+	 * @param messageName The message name.
+	 * @param locale      The locale of the message, or undefined value for the
+	 *                    default locale.
+	 * @return The compiled template of the message.
+	 * @throws MissingResourceException The message did not exist.
+	 */
+	public MessageTemplate get(String messageName, Locale locale) throws MissingResourceException {
+		LocaleTemplates cache = getLocaleTemplates(locale);
+		MessageTemplate result = cache.templates.get(messageName);
+		if (result == null) {
+			result = MessageTemplate.compile(cache.bundle.getString(messageName), cache.locale);
+			MessageTemplate previous = cache.templates.putIfAbsent(messageName, result);
+			if (previous != null) {
+				result = previous;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reload the bundles. The templates are compiled again on their next use.
+	 *
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	public void reload() throws MissingResourceException {
+		ResourceBundle.clearCache(MessageTemplates.class.getClassLoader());
+		load();
+	}
+}
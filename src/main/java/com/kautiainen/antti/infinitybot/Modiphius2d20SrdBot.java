@@ -4,18 +4,18 @@ import java.text.CharacterIterator;
 import java.text.FieldPosition;
 import java.text.MessageFormat;
 import java.text.ParsePosition;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.Random;
-import java.util.ResourceBundle;
 import java.util.ServiceConfigurationError;
 import java.util.Set;
 import java.util.TreeSet;
@@ -25,9 +25,13 @@ import java.util.regex.Pattern;
 
 import org.reactivestreams.Publisher;
 
+import com.kautiainen.antti.infinitybot.model.ActionRollOdds;
+import com.kautiainen.antti.infinitybot.model.ActionRollResult;
 import com.kautiainen.antti.infinitybot.model.DiceRoller;
 import com.kautiainen.antti.infinitybot.model.OrderedTerm;
+import com.kautiainen.antti.infinitybot.model.RandomStrategy;
 import com.kautiainen.antti.infinitybot.model.RollResult;
+import com.kautiainen.antti.infinitybot.model.RollResultRenderer;
 import com.kautiainen.antti.infinitybot.model.Special;
 import com.kautiainen.antti.infinitybot.model.Term;
 import com.kautiainen.antti.infinitybot.model.TermValue;
@@ -36,15 +40,20 @@ import discord4j.common.util.Snowflake;
 import discord4j.core.DiscordClient;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.ReactiveEventAdapter;
+import discord4j.core.event.domain.guild.GuildCreateEvent;
+import discord4j.core.event.domain.guild.GuildUpdateEvent;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import discord4j.core.object.command.ApplicationCommandInteraction;
 import discord4j.core.object.command.ApplicationCommandInteractionOption;
 import discord4j.core.object.command.ApplicationCommandInteractionOptionValue;
 import discord4j.core.object.command.ApplicationCommandOption;
+import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.discordjson.json.ApplicationCommandData;
 import discord4j.discordjson.json.ApplicationCommandOptionData;
 import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.annotation.NonNull;
 
 /**
@@ -171,7 +180,7 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 */
 	static String getPropertyKey(String propertyNamePrefix, String subPrefix, String propertyName) {
 		if (propertyName == null) throw new NoSuchElementException("Undefined property name");
-		return String.format("%s%s%s%s", 
+		return String.format("%s%s%s%s%s", 
 				(propertyNamePrefix != null?propertyNamePrefix:""),
 				(propertyNamePrefix != null?".":""), 
 				(subPrefix != null?subPrefix:""), 
@@ -207,6 +216,34 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * The sub-property name of the guilds.
 	 */
 	protected static final String GUILDS_SUBPROPERTY_NAME = "guilds";
+	/**
+	 * The sub-prefix of the random number generation properties.
+	 */
+	protected static final String RANDOM_SUBPREFIX = "random";
+	/**
+	 * The sub-property name of the seed.
+	 */
+	protected static final String SEED_SUBPROPERTY_NAME = "seed";
+	/**
+	 * The sub-prefix of the command executor properties.
+	 */
+	protected static final String EXECUTOR_SUBPREFIX = "executor";
+	/**
+	 * The sub-property name of the largest number of worker threads.
+	 */
+	protected static final String THREADS_SUBPROPERTY_NAME = "threads";
+	/**
+	 * The sub-property name of the largest number of commands in flight.
+	 */
+	protected static final String MAX_IN_FLIGHT_SUBPROPERTY_NAME = "max_in_flight";
+	/**
+	 * The sub-prefix of the reply properties.
+	 */
+	protected static final String REPLY_SUBPREFIX = "reply";
+	/**
+	 * The sub-property name of the replies with embeds.
+	 */
+	protected static final String EMBEDS_SUBPROPERTY_NAME = "embeds";
 	/**
 	 * The configuration key for served guilds.
 	 */
@@ -215,6 +252,26 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * The configuration key for the discordbot token.
 	 */
 	protected static final String TOKEN_PROPERTY_NAME = getPropertyKey(PROPERTY_BASE_NAME, null, TOKEN_SUBPROPERTY_NAME);
+	/**
+	 * The configuration key for the seed of the deterministic dice rolls.
+	 */
+	protected static final String RANDOM_SEED_PROPERTY_NAME = getPropertyKey(PROPERTY_BASE_NAME, RANDOM_SUBPREFIX,
+			SEED_SUBPROPERTY_NAME);
+	/**
+	 * The configuration key for the largest number of command worker threads.
+	 */
+	protected static final String EXECUTOR_THREADS_PROPERTY_NAME = getPropertyKey(PROPERTY_BASE_NAME,
+			EXECUTOR_SUBPREFIX, THREADS_SUBPROPERTY_NAME);
+	/**
+	 * The configuration key for the largest number of commands in flight.
+	 */
+	protected static final String EXECUTOR_MAX_IN_FLIGHT_PROPERTY_NAME = getPropertyKey(PROPERTY_BASE_NAME,
+			EXECUTOR_SUBPREFIX, MAX_IN_FLIGHT_SUBPROPERTY_NAME);
+	/**
+	 * The configuration key for the replies with embeds.
+	 */
+	protected static final String REPLY_EMBEDS_PROPERTY_NAME = getPropertyKey(PROPERTY_BASE_NAME, REPLY_SUBPREFIX,
+			EMBEDS_SUBPROPERTY_NAME);
 	/**
 	 * The pattern matching to a sequence of strings not containing quote or escape.
 	 */
@@ -231,27 +288,54 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	/**
 	 * The discord client used to communicate with the serve.r
 	 */
-	private GatewayDiscordClient connection;
+	private volatile GatewayDiscordClient connection;
+
+	/**
+	 * The client logging in to the discord. The client is created by the
+	 * configuration, and logged in by {@link #start()}.
+	 */
+	private DiscordClient client;
+
+	/**
+	 * The cached application identifier of the connection. The identifier is
+	 * fetched once per connection, and shared by all guilds.
+	 */
+	private volatile Mono<Long> applicationId;
+
+	/**
+	 * The reconciler of the guild commands.
+	 */
+	private final CommandReconciler reconciler = new CommandReconciler(
+			java.nio.file.Paths.get(".infinitybot", "commands.properties"), this);
 	/**
 	 * The guild identifiers of the Discord guild identifiers this bot serves.
 	 */
 	private java.util.Set<Long> guildIds = new java.util.TreeSet<>();
 	/**
-	 * The random number generator. 
+	 * Dice roller performing the dice rolling. Each thread uses its own random
+	 * number generator.
+	 */
+	private final DiceRoller dice = new DiceRoller(RandomStrategy.threadLocal());
+	/**
+	 * The compiled templates of the message bundle.
+	 */
+	private final MessageTemplates messages = new MessageTemplates("DuneBotMessages");
+	/**
+	 * The preferred locales of the guilds by the guild identifier.
 	 */
-	private final Random random = new Random();
+	private final GuildLocales guildLocales = new GuildLocales();
 	/**
-	 * Dice roller performing the dice rolling. 
+	 * The embeds of the action rolls.
 	 */
-	private final DiceRoller dice = new DiceRoller(random);
+	private final ActionRollEmbeds actionRollEmbeds = new ActionRollEmbeds(messages);
 	/**
-	 * The current message bundle.
+	 * Do the commands reply with embeds.
 	 */
-	private ResourceBundle messages = ResourceBundle.getBundle("DuneBotMessages");
+	private volatile boolean embedReplies = false;
 	/**
 	 * The commands known to the bot.
 	 */
-	protected java.util.TreeMap<String, ApplicationCommandRequest> commands = new java.util.TreeMap<>();
+	protected final CommandRegistry commands = new CommandRegistry();
 	/**
 	 * The commands of specific guild.
 	 */
@@ -266,8 +350,8 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	public static void main(String[] args) {
 		try {
 			DuneBot bot = new DuneBot(args);
-			// we do have a bot. Starting it.
-			(new Thread(bot)).start();
+			// we do have a bot. Running it until it disconnects.
+			bot.run();
 			System.exit(0);
 		} catch (java.util.ServiceConfigurationError sce) {
 			// Server startup failed.
@@ -363,6 +447,70 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 				.build();
 	}
 	
+	/**
+	 * Get the name of the odds command.
+	 * 
+	 * @return The name of the command calculating the odds of an action.
+	 */
+	public String getOddsCommandName() {
+		return "odds";
+	}
+
+	/**
+	 * Get the odds command of the bot. The odds command has the same options as
+	 * the action command.
+	 * 
+	 * @return The odds command.
+	 */
+	public ApplicationCommandRequest getOddsCommand() {
+		return ApplicationCommandRequest.builder().from(getActionCommand()).name(getOddsCommandName())
+				.description("Calculates the odds of a basic skill test").build();
+	}
+
+	/**
+	 * Get the handler of the action command.
+	 * 
+	 * @return The handler rolling the action.
+	 */
+	public CommandHandler getActionCommandHandler() {
+		return (ChatInputInteractionEvent event) -> {
+			ApplicationCommandInteraction acid = event.getInteraction().getCommandInteraction().get();
+			Locale locale = guildLocales.getLocale(event.getInteraction());
+			if (isEmbedReplies()) {
+				EmbedActionRollCommand command = this.new EmbedActionRollCommand(dice, locale);
+				String reply = command.execute(acid);
+				return command.getEmbed().map((EmbedCreateSpec embed) -> event.reply().withEmbeds(embed))
+						.orElseGet(() -> event.reply(reply));
+			}
+			return event.reply(executeAction(dice, acid, locale));
+		};
+	}
+
+	/**
+	 * Get the handler of the odds command.
+	 * 
+	 * @return The handler calculating the odds of the action.
+	 */
+	public CommandHandler getOddsCommandHandler() {
+		return (ChatInputInteractionEvent event) -> event.reply(executeOdds(
+				event.getInteraction().getCommandInteraction().get(), guildLocales.getLocale(event.getInteraction())));
+	}
+
+	/**
+	 * Adds command to the known commands of the system.
+	 * 
+	 * @param command The added Discord command
+	 * @param handler The handler executing the command.
+	 */
+	public void addCommand(ApplicationCommandRequest command, CommandHandler handler) {
+		if (command == null || handler == null) {
+			debug("Cannot register undefined command");
+		} else {
+			this.commands.register(command, handler);
+			debugMessage("Command {0} registered", command.name());
+		}
+	}
+
 	public Optional<Integer> getTermMaximum(@NonNull String termName) {
 		Optional<Term<Integer>> term = getTerm(termName);
 		if (term.isPresent() && term.get() instanceof OrderedTerm<Integer> orderedTerm) {
@@ -619,9 +767,37 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 		} else {
 			Optional<String> property = config.getProperty(TOKEN_PROPERTY_NAME);
 			debug("Using token {0}", property.orElse("!!NO TOKEN!!"));
-			connection = DiscordClient.create(property.orElseThrow(
-					() -> (new java.util.ServiceConfigurationError("Cannot start service without valid token"))))
-					.login().block();
+			client = DiscordClient.create(property.orElseThrow(
+					() -> (new java.util.ServiceConfigurationError("Cannot start service without valid token"))));
+	
+			if ((property = config.getProperty(RANDOM_SEED_PROPERTY_NAME)).isPresent()) {
+				try {
+					dice.setRandomStrategy(RandomStrategy.seeded(Long.parseLong(property.get().trim())));
+					debug("Config: Deterministic dice rolls with seed %s", property.get());
+				} catch (NumberFormatException nfe) {
+					throw new ServiceConfigurationError("Invalid random seed");
+				}
+			}
+
+			if (config.getProperty(EXECUTOR_THREADS_PROPERTY_NAME).isPresent()
+					|| config.getProperty(EXECUTOR_MAX_IN_FLIGHT_PROPERTY_NAME).isPresent()) {
+				try {
+					setExecutor(new CommandExecutor(
+							Integer.parseInt(config.getProperty(EXECUTOR_THREADS_PROPERTY_NAME)
+									.orElse(String.valueOf(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE)).trim()),
+							Integer.parseInt(config.getProperty(EXECUTOR_MAX_IN_FLIGHT_PROPERTY_NAME)
+									.orElse(String.valueOf(CommandExecutor.DEFAULT_MAX_IN_FLIGHT)).trim())));
+					debug("Config: Commands executed with at most %d commands in flight",
+							getExecutor().getMaxInFlight());
+				} catch (IllegalArgumentException iae) {
+					throw new ServiceConfigurationError("Invalid command executor");
+				}
+			}
+
+			if ((property = config.getProperty(REPLY_EMBEDS_PROPERTY_NAME)).isPresent()) {
+				setEmbedReplies(Boolean.parseBoolean(property.get().trim()));
+				debug("Config: Replies with embeds %s", isEmbedReplies());
+			}
 	
 			if ((property = config.getProperty(GUILDS_PROPERTY_NAME)).isPresent()) {
 				// WE have application id.
@@ -656,43 +832,71 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * Add given handlers to the handlers of the bot.
 	 * 
 	 * @param adapters The adapters registered as handlers of the bot.
+	 * @return The mono completing when the connection stops emitting events to
+	 *         the handlers.
 	 */
-	protected void addHandlers(ReactiveEventAdapter... adapters) {
-		if (adapters != null) {
-			for (ReactiveEventAdapter adapter : adapters) {
-				connection.on(adapter).blockLast();
-			}
+	protected Mono<Void> addHandlers(ReactiveEventAdapter... adapters) {
+		if (adapters == null || adapters.length == 0) {
+			return Mono.empty();
 		}
+		return Flux.fromArray(adapters).flatMap((ReactiveEventAdapter adapter) -> connection.on(adapter)).then();
 	}
 
 	/**
 	 * Add default handlers to the discord bot server.
 	 * 
+	 * @return The mono completing when the connection stops emitting events to
+	 *         the handlers.
 	 */
-	protected void addHandlers() {
-		addHandlers(new ReactiveEventAdapter() {
+	protected Mono<Void> addHandlers() {
+		return addHandlers(new ReactiveEventAdapter() {
 	
 			public Publisher<?> onChatInputInteraction(ChatInputInteractionEvent event) {
 				Optional<Snowflake> gid = event.getInteraction().getGuildId();
-				if (gid.isPresent()) {
-					Set<String> names = Modiphius2d20SrdBot.this.getKnownCommandNames();
-					debug("Checking command {0}", event.getCommandName());
-					if (names != null && names.contains(event.getCommandName())) {
-						debug("Executing command %s on guild %s", event.getCommandName(), gid.get().asString());
-						return executeCommand(event, getCommand(event.getCommandName()).orElse(null));
-					} else {
-						debug("Ignoring unknown command %s not in %s", event.getCommandName(),
-								String.join(", ", names));
-						return event.reply(
-								String.format("I am sorry, I did not recognize command %s", event.getCommandName()));
+				LogContext.Scope scope = LogContext.open(LogContext.of(event));
+				try {
+					debugEvent("interaction.received", "command", event.getCommandName());
+					if (gid.isPresent()) {
+						CommandRegistry.RegisteredCommand command = commands.get(event.getCommandName());
+						debug("Checking command {0}", event.getCommandName());
+						if (command != null) {
+							debug("Executing command %s on guild %s", event.getCommandName(), gid.get().asString());
+							return executeCommand(event, command);
+						} else {
+							debug("Ignoring unknown command %s not in %s", event.getCommandName(),
+									String.join(", ", getKnownCommandNames()));
+							return event.reply(
+									String.format("I am sorry, I did not recognize command %s", event.getCommandName()));
+						}
 					}
-				}
 	
+					return Mono.empty();
+				} finally {
+					scope.close();
+				}
+			}
+
+			public Publisher<?> onGuildCreate(GuildCreateEvent event) {
+				guildLocales.update(event.getGuild());
+				return Mono.empty();
+			}
+
+			public Publisher<?> onGuildUpdate(GuildUpdateEvent event) {
+				guildLocales.update(event.getCurrent());
 				return Mono.empty();
 			}
 		});
 	}
 
+	/**
+	 * Get the preferred locales of the guilds used by the replies.
+	 * 
+	 * @return The preferred locales of the guilds.
+	 */
+	public GuildLocales getGuildLocales() {
+		return guildLocales;
+	}
+
 	public Modiphius2d20SrdBot(Consumer<String> debug, Consumer<String> error, Consumer<String> warning,
 			Consumer<String> info) {
 		super(debug, error, warning, info);
@@ -720,12 +924,38 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return The message format as string. 
 	 */
 	public String getMessageFormat(String messageName) {
+		return getMessageTemplate(messageName).getPattern();
+	}
+
+	/**
+	 * Get the compiled message template of the default locale. The template of
+	 * a missing or invalid message is the message name.
+	 * 
+	 * @param messageName The message name.
+	 * @return The compiled template of the message.
+	 */
+	public MessageTemplate getMessageTemplate(String messageName) {
+		return getMessageTemplate(messageName, null);
+	}
+
+	/**
+	 * Get the compiled message template. The template of a missing or invalid
+	 * message is the message name.
+	 * 
+	 * @param messageName The message name.
+	 * @param locale      The locale of the message, or undefined value for the
+	 *                    default locale.
+	 * @return The compiled template of the message.
+	 */
+	public MessageTemplate getMessageTemplate(String messageName, Locale locale) {
 		try {
-			return messages.getString(messageName);
+			return messages.get(messageName, locale);
 		} catch (MissingResourceException mre) {
 			error("Could not load resource %s due missing resource error %s", messageName, mre);
+		} catch (IllegalArgumentException iae) {
+			error("Could not compile resource %s due error %s", messageName, iae.getMessage());
 		}
-		return messageName; 
+		return MessageTemplate.compile(messageName.replace("%", "%%"));
 	}
 
 	/**
@@ -736,13 +966,67 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return The given message with message parameters.
 	 */
 	public String getMessage(String messageName, Object... values) {
-		if (values != null) {
+		if (values != null && values.length > 0) {
 			return MessageFormat.format(getMessageFormat(messageName), values);
 		} else {
 			return getMessageFormat(messageName);
 		}
 	}
 
+	/**
+	 * Format the given message template.
+	 * 
+	 * @param messageName The message name.
+	 * @param args        The arguments of the message template.
+	 * @return The formatted message.
+	 * @throws java.util.IllegalFormatException The arguments did not suit the
+	 *                                          message template.
+	 */
+	public String formatMessage(String messageName, Object... args) {
+		return getMessageTemplate(messageName).format(args);
+	}
+
+	/**
+	 * Append the given message template formatted to the builder.
+	 * 
+	 * @param builder     The builder.
+	 * @param messageName The message name.
+	 * @param args        The arguments of the message template.
+	 * @return The builder.
+	 * @throws java.util.IllegalFormatException The arguments did not suit the
+	 *                                          message template.
+	 */
+	public StringBuilder appendMessage(StringBuilder builder, String messageName, Object... args) {
+		return getMessageTemplate(messageName).formatTo(builder, args);
+	}
+
+	/**
+	 * Reload the message bundles. The changed messages are used by the next
+	 * replies.
+	 */
+	public void reloadMessages() {
+		messages.reload();
+		actionRollEmbeds.clear();
+	}
+
+	/**
+	 * Do the roll commands reply with embeds instead of plain text.
+	 * 
+	 * @return True, if and only if the roll commands reply with embeds.
+	 */
+	public boolean isEmbedReplies() {
+		return embedReplies;
+	}
+
+	/**
+	 * Set whether the roll commands reply with embeds instead of plain text.
+	 * 
+	 * @param embedReplies Do the roll commands reply with embeds.
+	 */
+	public void setEmbedReplies(boolean embedReplies) {
+		this.embedReplies = embedReplies;
+	}
+
 	/**
 	 * Perform action roll.
 	 * 
@@ -750,7 +1034,42 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return The string of the action result.
 	 */
 	protected String executeAction(DiceRoller roller, ApplicationCommandInteraction acid) {
-		return (this.new ActionRollCommand(roller)).execute(acid);
+		return executeAction(roller, acid, null);
+	}
+
+	/**
+	 * Perform action roll.
+	 * 
+	 * @param roller The dice roller used to roll the dice.
+	 * @param acid   The acid event interaction with parameters.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the action result.
+	 */
+	protected String executeAction(DiceRoller roller, ApplicationCommandInteraction acid, Locale locale) {
+		return (this.new ActionRollCommand(roller, locale)).execute(acid);
+	}
+
+	/**
+	 * Calculate the odds of an action roll.
+	 * 
+	 * @param acid The acid event interaction with parameters.
+	 * @return The string of the odds of the action.
+	 */
+	protected String executeOdds(ApplicationCommandInteraction acid) {
+		return executeOdds(acid, null);
+	}
+
+	/**
+	 * Calculate the odds of an action roll.
+	 * 
+	 * @param acid   The acid event interaction with parameters.
+	 * @param locale The locale of the reply, or undefined value for the default
+	 *               locale.
+	 * @return The string of the odds of the action.
+	 */
+	protected String executeOdds(ApplicationCommandInteraction acid, Locale locale) {
+		return (this.new OddsCommand(locale)).execute(acid);
 	}
 
 	/**
@@ -777,32 +1096,89 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return The resulting reply message of the command execution.
 	 */
 	protected Publisher<?> executeCommand(ChatInputInteractionEvent event, ApplicationCommandRequest definition) {
-			// TODO: add storage for command names of registered commands linked to their
-			// execution.
-			try {
-				if (definition == null) {
-					return event.reply(
-							String.format(getMessage("dunebot.messages.unknown_command_error_format"),
-	//						String.format("I am sorry, but I have forgotten how to do %s",
-							event.getCommandName())
-							);
-				} else if (definition.name() == this.getActionCommandName()) {
-					// TODO: remove hard coded action name. 
-					// Rolling normal roll
-					return event.reply(executeAction(dice, event.getInteraction().getCommandInteraction().get()));
-				} else {
-					return Mono.empty();
+		if (definition == null) {
+			return event.reply(
+					formatMessage("dunebot.messages.unknown_command_error_format",
+//							String.format("I am sorry, but I have forgotten how to do %s",
+					event.getCommandName())
+					);
+		}
+		CommandRegistry.RegisteredCommand command = commands.get(definition.name());
+		return command == null ? Mono.empty() : executeCommand(event, command);
+	}
+
+	/**
+	 * Executes the registered command triggered by the given event. The command is
+	 * executed by the command executor instead of the thread delivering the event.
+	 * 
+	 * @param event   The event causing the command.
+	 * @param command The registered command.
+	 * @return The resulting reply message of the command execution.
+	 * @see CommandExecutor#executeCommand(ChatInputInteractionEvent, CommandRegistry.RegisteredCommand,
+	 *      CommandExecutor.Replies, Logging)
+	 */
+	protected Publisher<?> executeCommand(ChatInputInteractionEvent event, CommandRegistry.RegisteredCommand command) {
+		return getExecutor().executeCommand(event, command, commandReplies, this);
+	}
+
+	/**
+	 * The localized replies to the rejected and failed commands.
+	 */
+	private final CommandExecutor.Replies commandReplies = new CommandExecutor.Replies() {
+
+		@Override
+		public String getBusyMessage(ChatInputInteractionEvent event) {
+			return getMessageTemplate("dunebot.messages.busy", guildLocales.getLocale(event.getInteraction())).format();
+		}
+
+		@Override
+		public String getFailureMessage(ChatInputInteractionEvent event, Throwable failure) {
+			return getMessageTemplate("dunebot.messages.execution_error_format",
+					guildLocales.getLocale(event.getInteraction())).format(failure.getMessage());
+		}
+	};
+
+	/**
+	 * The executor of the commands. The default executor is created on first use.
+	 */
+	private volatile CommandExecutor executor;
+
+	/**
+	 * Get the executor of the commands.
+	 * 
+	 * @return The command executor.
+	 */
+	public CommandExecutor getExecutor() {
+		CommandExecutor result = executor;
+		if (result == null) {
+			synchronized (this) {
+				if ((result = executor) == null) {
+					executor = result = new CommandExecutor();
 				}
-			} catch (Exception e) {
-				error("Command execution failed due event %s with message %s", e.getClass(), e.getMessage());
-				e.printStackTrace(System.err);
-				return event.reply(
-						String.format(
-								getMessage("dunebot.messages.unknown_command_error_format"),
-	//					"Something weird happened. ",
-				e.getMessage()));
 			}
 		}
+		return result;
+	}
+
+	/**
+	 * Set the executor of the commands. The replaced executor is closed.
+	 * 
+	 * @param executor The new command executor.
+	 * @throws IllegalArgumentException The executor was undefined.
+	 */
+	public void setExecutor(CommandExecutor executor) throws IllegalArgumentException {
+		if (executor == null) {
+			throw new IllegalArgumentException("Undefined command executor");
+		}
+		CommandExecutor replaced;
+		synchronized (this) {
+			replaced = this.executor;
+			this.executor = executor;
+		}
+		if (replaced != null && replaced != executor) {
+			replaced.close();
+		}
+	}
 
 	/**
 	 * The set of the known command names.
@@ -810,7 +1186,7 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return Always defined set of all known command names.
 	 */
 	public java.util.Set<String> getKnownCommandNames() {
-		return java.util.Collections.unmodifiableSet(commands.keySet());
+		return commands.getNames();
 	}
 
 	/**
@@ -820,7 +1196,17 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return The command request with given name.
 	 */
 	public Optional<ApplicationCommandRequest> getCommand(String cmdName) {
-		return Optional.ofNullable((cmdName == null ? null : commands.get(cmdName)));
+		return getRegisteredCommand(cmdName).map(CommandRegistry.RegisteredCommand::getDefinition);
+	}
+
+	/**
+	 * Get known command with given name with its handler and metrics.
+	 * 
+	 * @param cmdName The command name.
+	 * @return The registered command with given name.
+	 */
+	public Optional<CommandRegistry.RegisteredCommand> getRegisteredCommand(String cmdName) {
+		return Optional.ofNullable(commands.get(cmdName));
 	}
 
 	/**
@@ -830,13 +1216,14 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @param command The command with given name.
 	 * @return The replaced command, if any exists.
 	 * @throws IllegalArgumentException Either the command name or command was
-	 *                                  invalid.
+	 *                                  invalid, or the command was not added
+	 *                                  with its handler.
 	 */
 	protected Optional<ApplicationCommandRequest> setCommand(String cmdName, ApplicationCommandRequest command) throws IllegalArgumentException {
 		if (command == null) {
 			return removeCommand(cmdName);
 		} else {
-			return Optional.ofNullable(this.commands.put(cmdName, command));
+			return this.commands.setDefinition(cmdName, command);
 		}
 	}
 
@@ -847,7 +1234,7 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return The previous value of the command, if any exists.
 	 */
 	public Optional<ApplicationCommandRequest> removeCommand(String cmdName) {
-		return Optional.ofNullable(cmdName == null ? null : this.commands.remove(cmdName));
+		return this.commands.remove(cmdName).map(CommandRegistry.RegisteredCommand::getDefinition);
 	}
 
 	/**
@@ -864,84 +1251,134 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @return True, if and only if the values are equals. 
 	 */
 	public boolean equalCommand(ApplicationCommandData command, Optional<ApplicationCommandRequest> request) {
-		if (request.isPresent() && command != null) {
-			ApplicationCommandRequest req = request.get();
-			if (req.type().equals(command.type()) && 
-					req.description().equals(command.description()) &&
-					req.name().equals(command.name())) {
-				if (!req.options().isAbsent() && !req.options().isAbsent()) {
-					for (ApplicationCommandOptionData option: req.options().get()) {
-						Optional<ApplicationCommandOptionData> commandOption = 
-								req.options().get().stream().filter((ApplicationCommandOptionData data)->(
-										data != null && data.name().equals(option.name()))).findFirst();
-						if (!Objects.equals(option, commandOption.orElse(null))) {	
-							return false;
-						} 
-					}
-					
-					// The option did pass the test.
-					return true; 
-				}
-			}
-			return false;
-		} else {
-			// Empty is not equal with non-empty.
-			return command == null && !request.isPresent(); 
-		}
+		return CommandReconciler.equalCommand(command, request);
 	}
 
 	/**
 	 * Register given commands to the server. The commands are either updated or
-	 * registered on this command.
+	 * registered on this command, and the other commands of the guilds are kept.
+	 * The method blocks until the commands of all guilds are registered.
 	 * 
 	 * @param commands The list of registered commands.
 	 * @return The list of added commands.
+	 * @throws IllegalStateException The bot is not connected.
 	 */
-	public Set<String> registerCommands(java.util.Collection<String> commands) {
+	public Set<String> registerCommands(java.util.Collection<String> commands) throws IllegalStateException {
+		return updateCommands(commands).block();
+	}
+
+	/**
+	 * Add or update given commands on the served guilds. The other commands of
+	 * the guilds are kept. A failed guild does not prevent updating the other
+	 * guilds.
+	 * 
+	 * @param commands The list of added or updated commands.
+	 * @return The mono emitting the added commands as "command@guild".
+	 */
+	public Mono<Set<String>> updateCommands(java.util.Collection<String> commands) {
+		return applyCommands(commands, false);
+	}
+
+	/**
+	 * Reconcile given commands with the commands of the served guilds. The given
+	 * commands become the command set of each guild: the commands missing from
+	 * the given commands are deleted from the guilds. The guilds are reconciled
+	 * concurrently with the application identifier fetched once, and a guild
+	 * is written only if its commands have changed. A failed guild does not
+	 * prevent reconciling the other guilds.
+	 * 
+	 * @param commands The complete list of the commands of the guilds.
+	 * @return The mono emitting the added commands as "command@guild".
+	 */
+	public Mono<Set<String>> reconcileCommands(java.util.Collection<String> commands) {
+		return applyCommands(commands, true);
+	}
+
+	/**
+	 * Apply given commands to the served guilds concurrently.
+	 * 
+	 * @param commands The list of the commands.
+	 * @param replace  Do the commands replace the command sets of the guilds, or
+	 *                 are they added or updated.
+	 * @return The mono emitting the added commands as "command@guild".
+	 */
+	private Mono<Set<String>> applyCommands(java.util.Collection<String> commands, boolean replace) {
 		debug("Registering commands" + (commands == null ? "" : commands.toString()));
-		java.util.TreeSet<String> result = new java.util.TreeSet<>();
-		if (commands != null) {
-			// The added commands.
-			for (Long guildId : this.guildIds) {
-				long appId = connection.getRestClient().getApplicationId().block();
-				debug("Registering commands to server %s with appId %s", guildId, appId);
-				java.util.Map<String, ApplicationCommandData> discordCommands = connection.getRestClient()
-						.getApplicationService().getGuildApplicationCommands(appId, guildId)
-						.collectMap(ApplicationCommandData::name).block();
-				debug("We got the commands listing from server!");
-				for (String cmdName : commands) {
-					// Pulling the current command.
-					Optional<ApplicationCommandRequest> addedCommand = getCommand(cmdName);
-					if (addedCommand.isPresent()) {
-						ApplicationCommandData cmdOnServer = discordCommands.get(cmdName);
-						if (cmdOnServer == null) {
-							// We have new command.
-							debug("Adding new command %s to server %s", cmdName, guildId);
-							connection.getRestClient().getApplicationService()
-									.createGuildApplicationCommand(appId, guildId, addedCommand.get()).subscribe();
-							debug(MessageFormat.format("Command {0} succsssfully added", cmdName));
-							result.add(MessageFormat.format("{0}@{1}", cmdName, guildId));
-						} else if (equalCommand(cmdOnServer, addedCommand)) {
-							debug("Nothing to do - the command %1$s#%#%3$s on server %2$s", 
-									cmdName, guildId, cmdOnServer.id()); 
-						} else {
-							// We have command to alter.
-							debug("Altering existing command %1$s#%3$s on server %2$s%nReplacing: %4$s%nwith %5$s", cmdName, guildId,
-									cmdOnServer.id(), cmdOnServer.toString(), addedCommand.get());
-							long commandId = Long.parseLong(cmdOnServer.id());
-							connection.getRestClient().getApplicationService()
-									.modifyGuildApplicationCommand(appId, guildId, commandId, addedCommand.get())
-									.subscribe();
-						}
-					} else {
-						error("Application command %s did not exist!", cmdName);
-						removeCommand(cmdName);
-						error("Missing command %s removed!", cmdName);
-					}
-				}
+		if (commands == null) {
+			return Mono.just(new java.util.TreeSet<>());
+		}
+		java.util.List<ApplicationCommandRequest> desired = new ArrayList<>();
+		for (String cmdName : commands) {
+			Optional<ApplicationCommandRequest> command = getCommand(cmdName);
+			if (command.isPresent()) {
+				desired.add(command.get());
+			} else {
+				error("Application command %s did not exist!", cmdName);
+				removeCommand(cmdName);
+				error("Missing command %s removed!", cmdName);
 			}
 		}
-		return result; // Returning the added commands.
+		return getApplicationId().flatMapMany((Long appId) -> {
+			CommandReconciler.Target target = CommandReconciler
+					.target(connection.getRestClient().getApplicationService(), appId);
+			return Flux.fromIterable(this.guildIds).flatMap((Long guildId) -> (replace
+					? reconciler.reconcile(target, guildId, desired)
+					: reconciler.update(target, guildId, desired))
+					.map((String cmdName) -> MessageFormat.format("{0}@{1}", cmdName, guildId))
+					.onErrorResume((Throwable e) -> {
+						error("Registering commands to server %s failed: %s", guildId, e.getMessage());
+						return Flux.empty();
+					}));
+		}).collectList().map(java.util.TreeSet::new);
+	}
+
+	/**
+	 * Log in to the discord with the configured client.
+	 * 
+	 * @return The mono emitting the connection once logged in.
+	 */
+	protected Mono<GatewayDiscordClient> login() {
+		if (client == null) {
+			return Mono.error(new IllegalStateException("Cannot log in without configured client"));
+		}
+		return client.login().doOnNext((GatewayDiscordClient gateway) -> {
+			connection = gateway;
+			// A failed lookup is not cached, so the next caller fetches the identifier again.
+			applicationId = gateway.getRestClient().getApplicationId().cache(
+					(Long id) -> Duration.ofMillis(Long.MAX_VALUE), (Throwable error) -> Duration.ZERO,
+					() -> Duration.ZERO);
+		});
+	}
+
+	/**
+	 * Get the application identifier of the connection. The identifier is fetched
+	 * once per connection, and fetched again if the lookup failed.
+	 * 
+	 * @return The mono emitting the application identifier, or error, if the bot
+	 *         is not connected.
+	 */
+	protected Mono<Long> getApplicationId() {
+		Mono<Long> result = applicationId;
+		return result == null ? Mono.error(new IllegalStateException("Not connected")) : result;
+	}
+
+	/**
+	 * Start the bot. The bot logs in, adds the default handlers, and reconciles
+	 * the known commands of all guilds concurrently. A failed reconciliation is
+	 * logged, and does not stop the bot.
+	 * 
+	 * @return The mono completing when the bot disconnects.
+	 */
+	public Mono<Void> start() {
+		return login().flatMap((GatewayDiscordClient gateway) -> Mono.when(addHandlers(),
+				reconcileCommands(getKnownCommandNames())
+						.doOnNext((Set<String> added) -> info("Registered commands %s", added))
+						.onErrorResume((Throwable e) -> {
+							// The bot keeps serving the existing commands.
+							error("Registering commands failed: %s", e.getMessage());
+							return Mono.empty();
+						}),
+				gateway.onDisconnect()));
 	}
 
 	/**
@@ -956,8 +1393,7 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 */
 	public void run() {
 		connect();
-		registerCommands();
-	
+		start().block();
 	}
 
 	/**
@@ -968,11 +1404,14 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 	 * @param removed The removed commands list.
 	 */
 	public void unregisterCommands(Long guildId, String... removed) {
-		long appId = connection.getRestClient().getApplicationId().block();
+		long appId = getApplicationId().block();
 		java.util.Map<String, ApplicationCommandData> discordCommands = connection.getRestClient()
 				.getApplicationService().getGuildApplicationCommands(appId, guildId)
 				.collectMap(ApplicationCommandData::name).block();
 	
+		if (guildId != null) {
+			reconciler.invalidate(appId, guildId);
+		}
 		for (String cmdName : removed) {
 			if (discordCommands.containsKey(cmdName)) {
 				long commandId = Long.parseLong(discordCommands.get(cmdName).id());
@@ -1132,6 +1571,11 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 		 */
 		private DiceRoller roller;
 
+		/**
+		 * The locale of the replies, or undefined value for the default locale.
+		 */
+		private final Locale locale;
+
 		
 		/**
 		 * Create a new action dice with given dice roller.
@@ -1139,7 +1583,64 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 		 * @param roller The dice roller used to roll dice.
 		 */
 		public ActionRollCommand(DiceRoller roller) {
+			this(roller, null);
+		}
+
+		/**
+		 * Create a new action dice with given dice roller replying in the given
+		 * locale.
+		 * 
+		 * @param roller The dice roller used to roll dice.
+		 * @param locale The locale of the replies, or undefined value for the
+		 *               default locale.
+		 */
+		public ActionRollCommand(DiceRoller roller, Locale locale) {
 			this.roller = roller;
+			this.locale = locale;
+		}
+
+		/**
+		 * Get the locale of the replies.
+		 * 
+		 * @return The locale of the replies, or undefined value for the default
+		 *         locale.
+		 */
+		public Locale getLocale() {
+			return locale;
+		}
+
+		/**
+		 * Get the compiled message template of the locale of the replies.
+		 * 
+		 * @param messageName The message name.
+		 * @return The compiled template of the message.
+		 */
+		public MessageTemplate getMessageTemplate(String messageName) {
+			return Modiphius2d20SrdBot.this.getMessageTemplate(messageName, locale);
+		}
+
+		/**
+		 * Format the given message template of the locale of the replies.
+		 * 
+		 * @param messageName The message name.
+		 * @param args        The arguments of the message template.
+		 * @return The formatted message.
+		 */
+		public String formatMessage(String messageName, Object... args) {
+			return getMessageTemplate(messageName).format(args);
+		}
+
+		/**
+		 * Append the given message template of the locale of the replies formatted
+		 * to the builder.
+		 * 
+		 * @param builder     The builder.
+		 * @param messageName The message name.
+		 * @param args        The arguments of the message template.
+		 * @return The builder.
+		 */
+		public StringBuilder appendMessage(StringBuilder builder, String messageName, Object... args) {
+			return getMessageTemplate(messageName).formatTo(builder, args);
 		}
 
 
@@ -1167,11 +1668,11 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 					.map(ApplicationCommandInteractionOptionValue::asLong).orElse(20L);
 			boolean hasErrors = false;
 			
-			String actionFormat = getMessage(getTitleMessage());
+			MessageTemplate actionFormat = getMessageTemplate(getTitleMessage());
 
 			String titleMessage = getDefaultTitleMessage(difficulty, dice, critRange, tn, complicationRange); 
 			try {
-				titleMessage = String.format(actionFormat, difficulty, dice, critRange, tn, complicationRange); 
+				titleMessage = actionFormat.format(difficulty, dice, critRange, tn, complicationRange); 
 			} catch(Exception e) {
 				error(String.format("Format %s failed with parameters \"%s\", \"%s\", \"%s\"", actionFormat, difficulty, dice, critRange, tn, complicationRange));
 			}
@@ -1180,130 +1681,147 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 			if (difficulty < 0) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getDifficultyTooLowMessageKey()));
+				appendMessage(msg, getDifficultyTooLowMessageKey());
 			} else if (difficulty > 5) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getDifficultyTooHighMessageKey()));
+				appendMessage(msg, getDifficultyTooHighMessageKey());
 			}
 			if (dice < 0) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getDiceTooSmallMessageKey()));
+				appendMessage(msg, getDiceTooSmallMessageKey());
 			} else if (dice > 5) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getDiceTooLargeMessageKey()));
+				appendMessage(msg, getDiceTooLargeMessageKey());
 			}
 			if (tn < 1) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getTargetNumberTooLowMessageKey()));
+				appendMessage(msg, getTargetNumberTooLowMessageKey());
 			} else if (tn > 20) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getTargetNumberTooHighMessageKey()));
+				appendMessage(msg, getTargetNumberTooHighMessageKey());
 			}
 			if (skill < 4) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getSkillTooLowMessageKey()));
+				appendMessage(msg, getSkillTooLowMessageKey());
 			} else if (skill > 8) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getSkillTooHighMessageKey()));
+				appendMessage(msg, getSkillTooHighMessageKey());
 			}
 			if (motivation < 4) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getAttributeTooLowMessageKey()));
+				appendMessage(msg, getAttributeTooLowMessageKey());
 			} else if (motivation > 8) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getAttributeTooHighMessageKey()));
+				appendMessage(msg, getAttributeTooHighMessageKey());
 			}
 			if (complicationRange < 16) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getComplicationRangeTooSmallMessageKey()));
+				appendMessage(msg, getComplicationRangeTooSmallMessageKey());
 			} else if (complicationRange > 21) {
 				hasErrors = true; 
 				if (msg.length() > 0) {
-					msg.append(getMessage(getDelimiterMessageKey()));
+					appendMessage(msg, getDelimiterMessageKey());
 				}
-				msg.append(getMessage(getComplicationRangeTooLargeMessageKey()));
+				appendMessage(msg, getComplicationRangeTooLargeMessageKey());
 			}
 			if (hasErrors) {
 				// Outputting error rather than performing action.
-				String errorMessage = String.format(getMessage(getActionCommandErrorFormatKey()), titleMessage, msg.toString()); 
+				String errorMessage = formatMessage(getActionCommandErrorFormatKey(), titleMessage, msg); 
 				error(errorMessage);
 				return errorMessage;
 			} else {
-				// Tossing the dice.
-				RollResult result = roller.rollAction((int) dice, (int) tn, (int) critRange, (int) complicationRange);
-				int complications = 0;
-				java.util.List<com.kautiainen.antti.infinitybot.model.Special> specials = result.getSpecials();
-				for (com.kautiainen.antti.infinitybot.model.Special  special: specials) {
-					if (special.getName().equals(getComplicationSpecialName())) {
-						if (special.getValue() != 0) {
-							complications += special.getValue();
-						}
-					}
+				return executeRoll(titleMessage, difficulty, dice, tn, critRange, complicationRange);
+			}
+		}
+
+		/**
+		 * Performs the validated roll.
+		 * 
+		 * @param titleMessage      The title of the reply.
+		 * @param difficulty        The difficulty of the test.
+		 * @param dice              The number of dice.
+		 * @param tn                The target number of each die.
+		 * @param critRange         The critical range.
+		 * @param complicationRange The complication range.
+		 * @return The reply of the command.
+		 */
+		protected String executeRoll(String titleMessage, long difficulty, long dice, long tn, long critRange,
+				long complicationRange) {
+			// Tossing the dice.
+			ActionRollResult result = roller.rollAction((int) dice, (int) tn, (int) critRange, (int) complicationRange);
+			return formatResult(titleMessage, difficulty, result);
+		}
+
+		/**
+		 * Formats the result of the roll.
+		 * 
+		 * @param titleMessage The title of the reply.
+		 * @param difficulty   The difficulty of the test.
+		 * @param result       The result of the roll.
+		 * @return The reply of the command.
+		 */
+		protected String formatResult(String titleMessage, long difficulty, ActionRollResult result) {
+			int complications = result.getComplications();
+		
+			String roll = RollResultRenderer.DEFAULT.renderRoll(result);
+			int value = result.getValue();
+			if (value < difficulty) {
+				MessageTemplate format = getMessageTemplate("action_roll.messages.failure_format");
+				debug("Result pattern: \"%s\"%n\"%s\", %d, %d, %s", format, titleMessage, 
+						value,complications, roll);
+				try {
+					return format.format(titleMessage, value, complications, roll);
+				} catch (Exception e) {
+					debug("Format: " + format + " failed with "  + titleMessage + ", " + value + ", " + complications + ", " + roll);
+					return titleMessage + "\nFailed with " + value + " successes and " + complications + " complications\n" + roll; 
 				}
-			
-				String roll = result.getRollFormat();
-				int value = result.getValue();
-				if (value < difficulty) {
-					String format = getMessage("action_roll.messages.failure_format");
-					debug(String.format("Result pattern: \"%s\"%n%s, %d, %d, %s", format, "\"" + titleMessage+ "\"", 
-							value,complications, roll));
-					try {
-						return String.format(format, 
-								titleMessage, value, complications, roll);
-					} catch (Exception e) {
-						debug("Format: " + format + " failed with "  + titleMessage + ", " + value + ", " + complications + ", " + roll);
-						return titleMessage + "\nFailed with " + value + " successes and " + complications + " complications\n" + roll; 
-					}
-				} else {
-					String format = getMessage("action_roll.messages.success_format");
-					value -= difficulty;
-					try {
-						debug(String.format("Result pattern: \"%s\"%n%s, %d, %d, %s", format, "\"" + titleMessage + "\"",  value, complications, roll));
-					} catch(IllegalArgumentException iae) {
-						debug("Debug message formatting failed: "+ format + " with " + titleMessage + ", " + value + ", " + complications + ", " + roll);
-					}
-					try {
-						return String.format(format, 
-								titleMessage, value, complications, roll);
-					} catch (Exception e) {
-						debug("Format: " + format + " failed with "  + titleMessage + ", " + value + ", " + complications + ", " + roll);
-						return titleMessage + "\nSuccess with " + value + " momentum and " + complications + " complications\n" + roll; 
-					}
+			} else {
+				MessageTemplate format = getMessageTemplate("action_roll.messages.success_format");
+				value -= difficulty;
+				try {
+					debug("Result pattern: \"%s\"%n\"%s\", %d, %d, %s", format, titleMessage,  value, complications, roll);
+				} catch(IllegalArgumentException iae) {
+					debug("Debug message formatting failed: "+ format + " with " + titleMessage + ", " + value + ", " + complications + ", " + roll);
+				}
+				try {
+					return format.format(titleMessage, value, complications, roll);
+				} catch (Exception e) {
+					debug("Format: " + format + " failed with "  + titleMessage + ", " + value + ", " + complications + ", " + roll);
+					return titleMessage + "\nSuccess with " + value + " momentum and " + complications + " complications\n" + roll; 
 				}
 			}
-
 		}
 
 
@@ -1443,6 +1961,138 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 		}
 	}
 
+	/**
+	 * The command calculating the exact odds of an action roll.
+	 * 
+	 * The command accepts the same parameters as the action roll command.
+	 * 
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public class OddsCommand extends ActionRollCommand {
+
+		/**
+		 * The message name of the odds result format.
+		 */
+		public static final String ODDS_RESULT_FORMAT_MESSAGE = "odds.messages.result_format";
+
+		/**
+		 * The message name of the distribution entry format.
+		 */
+		public static final String ODDS_ENTRY_FORMAT_MESSAGE = "odds.messages.entry_format";
+
+		/**
+		 * The message name of the distribution entry delimiter.
+		 */
+		public static final String ODDS_DELIMITER_MESSAGE = "odds.messages.delimiter";
+
+		/**
+		 * Create a new odds command.
+		 */
+		public OddsCommand() {
+			this(null);
+		}
+
+		/**
+		 * Create a new odds command replying in the given locale.
+		 * 
+		 * @param locale The locale of the replies, or undefined value for the
+		 *               default locale.
+		 */
+		public OddsCommand(Locale locale) {
+			super(null, locale);
+		}
+
+		/**
+		 * Format probability as percentage.
+		 * 
+		 * @param probability The probability.
+		 * @return The percentage string of the probability.
+		 */
+		protected String formatProbability(double probability) {
+			return String.format("%.1f%%", probability * 100.0);
+		}
+
+		/**
+		 * Append the distribution entry to the builder.
+		 * 
+		 * @param builder     The builder.
+		 * @param value       The value of the entry.
+		 * @param probability The probability of the value.
+		 */
+		protected void appendEntry(StringBuilder builder, int value, double probability) {
+			if (builder.length() > 0) {
+				appendMessage(builder, ODDS_DELIMITER_MESSAGE);
+			}
+			appendMessage(builder, ODDS_ENTRY_FORMAT_MESSAGE, value, formatProbability(probability));
+		}
+
+		@Override
+		protected String executeRoll(String titleMessage, long difficulty, long dice, long tn, long critRange,
+				long complicationRange) {
+			ActionRollOdds odds = ActionRollOdds.of((int) dice, (int) tn, (int) critRange, (int) complicationRange);
+			StringBuilder successes = new StringBuilder(), momentum = new StringBuilder(),
+					complications = new StringBuilder();
+			for (int value = 0; value <= odds.getMaxSuccesses(); value++) {
+				appendEntry(successes, value, odds.getSuccessProbability(value));
+			}
+			for (int value = 0; value <= odds.getMaxSuccesses() - difficulty; value++) {
+				appendEntry(momentum, value, odds.getMomentumProbability((int) difficulty, value));
+			}
+			for (int value = 0; value <= odds.getDiceNumber(); value++) {
+				appendEntry(complications, value, odds.getComplicationProbability(value));
+			}
+			return formatMessage(ODDS_RESULT_FORMAT_MESSAGE, titleMessage,
+					formatProbability(odds.getPassProbability((int) difficulty)),
+					String.format("%.2f", odds.getExpectedMomentum((int) difficulty)),
+					formatProbability(odds.getAnyComplicationProbability()), successes, momentum, complications);
+		}
+	}
+
+	/**
+	 * The action roll command replying with an embed.
+	 * 
+	 * The embed is rendered by the shared action roll embeds of the bot. The
+	 * reply of an invalid roll has no embed.
+	 * 
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public class EmbedActionRollCommand extends ActionRollCommand {
+
+		/**
+		 * The embed of the last roll.
+		 */
+		private EmbedCreateSpec embed = null;
+
+		/**
+		 * Create a new action roll command replying with an embed.
+		 * 
+		 * @param roller The dice roller used to roll dice.
+		 * @param locale The locale of the replies, or undefined value for the
+		 *               default locale.
+		 */
+		public EmbedActionRollCommand(DiceRoller roller, Locale locale) {
+			super(roller, locale);
+		}
+
+		/**
+		 * Get the embed of the last roll.
+		 * 
+		 * @return The embed of the last roll, if the command has rolled.
+		 */
+		public Optional<EmbedCreateSpec> getEmbed() {
+			return Optional.ofNullable(embed);
+		}
+
+		@Override
+		protected String formatResult(String titleMessage, long difficulty, ActionRollResult result) {
+			embed = actionRollEmbeds.render(titleMessage, difficulty, result, getLocale());
+			// The reply is the embed, so the text of the result is not formatted.
+			return titleMessage;
+		}
+	}
+
 	/**
 	 * ActionRollResultFormat formats action result format.
 	 * 
@@ -1462,11 +2112,10 @@ public abstract class Modiphius2d20SrdBot extends Logging {
 			if (obj instanceof RollResult) {
 				RollResult roll = (RollResult)obj;
 				if (roll != null) {
-					debug(String.format("Format: %s: Roll format %s", getMessage("action_roll.messages.roll_result_format"), 
-									roll.getRollFormat()));
-					toAppendTo.append(
-							String.format(getMessage("action_roll.messages.roll_result_format"), 
-									roll.getRollFormat()));
+					MessageTemplate format = getMessageTemplate("action_roll.messages.roll_result_format");
+					String dice = RollResultRenderer.DEFAULT.renderRoll(roll);
+					debug(() -> String.format("Format: %s: Roll format %s", format, dice));
+					toAppendTo.append(format.format(dice));
 				}
 				return toAppendTo;
 			} else {
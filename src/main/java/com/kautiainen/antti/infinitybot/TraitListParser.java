@@ -0,0 +1,264 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.kautiainen.antti.infinitybot.model.Special;
+import com.kautiainen.antti.infinitybot.model.SpecialValue;
+
+/**
+ * The parser of the trait lists of the effect rolls.
+ *
+ * The parser reads the whole trait list in single pass over the characters
+ * without regular expressions. The grammar of the trait list is:
+ * <pre>
+ * traits   := separator* (trait (separator+ trait)*)? separator*
+ * trait    := name ("(" ws* "s"? sign? digits ("=" sign? digits)? ws* ")")?
+ * name     := plain+ | '"' (char | '\"' | '\\')* '"'
+ * separator:= whitespace | ","
+ * </pre>
+ * The character <code>s</code> marks the stacking trait, and the number after
+ * the equals sign is the numeric value of the trait. The known traits are
+ * created from the templates of the special registry, and the other traits are
+ * the interned special values.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class TraitListParser {
+
+	/**
+	 * The largest number of digits of a value.
+	 */
+	public static final int MAX_DIGITS = 9;
+
+	/**
+	 * The registry of the special templates.
+	 */
+	private final SpecialRegistry registry;
+
+	/**
+	 * Create a new trait list parser.
+	 *
+	 * @param registry The registry of the special templates. Undefined registry
+	 *                 has no templates.
+	 */
+	public TraitListParser(SpecialRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Test whether the character separates the traits.
+	 *
+	 * @param c The character.
+	 * @return True, if and only if the character is a separator.
+	 */
+	protected static boolean isSeparator(char c) {
+		return c == ',' || Character.isWhitespace(c);
+	}
+
+	/**
+	 * Test whether the character may appear in an unquoted name.
+	 *
+	 * @param c The character.
+	 * @return True, if and only if the character is valid in unquoted name.
+	 */
+	protected static boolean isNameChar(char c) {
+		switch (c) {
+		case '(':
+		case ')':
+		case '[':
+		case ']':
+		case '{':
+		case '}':
+		case '"':
+		case '\\':
+		case '=':
+			return false;
+		default:
+			return !isSeparator(c) && !Character.isISOControl(c);
+		}
+	}
+
+	/**
+	 * Parse the trait list.
+	 *
+	 * @param traits The trait list.
+	 * @return The list of the parsed traits in the order of the trait list.
+	 * @throws ParseException The trait list was invalid. The error offset is the
+	 *                        index of the invalid character.
+	 */
+	public List<Special> parse(String traits) throws ParseException {
+		List<Special> result = new ArrayList<>();
+		if (traits == null) {
+			return result;
+		}
+		final int end = traits.length();
+		int index = 0;
+		StringBuilder name = new StringBuilder();
+		while (index < end) {
+			char c = traits.charAt(index);
+			if (isSeparator(c)) {
+				index++;
+				continue;
+			}
+
+			// Reading the name.
+			final int start = index;
+			name.setLength(0);
+			if (c == '"') {
+				index++;
+				boolean closed = false;
+				while (index < end && !closed) {
+					c = traits.charAt(index++);
+					if (c == '\\') {
+						if (index >= end) {
+							throw new ParseException("Unterminated escape", index - 1);
+						}
+						c = traits.charAt(index++);
+						if (c != '"' && c != '\\') {
+							throw new ParseException("Invalid escape \\" + c, index - 2);
+						}
+						name.append(c);
+					} else if (c == '"') {
+						closed = true;
+					} else {
+						name.append(c);
+					}
+				}
+				if (!closed) {
+					throw new ParseException("Unterminated quoted name", start);
+				}
+				if (name.length() == 0) {
+					throw new ParseException("Empty name", start);
+				}
+			} else if (isNameChar(c)) {
+				while (index < end && isNameChar(c = traits.charAt(index))) {
+					name.append(c);
+					index++;
+				}
+			} else {
+				throw new ParseException("Expected name but found " + c, index);
+			}
+
+			// Reading the optional value.
+			boolean stacking = false;
+			Integer value = null, numericValue = null;
+			if (index < end && traits.charAt(index) == '(') {
+				index = skipWhitespace(traits, index + 1);
+				if (index < end && (traits.charAt(index) == 's' || traits.charAt(index) == 'S')) {
+					stacking = true;
+					index++;
+				}
+				int valueEnd = scanNumber(traits, index);
+				value = parseNumber(traits, index, valueEnd);
+				index = valueEnd;
+				if (index < end && traits.charAt(index) == '=') {
+					valueEnd = scanNumber(traits, index + 1);
+					numericValue = parseNumber(traits, index + 1, valueEnd);
+					index = valueEnd;
+				}
+				index = skipWhitespace(traits, index);
+				if (index >= end || traits.charAt(index) != ')') {
+					throw new ParseException("Expected )", index);
+				}
+				index++;
+			}
+			if (index < end && !isSeparator(traits.charAt(index))) {
+				throw new ParseException("Expected separator but found " + traits.charAt(index), index);
+			}
+			result.add(createSpecial(name.toString(), stacking, value, numericValue, start));
+		}
+		return result;
+	}
+
+	/**
+	 * Skip the whitespace.
+	 *
+	 * @param source The parsed string.
+	 * @param index  The index of the first character.
+	 * @return The index of the first non-whitespace character.
+	 */
+	private static int skipWhitespace(String source, int index) {
+		while (index < source.length() && Character.isWhitespace(source.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Find the end of the signed number.
+	 *
+	 * @param source The parsed string.
+	 * @param index  The index of the first character of the number.
+	 * @return The index after the last digit.
+	 * @throws ParseException The number had no digits or too many digits.
+	 */
+	private static int scanNumber(String source, int index) throws ParseException {
+		int current = index;
+		if (current < source.length() && (source.charAt(current) == '+' || source.charAt(current) == '-')) {
+			current++;
+		}
+		int digitStart = current;
+		while (current < source.length() && source.charAt(current) >= '0' && source.charAt(current) <= '9') {
+			current++;
+		}
+		if (current == digitStart) {
+			throw new ParseException("Expected number", current);
+		} else if (current - digitStart > MAX_DIGITS) {
+			throw new ParseException("Too large number", digitStart);
+		}
+		return current;
+	}
+
+	/**
+	 * Parse the signed number validated by {@link #scanNumber(String, int)}.
+	 *
+	 * @param source The parsed string.
+	 * @param start  The start index of the number.
+	 * @param end    The end index of the number.
+	 * @return The value of the number.
+	 */
+	private static int parseNumber(String source, int start, int end) {
+		int result = 0, index = start;
+		boolean negative = false;
+		if (source.charAt(index) == '+' || source.charAt(index) == '-') {
+			negative = source.charAt(index) == '-';
+			index++;
+		}
+		for (; index < end; index++) {
+			result = result * 10 + (source.charAt(index) - '0');
+		}
+		return negative ? -result : result;
+	}
+
+	/**
+	 * Create the special of the parsed trait.
+	 *
+	 * @param name         The name of the trait.
+	 * @param stacking     Was the trait marked stacking.
+	 * @param value        The value of the trait, if any.
+	 * @param numericValue The numeric value of the trait, if any.
+	 * @param offset       The offset of the trait in the trait list.
+	 * @return The special of the trait.
+	 * @throws ParseException The template rejected the value.
+	 */
+	protected Special createSpecial(String name, boolean stacking, Integer value, Integer numericValue, int offset)
+			throws ParseException {
+		Special template = registry == null ? null : registry.get(name);
+		try {
+			if (template != null && numericValue == null) {
+				return template.getStacked(value == null ? 1 : value);
+			} else {
+				return SpecialValue.of(name, stacking || (template != null && template.stacks()),
+						value == null ? Special.defaultValue() : value, Optional.ofNullable(numericValue));
+			}
+		} catch (IllegalArgumentException iae) {
+			ParseException result = new ParseException("Invalid trait " + name, offset);
+			result.initCause(iae);
+			throw result;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.kautiainen.antti.infinitybot;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The virtual-thread execution mode.
+ *
+ * The virtual threads are used, when the system property
+ * {@value #ENABLED_PROPERTY} is <code>true</code> and the running Java platform
+ * supports the virtual threads. The virtual threads are looked up reflectively,
+ * so the bot still compiles and runs on the platforms without them.
+ *
+ * Only the command bodies of the {@link CommandExecutor} and the CLI thread of
+ * {@link DiscordBot#main(String[])} run on the virtual threads. The gateway
+ * and the REST calls of the Discord client stay on the threads of the client.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class VirtualThreads {
+
+	/**
+	 * The system property enabling the virtual-thread execution mode.
+	 */
+	public static final String ENABLED_PROPERTY = "threads.virtual";
+
+	/**
+	 * The method creating the executor starting a virtual thread for each task,
+	 * or undefined value, if the platform has no virtual threads.
+	 */
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findMethod(
+			java.util.concurrent.Executors.class, "newVirtualThreadPerTaskExecutor");
+
+	/**
+	 * The method starting a virtual thread, or undefined value, if the platform
+	 * has no virtual threads.
+	 */
+	private static final Method START_VIRTUAL_THREAD = findMethod(Thread.class, "startVirtualThread",
+			Runnable.class);
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Find a public static method.
+	 *
+	 * @param type       The type declaring the method.
+	 * @param name       The method name.
+	 * @param parameters The parameter types of the method.
+	 * @return The method, or undefined value, if the method does not exist.
+	 */
+	private static Method findMethod(Class<?> type, String name, Class<?>... parameters) {
+		try {
+			return type.getMethod(name, parameters);
+		} catch (NoSuchMethodException | SecurityException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Invoke a static method.
+	 *
+	 * @param method     The invoked method.
+	 * @param parameters The parameters of the invocation.
+	 * @return The result of the invocation.
+	 * @throws UnsupportedOperationException The platform has no virtual threads.
+	 */
+	private static Object invoke(Method method, Object... parameters) throws UnsupportedOperationException {
+		if (method == null) {
+			throw new UnsupportedOperationException("Virtual threads are not supported");
+		}
+		try {
+			return method.invoke(null, parameters);
+		} catch (InvocationTargetException ite) {
+			if (ite.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw new UnsupportedOperationException("Virtual threads are not available", ite.getCause());
+		} catch (IllegalAccessException iae) {
+			throw new UnsupportedOperationException("Virtual threads are not available", iae);
+		}
+	}
+
+	/**
+	 * Does the platform support the virtual threads.
+	 *
+	 * @return True, if and only if the virtual threads are available.
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null && START_VIRTUAL_THREAD != null;
+	}
+
+	/**
+	 * Is the virtual-thread execution mode enabled.
+	 *
+	 * @return True, if and only if the mode is enabled and the platform supports
+	 *         the virtual threads.
+	 */
+	public static boolean isEnabled() {
+		return isSupported() && Boolean.getBoolean(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Create an executor starting a new virtual thread for each task.
+	 *
+	 * @return The executor service.
+	 * @throws UnsupportedOperationException The platform has no virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() throws UnsupportedOperationException {
+		return (ExecutorService) invoke(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR);
+	}
+
+	/**
+	 * Start a thread running the task. The thread is virtual, if the
+	 * virtual-thread execution mode is enabled.
+	 *
+	 * @param name The name of the thread.
+	 * @param task The task.
+	 * @return The started thread.
+	 */
+	public static Thread start(String name, Runnable task) {
+		if (isEnabled()) {
+			Thread result = (Thread) invoke(START_VIRTUAL_THREAD, task);
+			result.setName(name);
+			return result;
+		} else {
+			Thread result = new Thread(task, name);
+			result.start();
+			return result;
+		}
+	}
+}
@@ -1,33 +1,291 @@
 package com.kautiainen.antti.infinitybot;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
-import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * XML Resource bundle handling resource bundles stored as XML Properties file. 
+ *
+ * The bundles are loaded with the {@link Control}, which compiles the messages
+ * of an XML file into a binary {@link MessageCache} on the first load, and maps
+ * the cache file on the later loads of the unchanged XML file.
  * @author Antti Kautiainen
  *
  */
 public class XMLResourceBundle extends ResourceBundle {
-	
-	private java.util.Properties properties = new java.util.Properties(); 
-	
-	public XMLResourceBundle(String baseBundleName) {
-		// Reading the properties from given name. 
+
+	/**
+	 * The format and the file suffix of the XML resource bundles.
+	 */
+	public static final String FORMAT = "xml";
+
+	/**
+	 * The default directory of the message cache files.
+	 */
+	public static final Path DEFAULT_CACHE_DIRECTORY = Paths.get(".infinitybot", "messages");
+
+	/**
+	 * The resource bundle control loading the XML resource bundles.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	public static class Control extends ResourceBundle.Control {
+
+		/**
+		 * The directory of the cache files, or undefined value, if the messages
+		 * are not cached.
+		 */
+		private final Path cacheDirectory;
+
+		/**
+		 * The logger of the control.
+		 */
+		private final Logging logger;
+
+		/**
+		 * Create a new control caching the messages to the default cache
+		 * directory.
+		 */
+		public Control() {
+			this(DEFAULT_CACHE_DIRECTORY);
+		}
+
+		/**
+		 * Create a new control.
+		 *
+		 * @param cacheDirectory The directory of the cache files, or undefined
+		 *                       value, if the messages are not cached.
+		 */
+		public Control(Path cacheDirectory) {
+			this(cacheDirectory, null);
+		}
+
+		/**
+		 * Create a new control.
+		 *
+		 * @param cacheDirectory The directory of the cache files, or undefined
+		 *                       value, if the messages are not cached.
+		 * @param logger         The logger of the control.
+		 */
+		public Control(Path cacheDirectory, Logging logger) {
+			this.cacheDirectory = cacheDirectory;
+			this.logger = logger == null ? new Logging() : logger;
+		}
+
+		/**
+		 * Get the directory of the cache files.
+		 *
+		 * @return The cache directory, or undefined value, if the messages are not
+		 *         cached.
+		 */
+		public Path getCacheDirectory() {
+			return cacheDirectory;
+		}
+
+		@Override
+		public List<String> getFormats(String baseName) {
+			if (baseName == null) {
+				throw new NullPointerException("Undefined base name");
+			}
+			return Collections.singletonList(FORMAT);
+		}
+
+		@Override
+		public ResourceBundle newBundle(String baseName, Locale locale, String format, ClassLoader loader,
+				boolean reload) throws IllegalAccessException, InstantiationException, IOException {
+			if (!FORMAT.equals(format)) {
+				return null;
+			}
+			String bundleName = toBundleName(baseName, locale);
+			URL url = loader.getResource(toResourceName(bundleName, FORMAT));
+			if (url == null) {
+				return null;
+			}
+			URLConnection connection = url.openConnection();
+			connection.setUseCaches(!reload);
+			byte[] source;
+			try (InputStream in = connection.getInputStream()) {
+				source = in.readAllBytes();
+			}
+			return load(bundleName, source);
+		}
+
+		/**
+		 * Load the bundle from the XML source, or from the cache compiled from the
+		 * same source.
+		 *
+		 * @param bundleName The bundle name.
+		 * @param source     The XML source of the bundle.
+		 * @return The loaded bundle.
+		 * @throws IOException The source was invalid.
+		 */
+		protected XMLResourceBundle load(String bundleName, byte[] source) throws IOException {
+			if (cacheDirectory == null) {
+				return new XMLResourceBundle(parse(source), null);
+			}
+			Path cacheFile = cacheDirectory.resolve(bundleName + ".msgcache");
+			byte[] hash = MessageCache.hash(source);
+			MessageCache cache = null;
+			try {
+				cache = MessageCache.open(cacheFile, hash);
+			} catch (IOException e) {
+				logger.warn("Could not read message cache %s: %s", cacheFile, e.getMessage());
+			}
+			if (cache != null) {
+				return new XMLResourceBundle(null, cache);
+			}
+			Properties messages = parse(source);
+			try {
+				MessageCache.write(cacheFile, hash, toMap(messages));
+				cache = MessageCache.open(cacheFile, hash);
+			} catch (IOException e) {
+				logger.warn("Could not write message cache %s: %s", cacheFile, e.getMessage());
+			}
+			return cache == null ? new XMLResourceBundle(messages, null) : new XMLResourceBundle(null, cache);
+		}
 	}
-	
-	public XMLResourceBundle(String baseBundleName, Locale locale) {
-		// Readign hte properites from given locale. 
-		
+
+	/**
+	 * The default control caching the messages to the default cache directory.
+	 */
+	private static final Control CONTROL = new Control();
+
+	/**
+	 * Get the XML resource bundle with the default control.
+	 *
+	 * @param baseName The base name of the bundle.
+	 * @param locale   The locale of the bundle.
+	 * @return The resource bundle.
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	public static ResourceBundle getXMLBundle(String baseName, Locale locale) throws MissingResourceException {
+		return ResourceBundle.getBundle(baseName, locale, XMLResourceBundle.class.getClassLoader(), CONTROL);
+	}
+
+	/**
+	 * Parse the XML properties.
+	 *
+	 * @param source The XML source.
+	 * @return The parsed properties.
+	 * @throws IOException The source was invalid.
+	 */
+	private static Properties parse(byte[] source) throws IOException {
+		Properties result = new Properties();
+		result.loadFromXML(new ByteArrayInputStream(source));
+		return result;
+	}
+
+	/**
+	 * Convert the properties to a map of strings.
+	 *
+	 * @param properties The properties.
+	 * @return The map of the property values.
+	 */
+	private static Map<String, String> toMap(Properties properties) {
+		Map<String, String> result = new HashMap<>();
+		for (String name : properties.stringPropertyNames()) {
+			result.put(name, properties.getProperty(name));
+		}
+		return result;
+	}
+
+	/**
+	 * The properties of the bundle. The properties override the cached
+	 * messages.
+	 */
+	private java.util.Properties properties = new java.util.Properties();
+
+	/**
+	 * The compiled messages, or undefined value, if the bundle has no cache.
+	 */
+	private final MessageCache cache;
+
+	/**
+	 * The messages decoded from the cache.
+	 */
+	private final ConcurrentHashMap<String, String> decoded = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new bundle reading the properties of the given XML bundle.
+	 *
+	 * @param baseBundleName The base name of the bundle.
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	public XMLResourceBundle(String baseBundleName) throws MissingResourceException {
+		this(baseBundleName, Locale.ROOT);
+	}
+
+	/**
+	 * Create a new bundle reading the properties of the given XML bundle of the
+	 * locale. The parent bundles are not loaded, and the messages are not
+	 * cached.
+	 *
+	 * @param baseBundleName The base name of the bundle.
+	 * @param locale         The locale of the bundle.
+	 * @throws MissingResourceException The bundle did not exist.
+	 */
+	public XMLResourceBundle(String baseBundleName, Locale locale) throws MissingResourceException {
+		this.cache = null;
+		String resourceName = CONTROL.toResourceName(CONTROL.toBundleName(baseBundleName, locale), FORMAT);
+		try (InputStream in = XMLResourceBundle.class.getClassLoader().getResourceAsStream(resourceName)) {
+			if (in == null) {
+				throw new MissingResourceException("Missing bundle " + resourceName, getClass().getName(),
+						resourceName);
+			}
+			properties.loadFromXML(in);
+		} catch (IOException e) {
+			throw new MissingResourceException("Invalid bundle " + resourceName + ": " + e.getMessage(),
+					getClass().getName(), resourceName);
+		}
+	}
+
+	/**
+	 * Create a new bundle.
+	 *
+	 * @param properties The properties, or undefined value for no properties.
+	 * @param cache      The compiled messages, or undefined value for no cache.
+	 */
+	protected XMLResourceBundle(Properties properties, MessageCache cache) {
+		if (properties != null) {
+			this.properties = properties;
+		}
+		this.cache = cache;
 	}
 
 	@Override
 	protected Object handleGetObject(String key) {
-		return properties.get(key); 
+		Object result = properties.get(key);
+		if (result == null && cache != null) {
+			result = decoded.get(key);
+			if (result == null) {
+				String message = cache.get(key);
+				if (message != null) {
+					decoded.putIfAbsent(key, message);
+				}
+				result = message;
+			}
+		}
+		return result;
 	}
-	
+
 	/**
 	 * Setting property. 
 	 * @param key The property name. 
@@ -43,18 +301,13 @@ public class XMLResourceBundle extends ResourceBundle {
 
 	@Override
 	public Enumeration<String> getKeys() {
-		return new Enumeration<String>() {
-			private final Enumeration<Object> iter = properties.keys();
-
-			@Override
-			public boolean hasMoreElements() {
-				return iter.hasMoreElements(); 
-			}
-
-			@Override
-			public String nextElement() throws NoSuchElementException {
-				return (String)iter.nextElement(); 
-			}
-		};
+		Set<String> keys = new LinkedHashSet<>(properties.stringPropertyNames());
+		if (cache != null) {
+			keys.addAll(cache.getNames());
+		}
+		if (parent != null) {
+			keys.addAll(Collections.list(parent.getKeys()));
+		}
+		return Collections.enumeration(keys);
 	}
-}
\ No newline at end of file
+}
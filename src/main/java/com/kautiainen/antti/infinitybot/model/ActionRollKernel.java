@@ -0,0 +1,233 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.Arrays;
+
+/**
+ * The primitive kernel of the d20 action roll.
+ *
+ * The kernel writes the rolled faces into a reusable integer buffer with the
+ * success, critical, and complication flags packed into each die. Rolling does
+ * not create any objects - the strings of the dice are created only when the
+ * result is rendered.
+ *
+ * The kernel is not thread safe. Each thread should use its own kernel.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class ActionRollKernel {
+
+	/**
+	 * The number of sides of the action die.
+	 */
+	public static final int DIE_SIDES = 20;
+
+	/**
+	 * The mask of the face value of the packed die.
+	 */
+	public static final int FACE_MASK = 0x1F;
+
+	/**
+	 * The flag indicating the die was a success.
+	 */
+	public static final int SUCCESS_FLAG = 0x20;
+
+	/**
+	 * The flag indicating the die was within the critical range. The die is a
+	 * critical success only if it is also a success.
+	 */
+	public static final int CRITICAL_FLAG = 0x40;
+
+	/**
+	 * The flag indicating the die caused a complication.
+	 */
+	public static final int COMPLICATION_FLAG = 0x80;
+
+	/**
+	 * The default capacity of the kernel. The 2d20 action roll never rolls more
+	 * than 5 dice.
+	 */
+	public static final int DEFAULT_CAPACITY = 5;
+
+	/**
+	 * Pack the result of a single die.
+	 *
+	 * @param roll              The face of the die.
+	 * @param TN                The target number.
+	 * @param criticalRange     The critical range.
+	 * @param complicationRange The complication range.
+	 * @return The die face with the result flags.
+	 */
+	public static int pack(int roll, int TN, int criticalRange, int complicationRange) {
+		return roll | (roll <= TN ? SUCCESS_FLAG : 0) | (roll <= criticalRange ? CRITICAL_FLAG : 0)
+				| (roll >= complicationRange ? COMPLICATION_FLAG : 0);
+	}
+
+	/**
+	 * Get the face of the packed die.
+	 *
+	 * @param packed The packed die.
+	 * @return The rolled face of the die.
+	 */
+	public static int getFace(int packed) {
+		return packed & FACE_MASK;
+	}
+
+	/**
+	 * Test whether the packed die was a success.
+	 *
+	 * @param packed The packed die.
+	 * @return True, if and only if the die was a success.
+	 */
+	public static boolean isSuccess(int packed) {
+		return (packed & SUCCESS_FLAG) != 0;
+	}
+
+	/**
+	 * Test whether the packed die was within the critical range.
+	 *
+	 * @param packed The packed die.
+	 * @return True, if and only if the die was within the critical range.
+	 */
+	public static boolean isCritical(int packed) {
+		return (packed & CRITICAL_FLAG) != 0;
+	}
+
+	/**
+	 * Test whether the packed die caused a complication.
+	 *
+	 * @param packed The packed die.
+	 * @return True, if and only if the die caused a complication.
+	 */
+	public static boolean isComplication(int packed) {
+		return (packed & COMPLICATION_FLAG) != 0;
+	}
+
+	/**
+	 * Get the number of successes the packed die generated.
+	 *
+	 * @param packed The packed die.
+	 * @return 0 for failure, 1 for success, and 2 for critical success.
+	 */
+	public static int getSuccesses(int packed) {
+		return isSuccess(packed) ? (isCritical(packed) ? 2 : 1) : 0;
+	}
+
+	/**
+	 * The packed dice of the last roll.
+	 */
+	private int[] dice;
+
+	/**
+	 * The number of dice of the last roll.
+	 */
+	private int diceCount = 0;
+
+	/**
+	 * The total successes of the last roll.
+	 */
+	private int successes = 0;
+
+	/**
+	 * The total complications of the last roll.
+	 */
+	private int complications = 0;
+
+	/**
+	 * Create a new kernel with default capacity.
+	 */
+	public ActionRollKernel() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new kernel with given initial capacity.
+	 *
+	 * @param capacity The initial number of dice the kernel can hold without
+	 *                 growing.
+	 */
+	public ActionRollKernel(int capacity) {
+		this.dice = new int[Math.max(capacity, 0)];
+	}
+
+	/**
+	 * Perform the action roll.
+	 *
+	 * The previous roll of the kernel is replaced with the new roll.
+	 *
+	 * @param random            The random strategy.
+	 * @param diceNumber        The number of dice rolled.
+	 * @param TN                The target number for each dice.
+	 * @param criticalRange     The critical success range.
+	 * @param complicationRange The complication range.
+	 * @return The total number of successes.
+	 */
+	public int roll(RandomStrategy random, int diceNumber, int TN, int criticalRange, int complicationRange) {
+		int count = Math.max(diceNumber, 0);
+		if (count > dice.length) {
+			dice = new int[count];
+		}
+		int total = 0, complicationTotal = 0;
+		for (int i = 0; i < count; i++) {
+			int packed = pack(random.nextInt(DIE_SIDES) + 1, TN, criticalRange, complicationRange);
+			total += getSuccesses(packed);
+			if (isComplication(packed)) {
+				complicationTotal++;
+			}
+			dice[i] = packed;
+		}
+		this.diceCount = count;
+		this.successes = total;
+		this.complications = complicationTotal;
+		return total;
+	}
+
+	/**
+	 * Get the number of dice of the last roll.
+	 *
+	 * @return The number of dice rolled.
+	 */
+	public int getDiceCount() {
+		return diceCount;
+	}
+
+	/**
+	 * Get the packed die of the last roll.
+	 *
+	 * @param index The index of the die.
+	 * @return The packed die.
+	 * @throws IndexOutOfBoundsException The index was invalid.
+	 */
+	public int getDie(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= diceCount)
+			throw new IndexOutOfBoundsException(index);
+		return dice[index];
+	}
+
+	/**
+	 * Get the total successes of the last roll.
+	 *
+	 * @return The total number of successes.
+	 */
+	public int getSuccesses() {
+		return successes;
+	}
+
+	/**
+	 * Get the number of complications of the last roll.
+	 *
+	 * @return The number of complications.
+	 */
+	public int getComplications() {
+		return complications;
+	}
+
+	/**
+	 * Copy the packed dice of the last roll.
+	 *
+	 * @return The array containing the packed dice of the last roll.
+	 */
+	public int[] copyDice() {
+		return Arrays.copyOf(dice, diceCount);
+	}
+}
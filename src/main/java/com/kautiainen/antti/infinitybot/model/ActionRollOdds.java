@@ -0,0 +1,275 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The exact probability distribution of the d20 action roll.
+ *
+ * The distribution is calculated by convolving the outcome distribution of a
+ * single die using the same rules as {@link DiceRoller#rollAction(int, int, int, int)}.
+ * The distributions are immutable, and they are cached by the roll parameters.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class ActionRollOdds {
+
+	/**
+	 * The largest number of dice the distribution supports. The number of all
+	 * outcomes of the roll has to fit into a long.
+	 */
+	public static final int MAX_DICE = 14;
+
+	/**
+	 * The cached distributions by the packed parameters.
+	 */
+	private static final ConcurrentHashMap<Integer, ActionRollOdds> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the distribution of the action roll.
+	 *
+	 * @param diceNumber        The number of dice rolled.
+	 * @param TN                The target number of each die.
+	 * @param criticalRange     The critical success range.
+	 * @param complicationRange The complication range.
+	 * @return The distribution of the action roll with given parameters.
+	 * @throws IllegalArgumentException The number of dice was invalid.
+	 */
+	public static ActionRollOdds of(int diceNumber, int TN, int criticalRange, int complicationRange)
+			throws IllegalArgumentException {
+		if (diceNumber < 0 || diceNumber > MAX_DICE) {
+			throw new IllegalArgumentException("Invalid number of dice");
+		}
+		// Values outside the die faces behave like the nearest face boundary.
+		int tn = clamp(TN, 0, ActionRollKernel.DIE_SIDES);
+		int crit = Math.min(clamp(criticalRange, 0, ActionRollKernel.DIE_SIDES), tn);
+		int complication = clamp(complicationRange, 1, ActionRollKernel.DIE_SIDES + 1);
+		int key = (((diceNumber << 5 | tn) << 5 | crit) << 5) | complication;
+		return CACHE.computeIfAbsent(key, (Integer k) -> new ActionRollOdds(diceNumber, tn, crit, complication));
+	}
+
+	/**
+	 * Clamp the value to the given range.
+	 *
+	 * @param value The value.
+	 * @param min   The smallest allowed value.
+	 * @param max   The largest allowed value.
+	 * @return The value clamped to the range.
+	 */
+	private static int clamp(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * The number of dice.
+	 */
+	private final int diceNumber;
+
+	/**
+	 * The number of outcomes by successes and complications.
+	 */
+	private final long[][] counts;
+
+	/**
+	 * The number of outcomes by successes.
+	 */
+	private final long[] successCounts;
+
+	/**
+	 * The number of outcomes by complications.
+	 */
+	private final long[] complicationCounts;
+
+	/**
+	 * The total number of outcomes.
+	 */
+	private final long total;
+
+	/**
+	 * Create the distribution.
+	 *
+	 * @param diceNumber        The number of dice.
+	 * @param TN                The target number.
+	 * @param criticalRange     The critical range.
+	 * @param complicationRange The complication range.
+	 */
+	private ActionRollOdds(int diceNumber, int TN, int criticalRange, int complicationRange) {
+		this.diceNumber = diceNumber;
+		// The outcomes of single die by successes and complications.
+		long[][] die = new long[3][2];
+		for (int face = 1; face <= ActionRollKernel.DIE_SIDES; face++) {
+			int packed = ActionRollKernel.pack(face, TN, criticalRange, complicationRange);
+			die[ActionRollKernel.getSuccesses(packed)][ActionRollKernel.isComplication(packed) ? 1 : 0]++;
+		}
+
+		long[][] current = new long[1][1];
+		current[0][0] = 1;
+		for (int n = 1; n <= diceNumber; n++) {
+			long[][] next = new long[2 * n + 1][n + 1];
+			for (int s = 0; s < current.length; s++) {
+				for (int c = 0; c < current[s].length; c++) {
+					long count = current[s][c];
+					if (count != 0) {
+						for (int ds = 0; ds < 3; ds++) {
+							for (int dc = 0; dc < 2; dc++) {
+								next[s + ds][c + dc] += count * die[ds][dc];
+							}
+						}
+					}
+				}
+			}
+			current = next;
+		}
+		this.counts = current;
+
+		this.successCounts = new long[2 * diceNumber + 1];
+		this.complicationCounts = new long[diceNumber + 1];
+		long sum = 0;
+		for (int s = 0; s < counts.length; s++) {
+			for (int c = 0; c < counts[s].length; c++) {
+				successCounts[s] += counts[s][c];
+				complicationCounts[c] += counts[s][c];
+				sum += counts[s][c];
+			}
+		}
+		this.total = sum;
+	}
+
+	/**
+	 * Get the number of dice.
+	 *
+	 * @return The number of dice rolled.
+	 */
+	public int getDiceNumber() {
+		return diceNumber;
+	}
+
+	/**
+	 * Get the largest possible number of successes.
+	 *
+	 * @return The maximum number of successes.
+	 */
+	public int getMaxSuccesses() {
+		return 2 * diceNumber;
+	}
+
+	/**
+	 * Get the total number of the equally likely outcomes.
+	 *
+	 * @return The number of outcomes.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Get the number of outcomes with given successes and complications.
+	 *
+	 * @param successes     The number of successes.
+	 * @param complications The number of complications.
+	 * @return The number of outcomes.
+	 */
+	public long getCount(int successes, int complications) {
+		if (successes < 0 || successes >= counts.length || complications < 0
+				|| complications >= counts[successes].length) {
+			return 0;
+		}
+		return counts[successes][complications];
+	}
+
+	/**
+	 * Get the probability of given successes and complications.
+	 *
+	 * @param successes     The number of successes.
+	 * @param complications The number of complications.
+	 * @return The probability of the exact successes and complications.
+	 */
+	public double getProbability(int successes, int complications) {
+		return (double) getCount(successes, complications) / total;
+	}
+
+	/**
+	 * Get the probability of exact number of successes.
+	 *
+	 * @param successes The number of successes.
+	 * @return The probability of the successes.
+	 */
+	public double getSuccessProbability(int successes) {
+		return (successes < 0 || successes >= successCounts.length) ? 0.0 : (double) successCounts[successes] / total;
+	}
+
+	/**
+	 * Get the probability of exact number of complications.
+	 *
+	 * @param complications The number of complications.
+	 * @return The probability of the complications.
+	 */
+	public double getComplicationProbability(int complications) {
+		return (complications < 0 || complications >= complicationCounts.length) ? 0.0
+				: (double) complicationCounts[complications] / total;
+	}
+
+	/**
+	 * Get the probability of passing the test.
+	 *
+	 * @param difficulty The difficulty of the test.
+	 * @return The probability of getting at least difficulty successes.
+	 */
+	public double getPassProbability(int difficulty) {
+		long passed = 0;
+		for (int s = Math.max(difficulty, 0); s < successCounts.length; s++) {
+			passed += successCounts[s];
+		}
+		return (double) passed / total;
+	}
+
+	/**
+	 * Get the probability of passing the test with exact momentum.
+	 *
+	 * @param difficulty The difficulty of the test.
+	 * @param momentum   The momentum.
+	 * @return The probability of the passing the test with given momentum.
+	 */
+	public double getMomentumProbability(int difficulty, int momentum) {
+		return momentum < 0 ? 0.0 : getSuccessProbability(Math.max(difficulty, 0) + momentum);
+	}
+
+	/**
+	 * Get the expected momentum of the test. The failed tests generate no
+	 * momentum.
+	 *
+	 * @param difficulty The difficulty of the test.
+	 * @return The expected momentum.
+	 */
+	public double getExpectedMomentum(int difficulty) {
+		// The products of the counts overflow a long with the largest pools.
+		double sum = 0;
+		int start = Math.max(difficulty, 0);
+		for (int s = start; s < successCounts.length; s++) {
+			sum += (double) (s - start) * successCounts[s];
+		}
+		return sum / total;
+	}
+
+	/**
+	 * Get the probability of at least one complication.
+	 *
+	 * @return The probability of any complication.
+	 */
+	public double getAnyComplicationProbability() {
+		return 1.0 - getComplicationProbability(0);
+	}
+
+	/**
+	 * Get the expected number of successes.
+	 *
+	 * @return The expected number of successes.
+	 */
+	public double getExpectedSuccesses() {
+		double sum = 0;
+		for (int s = 0; s < successCounts.length; s++) {
+			sum += (double) s * successCounts[s];
+		}
+		return sum / total;
+	}
+}
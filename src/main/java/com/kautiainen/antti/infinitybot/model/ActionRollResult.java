@@ -0,0 +1,125 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of the d20 action roll.
+ *
+ * The result keeps the packed dice of the {@link ActionRollKernel}, and
+ * creates the formatted dice strings only when they are requested.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class ActionRollResult extends RollResult {
+
+	/**
+	 * The roller formatting the dice.
+	 */
+	private final DiceRoller formatter;
+
+	/**
+	 * The packed dice.
+	 */
+	private final int[] dice;
+
+	/**
+	 * The complication special of the roll.
+	 */
+	private final DiceRoller.Complication complication;
+
+	/**
+	 * The formatted dice. Created on first request.
+	 */
+	private volatile List<String> formattedRoll = null;
+
+	/**
+	 * Create a new action roll result from the last roll of the kernel.
+	 *
+	 * @param formatter The dice roller formatting the dice.
+	 * @param kernel    The kernel containing the roll.
+	 */
+	public ActionRollResult(DiceRoller formatter, ActionRollKernel kernel) {
+		super(kernel.getSuccesses());
+		this.formatter = formatter;
+		this.dice = kernel.copyDice();
+		this.complication = DiceRoller.Complication.valueOf(kernel.getComplications());
+	}
+
+	/**
+	 * Get the number of dice rolled.
+	 *
+	 * @return The number of dice.
+	 */
+	public int getDiceCount() {
+		return dice.length;
+	}
+
+	/**
+	 * Get the packed die.
+	 *
+	 * @param index The index of the die.
+	 * @return The packed die with the flags of {@link ActionRollKernel}.
+	 */
+	public int getDie(int index) {
+		return dice[index];
+	}
+
+	/**
+	 * Get the number of complications of the roll.
+	 *
+	 * @return The number of complications.
+	 */
+	public int getComplications() {
+		return complication.getValue();
+	}
+
+	/**
+	 * Format the die.
+	 *
+	 * @param index The index of the die.
+	 * @return The formatted die.
+	 */
+	public String formatDie(int index) {
+		int packed = dice[index];
+		return formatter.formatRoll(ActionRollKernel.getFace(packed), ActionRollKernel.isSuccess(packed),
+				ActionRollKernel.isCritical(packed), ActionRollKernel.isComplication(packed));
+	}
+
+	/**
+	 * Append the formatted die to the target.
+	 *
+	 * @param <T>    The type of the target.
+	 * @param index  The index of the die.
+	 * @param target The target of the formatted die.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	public <T extends Appendable> T appendDie(int index, T target) throws IOException {
+		int packed = dice[index];
+		return formatter.appendRoll(target, ActionRollKernel.getFace(packed), ActionRollKernel.isSuccess(packed),
+				ActionRollKernel.isCritical(packed), ActionRollKernel.isComplication(packed));
+	}
+
+	@Override
+	public List<String> getRoll() {
+		List<String> result = formattedRoll;
+		if (result == null) {
+			result = new ArrayList<>(dice.length);
+			for (int i = 0; i < dice.length; i++) {
+				result.add(formatDie(i));
+			}
+			result = Collections.unmodifiableList(result);
+			formattedRoll = result;
+		}
+		return result;
+	}
+
+	@Override
+	public List<Special> getSpecials() {
+		return Collections.singletonList(complication);
+	}
+}
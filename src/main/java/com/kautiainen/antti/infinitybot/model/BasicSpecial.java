@@ -43,22 +43,26 @@ public class BasicSpecial extends Logging implements Special {
 	private boolean underConstruction = true;
 	
 	/**
-	 * The property change support dealing with property change events. 
+	 * The property change support dealing with property change events. The
+	 * support is created when the first listener is added. 
 	 */
-	private PropertyChangeSupport reportPropertyChange = new PropertyChangeSupport(this);
+	private PropertyChangeSupport reportPropertyChange = null;
 
 	/**
 	 * The vetoable property change support dealing with validation of the property
-	 * changes.
+	 * changes. The support is created when the first listener is added. 
 	 */
-	private VetoableChangeSupport checkPropertyChange = new VetoableChangeSupport(this);
+	private VetoableChangeSupport checkPropertyChange = null;
 	
 	
 	/**
 	 * Add a property change listener to the class. 
 	 * @param listener The added listener. 
 	 */
-	public void addPropertyChangeListener(PropertyChangeListener listener) {
+	public synchronized void addPropertyChangeListener(PropertyChangeListener listener) {
+		if (this.reportPropertyChange == null) {
+			this.reportPropertyChange = new PropertyChangeSupport(this); 
+		}
 		this.reportPropertyChange.addPropertyChangeListener(listener);
 	}
 	
@@ -66,15 +70,20 @@ public class BasicSpecial extends Logging implements Special {
 	 * Remove a property change listener to the class. 
 	 * @param listener The added listener. 
 	 */
-	public void removePropertyChangeListener(PropertyChangeListener listener) {
-		this.reportPropertyChange.removePropertyChangeListener(listener);
+	public synchronized void removePropertyChangeListener(PropertyChangeListener listener) {
+		if (this.reportPropertyChange != null) {
+			this.reportPropertyChange.removePropertyChangeListener(listener);
+		}
 	}
 	
 	/**
 	 * Add a vetoable change listener to the class. 
 	 * @param listener The added listener. 
 	 */
-	public void addVetoableChangeListener(VetoableChangeListener listener) {
+	public synchronized void addVetoableChangeListener(VetoableChangeListener listener) {
+		if (this.checkPropertyChange == null) {
+			this.checkPropertyChange = new VetoableChangeSupport(this); 
+		}
 		this.checkPropertyChange.addVetoableChangeListener(listener);
 	}
 	
@@ -82,10 +91,40 @@ public class BasicSpecial extends Logging implements Special {
 	 * Remove a vetoable change listener to the class. 
 	 * @param listener The added listener. 
 	 */
-	public void removeVetoableChangeListener(VetoableChangeListener listener) {
-		this.checkPropertyChange.removeVetoableChangeListener(listener);
+	public synchronized void removeVetoableChangeListener(VetoableChangeListener listener) {
+		if (this.checkPropertyChange != null) {
+			this.checkPropertyChange.removeVetoableChangeListener(listener);
+		}
+	}
+	
+	
+	/**
+	 * Report the property change to the property change listeners, if any exists. 
+	 * @param propertyName The property name. 
+	 * @param oldValue The old value of the property. 
+	 * @param newValue The new value of the property. 
+	 */
+	protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+		PropertyChangeSupport support = this.reportPropertyChange; 
+		if (support != null) {
+			support.firePropertyChange(propertyName, oldValue, newValue);
+		}
 	}
 	
+	/**
+	 * Check the property change with the vetoable change listeners, if any exists. 
+	 * @param propertyName The property name. 
+	 * @param oldValue The old value of the property. 
+	 * @param newValue The new value of the property. 
+	 * @throws PropertyVetoException Any listener vetoed the change. 
+	 */
+	protected void fireVetoableChange(String propertyName, Object oldValue, Object newValue) 
+	throws PropertyVetoException {
+		VetoableChangeSupport support = this.checkPropertyChange; 
+		if (support != null) {
+			support.fireVetoableChange(propertyName, oldValue, newValue);
+		}
+	}
 	
 	/**
 	 * Get the property value of the property with given getter. 
@@ -277,7 +316,7 @@ public class BasicSpecial extends Logging implements Special {
 	 */
 	public<TYPE> boolean validPropertyValue(String propertyName, TYPE newValue) {
 		try {
-			this.checkPropertyChange.fireVetoableChange(propertyName, getPropertyValue(propertyName), newValue);
+			this.fireVetoableChange(propertyName, getPropertyValue(propertyName), newValue);
 			return true; 
 		} catch(PropertyVetoException pve) {
 			return false; 
@@ -298,7 +337,7 @@ public class BasicSpecial extends Logging implements Special {
 	 */
 	public boolean validPropertyChange(String propertyName, String propertyValue)  {
 		try {
-			this.checkPropertyChange.fireVetoableChange(propertyName, 
+			this.fireVetoableChange(propertyName, 
 					getPropertyGetter(propertyName).get(),
 					propertyValue);
 			return true; 
@@ -331,7 +370,7 @@ public class BasicSpecial extends Logging implements Special {
 		setter.accept(propertyValue);
 			
 		// Reporting the property change. 
-		this.reportPropertyChange.firePropertyChange(propertyName, oldValue, propertyValue);
+		this.firePropertyChange(propertyName, oldValue, propertyValue);
 	}
 	
 	/**
@@ -540,7 +579,7 @@ public class BasicSpecial extends Logging implements Special {
 		} else {
 			String result = this.getName(); 
 			this.name = assigned; 
-			this.reportPropertyChange.firePropertyChange(propertyName, result, name);
+			this.firePropertyChange(propertyName, result, name);
 			return result; 
 		}
 	}
@@ -581,7 +620,7 @@ public class BasicSpecial extends Logging implements Special {
 		} else {
 			Integer result = this.getValue();
 			this.value = assigned; 
-			this.reportPropertyChange.firePropertyChange(propertyName, result, newValue);
+			this.firePropertyChange(propertyName, result, newValue);
 			return result; 
 		}
 	}
@@ -632,7 +671,7 @@ public class BasicSpecial extends Logging implements Special {
 		} else {
 			Boolean result = this.stacks(); 
 			this.stacks = assigned; 
-			this.reportPropertyChange.firePropertyChange(propertyName, result, newValue);
+			this.firePropertyChange(propertyName, result, newValue);
 			return result; 
 		}
 	}
@@ -690,7 +729,7 @@ public class BasicSpecial extends Logging implements Special {
 		} else {
 			Optional<Integer> result = this.getNumberValue();
 			this.numericValue = assigned;
-			this.reportPropertyChange.firePropertyChange(propertyName, result, newValue);
+			this.firePropertyChange(propertyName, result, newValue);
 			return result; 
 		}
 	}
@@ -774,9 +813,15 @@ public class BasicSpecial extends Logging implements Special {
 	}
 
 
+	/**
+	 * Get the stacked special. 
+	 * 
+	 * The stacked special is an immutable interned special value. 
+	 * @see SpecialValue
+	 */
 	@Override
 	public Special getStacked(int value) {
-		return new BasicSpecial(this.getName(), 
+		return SpecialValue.of(this.getName(), 
 				this.stacks(), this.getValue() + 
 				(this.stacks()?value:0), 
 				this.getNumberValue());
@@ -821,7 +866,7 @@ public class BasicSpecial extends Logging implements Special {
 	 * @return The numeric value from string pattern. 
 	 */
 	public static Pattern numericValueFromStringPattern() {
-		return Pattern.compile("[+-]?\\d+"); 
+		return PatternCache.compile("[+-]?\\d+"); 
 	}
 
 	/**
@@ -0,0 +1,394 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The exact distribution of the combat dice roll.
+ *
+ * The distribution contains the number of outcomes by the numeric damage of
+ * the dice and by the number of effects rolled. The total damage of the roll
+ * follows the rules of
+ * {@link DiceRoller#getCDRollResult(int, List, List, int)}: every effect adds
+ * the total numeric value of the specials to the damage. The distributions are
+ * immutable, and they are cached by the die and the dice pool.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class CombatDiceOdds {
+
+	/**
+	 * The cache key of the distribution.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	private static final class CacheKey {
+		/**
+		 * The faces of the die.
+		 */
+		private final List<Object> die;
+
+		/**
+		 * The dice pool.
+		 */
+		private final int dicePool;
+
+		CacheKey(List<Object> die, int dicePool) {
+			this.die = die;
+			this.dicePool = dicePool;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof CacheKey key && dicePool == key.dicePool && die.equals(key.die);
+		}
+
+		@Override
+		public int hashCode() {
+			return die.hashCode() * 31 + dicePool;
+		}
+	}
+
+	/**
+	 * The cached distributions.
+	 */
+	private static final ConcurrentHashMap<CacheKey, CombatDiceOdds> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the distribution of the combat dice roll.
+	 *
+	 * @param die      The faces of the combat die. The strings are effects, and
+	 *                 the numbers are damage. Defaults to a d6.
+	 * @param dicePool The number of dice rolled.
+	 * @return The distribution of the roll.
+	 * @throws IllegalArgumentException The die contained an invalid face, or the
+	 *                                  dice pool was invalid.
+	 */
+	public static CombatDiceOdds of(List<?> die, int dicePool) throws IllegalArgumentException {
+		List<Object> faces = Collections.unmodifiableList(
+				new ArrayList<>(die == null ? java.util.Arrays.asList(1, 2, 3, 4, 5, 6) : die));
+		if (faces.isEmpty()) {
+			throw new IllegalArgumentException("The die has no faces");
+		}
+		if (dicePool < 0 || dicePool > getMaxDicePool(faces.size())) {
+			throw new IllegalArgumentException("Invalid dice pool");
+		}
+		for (Object face : faces) {
+			if (!(face instanceof String || face instanceof Number)) {
+				throw new IllegalArgumentException("Invalid die face " + face);
+			}
+		}
+		CacheKey key = new CacheKey(faces, dicePool);
+		CombatDiceOdds result = CACHE.get(key);
+		if (result == null) {
+			result = CACHE.computeIfAbsent(key, (CacheKey k) -> new CombatDiceOdds(k.die, k.dicePool));
+		}
+		return result;
+	}
+
+	/**
+	 * Get the largest dice pool whose all outcomes can be counted.
+	 *
+	 * @param faces The number of faces of the die.
+	 * @return The largest supported dice pool.
+	 */
+	public static int getMaxDicePool(int faces) {
+		if (faces <= 1) {
+			return Integer.MAX_VALUE;
+		}
+		int result = 0;
+		long total = 1;
+		while (total <= Long.MAX_VALUE / faces) {
+			total *= faces;
+			result++;
+		}
+		return result;
+	}
+
+	/**
+	 * The dice pool.
+	 */
+	private final int dicePool;
+
+	/**
+	 * The smallest numeric damage.
+	 */
+	private final int minDamage;
+
+	/**
+	 * The outcome counts indexed by numeric damage offset by the smallest damage,
+	 * and the number of effects.
+	 */
+	private final long[][] counts;
+
+	/**
+	 * The outcome counts by the number of effects.
+	 */
+	private final long[] effectCounts;
+
+	/**
+	 * The total number of outcomes.
+	 */
+	private final long total;
+
+	/**
+	 * Create a new distribution.
+	 *
+	 * @param die      The faces of the die.
+	 * @param dicePool The dice pool.
+	 */
+	private CombatDiceOdds(List<Object> die, int dicePool) {
+		this.dicePool = dicePool;
+		int minFace = Integer.MAX_VALUE, maxFace = Integer.MIN_VALUE;
+		for (Object face : die) {
+			int value = (face instanceof Number number) ? number.intValue() : 0;
+			minFace = Math.min(minFace, value);
+			maxFace = Math.max(maxFace, value);
+		}
+		// The outcomes of single die by damage and effect.
+		int faceRange = maxFace - minFace + 1;
+		long[][] single = new long[faceRange][2];
+		for (Object face : die) {
+			if (face instanceof Number number) {
+				single[number.intValue() - minFace][0]++;
+			} else {
+				single[-minFace][1]++;
+			}
+		}
+
+		long[][] current = new long[1][1];
+		current[0][0] = 1;
+		for (int n = 1; n <= dicePool; n++) {
+			long[][] next = new long[current.length + faceRange - 1][n + 1];
+			for (int d = 0; d < current.length; d++) {
+				for (int e = 0; e < current[d].length; e++) {
+					long count = current[d][e];
+					if (count != 0) {
+						for (int dd = 0; dd < faceRange; dd++) {
+							next[d + dd][e] += count * single[dd][0];
+							next[d + dd][e + 1] += count * single[dd][1];
+						}
+					}
+				}
+			}
+			current = next;
+		}
+		this.counts = current;
+		this.minDamage = minFace * dicePool;
+
+		this.effectCounts = new long[dicePool + 1];
+		long sum = 0;
+		for (long[] row : counts) {
+			for (int e = 0; e < row.length; e++) {
+				effectCounts[e] += row[e];
+				sum += row[e];
+			}
+		}
+		this.total = sum;
+	}
+
+	/**
+	 * Get the dice pool.
+	 *
+	 * @return The number of dice rolled.
+	 */
+	public int getDicePool() {
+		return dicePool;
+	}
+
+	/**
+	 * Get the total number of equally likely outcomes.
+	 *
+	 * @return The number of outcomes.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Get the smallest numeric damage of the dice without effects.
+	 *
+	 * @return The smallest numeric damage.
+	 */
+	public int getMinNumericDamage() {
+		return minDamage;
+	}
+
+	/**
+	 * Get the largest numeric damage of the dice without effects.
+	 *
+	 * @return The largest numeric damage.
+	 */
+	public int getMaxNumericDamage() {
+		return minDamage + counts.length - 1;
+	}
+
+	/**
+	 * Get the number of outcomes with given numeric damage and effects.
+	 *
+	 * @param numericDamage The numeric damage of the dice without effects.
+	 * @param effects       The number of effects.
+	 * @return The number of outcomes.
+	 */
+	public long getCount(int numericDamage, int effects) {
+		int index = numericDamage - minDamage;
+		if (index < 0 || index >= counts.length || effects < 0 || effects > dicePool) {
+			return 0;
+		}
+		return counts[index][effects];
+	}
+
+	/**
+	 * Get the probability of exact number of effects.
+	 *
+	 * @param effects The number of effects.
+	 * @return The probability of the effects.
+	 */
+	public double getEffectProbability(int effects) {
+		return (effects < 0 || effects > dicePool) ? 0.0 : (double) effectCounts[effects] / total;
+	}
+
+	/**
+	 * Get the expected number of effects.
+	 *
+	 * @return The expected number of effects.
+	 */
+	public double getExpectedEffects() {
+		// The products of the counts overflow a long with the largest pools.
+		double sum = 0;
+		for (int e = 0; e < effectCounts.length; e++) {
+			sum += (double) e * effectCounts[e];
+		}
+		return sum / total;
+	}
+
+	/**
+	 * Get the expected numeric damage of the dice without effects.
+	 *
+	 * @return The expected numeric damage.
+	 */
+	public double getExpectedNumericDamage() {
+		double sum = 0;
+		for (int d = 0; d < counts.length; d++) {
+			long rowTotal = 0;
+			for (long count : counts[d]) {
+				rowTotal += count;
+			}
+			sum += (double) (d + minDamage) * rowTotal;
+		}
+		return sum / total;
+	}
+
+	/**
+	 * Get the smallest damage of the roll.
+	 *
+	 * @param baseNumber   The base number of the roll.
+	 * @param specialTotal The damage every effect adds.
+	 * @return The smallest possible damage.
+	 * @throws ArithmeticException The damage was outside the integer range.
+	 */
+	public int getMinDamage(long baseNumber, long specialTotal) throws ArithmeticException {
+		return Math.toIntExact(getDamageCounts(baseNumber, specialTotal).firstKey());
+	}
+
+	/**
+	 * Get the largest damage of the roll.
+	 *
+	 * @param baseNumber   The base number of the roll.
+	 * @param specialTotal The damage every effect adds.
+	 * @return The largest possible damage.
+	 * @throws ArithmeticException The damage was outside the integer range.
+	 */
+	public int getMaxDamage(long baseNumber, long specialTotal) throws ArithmeticException {
+		return Math.toIntExact(getDamageCounts(baseNumber, specialTotal).lastKey());
+	}
+
+	/**
+	 * Get the number of outcomes by the damage of the roll.
+	 *
+	 * Only the damages with outcomes are included, so the size of the result
+	 * depends on the dice pool, and not on the base number or the damage of the
+	 * effects.
+	 *
+	 * @param baseNumber   The base number of the roll.
+	 * @param specialTotal The damage every effect adds.
+	 * @return The number of outcomes by the damage in ascending order of the
+	 *         damage.
+	 * @throws ArithmeticException The damage was outside the long range.
+	 */
+	public SortedMap<Long, Long> getDamageCounts(long baseNumber, long specialTotal) throws ArithmeticException {
+		SortedMap<Long, Long> result = new TreeMap<>();
+		for (int d = 0; d < counts.length; d++) {
+			for (int e = 0; e <= dicePool; e++) {
+				if (counts[d][e] != 0) {
+					long damage = Math.addExact(Math.addExact(baseNumber, (long) minDamage + d),
+							Math.multiplyExact((long) e, specialTotal));
+					result.merge(damage, counts[d][e], Long::sum);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the probability of the exact damage.
+	 *
+	 * @param baseNumber   The base number of the roll.
+	 * @param specialTotal The damage every effect adds.
+	 * @param damage       The total damage.
+	 * @return The probability of the damage.
+	 */
+	public double getDamageProbability(long baseNumber, long specialTotal, long damage) {
+		long sum = 0;
+		for (int e = 0; e <= dicePool; e++) {
+			long index;
+			try {
+				index = Math.subtractExact(Math.subtractExact(Math.subtractExact(damage, baseNumber),
+						Math.multiplyExact((long) e, specialTotal)), minDamage);
+			} catch (ArithmeticException ae) {
+				// The numeric damage outside the long range has no outcomes.
+				continue;
+			}
+			if (index >= 0 && index < counts.length) {
+				sum += counts[(int) index][e];
+			}
+		}
+		return (double) sum / total;
+	}
+
+	/**
+	 * Get the expected damage of the roll.
+	 *
+	 * @param baseNumber   The base number of the roll.
+	 * @param specialTotal The damage every effect adds.
+	 * @return The expected damage.
+	 */
+	public double getExpectedDamage(long baseNumber, long specialTotal) {
+		return baseNumber + getExpectedNumericDamage() + specialTotal * getExpectedEffects();
+	}
+
+	/**
+	 * Get the expected value of the special triggered by every effect.
+	 *
+	 * The stacking special gains its value on every effect, and the non-stacking
+	 * special has its value if any effect was rolled.
+	 *
+	 * @param special The special.
+	 * @return The expected value of the special.
+	 */
+	public double getExpectedSpecialValue(Special special) {
+		if (special == null) {
+			return 0.0;
+		} else if (special.stacks()) {
+			return special.getValue() * getExpectedEffects();
+		} else {
+			return special.getValue() * (1.0 - getEffectProbability(0));
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.Arrays;
+
+/**
+ * The aggregated result of a combat dice simulation.
+ *
+ * The trials are recorded by the numeric damage and the number of effects, and
+ * the damage of a trial is the numeric damage added with the damage of every
+ * effect. The damages of the trials are kept as a sorted sparse histogram, so
+ * the size of the result depends only on the dice pool.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class CombatDiceSimulationResult extends SimulationResult {
+
+	/**
+	 * The damages with at least one trial in ascending order.
+	 */
+	private final int[] damages;
+
+	/**
+	 * The number of trials by the index of the damage.
+	 */
+	private final long[] damageCounts;
+
+	/**
+	 * The expected damage.
+	 */
+	private final double mean;
+
+	/**
+	 * Create a new combat dice simulation result.
+	 *
+	 * @param trials             The number of trials.
+	 * @param elapsedNanos       The duration of the simulation in nanoseconds.
+	 * @param minValue           The smallest damage without effects.
+	 * @param specialTotal       The damage every effect adds.
+	 * @param histogram          The histogram of the trials indexed by the
+	 *                           numeric damage offset by the smallest damage
+	 *                           times the number of effect slots, and the number
+	 *                           of effects.
+	 * @param secondaryHistogram The histogram of the number of effects.
+	 * @throws IllegalArgumentException The histograms did not match.
+	 */
+	public CombatDiceSimulationResult(long trials, long elapsedNanos, int minValue, int specialTotal,
+			long[] histogram, long[] secondaryHistogram) throws IllegalArgumentException {
+		super(trials, elapsedNanos, minValue, new long[0], secondaryHistogram);
+		int effectSlots = secondaryHistogram.length;
+		if (effectSlots == 0 || histogram.length % effectSlots != 0) {
+			throw new IllegalArgumentException("Invalid histogram size");
+		}
+		long[] values = new long[histogram.length], counts = new long[histogram.length];
+		int size = 0;
+		double sum = 0;
+		for (int index = 0; index < histogram.length; index++) {
+			if (histogram[index] > 0) {
+				values[size] = minValue + (long) (index / effectSlots)
+						+ (long) (index % effectSlots) * specialTotal;
+				counts[size++] = histogram[index];
+				sum += (double) values[size - 1] * histogram[index];
+			}
+		}
+		// Sorting the damages with their counts.
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (Integer a, Integer b) -> Long.compare(values[a], values[b]));
+		int[] sortedDamages = new int[size];
+		long[] sortedCounts = new long[size];
+		int distinct = 0;
+		for (int i = 0; i < size; i++) {
+			int damage = Math.toIntExact(values[order[i]]);
+			if (distinct > 0 && sortedDamages[distinct - 1] == damage) {
+				sortedCounts[distinct - 1] += counts[order[i]];
+			} else {
+				sortedDamages[distinct] = damage;
+				sortedCounts[distinct++] = counts[order[i]];
+			}
+		}
+		this.damages = Arrays.copyOf(sortedDamages, distinct);
+		this.damageCounts = Arrays.copyOf(sortedCounts, distinct);
+		this.mean = trials == 0 ? 0.0 : sum / trials;
+	}
+
+	@Override
+	public int getMinValue() {
+		return damages.length == 0 ? super.getMinValue() : damages[0];
+	}
+
+	@Override
+	public int getMaxValue() {
+		return damages.length == 0 ? super.getMaxValue() : damages[damages.length - 1];
+	}
+
+	@Override
+	public int[] getValues() {
+		return damages.clone();
+	}
+
+	@Override
+	public long getCount(int value) {
+		int index = Arrays.binarySearch(damages, value);
+		return index < 0 ? 0 : damageCounts[index];
+	}
+
+	@Override
+	public double getMean() {
+		return mean;
+	}
+}
@@ -1,5 +1,7 @@
 package com.kautiainen.antti.infinitybot.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -9,6 +11,7 @@ import java.util.Random;
 import java.util.stream.Collectors;
 
 import com.kautiainen.antti.infinitybot.DiscordBot;
+import com.kautiainen.antti.infinitybot.Level;
 import com.kautiainen.antti.infinitybot.Logging;
 import com.kautiainen.antti.infinitybot.DiscordBot.StackingSpecial;
 
@@ -23,10 +26,19 @@ public class DiceRoller extends Logging {
 	/**
 	 * Create new dice roller with given random number generator.
 	 * 
-	 * @param random The random number generator.
+	 * @param random The random number generator shared by all threads.
 	 */
 	public DiceRoller(Random random) {
-		this.rnd = random;
+		this(RandomStrategy.of(random));
+	}
+
+	/**
+	 * Create new dice roller with given random strategy.
+	 * 
+	 * @param strategy The random strategy.
+	 */
+	public DiceRoller(RandomStrategy strategy) {
+		setRandomStrategy(strategy);
 	}
 
 	/**
@@ -35,19 +47,39 @@ public class DiceRoller extends Logging {
 	 * @param seed The random generation seed.
 	 */
 	public DiceRoller(long seed) {
-		this.rnd = new java.util.Random(seed);
+		this(new java.util.Random(seed));
 	}
 
 	/**
-	 * Create a new roller with current time as seed.
+	 * Create a new roller using the thread local random number generators.
 	 */
 	public DiceRoller() {
+		this(RandomStrategy.threadLocal());
 	}
 
 	/**
-	 * The random number generator.
+	 * The random strategy.
 	 */
-	private java.util.Random rnd = new java.util.Random();
+	private volatile RandomStrategy rnd;
+
+	/**
+	 * Get the random strategy of the roller.
+	 * 
+	 * @return The current random strategy.
+	 */
+	public RandomStrategy getRandomStrategy() {
+		return rnd;
+	}
+
+	/**
+	 * Set the random strategy of the roller.
+	 * 
+	 * @param strategy The new random strategy. Defaults to the thread local random
+	 *                 strategy.
+	 */
+	public void setRandomStrategy(RandomStrategy strategy) {
+		this.rnd = (strategy == null ? RandomStrategy.threadLocal() : strategy);
+	}
 
 	/**
 	 * Calculate the total value of the given specials list.
@@ -62,6 +94,23 @@ public class DiceRoller extends Logging {
 						.collect(Collectors.summingInt((Integer value) -> (value)));
 	}
 
+	/**
+	 * Calculate the total value of the given specials list without overflowing
+	 * the integer range.
+	 * 
+	 * @param specials The list of specials.
+	 * @return The total value of the specials.
+	 */
+	public long getSpecialsTotal(java.util.List<? extends Special> specials) {
+		long result = 0;
+		if (specials != null) {
+			for (Special special : specials) {
+				result += (special == null ? 0 : special.getNumberValue().orElse(0));
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Combines totals of specials.
 	 * 
@@ -69,13 +118,12 @@ public class DiceRoller extends Logging {
 	 * @return
 	 */
 	public java.util.List<Special> combineSpecials(List<Special> specials) {
-		java.util.List<Special> result = new ArrayList<>();
-		if (specials != null) {
-			specials.stream().forEachOrdered((Special special) -> {
-				addSpecial(result, special);
-			});
+		if (specials == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		SpecialAccumulator result = new SpecialAccumulator(specials.size());
+		result.addAll(specials);
+		return result.toList();
 	}
 
 	/**
@@ -103,24 +151,24 @@ public class DiceRoller extends Logging {
 		if (added != null && orderedList != null) {
 			int index = Collections.binarySearch(orderedList, added, 
 					(Special a, Special b)->(a.getName().compareTo(b.getName())));
-			debug(String.format("Adding %s to %s at index %d", added, orderedList, index)); 
+			debug(() -> String.format("Adding %s to %s at index %d", added, orderedList, index)); 
 			if (index >= 0) {
 				// The value was found - checking if it is stacking.
 				if (orderedList.get(index).stacks()) {
 					// Replacing the found value with stacked value.
-					debug(String.format("DiceRoller#addSpecial: Replacing value at index %d with %s", index, orderedList.get(index).getStacked(added.getValue()))); 
+					debug(() -> String.format("DiceRoller#addSpecial: Replacing value at index %d with %s", index, orderedList.get(index).getStacked(added.getValue()))); 
 					orderedList.set(index, orderedList.get(index).getStacked(added.getValue()));
 				} else if (added.stacks()) {
 					// Replacing all elements with same stacking value with value stacked with
 					// the given added.
-					debug(String.format("DiceRoller#addSpecial: Replacing value at index %d with %s", index, orderedList.get(index).getStacked(added.getValue()))); 
+					debug(() -> String.format("DiceRoller#addSpecial: Replacing value at index %d with %s", index, orderedList.get(index).getStacked(added.getValue()))); 
 					orderedList.set(index, added.getStacked(orderedList.get(index).getValue()));
 				} else {
 					// Ignoring duplicates of non-stacking elements.
 				}
 			} else {
 				// There is no instance of value in the list.
-				debug(String.format("Adding new entry %s", added)); 
+				debug(() -> String.format("Adding new entry %s", added)); 
 				int oldSize = orderedList.size(); 
 				orderedList.add(-1-index, added); 
 				if (oldSize +1 != orderedList.size()) {
@@ -128,7 +176,7 @@ public class DiceRoller extends Logging {
 				} else if (orderedList.get(-1-index) != added) {
 					throw new IllegalStateException("The added element does not exist where it should!"); 
 				}
-				debug(String.format("Added %s to %s at %d", added, orderedList, -1 -index)); 
+				debug(() -> String.format("Added %s to %s at %d", added, orderedList, -1 -index)); 
 			}
 		}
 	}
@@ -166,18 +214,20 @@ public class DiceRoller extends Logging {
 			java.util.List<Special> specials, int specialTotal) {
 		int value = baseNumber;
 		java.util.List<String> rolls = new java.util.ArrayList<>((rollResult == null ? 0 : rollResult.size()));
-		java.util.List<Special> effectTotal = new java.util.ArrayList<>((specials == null ? 0 : specials.size()));
+		int effects = 0;
 		for (Object roll : rollResult) {
 			rolls.add(roll.toString());
 			if (roll instanceof String) {
-				if (specials != null)
-					addSpecial(effectTotal, specials);
+				effects++;
 				value += specialTotal;
 			} else {
 				value += (Integer) roll;
 			}
 		}
-		return new RollResult(value, rolls, effectTotal);
+		// Merging the specials of all effects at once.
+		SpecialAccumulator effectTotal = new SpecialAccumulator((specials == null ? 1 : specials.size()));
+		effectTotal.addRepeated(specials, effects);
+		return new RollResult(value, rolls, effectTotal.toList());
 	}
 	
 	/**
@@ -226,7 +276,11 @@ public class DiceRoller extends Logging {
 			Object roll = sides.get(rnd.nextInt(sides.size()));
 			rolls.add(roll);
 		}
-		return getCDRollResult(baseNumber, rolls, specials);
+		RollResult result = getCDRollResult(baseNumber, rolls, specials);
+		if (allowEvent(Level.debug)) {
+			debugEvent("dice.effect", "dice", dicePool, "value", result.getValue(), "specials", result.getSpecials());
+		}
+		return result;
 	}
 	
 	/**
@@ -264,6 +318,32 @@ public class DiceRoller extends Logging {
 		}
 	}
 
+	/**
+	 * Get the exact distribution of the combat dice roll.
+	 * 
+	 * @param specialDie The combat die as a list of faces. Defaults to a d6.
+	 * @param dicePool   The number of dice rolled.
+	 * @return The cached distribution of the roll.
+	 * @throws IllegalArgumentException The die or the dice pool was invalid.
+	 */
+	public CombatDiceOdds getCDOdds(List<Object> specialDie, int dicePool) throws IllegalArgumentException {
+		return CombatDiceOdds.of(specialDie, dicePool);
+	}
+
+	/**
+	 * Get the expected damage of the combat dice roll with the old combat die.
+	 * 
+	 * @param baseNumber The base number of the roll.
+	 * @param dicePool   The number of dice rolled.
+	 * @param specials   The specials triggered by every effect.
+	 * @return The expected damage of the roll.
+	 * @throws IllegalArgumentException The dice pool was invalid.
+	 */
+	public double getExpectedCDDamage(int baseNumber, int dicePool, java.util.List<Special> specials)
+			throws IllegalArgumentException {
+		return getCDOdds(OLD_COMBAT_DIE, dicePool).getExpectedDamage(baseNumber, getSpecialsTotal(specials));
+	}
+
 	/**
 	 * The complication is stacking special effect for roll determining the total
 	 * number of complications the roll had.
@@ -277,6 +357,28 @@ public class DiceRoller extends Logging {
 		 */
 		public static final String COMPLICATION_NAME = "Complication";
 
+		/**
+		 * The shared complications of the most common values.
+		 */
+		private static final Complication[] CACHED = new Complication[ActionRollKernel.DEFAULT_CAPACITY * 4 + 1];
+
+		static {
+			for (int i = 0; i < CACHED.length; i++) {
+				CACHED[i] = new Complication(i);
+			}
+		}
+
+		/**
+		 * Get the complication with given value. The complications are immutable,
+		 * and the common values are shared.
+		 * 
+		 * @param value The complication value.
+		 * @return The complication with given value.
+		 */
+		public static Complication valueOf(int value) {
+			return (value >= 0 && value < CACHED.length) ? CACHED[value] : new Complication(value);
+		}
+
 		/**
 		 * Create a new default complication with value of 1.
 		 */
@@ -314,21 +416,59 @@ public class DiceRoller extends Logging {
 	 * @return The string formatting the resulting value.
 	 */
 	public String formatRoll(int roll, boolean success, boolean critical, boolean complication) {
-		String result = Integer.toString(roll);
-		if (success) {
-			if (critical) {
-				// Bolding critical results.
-				result = "**" + result + "**";
-			}
-		} else {
-			// Putting failures with strike-through.
-			result = "~~" + result + "~~";
+		try {
+			return appendRoll(new StringBuilder(8), roll, success, critical, complication).toString();
+		} catch (IOException e) {
+			// The string builder does not throw I/O exceptions.
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Appends single d20 roll for standard roll to the target.
+	 * 
+	 * @param <T>          The type of the target.
+	 * @param target       The target of the formatted roll.
+	 * @param roll         The die roll result.
+	 * @param success      The success threshold.
+	 * @param critical     The critical success threshold.
+	 * @param complication The complication threshold.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	public <T extends Appendable> T appendRoll(T target, int roll, boolean success, boolean critical,
+			boolean complication) throws IOException {
+		// Underlining complications, bolding critical results, and putting
+		// failures with strike-through.
+		String emphasis = success ? (critical ? "**" : "") : "~~";
+		if (complication) {
+			target.append("__");
 		}
+		target.append(emphasis).append(Integer.toString(roll)).append(emphasis);
 		if (complication) {
-			// Underlining complications.
-			result = "__" + result + "__";
+			target.append("__");
 		}
-		return result.toString();
+		return target;
+	}
+
+	/**
+	 * The action roll kernels of the threads using the roller.
+	 */
+	private final ThreadLocal<ActionRollKernel> kernels = ThreadLocal.withInitial(ActionRollKernel::new);
+
+	/**
+	 * Performs action roll into the given kernel without creating any objects.
+	 * 
+	 * @param kernel            The kernel receiving the roll.
+	 * @param diceNumber        The dice number. Between 1 and 5.
+	 * @param TN                The target number for each dice.
+	 * @param criticalRange		The critical success range. Any roll less than this is an additional success.
+	 * @param complicationRange The complication range. Results greater than this
+	 *                          value cause complication.
+	 * @return The total number of successes.
+	 */
+	public int rollAction(ActionRollKernel kernel, int diceNumber, int TN, int criticalRange, int complicationRange) {
+		return kernel.roll(rnd, diceNumber, TN, criticalRange, complicationRange);
 	}
 
 	/**
@@ -342,21 +482,13 @@ public class DiceRoller extends Logging {
 	 * @return The roll result with value equal to the total number of successes,
 	 *         and specials containing the number the effects.
 	 */
-	public RollResult rollAction(int diceNumber, int TN, int criticalRange, int complicationRange) {
-		int result = 0, complications = 0;
-		List<String> rolls = new ArrayList<>();
-		int roll;
-		for (int i = 0; i < diceNumber; i++) {
-			roll = rnd.nextInt(20) + 1;
-			if (roll <= TN) {
-				result += (roll <= criticalRange ? 2 : 1);
-			}
-			if (roll >= complicationRange) {
-				complications++;
-			}
-			// Adding the roll to the results
-			rolls.add(formatRoll(roll, (roll <= TN), (roll <= criticalRange), (roll >= complicationRange)));
+	public ActionRollResult rollAction(int diceNumber, int TN, int criticalRange, int complicationRange) {
+		ActionRollKernel kernel = kernels.get();
+		rollAction(kernel, diceNumber, TN, criticalRange, complicationRange);
+		if (allowEvent(Level.debug)) {
+			debugEvent("dice.action", "dice", diceNumber, "successes", kernel.getSuccesses(), "complications",
+					kernel.getComplications());
 		}
-		return new RollResult(result, rolls, new Complication(complications));
+		return new ActionRollResult(this, kernel);
 	}
 }
\ No newline at end of file
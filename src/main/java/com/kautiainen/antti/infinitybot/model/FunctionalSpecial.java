@@ -362,7 +362,7 @@ public class FunctionalSpecial extends BasicSpecial {
 	 * @see Special#numericValueFromStringPattern()
 	 */
 	public static Pattern numericValueFromStringPattern() {
-		return Pattern.compile("[xX*]?[+-]?\\d+"); 
+		return PatternCache.compile("[xX*]?[+-]?\\d+"); 
 	}
 	
 	
@@ -0,0 +1,113 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The cache of the compiled regular expression patterns.
+ *
+ * The grammars of the specials are built from the patterns of the special
+ * classes, and they are compiled on every call of the pattern methods. The
+ * cache compiles every distinct template and flag combination only once, and
+ * returns the same immutable pattern on the later calls. The patterns are
+ * thread safe, so the cached patterns may be shared freely.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class PatternCache {
+
+	/**
+	 * The largest number of cached patterns. The patterns beyond the limit are
+	 * compiled without caching.
+	 */
+	public static final int MAX_CACHED_PATTERNS = 512;
+
+	/**
+	 * The cache key of the pattern.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	private static final class CacheKey {
+		/**
+		 * The regular expression.
+		 */
+		private final String regex;
+
+		/**
+		 * The compile flags.
+		 */
+		private final int flags;
+
+		CacheKey(String regex, int flags) {
+			this.regex = regex;
+			this.flags = flags;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof CacheKey key && flags == key.flags && regex.equals(key.regex);
+		}
+
+		@Override
+		public int hashCode() {
+			return regex.hashCode() * 31 + flags;
+		}
+	}
+
+	/**
+	 * The cached patterns.
+	 */
+	private static final ConcurrentHashMap<CacheKey, Pattern> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the compiled pattern of the regular expression.
+	 *
+	 * @param regex The regular expression.
+	 * @return The compiled pattern.
+	 * @throws PatternSyntaxException The regular expression was invalid.
+	 */
+	public static Pattern compile(String regex) throws PatternSyntaxException {
+		return compile(regex, 0);
+	}
+
+	/**
+	 * Get the compiled pattern of the regular expression with flags.
+	 *
+	 * @param regex The regular expression.
+	 * @param flags The flags of the pattern.
+	 * @return The compiled pattern.
+	 * @throws PatternSyntaxException The regular expression was invalid.
+	 */
+	public static Pattern compile(String regex, int flags) throws PatternSyntaxException {
+		CacheKey key = new CacheKey(regex, flags);
+		Pattern result = CACHE.get(key);
+		if (result == null) {
+			result = Pattern.compile(regex, flags);
+			if (CACHE.size() < MAX_CACHED_PATTERNS) {
+				Pattern cached = CACHE.putIfAbsent(key, result);
+				if (cached != null) {
+					result = cached;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the number of cached patterns.
+	 *
+	 * @return The number of cached patterns.
+	 */
+	public static int size() {
+		return CACHE.size();
+	}
+
+	/**
+	 * The pattern cache has only static members.
+	 */
+	private PatternCache() {
+	}
+}
@@ -249,12 +249,12 @@ public abstract class QualitySpecial extends FunctionalSpecial {
 	}
 
 	public static Pattern valueFromStringPattern() {
-		return Pattern.compile(FunctionalSpecial.valueFieldsFromStringPattern().toString() + 
+		return PatternCache.compile(FunctionalSpecial.valueFieldsFromStringPattern().toString() + 
 				BOUNDARY_FROM_STRING_PATTERN); 		
 	}
 	
 	public java.util.regex.Pattern getValueFieldsFromStringPattern() {
-		return Pattern.compile(super.getValueFieldsFromStringPattern().toString() + 
+		return PatternCache.compile(super.getValueFieldsFromStringPattern().toString() + 
 				this.getBoundariesFromStringPattern()); 
 	}
 		
@@ -0,0 +1,143 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random strategy determines the source of the random numbers of the dice
+ * rollers.
+ *
+ * The strategies other than {@link #of(Random)} do not share a random number
+ * generator between threads, and the concurrent rolls do not contend on a
+ * single seed.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+@FunctionalInterface
+public interface RandomStrategy {
+
+	/**
+	 * Get the next random integer.
+	 *
+	 * @param bound The upper bound of the result. Must be positive.
+	 * @return The random integer between 0 (inclusive) and bound (exclusive).
+	 * @throws IllegalArgumentException The bound was not positive.
+	 */
+	int nextInt(int bound) throws IllegalArgumentException;
+
+	/**
+	 * Create a strategy using the given random number generator shared by all
+	 * threads.
+	 *
+	 * @param random The random number generator.
+	 * @return The strategy using the given random number generator.
+	 */
+	static RandomStrategy of(Random random) {
+		return random::nextInt;
+	}
+
+	/**
+	 * Create a strategy using the given splittable random number generator. The
+	 * returned strategy is not thread safe, and it should be used only by single
+	 * thread.
+	 *
+	 * @param random The splittable random number generator.
+	 * @return The strategy using the given random number generator.
+	 */
+	static RandomStrategy of(SplittableRandom random) {
+		return random::nextInt;
+	}
+
+	/**
+	 * Get the strategy using the random number generator of the current thread.
+	 *
+	 * @return The strategy using the thread local random number generators.
+	 */
+	static RandomStrategy threadLocal() {
+		return ThreadLocalStrategy.INSTANCE;
+	}
+
+	/**
+	 * Create a deterministic strategy with given seed.
+	 *
+	 * Each thread gets its own random number generator split from the seeded root
+	 * generator in the order the threads first roll. A replay performed by
+	 * single thread with same seed produces the same rolls.
+	 *
+	 * @param seed The seed of the root generator.
+	 * @return The seeded strategy.
+	 */
+	static RandomStrategy seeded(long seed) {
+		return new SeededStrategy(seed);
+	}
+
+	/**
+	 * The strategy using thread local random number generator.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	static final class ThreadLocalStrategy implements RandomStrategy {
+
+		/**
+		 * The only instance of the strategy.
+		 */
+		static final ThreadLocalStrategy INSTANCE = new ThreadLocalStrategy();
+
+		private ThreadLocalStrategy() {
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return ThreadLocalRandom.current().nextInt(bound);
+		}
+	}
+
+	/**
+	 * The strategy giving each thread a splittable random number generator split
+	 * from the seeded root.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	static final class SeededStrategy implements RandomStrategy {
+
+		/**
+		 * The root generator. Only used while holding its lock.
+		 */
+		private final SplittableRandom root;
+
+		/**
+		 * The generators of the threads.
+		 */
+		private final ThreadLocal<SplittableRandom> generators;
+
+		/**
+		 * Create a new seeded strategy.
+		 *
+		 * @param seed The seed of the root generator.
+		 */
+		SeededStrategy(long seed) {
+			this.root = new SplittableRandom(seed);
+			this.generators = ThreadLocal.withInitial(this::split);
+		}
+
+		/**
+		 * Split a new generator from the root.
+		 *
+		 * @return The new generator.
+		 */
+		private SplittableRandom split() {
+			synchronized (root) {
+				return root.split();
+			}
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			return generators.get().nextInt(bound);
+		}
+	}
+}
@@ -69,7 +69,18 @@ public class RollResult {
 		this.setRoll(diceRoll);
 		this.setSpecial(specials);
 	}
-	
+
+	/**
+	 * Create a new roll result with given value and without dice or specials.
+	 *
+	 * Used by the subclasses providing the dice and the specials on demand.
+	 *
+	 * @param value The resulting value of the roll.
+	 */
+	protected RollResult(int value) {
+		this.setValue(value);
+	}
+
 	/**
 	 * Create a new die roll by calculating the value of the roll. 
 	 * @param dieRoll The die roll. 
@@ -231,6 +242,7 @@ public class RollResult {
 	 */
 	public String specialsToString() {
 		// Generating the special value list.
+		java.util.List<Special> special = getSpecials();
 		int specialSize = special == null ? 0 : special.size();
 		StringBuilder specialCaption = new StringBuilder();
 		Special specialValue;
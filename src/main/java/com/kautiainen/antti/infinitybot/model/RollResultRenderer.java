@@ -0,0 +1,205 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * The renderer of the roll results as Discord markdown.
+ *
+ * The renderer appends the value, the specials, and the dice of a roll result
+ * directly to the target in one pass. The texts of the specials are escaped,
+ * so the trait names and the values cannot alter the markdown of the reply.
+ * The dice are appended as is, as the roller formats the dice with their
+ * markdown emphasis.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class RollResultRenderer {
+
+	/**
+	 * The default renderer.
+	 */
+	public static final RollResultRenderer DEFAULT = new RollResultRenderer();
+
+	/**
+	 * The ASCII characters escaped in the markdown.
+	 */
+	private static final boolean[] MARKDOWN_CHARACTERS = new boolean[128];
+
+	static {
+		for (char c : "\\*_~`|>[]".toCharArray()) {
+			MARKDOWN_CHARACTERS[c] = true;
+		}
+	}
+
+	/**
+	 * Test whether the character is escaped in the markdown.
+	 *
+	 * @param c The character.
+	 * @return True, if and only if the character is escaped.
+	 */
+	public static boolean isMarkdownCharacter(char c) {
+		return c < MARKDOWN_CHARACTERS.length && MARKDOWN_CHARACTERS[c];
+	}
+
+	/**
+	 * Append the text escaping the markdown characters with a backslash.
+	 *
+	 * The runs of the characters without escaping are appended without
+	 * copying.
+	 *
+	 * @param <T>    The type of the target.
+	 * @param text   The text.
+	 * @param target The target of the escaped text.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	public static <T extends Appendable> T appendEscaped(CharSequence text, T target) throws IOException {
+		int start = 0, length = text.length();
+		for (int index = 0; index < length; index++) {
+			char c = text.charAt(index);
+			if (isMarkdownCharacter(c)) {
+				target.append(text, start, index).append('\\').append(c);
+				start = index + 1;
+			}
+		}
+		target.append(text, start, length);
+		return target;
+	}
+
+	/**
+	 * Render the roll result to a string.
+	 *
+	 * @param result The roll result.
+	 * @return The rendered roll result.
+	 */
+	public String render(RollResult result) {
+		try {
+			return render(result, new StringBuilder(64)).toString();
+		} catch (IOException e) {
+			// The string builder does not throw I/O exceptions.
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Render the dice of the roll result to a string.
+	 *
+	 * @param result The roll result.
+	 * @return The rendered dice in brackets.
+	 */
+	public String renderRoll(RollResult result) {
+		try {
+			return appendRoll(result, new StringBuilder(32)).toString();
+		} catch (IOException e) {
+			// The string builder does not throw I/O exceptions.
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Render the roll result to the target.
+	 *
+	 * @param <T>    The type of the target.
+	 * @param result The roll result.
+	 * @param target The target of the rendered roll result.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	public <T extends Appendable> T render(RollResult result, T target) throws IOException {
+		target.append("Result: ").append(Integer.toString(result.getValue()));
+		appendSpecials(result, target);
+		target.append("\nRoll: ");
+		return appendRoll(result, target);
+	}
+
+	/**
+	 * Append the specials of the roll result to the target. The specials are
+	 * preceded with " with ", and the result without specials appends nothing.
+	 *
+	 * @param <T>    The type of the target.
+	 * @param result The roll result.
+	 * @param target The target of the specials.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	public <T extends Appendable> T appendSpecials(RollResult result, T target) throws IOException {
+		return appendSpecials(result, target, " with ");
+	}
+
+	/**
+	 * Render the specials of the roll result to a string.
+	 *
+	 * @param result The roll result.
+	 * @return The comma separated specials, or an empty string, if the result
+	 *         has no specials.
+	 */
+	public String renderSpecials(RollResult result) {
+		try {
+			return appendSpecials(result, new StringBuilder(32), "").toString();
+		} catch (IOException e) {
+			// The string builder does not throw I/O exceptions.
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Append the specials of the roll result to the target.
+	 *
+	 * @param <T>    The type of the target.
+	 * @param result The roll result.
+	 * @param target The target of the specials.
+	 * @param prefix The prefix of the first special.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	private <T extends Appendable> T appendSpecials(RollResult result, T target, String prefix)
+			throws IOException {
+		List<Special> specials = result.getSpecials();
+		boolean first = true;
+		for (int index = 0, size = specials == null ? 0 : specials.size(); index < size; index++) {
+			Special special = specials.get(index);
+			String text = special == null ? null : special.toString();
+			if (text != null && !text.isEmpty()) {
+				target.append(first ? prefix : ", ");
+				appendEscaped(text, target);
+				first = false;
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Append the dice of the roll result in brackets to the target.
+	 *
+	 * @param <T>    The type of the target.
+	 * @param result The roll result.
+	 * @param target The target of the dice.
+	 * @return The target.
+	 * @throws IOException The appending to the target failed.
+	 */
+	public <T extends Appendable> T appendRoll(RollResult result, T target) throws IOException {
+		target.append('[');
+		if (result instanceof ActionRollResult) {
+			ActionRollResult action = (ActionRollResult) result;
+			for (int index = 0, count = action.getDiceCount(); index < count; index++) {
+				if (index > 0) {
+					target.append(", ");
+				}
+				action.appendDie(index, target);
+			}
+		} else {
+			List<String> roll = result.getRoll();
+			for (int index = 0, size = roll.size(); index < size; index++) {
+				if (index > 0) {
+					target.append(", ");
+				}
+				target.append(roll.get(index));
+			}
+		}
+		target.append(']');
+		return target;
+	}
+}
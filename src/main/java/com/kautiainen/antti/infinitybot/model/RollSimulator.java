@@ -0,0 +1,302 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.kautiainen.antti.infinitybot.dice.DiceResult;
+import com.kautiainen.antti.infinitybot.dice.Dice;
+
+/**
+ * Roll simulator runs large number of simulated rolls in parallel.
+ *
+ * The trials are split between the workers of a fork-join pool. Each task
+ * gets its own random number generator split from the generator of its parent
+ * task, so the result depends only on the seed and not on the scheduling of
+ * the workers. The trials are aggregated into primitive histograms without
+ * creating any objects per trial.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class RollSimulator {
+
+	/**
+	 * The default number of trials one task performs without splitting.
+	 */
+	public static final long DEFAULT_TASK_SIZE = 1L << 14;
+
+	/**
+	 * The single simulated trial.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	@FunctionalInterface
+	protected static interface Trial {
+		/**
+		 * Perform the trial, and record it into the histograms.
+		 *
+		 * @param random    The random number generator of the worker.
+		 * @param histogram The histogram of primary values offset by the minimum
+		 *                  value.
+		 * @param secondary The histogram of the secondary counts.
+		 */
+		void run(SplittableRandom random, long[] histogram, long[] secondary);
+	}
+
+	/**
+	 * The task performing a slice of the trials.
+	 *
+	 * @author Antti Kautiainen
+	 *
+	 */
+	private static class SimulationTask extends RecursiveTask<long[][]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Trial trial;
+		private final SplittableRandom random;
+		private final long trials;
+		private final long taskSize;
+		private final int histogramSize;
+		private final int secondarySize;
+
+		SimulationTask(Trial trial, SplittableRandom random, long trials, long taskSize, int histogramSize,
+				int secondarySize) {
+			this.trial = trial;
+			this.random = random;
+			this.trials = trials;
+			this.taskSize = taskSize;
+			this.histogramSize = histogramSize;
+			this.secondarySize = secondarySize;
+		}
+
+		@Override
+		protected long[][] compute() {
+			if (trials <= taskSize) {
+				long[] histogram = new long[histogramSize], secondary = new long[secondarySize];
+				for (long i = 0; i < trials; i++) {
+					trial.run(random, histogram, secondary);
+				}
+				return new long[][] { histogram, secondary };
+			} else {
+				long half = trials / 2;
+				SimulationTask left = new SimulationTask(trial, random.split(), half, taskSize, histogramSize,
+						secondarySize);
+				SimulationTask right = new SimulationTask(trial, random, trials - half, taskSize, histogramSize,
+						secondarySize);
+				left.fork();
+				long[][] result = right.compute();
+				long[][] other = left.join();
+				for (int h = 0; h < result.length; h++) {
+					for (int i = 0; i < result[h].length; i++) {
+						result[h][i] += other[h][i];
+					}
+				}
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * The pool running the simulations.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * The number of trials one task performs without splitting.
+	 */
+	private final long taskSize;
+
+	/**
+	 * Create a new simulator using the common fork-join pool.
+	 */
+	public RollSimulator() {
+		this(ForkJoinPool.commonPool(), DEFAULT_TASK_SIZE);
+	}
+
+	/**
+	 * Create a new simulator.
+	 *
+	 * @param pool     The fork-join pool running the simulations.
+	 * @param taskSize The number of trials one task performs without splitting.
+	 */
+	public RollSimulator(ForkJoinPool pool, long taskSize) {
+		this.pool = pool == null ? ForkJoinPool.commonPool() : pool;
+		this.taskSize = Math.max(taskSize, 1);
+	}
+
+	/**
+	 * Run the simulation.
+	 *
+	 * @param trial         The trial.
+	 * @param trials        The number of trials.
+	 * @param seed          The seed of the simulation.
+	 * @param minValue      The smallest primary value.
+	 * @param histogramSize The size of the primary histogram.
+	 * @param secondarySize The size of the secondary histogram.
+	 * @return The simulation result.
+	 * @throws IllegalArgumentException The number of trials was negative.
+	 */
+	protected SimulationResult simulate(Trial trial, long trials, long seed, int minValue, int histogramSize,
+			int secondarySize) throws IllegalArgumentException {
+		long start = System.nanoTime();
+		long[][] result = run(trial, trials, seed, histogramSize, secondarySize);
+		return new SimulationResult(trials, System.nanoTime() - start, minValue, result[0], result[1]);
+	}
+
+	/**
+	 * Run the trials.
+	 *
+	 * @param trial         The trial.
+	 * @param trials        The number of trials.
+	 * @param seed          The seed of the simulation.
+	 * @param histogramSize The size of the primary histogram.
+	 * @param secondarySize The size of the secondary histogram.
+	 * @return The primary histogram, and the secondary histogram.
+	 * @throws IllegalArgumentException The number of trials was negative.
+	 */
+	protected long[][] run(Trial trial, long trials, long seed, int histogramSize, int secondarySize)
+			throws IllegalArgumentException {
+		if (trials < 0) {
+			throw new IllegalArgumentException("Negative number of trials");
+		}
+		return pool.invoke(new SimulationTask(trial, new SplittableRandom(seed), trials, taskSize, histogramSize,
+				secondarySize));
+	}
+
+	/**
+	 * Simulate action rolls with the rules of
+	 * {@link DiceRoller#rollAction(int, int, int, int)}.
+	 *
+	 * @param trials            The number of trials.
+	 * @param seed              The seed of the simulation.
+	 * @param diceNumber        The number of dice.
+	 * @param TN                The target number of each die.
+	 * @param criticalRange     The critical range.
+	 * @param complicationRange The complication range.
+	 * @return The histogram of successes, and the histogram of complications.
+	 * @throws IllegalArgumentException Any parameter was invalid.
+	 */
+	public SimulationResult simulateAction(long trials, long seed, int diceNumber, int TN, int criticalRange,
+			int complicationRange) throws IllegalArgumentException {
+		if (diceNumber < 0) {
+			throw new IllegalArgumentException("Negative number of dice");
+		}
+		Trial trial = (SplittableRandom random, long[] histogram, long[] secondary) -> {
+			int successes = 0, complications = 0;
+			for (int i = 0; i < diceNumber; i++) {
+				int packed = ActionRollKernel.pack(random.nextInt(ActionRollKernel.DIE_SIDES) + 1, TN, criticalRange,
+						complicationRange);
+				successes += ActionRollKernel.getSuccesses(packed);
+				if (ActionRollKernel.isComplication(packed)) {
+					complications++;
+				}
+			}
+			histogram[successes]++;
+			secondary[complications]++;
+		};
+		return simulate(trial, trials, seed, 0, 2 * diceNumber + 1, diceNumber + 1);
+	}
+
+	/**
+	 * Simulate combat dice rolls with the rules of
+	 * {@link DiceRoller#getCDRollResult(int, List, List, int)}.
+	 *
+	 * The trials are recorded by the numeric damage and the number of effects,
+	 * as in {@link CombatDiceOdds}, so the size of the histograms does not
+	 * depend on the damage of the effects.
+	 *
+	 * @param trials       The number of trials.
+	 * @param seed         The seed of the simulation.
+	 * @param die          The faces of the combat die. Strings are effects, and
+	 *                     numbers are damage. Defaults to a d6.
+	 * @param dicePool     The number of dice.
+	 * @param baseNumber   The base number of the roll.
+	 * @param specialTotal The damage every effect adds.
+	 * @return The histogram of damage, and the histogram of effects.
+	 * @throws IllegalArgumentException Any parameter was invalid, or the damage
+	 *                                  did not fit into an integer.
+	 */
+	public SimulationResult simulateCD(long trials, long seed, List<?> die, int dicePool, int baseNumber,
+			int specialTotal) throws IllegalArgumentException {
+		List<?> sides = die == null ? java.util.Arrays.asList(1, 2, 3, 4, 5, 6) : die;
+		if (dicePool < 0 || sides.isEmpty()) {
+			throw new IllegalArgumentException("Invalid dice pool");
+		}
+		int[] damage = new int[sides.size()];
+		boolean[] effect = new boolean[sides.size()];
+		int minFace = Integer.MAX_VALUE, maxFace = Integer.MIN_VALUE;
+		for (int i = 0; i < damage.length; i++) {
+			Object face = sides.get(i);
+			if (face instanceof String) {
+				effect[i] = true;
+			} else if (face instanceof Number number) {
+				damage[i] = number.intValue();
+			} else {
+				throw new IllegalArgumentException("Invalid die face " + face);
+			}
+			minFace = Math.min(minFace, damage[i]);
+			maxFace = Math.max(maxFace, damage[i]);
+		}
+		long minDamage = (long) baseNumber + (long) minFace * dicePool + Math.min(0L, (long) specialTotal * dicePool);
+		long maxDamage = (long) baseNumber + (long) maxFace * dicePool + Math.max(0L, (long) specialTotal * dicePool);
+		if (minDamage < Integer.MIN_VALUE || maxDamage > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Damage out of range");
+		}
+		int offset = minFace * dicePool, effectSlots = dicePool + 1;
+		Trial trial = (SplittableRandom random, long[] histogram, long[] secondary) -> {
+			int total = 0, effects = 0;
+			for (int i = 0; i < dicePool; i++) {
+				int face = random.nextInt(damage.length);
+				total += damage[face];
+				if (effect[face]) {
+					effects++;
+				}
+			}
+			histogram[(total - offset) * effectSlots + effects]++;
+			secondary[effects]++;
+		};
+		long start = System.nanoTime();
+		long[][] result = run(trial, trials, seed, ((maxFace - minFace) * dicePool + 1) * effectSlots, effectSlots);
+		return new CombatDiceSimulationResult(trials, System.nanoTime() - start, baseNumber + offset, specialTotal,
+				result[0], result[1]);
+	}
+
+	/**
+	 * Simulate the sum of the dice pool of given die.
+	 *
+	 * @param trials   The number of trials.
+	 * @param seed     The seed of the simulation.
+	 * @param die      The die. The results without value count as zero.
+	 * @param dicePool The number of dice.
+	 * @return The histogram of sums. The secondary histogram is empty.
+	 * @throws IllegalArgumentException Any parameter was invalid.
+	 */
+	public SimulationResult simulate(long trials, long seed, Dice die, int dicePool)
+			throws IllegalArgumentException {
+		List<DiceResult> sides = die == null ? null : die.getAllResults();
+		if (dicePool < 0 || sides == null || sides.isEmpty()) {
+			throw new IllegalArgumentException("Invalid dice pool");
+		}
+		int[] values = new int[sides.size()];
+		int minFace = Integer.MAX_VALUE, maxFace = Integer.MIN_VALUE;
+		for (int i = 0; i < values.length; i++) {
+			Integer value = sides.get(i) == null ? null : sides.get(i).getValue();
+			values[i] = value == null ? 0 : value;
+			minFace = Math.min(minFace, values[i]);
+			maxFace = Math.max(maxFace, values[i]);
+		}
+		int offset = minFace * dicePool;
+		Trial trial = (SplittableRandom random, long[] histogram, long[] secondary) -> {
+			int total = 0;
+			for (int i = 0; i < dicePool; i++) {
+				total += values[random.nextInt(values.length)];
+			}
+			histogram[total - offset]++;
+		};
+		return simulate(trial, trials, seed, offset, (maxFace - minFace) * dicePool + 1, 0);
+	}
+}
@@ -0,0 +1,201 @@
+package com.kautiainen.antti.infinitybot.model;
+
+/**
+ * The aggregated result of a simulation.
+ *
+ * The result contains the histogram of the primary value of the simulated
+ * rolls, and the histogram of the secondary count of the rolls. For action
+ * rolls the primary value is the number of successes, and the secondary count
+ * is the number of complications. For combat dice the primary value is the
+ * damage, and the secondary count is the number of effects.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class SimulationResult {
+
+	/**
+	 * The number of simulated trials.
+	 */
+	private final long trials;
+
+	/**
+	 * The duration of the simulation in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * The primary value of the first histogram slot.
+	 */
+	private final int minValue;
+
+	/**
+	 * The histogram of the primary values.
+	 */
+	private final long[] histogram;
+
+	/**
+	 * The histogram of the secondary counts.
+	 */
+	private final long[] secondaryHistogram;
+
+	/**
+	 * Create a new simulation result.
+	 *
+	 * @param trials             The number of trials.
+	 * @param elapsedNanos       The duration of the simulation in nanoseconds.
+	 * @param minValue           The primary value of the first histogram slot.
+	 * @param histogram          The histogram of the primary values.
+	 * @param secondaryHistogram The histogram of the secondary counts.
+	 */
+	public SimulationResult(long trials, long elapsedNanos, int minValue, long[] histogram,
+			long[] secondaryHistogram) {
+		this.trials = trials;
+		this.elapsedNanos = elapsedNanos;
+		this.minValue = minValue;
+		this.histogram = histogram;
+		this.secondaryHistogram = secondaryHistogram;
+	}
+
+	/**
+	 * Get the number of simulated trials.
+	 *
+	 * @return The number of trials.
+	 */
+	public long getTrials() {
+		return trials;
+	}
+
+	/**
+	 * Get the duration of the simulation.
+	 *
+	 * @return The duration in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Get the throughput of the simulation.
+	 *
+	 * @return The number of trials per second.
+	 */
+	public double getTrialsPerSecond() {
+		return elapsedNanos <= 0 ? Double.POSITIVE_INFINITY : trials * 1.0e9 / elapsedNanos;
+	}
+
+	/**
+	 * Get the smallest primary value of the histogram.
+	 *
+	 * @return The smallest primary value.
+	 */
+	public int getMinValue() {
+		return minValue;
+	}
+
+	/**
+	 * Get the largest primary value of the histogram.
+	 *
+	 * @return The largest primary value.
+	 */
+	public int getMaxValue() {
+		return minValue + histogram.length - 1;
+	}
+
+	/**
+	 * Get the primary values of the trials.
+	 *
+	 * @return The primary values with at least one trial in ascending order.
+	 */
+	public int[] getValues() {
+		int count = 0;
+		for (long slot : histogram) {
+			if (slot > 0) {
+				count++;
+			}
+		}
+		int[] result = new int[count];
+		for (int i = 0, index = 0; i < histogram.length; i++) {
+			if (histogram[i] > 0) {
+				result[index++] = minValue + i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the number of trials with given primary value.
+	 *
+	 * @param value The primary value.
+	 * @return The number of trials.
+	 */
+	public long getCount(int value) {
+		int index = value - minValue;
+		return (index < 0 || index >= histogram.length) ? 0 : histogram[index];
+	}
+
+	/**
+	 * Get the relative frequency of the primary value.
+	 *
+	 * @param value The primary value.
+	 * @return The relative frequency of the value.
+	 */
+	public double getFrequency(int value) {
+		return trials == 0 ? 0.0 : (double) getCount(value) / trials;
+	}
+
+	/**
+	 * Get the largest secondary count of the histogram.
+	 *
+	 * @return The largest secondary count.
+	 */
+	public int getMaxSecondaryCount() {
+		return secondaryHistogram.length - 1;
+	}
+
+	/**
+	 * Get the number of trials with given secondary count.
+	 *
+	 * @param count The secondary count.
+	 * @return The number of trials.
+	 */
+	public long getSecondaryCount(int count) {
+		return (count < 0 || count >= secondaryHistogram.length) ? 0 : secondaryHistogram[count];
+	}
+
+	/**
+	 * Get the relative frequency of the secondary count.
+	 *
+	 * @param count The secondary count.
+	 * @return The relative frequency of the count.
+	 */
+	public double getSecondaryFrequency(int count) {
+		return trials == 0 ? 0.0 : (double) getSecondaryCount(count) / trials;
+	}
+
+	/**
+	 * Get the mean of the primary value.
+	 *
+	 * @return The mean of the primary values.
+	 */
+	public double getMean() {
+		double sum = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			sum += (double) (minValue + i) * histogram[i];
+		}
+		return trials == 0 ? 0.0 : sum / trials;
+	}
+
+	/**
+	 * Get the mean of the secondary count.
+	 *
+	 * @return The mean of the secondary counts.
+	 */
+	public double getSecondaryMean() {
+		double sum = 0;
+		for (int i = 0; i < secondaryHistogram.length; i++) {
+			sum += (double) i * secondaryHistogram[i];
+		}
+		return trials == 0 ? 0.0 : sum / trials;
+	}
+}
@@ -41,8 +41,9 @@ public interface Special extends Comparable<Special> {
 	 * @param stacks The stacking of the special.
 	 * @param value The value of the special.
 	 * @param numericValue The numeric value of the special. 
-	 * @return The special constructed with given parameters.
+	 * @return The interned immutable special with given parameters.
 	 * @throws IllegalArgumentException Any parameter was invalid.
+	 * @see SpecialValue
 	 */
 	public static Special of(String name, boolean stacks, int value, 
 			Optional<Integer> numericValue) 
@@ -51,46 +52,7 @@ public interface Special extends Comparable<Special> {
 			throw new IllegalArgumentException("Invalid name"); 
 		if (numericValue == null) throw new IllegalArgumentException("Invalid numeric value");
 		
-		return new Special() {
-
-			final String myName = name; 
-			final boolean isStacking = stacks;
-			final int myValue = value;
-			final Optional<Integer> numValue = numericValue;
-			
-			@Override
-			public Special createAnotherFromString(String stringRep) {
-				return of(stringRep);
-			}
-
-			@Override
-			public String getName() {
-				return myName; 
-			}
-
-			@Override
-			public int getValue() {
-				return myValue; 
-			}
-			
-			@Override
-			public Optional<Integer> getNumberValue() {
-				return this.numValue;
-			}
-			
-			@Override
-			public boolean stacks() {
-				return this.isStacking;
-			}
-
-			@Override
-			public Special getStacked(int value) {
-				return of(this.getName(), this.stacks(), 
-						this.getValue() + (this.stacks()?value:0), 
-						this.getNumberValue()); 
-			}
-			
-		};
+		return SpecialValue.of(name, stacks, value, numericValue);
 	}
 
 	/**
@@ -243,9 +205,9 @@ public interface Special extends Comparable<Special> {
 			Pattern stackingFromStringPattern, 
 			Pattern valueFromStringPattern,
 			Pattern numericValueFromStringPattern) {
-		return Pattern.compile(
+		return PatternCache.compile(
 				patternToString(
-						Pattern.compile(
+						PatternCache.compile(
 								"(?<" + Special.STACKING_GROUP_NAME + ">" + 
 								patternToString(stackingFromStringPattern)
 								+ ")"), true) + 
@@ -358,7 +320,8 @@ public interface Special extends Comparable<Special> {
 	 * 
 	 * @param value The value of the added stacking value.
 	 * @return The new stacked object with stacked value. If the special is not
-	 *         stacking, a copy of special is returned.
+	 *         stacking, a copy of special is returned. Immutable specials may
+	 *         return themselves instead of a copy.
 	 */
 	public Special getStacked(int value);
 
@@ -437,7 +400,7 @@ public interface Special extends Comparable<Special> {
 	 */
 	static java.util.regex.Pattern fromStringPattern(Pattern namePattern, Pattern valuePattern)
 			throws java.util.regex.PatternSyntaxException {
-		return Pattern.compile((namePattern == null ? "" : 
+		return PatternCache.compile((namePattern == null ? "" : 
 			namePattern.toString()) + "(?:\\("
 				+ (valuePattern == null ? "" : valuePattern.toString()) + "\\))?", 
 				Pattern.UNICODE_CHARACTER_CLASS);
@@ -465,7 +428,7 @@ public interface Special extends Comparable<Special> {
 	 *         stacks, name, level, and numeric value from the result.
 	 */
 	default java.util.regex.Pattern getFromStringPattern() {
-		return Pattern.compile("^" + this.getNameFromStringPattern().toString() + "(?:\\("
+		return PatternCache.compile("^" + this.getNameFromStringPattern().toString() + "(?:\\("
 				+ this.getValueFieldsFromStringPattern().toString() + "\\))?$");
 	}
 
@@ -498,7 +461,7 @@ public interface Special extends Comparable<Special> {
 	 *  special is stacking. 
 	 */
 	static Pattern stackingFromStringPattern() {
-		return Pattern.compile("[sS]");
+		return PatternCache.compile("[sS]");
 	}
 	
 	/**
@@ -511,7 +474,7 @@ public interface Special extends Comparable<Special> {
 	 *  value of special. 
 	 */
 	static Pattern valueFieldFromStringPattern() {
-		return Pattern.compile("[+-]?\\d+");
+		return PatternCache.compile("[+-]?\\d+");
 	}
 
 	/**
@@ -547,6 +510,6 @@ public interface Special extends Comparable<Special> {
 	 *  special is stacking. 
 	 */
 	static Pattern numericValueFromStringPattern() {
-		return Pattern.compile("[+-]?\\d+");
+		return PatternCache.compile("[+-]?\\d+");
 	}
 }
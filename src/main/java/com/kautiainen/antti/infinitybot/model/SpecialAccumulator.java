@@ -0,0 +1,194 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The accumulator of the specials triggered by the effects of a roll.
+ *
+ * The accumulator stores one slot per special name, and merges the added
+ * specials with the rules of {@link DiceRoller#addSpecial(List, Special)}
+ * without keeping the specials sorted. The repeated additions of the same
+ * special list are merged in one pass: after the first pass the stacking of
+ * every slot is final, so the later passes only add the values of the list to
+ * the stacking slots. The added values are kept as counters, and applied once
+ * when the sorted list of specials is materialised.
+ *
+ * The accumulator is not thread safe.
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public class SpecialAccumulator {
+
+	/**
+	 * The slot indexes by the special name.
+	 */
+	private final HashMap<String, Integer> slotByName = new HashMap<>();
+
+	/**
+	 * The specials of the slots.
+	 */
+	private Special[] slots;
+
+	/**
+	 * The pending stacked values of the slots.
+	 */
+	private long[] pending;
+
+	/**
+	 * The number of used slots.
+	 */
+	private int size = 0;
+
+	/**
+	 * Create a new empty accumulator.
+	 */
+	public SpecialAccumulator() {
+		this(8);
+	}
+
+	/**
+	 * Create a new empty accumulator.
+	 *
+	 * @param capacity The initial number of slots.
+	 */
+	public SpecialAccumulator(int capacity) {
+		this.slots = new Special[Math.max(capacity, 1)];
+		this.pending = new long[slots.length];
+	}
+
+	/**
+	 * Get the number of distinct specials.
+	 *
+	 * @return The number of accumulated distinct special names.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Remove all accumulated specials.
+	 */
+	public void clear() {
+		slotByName.clear();
+		Arrays.fill(slots, 0, size, null);
+		Arrays.fill(pending, 0, size, 0L);
+		size = 0;
+	}
+
+	/**
+	 * Get the slot of the name. A new slot is allocated for a new name.
+	 *
+	 * @param special The special whose slot is wanted.
+	 * @return The slot index of the special name.
+	 */
+	private int slotOf(Special special) {
+		Integer slot = slotByName.get(special.getName());
+		if (slot == null) {
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+				pending = Arrays.copyOf(pending, size * 2);
+			}
+			slot = size++;
+			slotByName.put(special.getName(), slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Apply the pending stacked value of the slot.
+	 *
+	 * @param slot The slot index.
+	 */
+	private void flush(int slot) {
+		if (pending[slot] != 0) {
+			slots[slot] = slots[slot].getStacked(
+					(int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, pending[slot])));
+			pending[slot] = 0;
+		}
+	}
+
+	/**
+	 * Add a special.
+	 *
+	 * A new special is stored as is. A stacking stored special is stacked with
+	 * the value of the added special, and a non-stacking stored special is
+	 * replaced with the stacking added special stacked with the stored value.
+	 * The duplicate non-stacking specials are ignored.
+	 *
+	 * @param added The added special. Undefined special is ignored.
+	 */
+	public void add(Special added) {
+		if (added == null) {
+			return;
+		}
+		int slot = slotOf(added);
+		Special current = slots[slot];
+		if (current == null) {
+			slots[slot] = added;
+		} else {
+			flush(slot);
+			current = slots[slot];
+			if (current.stacks()) {
+				slots[slot] = current.getStacked(added.getValue());
+			} else if (added.stacks()) {
+				slots[slot] = added.getStacked(current.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Add all specials of the list.
+	 *
+	 * @param added The added specials. Undefined list is ignored.
+	 */
+	public void addAll(List<? extends Special> added) {
+		addRepeated(added, 1);
+	}
+
+	/**
+	 * Add the specials of the list repeatedly.
+	 *
+	 * The result is the same as adding the list the given times, but the
+	 * repetitions after the first are added to the stacking counters.
+	 *
+	 * @param added The added specials. Undefined list is ignored.
+	 * @param times The number of times the list is added.
+	 */
+	public void addRepeated(List<? extends Special> added, int times) {
+		if (added == null || times <= 0) {
+			return;
+		}
+		for (Special special : added) {
+			add(special);
+		}
+		if (times > 1) {
+			for (Special special : added) {
+				if (special != null) {
+					int slot = slotByName.get(special.getName());
+					if (slots[slot].stacks()) {
+						pending[slot] += (long) (times - 1) * special.getValue();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the accumulated specials.
+	 *
+	 * @return The new list of accumulated specials ordered by the name.
+	 */
+	public List<Special> toList() {
+		List<Special> result = new ArrayList<>(size);
+		for (int slot = 0; slot < size; slot++) {
+			flush(slot);
+			result.add(slots[slot]);
+		}
+		result.sort((Special a, Special b) -> (a.getName().compareTo(b.getName())));
+		return result;
+	}
+}
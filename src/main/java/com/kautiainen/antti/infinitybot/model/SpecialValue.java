@@ -0,0 +1,223 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The immutable value of a special.
+ *
+ * The special values are flyweights: the instances are interned by the name,
+ * stacking, value, and numeric value, so equal special values created by
+ * {@link #of(String, boolean, int, Optional)} are the same instance. The small
+ * values without numeric value are looked up from a table of the name without
+ * creating any objects, so stacking common specials like Vicious(s1) and
+ * Vicious(s1) returns the shared Vicious(s2).
+ *
+ * @author Antti Kautiainen
+ *
+ */
+public final class SpecialValue implements Special {
+
+	/**
+	 * The smallest value stored in the value table of the name.
+	 */
+	public static final int MIN_TABLE_VALUE = -8;
+
+	/**
+	 * The largest value stored in the value table of the name.
+	 */
+	public static final int MAX_TABLE_VALUE = 56;
+
+	/**
+	 * The largest number of names with value tables.
+	 */
+	public static final int MAX_TABLE_NAMES = 1024;
+
+	/**
+	 * The largest number of interned values outside the value tables.
+	 */
+	public static final int MAX_INTERNED_VALUES = 4096;
+
+	/**
+	 * The value tables by the name. The non-stacking values are in the first half
+	 * of the table, and the stacking values in the second half.
+	 */
+	private static final ConcurrentHashMap<String, AtomicReferenceArray<SpecialValue>> TABLES = new ConcurrentHashMap<>();
+
+	/**
+	 * The interned values outside the value tables.
+	 */
+	private static final ConcurrentHashMap<SpecialValue, SpecialValue> INTERNED = new ConcurrentHashMap<>();
+
+	/**
+	 * The size of the half of the value table.
+	 */
+	private static final int TABLE_HALF = MAX_TABLE_VALUE - MIN_TABLE_VALUE + 1;
+
+	/**
+	 * Get the special value.
+	 *
+	 * @param name         The name of the special.
+	 * @param stacks       Does the special stack.
+	 * @param value        The value of the special.
+	 * @param numericValue The numeric value of the special.
+	 * @return The interned special value.
+	 * @throws IllegalArgumentException The name was empty or untrimmed, or the
+	 *                                  numeric value was undefined.
+	 */
+	public static SpecialValue of(String name, boolean stacks, int value, Optional<Integer> numericValue)
+			throws IllegalArgumentException {
+		if (name == null || name.isEmpty() || !name.trim().equals(name)) {
+			throw new IllegalArgumentException("Invalid name");
+		}
+		if (numericValue == null) {
+			throw new IllegalArgumentException("Invalid numeric value");
+		}
+		if (numericValue.isEmpty() && value >= MIN_TABLE_VALUE && value <= MAX_TABLE_VALUE) {
+			AtomicReferenceArray<SpecialValue> table = TABLES.get(name);
+			if (table == null && TABLES.size() < MAX_TABLE_NAMES) {
+				table = TABLES.computeIfAbsent(name,
+						(String key) -> new AtomicReferenceArray<SpecialValue>(2 * TABLE_HALF));
+			}
+			if (table != null) {
+				int index = (stacks ? TABLE_HALF : 0) + value - MIN_TABLE_VALUE;
+				SpecialValue result = table.get(index);
+				if (result == null) {
+					SpecialValue created = new SpecialValue(name, stacks, value, numericValue);
+					result = table.compareAndSet(index, null, created) ? created : table.get(index);
+				}
+				return result;
+			}
+		}
+		SpecialValue created = new SpecialValue(name, stacks, value, numericValue);
+		SpecialValue result = INTERNED.get(created);
+		if (result == null) {
+			if (INTERNED.size() >= MAX_INTERNED_VALUES) {
+				return created;
+			}
+			result = INTERNED.putIfAbsent(created, created);
+			if (result == null) {
+				result = created;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the special value of the special.
+	 *
+	 * @param special The special.
+	 * @return The interned special value with same name, stacking, value, and
+	 *         numeric value as the given special.
+	 * @throws IllegalArgumentException The special was invalid.
+	 */
+	public static SpecialValue of(Special special) throws IllegalArgumentException {
+		if (special instanceof SpecialValue value) {
+			return value;
+		} else if (special == null) {
+			throw new IllegalArgumentException("Undefined special");
+		} else {
+			return of(special.getName(), special.stacks(), special.getValue(), special.getNumberValue());
+		}
+	}
+
+	/**
+	 * The name of the special.
+	 */
+	private final String name;
+
+	/**
+	 * Does the special stack.
+	 */
+	private final boolean stacks;
+
+	/**
+	 * The value of the special.
+	 */
+	private final int value;
+
+	/**
+	 * The numeric value of the special.
+	 */
+	private final Optional<Integer> numericValue;
+
+	/**
+	 * The hash code of the special.
+	 */
+	private final int hash;
+
+	/**
+	 * Create a new special value.
+	 *
+	 * @param name         The name.
+	 * @param stacks       The stacking.
+	 * @param value        The value.
+	 * @param numericValue The numeric value.
+	 */
+	private SpecialValue(String name, boolean stacks, int value, Optional<Integer> numericValue) {
+		this.name = name;
+		this.stacks = stacks;
+		this.value = value;
+		this.numericValue = numericValue;
+		this.hash = ((name.hashCode() * 31 + Boolean.hashCode(stacks)) * 31 + value) * 31 + numericValue.hashCode();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public int getValue() {
+		return value;
+	}
+
+	@Override
+	public boolean stacks() {
+		return stacks;
+	}
+
+	@Override
+	public Optional<Integer> getNumberValue() {
+		return numericValue;
+	}
+
+	/**
+	 * Get the stacked special.
+	 *
+	 * @param value The added value.
+	 * @return The interned stacked special. The non-stacking special and the
+	 *         stacking of zero return this special.
+	 */
+	@Override
+	public SpecialValue getStacked(int value) {
+		if (!stacks || value == 0) {
+			return this;
+		} else {
+			return of(name, true, this.value + value, numericValue);
+		}
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		} else if (other instanceof SpecialValue special) {
+			return hash == special.hash && value == special.value && stacks == special.stacks
+					&& name.equals(special.name) && numericValue.equals(special.numericValue);
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return toString(this);
+	}
+}
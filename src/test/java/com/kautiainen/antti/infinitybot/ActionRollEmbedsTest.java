@@ -0,0 +1,54 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.kautiainen.antti.infinitybot.model.ActionRollResult;
+import com.kautiainen.antti.infinitybot.model.DiceRoller;
+import com.kautiainen.antti.infinitybot.model.RollResultRenderer;
+
+import discord4j.core.spec.EmbedCreateFields;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.rest.util.Color;
+
+class ActionRollEmbedsTest {
+
+	@Test
+	void testRender() {
+		ActionRollEmbeds embeds = new ActionRollEmbeds(new MessageTemplates("ActionRollMessages"));
+		ActionRollResult result = new DiceRoller(new Random(1)).rollAction(4, 12, 2, 19);
+		int value = result.getValue();
+
+		EmbedCreateSpec embed = embeds.render("Title", value, result, Locale.ROOT);
+		assertEquals("Title", embed.title().toOptional().orElse(null));
+		assertEquals(Color.GREEN, embed.color().toOptional().orElse(null));
+		assertEquals(4, embed.fields().size());
+		EmbedCreateFields.Field dice = embed.fields().get(0);
+		assertEquals("Dice", dice.name());
+		assertEquals(RollResultRenderer.DEFAULT.renderRoll(result), dice.value());
+		assertEquals("Momentum", embed.fields().get(2).name());
+		assertEquals("0", embed.fields().get(2).value());
+
+		embed = embeds.render("Title", value + 1, result, Locale.ROOT);
+		assertEquals(Color.RED, embed.color().toOptional().orElse(null));
+		assertEquals(3, embed.fields().size());
+		assertEquals("Complications", embed.fields().get(2).name());
+
+		embed = embeds.render("Otsikko", value, result, Locale.forLanguageTag("fi"));
+		assertEquals("Nopat", embed.fields().get(0).name());
+		assertEquals("Komplikaatiot", embed.fields().get(3).name());
+	}
+
+	@Test
+	void testMissingMessages() {
+		ActionRollEmbeds embeds = new ActionRollEmbeds(new MessageTemplates("ActionRollMessages"), "missing.embed");
+		ActionRollResult result = new DiceRoller(new Random(1)).rollAction(2, 12, 2, 19);
+		EmbedCreateSpec embed = embeds.render("Title", 0, result, Locale.ROOT);
+		assertEquals("missing.embed.dice", embed.fields().get(0).name());
+		assertThrows(IllegalArgumentException.class, () -> new ActionRollEmbeds(null));
+	}
+}
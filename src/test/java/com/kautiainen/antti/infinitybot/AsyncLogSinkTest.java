@@ -0,0 +1,140 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncLogSinkTest {
+
+	@Test
+	void testAllLinesWrittenWithBlockingPolicy() throws InterruptedException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes, true), 4, AsyncLogSink.OverflowPolicy.BLOCK);
+		assertEquals(4, sink.getCapacity());
+		Consumer<String> debug = Logging.createLogConsumer(sink, "DEBUG", true);
+		List<Thread> threads = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++) {
+			final int threadIndex = thread;
+			threads.add(new Thread(() -> {
+				for (int index = 0; index < 250; index++) {
+					debug.accept("Line " + threadIndex + "/" + index);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		sink.close();
+		assertEquals(1000, sink.getWrittenCount());
+		assertEquals(0, sink.getDroppedCount());
+		String output = bytes.toString();
+		assertEquals(1000, output.lines().count());
+		assertTrue(output.lines().allMatch((String line) -> line.matches("^\\[.*\\]\\[DEBUG\\]: Line \\d/\\d+$")));
+		assertFalse(sink.publish("DEBUG", "After close", false));
+		assertEquals(1, sink.getDroppedCount());
+	}
+
+	@Test
+	void testFullBufferDropsLines() throws InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1), release = new CountDownLatch(1);
+		OutputStream blocking = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				writing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ie) {
+					throw new IOException(ie);
+				}
+			}
+		};
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(blocking), 2, AsyncLogSink.OverflowPolicy.DROP);
+		assertTrue(sink.publish("INFO", "First", false));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+		assertTrue(sink.publish("INFO", "Second", false));
+		assertTrue(sink.publish("INFO", "Third", false));
+		assertFalse(sink.publish("INFO", "Dropped", false));
+		assertEquals(1, sink.getDroppedCount());
+		release.countDown();
+		sink.close();
+		assertEquals(3, sink.getWrittenCount());
+	}
+
+	@Test
+	void testCloseWhilePublishing() throws InterruptedException {
+		for (int round = 0; round < 20; round++) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes, true), 64, AsyncLogSink.OverflowPolicy.BLOCK);
+			CountDownLatch started = new CountDownLatch(4);
+			List<Thread> threads = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				threads.add(new Thread(() -> {
+					started.countDown();
+					for (int index = 0; index < 500; index++) {
+						sink.publish("DEBUG", "Line " + index, false);
+					}
+				}));
+			}
+			threads.forEach(Thread::start);
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			sink.close();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			// Every line is either written or counted as dropped.
+			assertEquals(2000, sink.getWrittenCount() + sink.getDroppedCount());
+			assertEquals(sink.getWrittenCount(), bytes.toString().lines().count());
+		}
+	}
+
+	@Test
+	void testTagFormat() {
+		ByteArrayOutputStream asyncBytes = new ByteArrayOutputStream(), syncBytes = new ByteArrayOutputStream();
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(asyncBytes, true));
+		PrintStream sync = new PrintStream(syncBytes, true);
+		for (String tag : List.of("INFO", "WARNING")) {
+			Logging.createLogConsumer(sink, tag, true).accept("Message");
+			Logging.createLogConsumer(sync, tag).accept("Message");
+		}
+		sink.close();
+		// The lines are equal after the time stamps.
+		String date = "^\\[[^\\]]*\\]\\[[^\\]]*\\]";
+		List<String> asyncLines = asyncBytes.toString().lines().map((String line) -> line.replaceFirst(date, ""))
+				.collect(Collectors.toList());
+		assertEquals(List.of("[ INFO]: Message", "[WARNI]: Message"), asyncLines);
+		assertEquals(asyncLines, syncBytes.toString().lines().map((String line) -> line.replaceFirst(date, ""))
+				.collect(Collectors.toList()));
+	}
+
+	@Test
+	void testRawEventLines() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		AsyncLogSink sink = new AsyncLogSink(new PrintStream(bytes, true));
+		LogEvent event = new LogEvent("command.executed").with("command", "roll", "title", "Say \"hi\"\n");
+		sink.createRawConsumer().accept(event.toJson());
+		sink.close();
+		assertEquals(event.toJson() + System.lineSeparator(), bytes.toString());
+	}
+
+	@Test
+	void testParseCapacity() {
+		assertEquals(AsyncLogSink.DEFAULT_CAPACITY, AsyncLogSink.parseCapacity(null));
+		assertEquals(AsyncLogSink.DEFAULT_CAPACITY, AsyncLogSink.parseCapacity("many"));
+		assertEquals(AsyncLogSink.DEFAULT_CAPACITY, AsyncLogSink.parseCapacity("0"));
+		assertEquals(1024, AsyncLogSink.parseCapacity(" 1024 "));
+		assertEquals(AsyncLogSink.MAX_CAPACITY, AsyncLogSink.parseCapacity("33554432"));
+		assertEquals(AsyncLogSink.MAX_CAPACITY, AsyncLogSink.parseCapacity(Integer.toString(Integer.MAX_VALUE)));
+	}
+}
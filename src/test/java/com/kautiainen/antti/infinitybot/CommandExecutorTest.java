@@ -0,0 +1,164 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class CommandExecutorTest {
+
+	@Test
+	void testExecuteOnWorker() {
+		try (CommandExecutor executor = new CommandExecutor(2, 4)) {
+			String caller = Thread.currentThread().getName();
+			LogContext context = new LogContext("worker", 1L, 2L, 3L);
+			List<Object> result;
+			try (LogContext.Scope scope = LogContext.open(context)) {
+				result = executor.execute(() -> Mono.just(Thread.currentThread().getName() + " " + LogContext.current()))
+						.collectList().block();
+			}
+			assertEquals(1, result.size());
+			assertNotEquals(caller + " worker", result.get(0));
+			assertTrue(((String) result.get(0)).startsWith("command"), result.get(0).toString());
+			assertTrue(((String) result.get(0)).endsWith(" worker"), result.get(0).toString());
+			assertEquals(0, executor.getInFlight());
+			assertEquals(0, executor.getQueueDepth());
+			assertEquals(1, executor.getCompleted());
+		}
+	}
+
+	@Test
+	void testContextOfLazyReply() {
+		try (CommandExecutor executor = new CommandExecutor(2, 4)) {
+			LogContext context = new LogContext("lazy", 1L, 2L, 3L);
+			Object result;
+			LogContext.Scope scope = LogContext.open(context);
+			try {
+				result = executor.execute(() -> Mono.fromCallable(LogContext::current)).blockFirst();
+			} finally {
+				scope.close();
+			}
+			assertSame(context, result);
+			assertNull(LogContext.current());
+		}
+	}
+
+	@Test
+	void testMaxInFlight() {
+		try (CommandExecutor executor = new CommandExecutor(1, 1)) {
+			Disposable pending = executor.execute(() -> Mono.never()).subscribe();
+			assertEquals(1, executor.getInFlight());
+			assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> Mono.just("x")).blockLast());
+			assertEquals(1, executor.getRejected());
+			pending.dispose();
+			assertEquals(0, executor.getInFlight());
+			assertEquals("x", executor.execute(() -> Mono.just("x")).blockLast());
+		}
+		assertThrows(IllegalArgumentException.class, () -> new CommandExecutor(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new CommandExecutor(1, 0));
+	}
+
+	/**
+	 * The replies of the tests.
+	 */
+	private static final CommandExecutor.Replies REPLIES = new CommandExecutor.Replies() {
+
+		@Override
+		public String getBusyMessage(ChatInputInteractionEvent event) {
+			return "Busy";
+		}
+
+		@Override
+		public String getFailureMessage(ChatInputInteractionEvent event, Throwable failure) {
+			return "Failed: " + failure.getMessage();
+		}
+	};
+
+	private static CommandRegistry.RegisteredCommand command(CommandHandler handler) {
+		CommandRegistry registry = new CommandRegistry();
+		registry.register(ApplicationCommandRequest.builder().name("roll").description("Rolls").build(), handler);
+		return registry.get("roll");
+	}
+
+	@Test
+	void testExecuteCommand() {
+		try (CommandExecutor executor = new CommandExecutor(2, 4)) {
+			DeferredCommandHandlerTest.RecordingEvent event = new DeferredCommandHandlerTest.RecordingEvent();
+			executor.executeCommand(event, command((ChatInputInteractionEvent e) -> e.reply("Done")), REPLIES,
+					new Logging()).blockLast(Duration.ofSeconds(5));
+			assertEquals(List.of("Done"), event.replies);
+			assertEquals(0, event.deferrals);
+
+			// The failure is reported as an event with the stack trace.
+			List<String> events = new ArrayList<>();
+			Logging logging = new Logging(null, null, null);
+			logging.setEventConsumer(events::add);
+			event = new DeferredCommandHandlerTest.RecordingEvent();
+			executor.executeCommand(event, command((ChatInputInteractionEvent e) -> {
+				throw new IllegalStateException("broken");
+			}), REPLIES, logging).blockLast(Duration.ofSeconds(5));
+			assertEquals(List.of("Failed: broken"), event.replies);
+			assertTrue(events.stream().anyMatch((String line) -> line.contains("\"command.failed\"")
+					&& line.contains("\"stackTrace\"") && line.contains("IllegalStateException: broken")), events.toString());
+
+			event = new DeferredCommandHandlerTest.RecordingEvent();
+			executor.executeCommand(event,
+					command((DeferredCommandHandler) (ChatInputInteractionEvent e) -> Mono.just("Computed")), REPLIES,
+					new Logging()).blockLast(Duration.ofSeconds(5));
+			assertEquals(1, event.deferrals);
+			assertEquals(List.of("Computed"), event.followups);
+		}
+	}
+
+	@Test
+	void testDeferWhenSaturated() throws InterruptedException {
+		try (CommandExecutor executor = new CommandExecutor(Schedulers.newBoundedElastic(1, 4, "saturated"), 1, 2)) {
+			CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+			assertFalse(executor.isSaturated());
+			Disposable blocking = executor.execute(() -> {
+				started.countDown();
+				release.await();
+				return Mono.empty();
+			}).subscribe();
+			started.await();
+			assertTrue(executor.isSaturated());
+
+			// The command waiting for the worker is acknowledged, and replies with a
+			// follow-up.
+			DeferredCommandHandlerTest.RecordingEvent event = new DeferredCommandHandlerTest.RecordingEvent();
+			Disposable waiting = executor
+					.executeCommand(event, command((ChatInputInteractionEvent e) -> e.reply("Done")), REPLIES,
+							new Logging())
+					.subscribe();
+			assertEquals(1, event.deferrals);
+			assertTrue(event.replies.isEmpty());
+
+			// The command exceeding the limit is rejected with a follow-up.
+			DeferredCommandHandlerTest.RecordingEvent rejected = new DeferredCommandHandlerTest.RecordingEvent();
+			executor.executeCommand(rejected, command((ChatInputInteractionEvent e) -> e.reply("Done")), REPLIES,
+					new Logging()).blockLast(Duration.ofSeconds(5));
+			assertEquals(1, rejected.deferrals);
+			assertEquals(List.of("Busy"), rejected.followups);
+
+			release.countDown();
+			for (int i = 0; i < 500 && event.followups.isEmpty(); i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(List.of("Done"), event.followups);
+			assertTrue(event.replies.isEmpty());
+			blocking.dispose();
+			waiting.dispose();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import discord4j.discordjson.json.ApplicationCommandData;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class CommandReconcilerTest {
+
+	/**
+	 * The guild commands counting the calls.
+	 */
+	private static class GuildCommands implements CommandReconciler.Target {
+		private List<ApplicationCommandData> commands = new ArrayList<>();
+		private int reads = 0, writes = 0;
+
+		@Override
+		public long getApplicationId() {
+			return 1L;
+		}
+
+		@Override
+		public Flux<ApplicationCommandData> getCommands(long guildId) {
+			reads++;
+			return Flux.fromIterable(commands);
+		}
+
+		@Override
+		public Flux<ApplicationCommandData> overwriteCommands(long guildId, List<ApplicationCommandRequest> requests) {
+			writes++;
+			commands = new ArrayList<>();
+			for (ApplicationCommandRequest request : requests) {
+				commands.add(ApplicationCommandData.builder().id(String.valueOf(commands.size() + 1)).applicationId("1")
+						.name(request.name()).description(request.description().get()).build());
+			}
+			return Flux.fromIterable(commands);
+		}
+
+		@Override
+		public Mono<ApplicationCommandData> createCommand(long guildId, ApplicationCommandRequest request) {
+			writes++;
+			ApplicationCommandData created = data(String.valueOf(commands.size() + 1), request);
+			commands.add(created);
+			return Mono.just(created);
+		}
+
+		@Override
+		public Mono<ApplicationCommandData> modifyCommand(long guildId, long commandId,
+				ApplicationCommandRequest request) {
+			writes++;
+			ApplicationCommandData modified = data(String.valueOf(commandId), request);
+			commands.replaceAll((ApplicationCommandData command) -> command.id().equals(modified.id()) ? modified
+					: command);
+			return Mono.just(modified);
+		}
+
+		private static ApplicationCommandData data(String id, ApplicationCommandRequest request) {
+			return ApplicationCommandData.builder().id(id).applicationId("1").name(request.name())
+					.description(request.description().get()).build();
+		}
+	}
+
+	private static ApplicationCommandRequest command(String name, String description) {
+		return ApplicationCommandRequest.builder().name(name).description(description).build();
+	}
+
+	@Test
+	void testReconcile() throws IOException {
+		Path cache = Files.createTempDirectory("commands").resolve("commands.properties");
+		GuildCommands guild = new GuildCommands();
+		List<ApplicationCommandRequest> commands = List.of(command("roll", "Rolls"), command("odds", "Odds"));
+
+		assertEquals(List.of("roll", "odds"),
+				new CommandReconciler(cache, null).reconcile(guild, 2L, commands).collectList().block());
+		assertEquals(1, guild.reads);
+		assertEquals(1, guild.writes);
+		assertTrue(Files.isRegularFile(cache));
+
+		// Restart without changes trusts the cached hash and makes no calls.
+		CommandReconciler restarted = new CommandReconciler(cache, null);
+		assertTrue(restarted.reconcile(guild, 2L, List.of(commands.get(1), commands.get(0))).collectList().block()
+				.isEmpty());
+		assertEquals(1, guild.reads);
+		assertEquals(1, guild.writes);
+
+		// Changed command is written with a single overwrite.
+		List<ApplicationCommandRequest> changed = List.of(command("roll", "Rolls dice"), command("odds", "Odds"));
+		assertTrue(restarted.reconcile(guild, 2L, changed).collectList().block().isEmpty());
+		assertEquals(2, guild.reads);
+		assertEquals(2, guild.writes);
+
+		// Invalidated guild is compared with the server without writing.
+		restarted.invalidate(1L, 2L);
+		assertTrue(new CommandReconciler(cache, null).reconcile(guild, 2L, changed).collectList().block().isEmpty());
+		assertEquals(3, guild.reads);
+		assertEquals(2, guild.writes);
+	}
+
+	@Test
+	void testMissingOrStaleCache() throws IOException {
+		Path cache = Files.createTempDirectory("commands").resolve("commands.properties");
+		GuildCommands guild = new GuildCommands();
+		List<ApplicationCommandRequest> commands = List.of(command("roll", "Rolls"), command("odds", "Odds"));
+		new CommandReconciler(cache, null).reconcile(guild, 2L, commands).collectList().block();
+
+		// The guild is compared again without the cache file.
+		Files.delete(cache);
+		assertTrue(new CommandReconciler(cache, null).reconcile(guild, 2L, commands).collectList().block().isEmpty());
+		assertEquals(2, guild.reads);
+		assertEquals(1, guild.writes);
+		assertTrue(Files.isRegularFile(cache));
+
+		// The stale hash of the cache file does not skip the guild, so the command
+		// deleted on the server is restored.
+		Files.writeString(cache, "1@2=" + CommandReconciler.hash(List.of(commands.get(0))) + "\n");
+		guild.commands.remove(1);
+		assertEquals(List.of("odds"),
+				new CommandReconciler(cache, null).reconcile(guild, 2L, commands).collectList().block());
+		assertEquals(3, guild.reads);
+		assertEquals(2, guild.writes);
+		assertEquals(2, guild.commands.size());
+	}
+
+	@Test
+	void testUpdateKeepsOtherCommands() throws IOException {
+		Path cache = Files.createTempDirectory("commands").resolve("commands.properties");
+		GuildCommands guild = new GuildCommands();
+		CommandReconciler reconciler = new CommandReconciler(cache, null);
+		List<ApplicationCommandRequest> commands = List.of(command("roll", "Rolls"), command("odds", "Odds"));
+		reconciler.reconcile(guild, 2L, commands).collectList().block();
+
+		assertEquals(List.of("simulate"),
+				reconciler.update(guild, 2L, List.of(command("roll", "Rolls dice"), command("simulate", "Simulates")))
+						.collectList().block());
+		assertEquals(List.of("roll", "odds", "simulate"),
+				guild.commands.stream().map(ApplicationCommandData::name).collect(Collectors.toList()));
+		assertEquals("Rolls dice", guild.commands.get(0).description());
+		assertEquals(3, guild.writes);
+		assertTrue(reconciler.update(guild, 2L, List.of(command("odds", "Odds"))).collectList().block().isEmpty());
+		assertEquals(3, guild.writes);
+
+		// The updated guild is compared with the server on the next reconciliation.
+		assertTrue(reconciler.reconcile(guild, 2L, commands).collectList().block().isEmpty());
+		assertEquals(List.of("roll", "odds"),
+				guild.commands.stream().map(ApplicationCommandData::name).collect(Collectors.toList()));
+		assertEquals(4, guild.writes);
+	}
+
+	@Test
+	void testHash() {
+		ApplicationCommandRequest roll = command("roll", "Rolls"), odds = command("odds", "Odds");
+		assertEquals(CommandReconciler.hash(List.of(roll, odds)), CommandReconciler.hash(List.of(odds, roll)));
+		assertNotEquals(CommandReconciler.hash(List.of(roll, odds)),
+				CommandReconciler.hash(List.of(roll, command("odds", "Other"))));
+		assertEquals(64, CommandReconciler.hash(List.of()).length());
+	}
+}
@@ -0,0 +1,88 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.publisher.Mono;
+
+class CommandRegistryTest {
+
+	private static ApplicationCommandRequest command(String name, String description) {
+		return ApplicationCommandRequest.builder().name(name).description(description).build();
+	}
+
+	@Test
+	void testRegistration() throws Exception {
+		CommandRegistry registry = new CommandRegistry();
+		ApplicationCommandRequest roll = command("roll", "Rolls");
+		assertTrue(registry.register(roll, (event) -> Mono.just("rolled")).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> registry.register(roll, null));
+		assertThrows(IllegalArgumentException.class, () -> registry.register(null, (event) -> Mono.empty()));
+
+		CommandRegistry.RegisteredCommand registered = registry.get("roll");
+		assertSame(roll, registered.getDefinition());
+		assertEquals("rolled", Mono.from(registered.execute(null)).block());
+
+		ApplicationCommandRequest renamed = command("roll", "Rolls dice");
+		assertSame(roll, registry.setDefinition("roll", renamed).get());
+		assertSame(renamed, registry.get("roll").getDefinition());
+		assertSame(registered, registry.get("roll"));
+		assertThrows(IllegalArgumentException.class, () -> registry.setDefinition("other", command("other", "x")));
+		assertThrows(IllegalArgumentException.class, () -> registry.setDefinition("roll", command("other", "x")));
+
+		assertEquals(new TreeSet<>(Arrays.asList("roll")), new TreeSet<>(registry.getNames()));
+		assertSame(registered, registry.remove("roll").get());
+		assertNull(registry.get("roll"));
+		assertNull(registry.get(null));
+		assertTrue(registry.remove("roll").isEmpty());
+	}
+
+	@Test
+	void testMetrics() throws Exception {
+		CommandRegistry registry = new CommandRegistry();
+		registry.register(command("fail", "Fails"), (event) -> {
+			throw new IllegalStateException("Failed");
+		});
+		CommandRegistry.RegisteredCommand failing = registry.get("fail");
+		assertThrows(IllegalStateException.class, () -> failing.execute(null));
+		assertThrows(IllegalStateException.class, () -> failing.execute(null));
+		assertEquals(2, failing.getExecutions());
+		assertEquals(2, failing.getFailures());
+		assertTrue(failing.getExecutionNanos() >= 0);
+	}
+
+	@Test
+	void testMetricsOfLazyReply() throws Exception {
+		CommandRegistry registry = new CommandRegistry();
+		registry.register(command("slow", "Fails slowly"), (event) -> Mono.fromCallable(() -> {
+			Thread.sleep(20);
+			throw new IllegalStateException("Failed");
+		}));
+		CommandRegistry.RegisteredCommand slow = registry.get("slow");
+		Publisher<?> reply = slow.execute(null);
+		assertEquals(0, slow.getFailures());
+		assertEquals(0, slow.getExecutionNanos());
+		assertThrows(IllegalStateException.class, () -> Mono.from(reply).block());
+		assertEquals(1, slow.getFailures());
+		assertTrue(slow.getExecutionNanos() >= 20_000_000L);
+	}
+
+	@Test
+	void testBotCommandsHaveHandlers() {
+		DiscordBot bot = new DiscordBot();
+		assertEquals(new TreeSet<>(Arrays.asList("infinitytest", "effect", "effectodds", "simulateaction",
+				"simulateeffect")), new TreeSet<>(bot.getKnownCommandNames()));
+		for (String name : bot.getKnownCommandNames()) {
+			assertNotNull(bot.getRegisteredCommand(name).get().getHandler());
+			assertEquals(name, bot.getCommand(name).get().name());
+			assertEquals(name.startsWith("simulate") || name.equals("effectodds"),
+					bot.getRegisteredCommand(name).get().getHandler() instanceof DeferredCommandHandler, name);
+		}
+	}
+}
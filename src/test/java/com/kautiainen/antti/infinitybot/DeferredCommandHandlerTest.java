@@ -0,0 +1,94 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import discord4j.core.DiscordClient;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.object.command.Interaction;
+import discord4j.core.object.entity.Message;
+import discord4j.core.retriever.EntityRetrievalStrategy;
+import discord4j.core.spec.InteractionApplicationCommandCallbackSpec;
+import discord4j.core.spec.InteractionCallbackSpec;
+import discord4j.core.spec.InteractionFollowupCreateSpec;
+import discord4j.core.spec.InteractionReplyEditSpec;
+import discord4j.discordjson.json.ApplicationCommandInteractionData;
+import discord4j.discordjson.json.InteractionData;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class DeferredCommandHandlerTest {
+
+	/**
+	 * The event recording the replies to its deferred response.
+	 */
+	static class RecordingEvent extends ChatInputInteractionEvent {
+
+		final List<String> edits = new ArrayList<>();
+
+		final List<String> followups = new ArrayList<>();
+
+		final List<String> replies = new ArrayList<>();
+
+		int deferrals = 0;
+
+		RecordingEvent() {
+			this(new GatewayDiscordClient(DiscordClient.create("MTIz.test.token"), null, Mono.never(), null, null,
+					EntityRetrievalStrategy.REST, Set.of()));
+		}
+
+		RecordingEvent(GatewayDiscordClient gateway) {
+			super(gateway, null, new Interaction(gateway, InteractionData.builder().id("1").applicationId("2")
+					.type(2).token("token").version(1).data(ApplicationCommandInteractionData.builder().id("3").name("roll").type(1)
+							.build())
+					.build()));
+		}
+
+		@Override
+		public Mono<Void> reply(InteractionApplicationCommandCallbackSpec spec) {
+			return Mono.fromRunnable(() -> replies.add(spec.content().toOptional().orElse(null)));
+		}
+
+		@Override
+		public Mono<Void> deferReply(InteractionCallbackSpec spec) {
+			return Mono.fromRunnable(() -> deferrals++);
+		}
+
+		@Override
+		public Mono<Message> editReply(InteractionReplyEditSpec spec) {
+			return Mono.fromRunnable(() -> edits.add(spec.contentOrElse(null)));
+		}
+
+		@Override
+		public Mono<Message> createFollowup(InteractionFollowupCreateSpec spec) {
+			return Mono.fromRunnable(() -> followups.add(spec.contentOrElse(null)));
+		}
+	}
+
+	@Test
+	void testReplyMessages() {
+		RecordingEvent event = new RecordingEvent();
+		DeferredCommandHandler.reply(event, Flux.just("10%", "50%", "Done")).blockLast(Duration.ofSeconds(5));
+		assertEquals(List.of("10%", "50%"), event.edits);
+		assertEquals(List.of("Done"), event.followups);
+	}
+
+	@Test
+	void testReplyNoMessages() {
+		RecordingEvent event = new RecordingEvent();
+		DeferredCommandHandler.reply(event, Flux.empty()).blockLast(Duration.ofSeconds(5));
+		assertTrue(event.edits.isEmpty());
+		assertEquals(List.of(DeferredCommandHandler.EMPTY_REPLY_MESSAGE), event.followups);
+
+		event = new RecordingEvent();
+		DeferredCommandHandler.reply(event, Mono.empty(), "Nothing").blockLast(Duration.ofSeconds(5));
+		assertEquals(List.of("Nothing"), event.followups);
+	}
+}
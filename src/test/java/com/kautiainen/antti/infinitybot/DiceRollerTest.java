@@ -76,6 +76,16 @@ class DiceRollerTest {
 		}
 	}
 
+	@Test
+	void testFormatRoll() {
+		DiceRoller roller = new DiceRoller(0L);
+		assertEquals("5", roller.formatRoll(5, true, false, false));
+		assertEquals("**1**", roller.formatRoll(1, true, true, false));
+		assertEquals("~~15~~", roller.formatRoll(15, false, false, false));
+		assertEquals("__~~20~~__", roller.formatRoll(20, false, false, true));
+		assertEquals("__**2**__", roller.formatRoll(2, true, true, true));
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	void testBinarySearch() {
@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -15,6 +16,8 @@ import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
+import com.kautiainen.antti.infinitybot.model.CombatDiceOdds;
+import com.kautiainen.antti.infinitybot.model.DiceRoller;
 import com.kautiainen.antti.infinitybot.model.RollResult;
 import com.kautiainen.antti.infinitybot.model.Special;
 
@@ -42,6 +45,36 @@ class DiscordBotTest {
 		
 	}
 
+	@Test
+	void testEffectOddsExtremes() {
+		DiscordBot bot = new DiscordBot();
+		DiceRoller roller = new DiceRoller();
+		String tooLarge = "I cannot calculate the odds of damage this large";
+		assertEquals(tooLarge, bot.effectOdds(roller, Integer.MAX_VALUE, 3, "", Locale.ROOT));
+		assertEquals(tooLarge, bot.effectOdds(roller, 0, 3, "Huge(1=999999999)", Locale.ROOT));
+		assertEquals(tooLarge, bot.effectOdds(roller, Long.MIN_VALUE, 1, "", Locale.ROOT));
+		assertTrue(bot.effectOdds(roller, Integer.MAX_VALUE, 0, "", Locale.ROOT)
+				.startsWith("Expected damage 2147483647.00 with 2147483647+0CD"));
+		assertTrue(bot.effectOdds(roller, Integer.MIN_VALUE, 3, "", Locale.ROOT)
+				.startsWith("Expected damage -2147483646.71"));
+
+		// The damage entries of the largest dice pool are grouped to fit the reply into a message.
+		String reply = bot.effectOdds(roller, 0, CombatDiceOdds.getMaxDicePool(DiceRoller.OLD_COMBAT_DIE.size()),
+				"Spread(1=10)", Locale.ROOT);
+		assertTrue(reply.length() <= 2000, reply);
+		String damage = reply.split(String.format("%n"))[1];
+		assertTrue(damage.split(", ").length <= DiscordBot.MAX_EFFECT_ODDS_DAMAGE_ENTRIES, damage);
+		assertTrue(damage.contains("-"), damage);
+	}
+
+	@Test
+	void testStartRequiresConnection() {
+		DiscordBot bot = new DiscordBot();
+		assertTrue(bot.reconcileCommands(null).block().isEmpty());
+		assertThrows(IllegalStateException.class, () -> bot.reconcileCommands(bot.getKnownCommandNames()).block());
+		assertThrows(IllegalStateException.class, () -> bot.start().block());
+	}
+
 	/**
 	 * The class representing string lists. 
 	 * 
@@ -0,0 +1,53 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import discord4j.core.spec.EmbedCreateFields;
+import discord4j.core.spec.EmbedCreateSpec;
+
+class EmbedTemplateTest {
+
+	@Test
+	void testRender() {
+		EmbedTemplate template = new EmbedTemplate(EmbedCreateSpec.builder().build(),
+				new String[] { "Dice", "Successes", "Momentum" }, new boolean[] { false, true, true });
+		assertEquals(3, template.getFieldCount());
+		assertEquals("Successes", template.getFieldName(1));
+
+		EmbedCreateSpec embed = template.render("Title", "[1, 2]", "2", null);
+		assertEquals("Title", embed.title().toOptional().orElse(null));
+		assertEquals(2, embed.fields().size());
+		EmbedCreateFields.Field dice = embed.fields().get(0);
+		assertEquals("Dice", dice.name());
+		assertEquals("[1, 2]", dice.value());
+		assertFalse(dice.inline());
+		assertTrue(embed.fields().get(1).inline());
+
+		assertEquals(1, template.render(null, "", "0", "").fields().size());
+		assertThrows(IllegalArgumentException.class, () -> template.render("Title", "1"));
+		assertThrows(IllegalArgumentException.class,
+				() -> new EmbedTemplate(EmbedCreateSpec.builder().build(), new String[] { "A" }, new boolean[0]));
+	}
+
+	@Test
+	void testCache() {
+		EmbedTemplates templates = new EmbedTemplates();
+		AtomicInteger created = new AtomicInteger();
+		java.util.function.Function<Locale, EmbedTemplate> factory = (Locale locale) -> {
+			created.incrementAndGet();
+			return new EmbedTemplate(EmbedCreateSpec.builder().build(), new String[] { "Dice" }, null);
+		};
+		EmbedTemplate template = templates.get("action", null, factory);
+		assertSame(template, templates.get("action", null, factory));
+		assertNotSame(template, templates.get("action", Locale.forLanguageTag("fi"), factory));
+		assertEquals(2, created.get());
+		templates.clear();
+		assertNotSame(template, templates.get("action", null, factory));
+		assertEquals(3, created.get());
+	}
+}
@@ -0,0 +1,51 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import discord4j.core.DiscordClient;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.object.command.Interaction;
+import discord4j.core.retriever.EntityRetrievalStrategy;
+import discord4j.discordjson.json.InteractionData;
+import reactor.core.publisher.Mono;
+
+class GuildLocalesTest {
+
+	/**
+	 * Create an interaction.
+	 *
+	 * @param guildId The guild identifier, or undefined value for a direct
+	 *                message.
+	 * @return The interaction.
+	 */
+	static Interaction createInteraction(String guildId) {
+		GatewayDiscordClient gateway = new GatewayDiscordClient(DiscordClient.create("MTIz.test.token"), null,
+				Mono.never(), null, null, EntityRetrievalStrategy.REST, Set.of());
+		InteractionData data = InteractionData.builder().id("1").applicationId("2").type(2).token("token")
+				.version(1).build();
+		return new Interaction(gateway,
+				guildId == null ? data : InteractionData.builder().from(data).guildId(guildId).build());
+	}
+
+	@Test
+	void testGetLocale() {
+		GuildLocales locales = new GuildLocales();
+		Locale finnish = Locale.forLanguageTag("fi");
+		assertNull(locales.getLocale(createInteraction("5")));
+
+		locales.set(5L, finnish);
+		assertEquals(finnish, locales.get(5L));
+		assertEquals(finnish, locales.getLocale(createInteraction("5")));
+		assertNull(locales.getLocale(createInteraction("6")));
+		assertNull(locales.getLocale(createInteraction(null)));
+
+		locales.set(5L, null);
+		assertNull(locales.get(5L));
+		assertNull(locales.getLocale(createInteraction("5")));
+	}
+}
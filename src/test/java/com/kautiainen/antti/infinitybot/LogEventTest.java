@@ -0,0 +1,69 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class LogEventTest {
+
+	@Test
+	void testJsonLine() {
+		LogContext context = new LogContext("c0ffee", 1L, LogContext.UNDEFINED_SNOWFLAKE, -1L);
+		LogEvent event = new LogEvent("action.execute", context).with("dice", 3, "title", "Say \"hi\"\n\\",
+				"odds", 0.5, "missing", null);
+		String json = event.toJson();
+		assertTrue(json.startsWith("{\"time\":\""), json);
+		assertTrue(json.endsWith(",\"event\":\"action.execute\",\"correlationId\":\"c0ffee\",\"interactionId\":\"1\""
+				+ ",\"userId\":\"18446744073709551615\",\"dice\":3,\"title\":\"Say \\\"hi\\\"\\n\\\\\",\"odds\":0.5"
+				+ ",\"missing\":null}"), json);
+		assertEquals("action.execute [c0ffee] dice=3 title=Say \"hi\"\n\\ odds=0.5 missing=null", event.toString());
+		assertEquals(4, event.getFields().size());
+		assertThrows(IllegalArgumentException.class, () -> new LogEvent("odd").with("key"));
+		assertThrows(IllegalArgumentException.class, () -> new LogEvent(""));
+	}
+
+	@Test
+	void testContextScopes() throws InterruptedException, ExecutionException {
+		assertNull(LogContext.current());
+		LogContext outer = new LogContext(null, 1L, 2L, 3L), inner = new LogContext("inner", 4L, 5L, 6L);
+		assertEquals(16, outer.getCorrelationId().length());
+		Supplier<LogContext> wrapped;
+		try (LogContext.Scope scope = LogContext.open(outer)) {
+			assertSame(outer, new LogEvent("event").getContext());
+			try (LogContext.Scope innerScope = LogContext.open(inner)) {
+				assertSame(inner, LogContext.current());
+			}
+			assertSame(outer, LogContext.current());
+			wrapped = LogContext.wrap(LogContext::current);
+		}
+		assertNull(LogContext.current());
+		assertSame(outer, CompletableFuture.supplyAsync(wrapped).get());
+		assertNull(CompletableFuture.supplyAsync(LogContext::current).get());
+	}
+
+	@Test
+	void testLoggingEvents() {
+		List<String> messages = new ArrayList<>(), events = new ArrayList<>();
+		Logging logging = new Logging(messages::add, messages::add, messages::add, messages::add);
+		logging.setLoggingLevel(Level.all);
+		try (LogContext.Scope scope = LogContext.open(new LogContext("id", 1L, 2L, 3L))) {
+			assertNotNull(logging.debugEvent("dice.action", "dice", 2));
+			logging.setEventConsumer(events::add);
+			assertNotNull(logging.errorEvent("command.failed", "command", "action"));
+		}
+		assertEquals(List.of("dice.action [id] dice=2"), messages);
+		assertEquals(1, events.size());
+		assertTrue(events.get(0).contains("\"event\":\"command.failed\",\"correlationId\":\"id\""), events.get(0));
+
+		logging.setLoggingLevel(Level.error);
+		assertFalse(logging.allowEvent(Level.debug));
+		assertNull(logging.debugEvent("dice.action", "dice", 2));
+		assertEquals(1, events.size());
+	}
+}
@@ -0,0 +1,101 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LoggingTest {
+
+	/**
+	 * The parameter counting the formatting of the message.
+	 */
+	static class Counted {
+		final AtomicInteger formatted = new AtomicInteger();
+
+		@Override
+		public String toString() {
+			formatted.incrementAndGet();
+			return "counted";
+		}
+	}
+
+	@Test
+	void testDisabledLevelDoesNotFormat() {
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		Logging logging = new Logging(messages::add, messages::add, messages::add, messages::add);
+		Counted counted = new Counted();
+		AtomicInteger supplied = new AtomicInteger();
+
+		logging.setLoggingLevel(Level.error);
+		assertFalse(logging.allowDebug());
+		assertFalse(logging.allowWarning());
+		assertTrue(logging.allowError());
+		assertNull(logging.debug("Value %s", counted));
+		assertNull(logging.debugMessage("Value {0}", counted));
+		assertNull(logging.warn("Value %s", counted));
+		assertNull(logging.debug(() -> "Supplied " + supplied.incrementAndGet()));
+		assertEquals(0, counted.formatted.get());
+		assertEquals(0, supplied.get());
+		assertTrue(messages.isEmpty());
+
+		logging.setLoggingLevel(Level.all);
+		assertEquals("Value counted", logging.debug("Value %s", counted));
+		assertEquals("Supplied 1", logging.debug(() -> "Supplied " + supplied.incrementAndGet()));
+		assertEquals("Info", logging.info(() -> "Info"));
+		assertEquals(java.util.Arrays.asList("Value counted", "Supplied 1", "Info"), messages);
+	}
+
+	@Test
+	void testUndefinedConsumerDisablesLevel() {
+		List<String> messages = new ArrayList<>();
+		Logging logging = new Logging(null, messages::add, null, null);
+		logging.setLoggingLevel(Level.all);
+		assertFalse(logging.allowDebug());
+		assertFalse(logging.allowWarning());
+		assertFalse(logging.allowInfo());
+		assertEquals("Warning", logging.warn("Warning"));
+		assertEquals("Error", logging.error("Error"));
+		assertEquals(Collections.singletonList("Error"), messages);
+	}
+
+	@Test
+	void testConcurrentLogging() throws InterruptedException {
+		AtomicInteger logged = new AtomicInteger();
+		Logging logging = new Logging((String message) -> logged.incrementAndGet(), null, null);
+		logging.setLoggingLevel(Level.all);
+		List<Thread> threads = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++) {
+			threads.add(new Thread(() -> {
+				for (int index = 0; index < 1000; index++) {
+					logging.debug("Message %d", index);
+					if (index == 500) {
+						logging.setLoggingLevel(Level.all);
+					}
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(4000, logged.get());
+	}
+
+	@Test
+	void testEscape() {
+		String plain = "Command action dice:3 tn:12 [Area, Piercing(2)] \"ok\" it's `fine` ä";
+		assertSame(plain, Logging.escape(plain));
+		assertNull(Logging.escape(null));
+		assertEquals("", Logging.escape(new StringBuilder()));
+		assertEquals("a\\tb\\nc\\r\\f", Logging.escape("a\tb\nc\r\f"));
+		assertEquals("back\\\\slash \\\u00b4", Logging.escape("back\\slash \u00b4"));
+		assertEquals("\\x001c", Logging.escape("\u001c"));
+		assertEquals("smile \\xd83dde00!", Logging.escape("smile \ud83d\ude00!"));
+		assertEquals("lone \\xd83d", Logging.escape("lone \ud83d"));
+	}
+}
@@ -0,0 +1,170 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Enumeration;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest {
+
+	@Test
+	void testFormatEqualsStringFormat() {
+		Object[] args = { "title", 3, 2L, 1.2345, "roll" };
+		for (String pattern : new String[] { "", "plain text", "%s", "%s: %d successes", "%1$s %1$s %2$d",
+				"%s %<s %d %<d", "%4$.2f%%", "%5s|%-5s|", "%s%n%s", "%3$d %2$d %1$s", "%%s %s", "%S %x %b" }) {
+			assertEquals(String.format(pattern, args), MessageTemplate.compile(pattern).format(args), pattern);
+		}
+	}
+
+	@Test
+	void testBundleMessages() {
+		Object[] args = { "title", 3L, 2L, 14L, 20L, "roll", "entries" };
+		for (String baseName : new String[] { "DuneBotMessages", "ActionRollMessages" }) {
+			ResourceBundle bundle = ResourceBundle.getBundle(baseName);
+			for (Enumeration<String> keys = bundle.getKeys(); keys.hasMoreElements();) {
+				String pattern = bundle.getString(keys.nextElement());
+				String expected;
+				try {
+					expected = String.format(pattern, args);
+				} catch (IllegalArgumentException iae) {
+					continue;
+				}
+				assertEquals(expected, MessageTemplate.compile(pattern).format(args), pattern);
+			}
+		}
+	}
+
+	@Test
+	void testFormatTo() {
+		StringBuilder builder = new StringBuilder("Roll: ");
+		MessageTemplate template = MessageTemplate.compile("%s with %d dice");
+		assertSame(builder, template.formatTo(builder, "Test", 2));
+		assertEquals("Roll: Test with 2 dice", builder.toString());
+		assertEquals(2, template.getArgumentCount());
+		assertEquals("%s with %d dice", template.getPattern());
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile(null));
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("%<s"));
+		assertThrows(MissingFormatArgumentException.class, () -> MessageTemplate.compile("%s %s").format("one"));
+	}
+
+	@Test
+	void testTemplates() {
+		MessageTemplates templates = new MessageTemplates("ActionRollMessages");
+		MessageTemplate template = templates.get("action_roll.messages.delimiter", Locale.ROOT);
+		assertSame(template, templates.get("action_roll.messages.delimiter", Locale.ROOT));
+		assertThrows(MissingResourceException.class, () -> templates.get("no.such.message", Locale.ROOT));
+		templates.reload();
+		assertNotSame(template, templates.get("action_roll.messages.delimiter", Locale.ROOT));
+		assertEquals(template.getPattern(), templates.get("action_roll.messages.delimiter", Locale.ROOT).getPattern());
+	}
+
+	@Test
+	void testLocaleSelection() {
+		MessageTemplates templates = new MessageTemplates("DuneBotMessages");
+		String key = "dunebot.messages.unknown_command_error_format";
+		Locale finnish = Locale.forLanguageTag("fi");
+		assertTrue(templates.getLocales().contains(finnish));
+		assertEquals(ResourceBundle.getBundle("DuneBotMessages", finnish).getString(key),
+				templates.get(key, finnish).getPattern());
+		assertSame(templates.get(key, finnish), templates.get(key, Locale.forLanguageTag("fi-FI")));
+		assertSame(templates.get(key, null), templates.get(key, Locale.forLanguageTag("x-unknown")));
+		assertSame(templates.getBundle(null), templates.getBundle(Locale.getDefault()));
+	}
+
+	/**
+	 * The class bundle of the tests.
+	 */
+	public static class TestMessages extends ListResourceBundle {
+		@Override
+		protected Object[][] getContents() {
+			return new Object[][] { { "test.message", "root %s" } };
+		}
+	}
+
+	/**
+	 * The Finnish class bundle of the tests.
+	 */
+	public static class TestMessages_fi extends ListResourceBundle {
+		@Override
+		protected Object[][] getContents() {
+			return new Object[][] { { "test.message", "suomi %s" } };
+		}
+	}
+
+	@Test
+	void testClassBundles() {
+		MessageTemplates templates = new MessageTemplates(TestMessages.class.getName());
+		Locale finnish = Locale.forLanguageTag("fi");
+		assertTrue(templates.getLocales().contains(finnish));
+		assertEquals("suomi x", templates.get("test.message", finnish).format("x"));
+		assertEquals(ResourceBundle.getBundle(TestMessages.class.getName()).getString("test.message"),
+				templates.get("test.message", Locale.forLanguageTag("x-unknown")).getPattern());
+	}
+
+	@Test
+	void testActionRollMessages() {
+		MessageTemplates templates = new MessageTemplates("ActionRollMessages");
+		assertEquals("nothing is that easy",
+				templates.get(DiscordBot.ActionRollCommand.DIFFICULTY_TOO_LOW_MESSAGE, Locale.ROOT).format());
+		assertEquals("Ei se voi noin helppoa olla", templates
+				.get(DiscordBot.ActionRollCommand.DIFFICULTY_TOO_LOW_MESSAGE, Locale.forLanguageTag("fi")).format());
+		assertEquals(", ja",
+				templates.get(DiscordBot.ActionRollCommand.DELIMITER_MESSAGE, Locale.forLanguageTag("fi")).format());
+	}
+
+	@Test
+	void testEffectOddsMessages() {
+		MessageTemplates templates = new MessageTemplates("ActionRollMessages");
+		Locale finnish = Locale.forLanguageTag("fi");
+		assertTrue(templates.get(DiscordBot.EFFECT_ODDS_RESULT_FORMAT_MESSAGE, Locale.ROOT).getPattern()
+				.startsWith("Expected damage"));
+		assertTrue(templates.get(DiscordBot.EFFECT_ODDS_RESULT_FORMAT_MESSAGE, finnish).getPattern()
+				.startsWith("Odotettu vahinko"));
+		assertEquals("Cannot calculate odds of 99 dice",
+				templates.get(DiscordBot.EFFECT_ODDS_DICE_ERROR_MESSAGE, Locale.ROOT).format(99L));
+		assertEquals("Nopat", templates.get("effect.embed.dice", finnish).getPattern());
+		// The messages missing from the Finnish bundle fall back to the default bundle.
+		assertEquals(templates.get("action_roll.messages.error_format", Locale.ROOT).getPattern(),
+				templates.get("action_roll.messages.error_format", finnish).getPattern());
+	}
+
+	@Test
+	void testSimulationMessages() {
+		MessageTemplates templates = new MessageTemplates("ActionRollMessages");
+		Locale finnish = Locale.forLanguageTag("fi");
+		assertEquals("I cannot simulate more than 100 rolls",
+				templates.get(DiscordBot.SIMULATION_TRIALS_TOO_HIGH_MESSAGE, Locale.ROOT).format(100L));
+		assertEquals("En voi simuloida yli 100 heittoa",
+				templates.get(DiscordBot.SIMULATION_TRIALS_TOO_HIGH_MESSAGE, finnish).format(100L));
+		assertEquals("2: 12.5%", templates.get(DiscordBot.SIMULATION_ENTRY_FORMAT_MESSAGE, Locale.ROOT).format(2, 12.5));
+		assertEquals("2: 12,5%", templates.get(DiscordBot.SIMULATION_ENTRY_FORMAT_MESSAGE, finnish).format(2, 12.5));
+		assertTrue(templates.get(DiscordBot.SIMULATION_RESULT_FORMAT_MESSAGE, finnish)
+				.format(10L, "2d20", 1.5, 2000.0, "Onnistumiset", 0.5, "Komplikaatiot", 0.1, "Onnistumiset", "",
+						"Komplikaatiot", "")
+				.startsWith("Simuloitu 10 heittoa 2d20 ajassa 1,5 ms"));
+		assertEquals(String.format("Invalid traits at position 3: Bad%n`Ar(`%n`  ^`"),
+				templates.get(DiscordBot.TRAITS_ERROR_FORMAT_MESSAGE, Locale.ROOT).format(3, "Bad", "Ar(", "  "));
+	}
+
+	@Test
+	void testTemplateLocale() {
+		Locale finnish = Locale.forLanguageTag("fi");
+		assertEquals("1,50 3", MessageTemplate.compile("%.2f %d", finnish).format(1.5, 3));
+		assertEquals("1.50 3", MessageTemplate.compile("%.2f %d", Locale.US).format(1.5, 3));
+		assertNull(MessageTemplate.compile("%s").getLocale());
+
+		MessageTemplates templates = new MessageTemplates("ActionRollMessages");
+		assertEquals(finnish, templates.get(DiscordBot.EFFECT_ODDS_ENTRY_FORMAT_MESSAGE, finnish).getLocale());
+		assertEquals("2: 50,0%", templates.get(DiscordBot.EFFECT_ODDS_ENTRY_FORMAT_MESSAGE, finnish).format(2, 50.0));
+	}
+}
@@ -0,0 +1,60 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.kautiainen.antti.infinitybot.model.QualityTemplate;
+import com.kautiainen.antti.infinitybot.model.Special;
+
+class TraitListParserTest {
+
+	private TraitListParser createParser() {
+		SpecialRegistry registry = new SpecialRegistry();
+		registry.register(new QualityTemplate("Vicious", 1, true));
+		return new TraitListParser(registry);
+	}
+
+	@Test
+	void testGrammar() throws ParseException {
+		List<Special> result = createParser().parse(" Area, Piercing(s2)  Spread( 3=5 ) \"Close Quarters\"(-1)");
+		assertEquals(4, result.size());
+		assertEquals("Area", result.get(0).getName());
+		assertEquals(1, result.get(0).getValue());
+		assertFalse(result.get(0).stacks());
+		assertEquals("Piercing", result.get(1).getName());
+		assertEquals(2, result.get(1).getValue());
+		assertTrue(result.get(1).stacks());
+		assertEquals("Spread", result.get(2).getName());
+		assertEquals(3, result.get(2).getValue());
+		assertEquals(Optional.of(5), result.get(2).getNumberValue());
+		assertEquals("Close Quarters", result.get(3).getName());
+		assertEquals(-1, result.get(3).getValue());
+		assertTrue(createParser().parse("  ,, ").isEmpty());
+		assertEquals("Say \"hi\"\\", createParser().parse("\"Say \\\"hi\\\"\\\\\"").get(0).getName());
+	}
+
+	@Test
+	void testTemplates() throws ParseException {
+		List<Special> result = createParser().parse("Vicious(2)");
+		assertEquals(1, result.size());
+		assertEquals("Vicious", result.get(0).getName());
+		assertTrue(result.get(0).stacks());
+	}
+
+	@Test
+	void testErrorPositions() {
+		String[] invalid = { "Area(", "Area(s)", "Area(2", "Area(2)x", "\"Open", "Area(1234567890)", "(2)",
+				"Area(2=)", "\"\"", "\"Bad\\n\"" };
+		int[] offsets = { 5, 6, 6, 7, 0, 5, 0, 7, 0, 4 };
+		for (int i = 0; i < invalid.length; i++) {
+			final String traits = invalid[i];
+			ParseException error = assertThrows(ParseException.class, () -> createParser().parse(traits), traits);
+			assertEquals(offsets[i], error.getErrorOffset(), traits);
+		}
+	}
+}
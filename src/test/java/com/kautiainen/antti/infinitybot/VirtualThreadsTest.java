@@ -0,0 +1,36 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+	@Test
+	void testStart() throws InterruptedException {
+		AtomicReference<String> name = new AtomicReference<>();
+		Thread thread = VirtualThreads.start("tester", () -> name.set(Thread.currentThread().getName()));
+		thread.join();
+		assertEquals("tester", name.get());
+	}
+
+	@Test
+	void testVirtualExecutor() throws Exception {
+		if (VirtualThreads.isSupported()) {
+			ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+			try {
+				assertEquals(Boolean.TRUE, executor
+						.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get());
+			} finally {
+				executor.shutdown();
+			}
+		} else {
+			assertFalse(VirtualThreads.isEnabled());
+			assertThrows(UnsupportedOperationException.class, () -> VirtualThreads.newVirtualThreadPerTaskExecutor());
+			assertThrows(UnsupportedOperationException.class, () -> CommandExecutor.virtual(1));
+		}
+	}
+}
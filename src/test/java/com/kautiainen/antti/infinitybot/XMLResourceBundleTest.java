@@ -0,0 +1,79 @@
+package com.kautiainen.antti.infinitybot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.junit.jupiter.api.Test;
+
+class XMLResourceBundleTest {
+
+	private static void writeBundle(Path file, Map<String, String> entries) throws IOException {
+		StringBuilder xml = new StringBuilder(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">\n<properties>\n");
+		entries.forEach((String key, String value) -> xml.append("<entry key=\"").append(key).append("\">")
+				.append(value).append("</entry>\n"));
+		Files.writeString(file, xml.append("</properties>\n"), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void testMessageCache() throws IOException {
+		Path file = Files.createTempDirectory("messages").resolve("test.msgcache");
+		Map<String, String> messages = new LinkedHashMap<>();
+		messages.put("b.message", "Second %s");
+		messages.put("a.message", "First");
+		messages.put("ä.message", "Hyvää päivää");
+		messages.put("a", "");
+		byte[] hash = MessageCache.hash("source".getBytes(StandardCharsets.UTF_8));
+		MessageCache.write(file, hash, messages);
+		MessageCache cache = MessageCache.open(file, hash);
+		assertNotNull(cache);
+		assertEquals(messages.size(), cache.size());
+		messages.forEach((String name, String message) -> assertEquals(message, cache.get(name), name));
+		assertNull(cache.get("c.message"));
+		assertNull(cache.get("a.messag"));
+		assertNull(MessageCache.open(file, MessageCache.hash(new byte[0])));
+		assertNull(MessageCache.open(file.resolveSibling("missing.msgcache"), hash));
+	}
+
+	@Test
+	void testControl() throws IOException {
+		Path sources = Files.createTempDirectory("bundles"), cacheDirectory = Files.createTempDirectory("cache");
+		writeBundle(sources.resolve("TestMessages.xml"), Map.of("greeting", "Hello", "farewell", "Goodbye"));
+		writeBundle(sources.resolve("TestMessages_fi.xml"), Map.of("greeting", "Hei"));
+		XMLResourceBundle.Control control = new XMLResourceBundle.Control(cacheDirectory);
+		Locale finnish = Locale.forLanguageTag("fi");
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { sources.toUri().toURL() }, null)) {
+			ResourceBundle bundle = ResourceBundle.getBundle("TestMessages", finnish, loader, control);
+			assertEquals("Hei", bundle.getString("greeting"));
+			assertEquals("Goodbye", bundle.getString("farewell"));
+			assertEquals(2, Collections.list(bundle.getKeys()).size());
+			Path cacheFile = cacheDirectory.resolve("TestMessages_fi.msgcache");
+			assertTrue(Files.isRegularFile(cacheFile));
+			FileTime written = FileTime.fromMillis(0);
+			Files.setLastModifiedTime(cacheFile, written);
+
+			ResourceBundle.clearCache(loader);
+			bundle = ResourceBundle.getBundle("TestMessages", finnish, loader, control);
+			assertEquals("Hei", bundle.getString("greeting"));
+			assertEquals(written, Files.getLastModifiedTime(cacheFile));
+
+			writeBundle(sources.resolve("TestMessages_fi.xml"), Map.of("greeting", "Moi"));
+			ResourceBundle.clearCache(loader);
+			bundle = ResourceBundle.getBundle("TestMessages", finnish, loader, control);
+			assertEquals("Moi", bundle.getString("greeting"));
+			assertNotEquals(written, Files.getLastModifiedTime(cacheFile));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ActionRollKernelTest {
+
+	@Test
+	void testPack() {
+		int packed = ActionRollKernel.pack(1, 10, 2, 20);
+		assertEquals(1, ActionRollKernel.getFace(packed));
+		assertTrue(ActionRollKernel.isSuccess(packed));
+		assertTrue(ActionRollKernel.isCritical(packed));
+		assertFalse(ActionRollKernel.isComplication(packed));
+		assertEquals(2, ActionRollKernel.getSuccesses(packed));
+
+		packed = ActionRollKernel.pack(20, 10, 2, 20);
+		assertEquals(20, ActionRollKernel.getFace(packed));
+		assertFalse(ActionRollKernel.isSuccess(packed));
+		assertTrue(ActionRollKernel.isComplication(packed));
+		assertEquals(0, ActionRollKernel.getSuccesses(packed));
+
+		packed = ActionRollKernel.pack(5, 10, 2, 20);
+		assertEquals(1, ActionRollKernel.getSuccesses(packed));
+	}
+
+	@Test
+	void testRollActionMatchesStringRoll() {
+		int[][] parameters = { { 2, 10, 1, 20 }, { 5, 14, 3, 18 }, { 3, 8, 0, 16 }, { 1, 20, 20, 21 } };
+		for (int[] param : parameters) {
+			for (long seed = 0; seed < 50; seed++) {
+				DiceRoller roller = new DiceRoller(new Random(seed));
+				Random reference = new Random(seed);
+				int successes = 0, complications = 0;
+				List<String> rolls = new ArrayList<>();
+				for (int i = 0; i < param[0]; i++) {
+					int roll = reference.nextInt(20) + 1;
+					if (roll <= param[1]) {
+						successes += (roll <= param[2] ? 2 : 1);
+					}
+					if (roll >= param[3]) {
+						complications++;
+					}
+					rolls.add(roller.formatRoll(roll, roll <= param[1], roll <= param[2], roll >= param[3]));
+				}
+				RollResult expResult = new RollResult(successes, rolls, new DiceRoller.Complication(complications));
+
+				ActionRollResult result = roller.rollAction(param[0], param[1], param[2], param[3]);
+				assertEquals(expResult, result);
+				assertEquals(expResult.toString(), result.toString());
+				assertEquals(complications, result.getComplications());
+			}
+		}
+	}
+
+	@Test
+	void testKernelReuse() {
+		DiceRoller roller = new DiceRoller(new Random(7));
+		ActionRollKernel kernel = new ActionRollKernel(1);
+		int successes = roller.rollAction(kernel, 4, 12, 2, 19);
+		assertEquals(4, kernel.getDiceCount());
+		assertEquals(successes, kernel.getSuccesses());
+		int total = 0;
+		for (int i = 0; i < kernel.getDiceCount(); i++) {
+			total += ActionRollKernel.getSuccesses(kernel.getDie(i));
+		}
+		assertEquals(successes, total);
+		roller.rollAction(kernel, 2, 12, 2, 19);
+		assertEquals(2, kernel.getDiceCount());
+		assertThrows(IndexOutOfBoundsException.class, () -> kernel.getDie(2));
+	}
+}
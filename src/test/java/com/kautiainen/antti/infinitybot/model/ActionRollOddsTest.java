@@ -0,0 +1,86 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ActionRollOddsTest {
+
+	/**
+	 * Count the outcomes by enumerating every roll.
+	 *
+	 * @return The counts by successes and complications.
+	 */
+	private long[][] enumerate(int dice, int tn, int crit, int complication) {
+		long[][] result = new long[2 * dice + 1][dice + 1];
+		int[] faces = new int[dice];
+		java.util.Arrays.fill(faces, 1);
+		long total = (long) Math.pow(20, dice);
+		for (long i = 0; i < total; i++) {
+			int successes = 0, complications = 0;
+			for (int face : faces) {
+				if (face <= tn) {
+					successes += (face <= crit ? 2 : 1);
+				}
+				if (face >= complication) {
+					complications++;
+				}
+			}
+			result[successes][complications]++;
+			for (int d = 0; d < dice && ++faces[d] > 20; d++) {
+				faces[d] = 1;
+			}
+		}
+		return result;
+	}
+
+	@Test
+	void testMatchesEnumeration() {
+		int[][] parameters = { { 1, 10, 1, 20 }, { 2, 12, 3, 19 }, { 3, 8, 0, 16 }, { 3, 20, 20, 21 },
+				{ 2, 5, 8, 17 } };
+		for (int[] param : parameters) {
+			ActionRollOdds odds = ActionRollOdds.of(param[0], param[1], param[2], param[3]);
+			long[][] expected = enumerate(param[0], param[1], param[2], param[3]);
+			assertEquals((long) Math.pow(20, param[0]), odds.getTotal());
+			for (int s = 0; s < expected.length; s++) {
+				for (int c = 0; c < expected[s].length; c++) {
+					assertEquals(expected[s][c], odds.getCount(s, c),
+							String.format("Count of %d successes with %d complications", s, c));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSingleDie() {
+		ActionRollOdds odds = ActionRollOdds.of(1, 10, 2, 20);
+		assertEquals(0.5, odds.getSuccessProbability(0), 1e-12);
+		assertEquals(0.4, odds.getSuccessProbability(1), 1e-12);
+		assertEquals(0.1, odds.getSuccessProbability(2), 1e-12);
+		assertEquals(0.05, odds.getAnyComplicationProbability(), 1e-12);
+		assertEquals(0.5, odds.getPassProbability(1), 1e-12);
+		assertEquals(0.1, odds.getExpectedMomentum(1), 1e-12);
+		assertEquals(0.1, odds.getMomentumProbability(1, 1), 1e-12);
+		assertEquals(0.6, odds.getExpectedSuccesses(), 1e-12);
+	}
+
+	@Test
+	void testCache() {
+		assertSame(ActionRollOdds.of(2, 12, 1, 20), ActionRollOdds.of(2, 12, 1, 20));
+		// The critical range above target number behaves like target number.
+		assertSame(ActionRollOdds.of(2, 12, 12, 20), ActionRollOdds.of(2, 12, 15, 20));
+		assertThrows(IllegalArgumentException.class, () -> ActionRollOdds.of(ActionRollOdds.MAX_DICE + 1, 10, 1, 20));
+	}
+
+	@Test
+	void testExpectationsAtMaxDice() {
+		ActionRollOdds all = ActionRollOdds.of(ActionRollOdds.MAX_DICE, 20, 20, 21);
+		assertEquals(2.0 * ActionRollOdds.MAX_DICE, all.getExpectedSuccesses(), 1e-9);
+		assertEquals(2.0 * ActionRollOdds.MAX_DICE - 5, all.getExpectedMomentum(5), 1e-9);
+		// The expected successes are linear in the number of dice.
+		ActionRollOdds pair = ActionRollOdds.of(2, 10, 1, 20);
+		ActionRollOdds max = ActionRollOdds.of(ActionRollOdds.MAX_DICE, 10, 1, 20);
+		assertEquals(pair.getExpectedSuccesses() * ActionRollOdds.MAX_DICE / 2, max.getExpectedSuccesses(), 1e-9);
+		assertEquals(max.getExpectedSuccesses(), max.getExpectedMomentum(0), 1e-9);
+	}
+}
@@ -0,0 +1,106 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.kautiainen.antti.infinitybot.DiscordBot;
+
+class CombatDiceOddsTest {
+
+	/**
+	 * Calculate the damage counts by rolling every outcome with the dice roller.
+	 */
+	private Map<Integer, Long> enumerate(List<Object> die, int pool, int base, List<Special> specials) {
+		DiceRoller roller = new DiceRoller();
+		Map<Integer, Long> result = new HashMap<>();
+		int[] faces = new int[pool];
+		long total = (long) Math.pow(die.size(), pool);
+		for (long i = 0; i < total; i++) {
+			List<Object> roll = new ArrayList<>();
+			for (int face : faces) {
+				roll.add(die.get(face));
+			}
+			int value = roller.getCDRollResult(base, roll, specials).getValue();
+			result.merge(value, 1L, Long::sum);
+			for (int d = 0; d < pool && ++faces[d] >= die.size(); d++) {
+				faces[d] = 0;
+			}
+		}
+		return result;
+	}
+
+	@Test
+	void testMatchesDiceRoller() {
+		List<Special> vicious = new ArrayList<>(Collections.singletonList(new DiscordBot.Vicious(2)));
+		for (List<Object> die : Arrays.asList(DiceRoller.OLD_COMBAT_DIE, DiceRoller.NEW_COMBAT_DIE)) {
+			for (int pool = 0; pool <= 4; pool++) {
+				CombatDiceOdds odds = CombatDiceOdds.of(die, pool);
+				Map<Integer, Long> expected = enumerate(die, pool, 1, vicious);
+				for (int damage = odds.getMinDamage(1, 2); damage <= odds.getMaxDamage(1, 2); damage++) {
+					assertEquals((double) expected.getOrDefault(damage, 0L) / odds.getTotal(),
+							odds.getDamageProbability(1, 2, damage), 1e-12,
+							String.format("Damage %d with %d dice", damage, pool));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testExpectedDamage() {
+		DiceRoller roller = new DiceRoller();
+		List<Special> vicious = Collections.singletonList(new DiscordBot.Vicious(2));
+		assertEquals(25.0 / 7.0, roller.getExpectedCDDamage(0, 5, vicious), 1e-12);
+		CombatDiceOdds odds = CombatDiceOdds.of(DiceRoller.NEW_COMBAT_DIE, 5);
+		assertEquals(5 * 2.0 / 7.0, odds.getExpectedEffects(), 1e-12);
+		assertEquals(2 * 5 * 2.0 / 7.0, odds.getExpectedSpecialValue(new DiscordBot.Vicious(2)), 1e-12);
+		assertEquals(1.0 - Math.pow(5.0 / 7.0, 5),
+				odds.getExpectedSpecialValue(new DiscordBot.Special("Piercing", 1, false)), 1e-12);
+	}
+
+	@Test
+	void testCacheAndValidation() {
+		assertSame(CombatDiceOdds.of(DiceRoller.OLD_COMBAT_DIE, 3),
+				CombatDiceOdds.of(new ArrayList<Object>(DiceRoller.OLD_COMBAT_DIE), 3));
+		assertThrows(IllegalArgumentException.class, () -> CombatDiceOdds.of(DiceRoller.OLD_COMBAT_DIE, -1));
+		assertThrows(IllegalArgumentException.class,
+				() -> CombatDiceOdds.of(DiceRoller.OLD_COMBAT_DIE, CombatDiceOdds.getMaxDicePool(7) + 1));
+		assertThrows(IllegalArgumentException.class, () -> CombatDiceOdds.of(Arrays.asList(1, new Object()), 1));
+	}
+
+	@Test
+	void testExpectationsAtMaxDicePool() {
+		int dice = CombatDiceOdds.getMaxDicePool(7);
+		CombatDiceOdds old = CombatDiceOdds.of(DiceRoller.OLD_COMBAT_DIE, dice);
+		assertEquals(dice / 7.0, old.getExpectedEffects(), 1e-9);
+		assertEquals(dice * 3 / 7.0, old.getExpectedNumericDamage(), 1e-9);
+		assertEquals(2 + dice * 3 / 7.0 + 2 * dice / 7.0, old.getExpectedDamage(2, 2), 1e-9);
+		assertEquals(dice * 2 / 7.0, CombatDiceOdds.of(DiceRoller.NEW_COMBAT_DIE, dice).getExpectedEffects(), 1e-9);
+	}
+
+	@Test
+	void testExtremeDamage() {
+		CombatDiceOdds odds = CombatDiceOdds.of(DiceRoller.OLD_COMBAT_DIE, 3);
+		// The largest base number and damage of effects are counted without wrapping around.
+		java.util.SortedMap<Long, Long> counts = odds.getDamageCounts(Integer.MAX_VALUE, Integer.MAX_VALUE);
+		assertEquals((long) Integer.MAX_VALUE, counts.firstKey());
+		assertEquals(4L * Integer.MAX_VALUE, counts.lastKey());
+		assertEquals(odds.getTotal(), counts.values().stream().mapToLong(Long::longValue).sum());
+		for (Map.Entry<Long, Long> count : counts.entrySet()) {
+			assertEquals((double) count.getValue() / odds.getTotal(),
+					odds.getDamageProbability(Integer.MAX_VALUE, Integer.MAX_VALUE, count.getKey()), 1e-12);
+		}
+		assertEquals(Integer.MAX_VALUE, odds.getMinDamage(Integer.MAX_VALUE, 0));
+		assertThrows(ArithmeticException.class, () -> odds.getMaxDamage(Integer.MAX_VALUE, 0));
+		assertThrows(ArithmeticException.class, () -> odds.getMinDamage(Integer.MIN_VALUE, Integer.MIN_VALUE));
+		assertThrows(ArithmeticException.class, () -> odds.getDamageCounts(Long.MAX_VALUE, 0));
+		assertEquals(0.0, odds.getDamageProbability(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE));
+	}
+}
@@ -0,0 +1,30 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class PatternCacheTest {
+
+	@Test
+	void testSamePatternReturned() {
+		Pattern pattern = PatternCache.compile("[sS]x");
+		assertSame(pattern, PatternCache.compile("[sS]x"));
+		assertNotSame(pattern, PatternCache.compile("[sS]x", Pattern.CASE_INSENSITIVE));
+		assertEquals(Pattern.CASE_INSENSITIVE, PatternCache.compile("[sS]x", Pattern.CASE_INSENSITIVE).flags());
+		assertThrows(java.util.regex.PatternSyntaxException.class, () -> PatternCache.compile("(unclosed"));
+	}
+
+	@Test
+	void testSpecialGrammarsCompiledOnce() {
+		assertSame(Special.fromStringPattern(), Special.fromStringPattern());
+		assertSame(Special.valueFieldsFromStringPattern(), Special.valueFieldsFromStringPattern());
+		assertSame(QualitySpecial.fromStringPattern(), QualitySpecial.fromStringPattern());
+		assertSame(FunctionalSpecial.valueFieldsFromStringPattern(), FunctionalSpecial.valueFieldsFromStringPattern());
+		BasicSpecial first = new BasicSpecial("Piercing(2)"), second = new BasicSpecial("Area");
+		assertSame(first.getFromStringPattern(), second.getFromStringPattern());
+		assertEquals("Piercing", first.getName());
+	}
+}
@@ -0,0 +1,45 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RandomStrategyTest {
+
+	@Test
+	void testSeededIsDeterministic() {
+		RandomStrategy first = RandomStrategy.seeded(42), second = RandomStrategy.seeded(42);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(first.nextInt(20), second.nextInt(20));
+		}
+	}
+
+	@Test
+	void testSeededRollerReplay() {
+		DiceRoller first = new DiceRoller(RandomStrategy.seeded(7)), second = new DiceRoller(RandomStrategy.seeded(7));
+		for (int i = 0; i < 20; i++) {
+			assertEquals(first.rollAction(5, 12, 2, 19), second.rollAction(5, 12, 2, 19));
+		}
+	}
+
+	@Test
+	void testSharedRandomKeepsSequence() {
+		RandomStrategy strategy = RandomStrategy.of(new Random(3));
+		Random expected = new Random(3);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(expected.nextInt(6), strategy.nextInt(6));
+		}
+	}
+
+	@Test
+	void testThreadLocalBounds() {
+		RandomStrategy strategy = RandomStrategy.threadLocal();
+		for (int i = 0; i < 1000; i++) {
+			int value = strategy.nextInt(20);
+			assertTrue(value >= 0 && value < 20);
+		}
+		assertThrows(IllegalArgumentException.class, () -> strategy.nextInt(0));
+	}
+}
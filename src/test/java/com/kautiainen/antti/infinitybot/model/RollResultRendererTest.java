@@ -0,0 +1,42 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RollResultRendererTest {
+
+	@Test
+	void testAppendEscaped() throws IOException {
+		assertEquals("plain text", RollResultRenderer.appendEscaped("plain text", new StringBuilder()).toString());
+		assertEquals("a\\*b\\_c\\~d\\`e\\|f\\>g\\\\",
+				RollResultRenderer.appendEscaped("a*b_c~d`e|f>g\\", new StringBuilder()).toString());
+		assertEquals("\\[x\\]", RollResultRenderer.appendEscaped("[x]", new StringBuilder()).toString());
+	}
+
+	@Test
+	void testRender() throws IOException {
+		RollResult result = new RollResult(3, Arrays.asList(1, "S", 2), DiceRoller.Complication.valueOf(0),
+				DiceRoller.Complication.valueOf(2));
+		String special = RollResultRenderer
+				.appendEscaped(DiceRoller.Complication.valueOf(2).toString(), new StringBuilder()).toString();
+		assertEquals("Result: 3 with " + special + "\nRoll: [1, S, 2]", RollResultRenderer.DEFAULT.render(result));
+		assertEquals("Result: 0\nRoll: []",
+				RollResultRenderer.DEFAULT.render(new RollResult(0, Arrays.asList(), new Special[0])));
+	}
+
+	@Test
+	void testRenderActionRoll() {
+		for (long seed = 0; seed < 20; seed++) {
+			ActionRollResult result = new DiceRoller(new Random(seed)).rollAction(4, 12, 2, 19);
+			RollResult expected = new RollResult(result.getValue(), result.getRoll(), result.getSpecials());
+			assertEquals(RollResultRenderer.DEFAULT.render(expected), RollResultRenderer.DEFAULT.render(result));
+			assertEquals("[" + String.join(", ", result.getRoll()) + "]",
+					RollResultRenderer.DEFAULT.renderRoll(result));
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class RollSimulatorTest {
+
+	@Test
+	void testDeterministicWithSeed() {
+		RollSimulator simulator = new RollSimulator(ForkJoinPool.commonPool(), 1000);
+		SimulationResult first = simulator.simulateAction(20000, 42L, 3, 12, 2, 19);
+		SimulationResult second = simulator.simulateAction(20000, 42L, 3, 12, 2, 19);
+		assertEquals(20000, first.getTrials());
+		long total = 0;
+		for (int s = first.getMinValue(); s <= first.getMaxValue(); s++) {
+			assertEquals(first.getCount(s), second.getCount(s));
+			total += first.getCount(s);
+		}
+		assertEquals(20000, total);
+		for (int c = 0; c <= first.getMaxSecondaryCount(); c++) {
+			assertEquals(first.getSecondaryCount(c), second.getSecondaryCount(c));
+		}
+	}
+
+	@Test
+	void testActionMatchesOdds() {
+		RollSimulator simulator = new RollSimulator();
+		SimulationResult result = simulator.simulateAction(200000, 7L, 2, 10, 1, 20);
+		ActionRollOdds odds = ActionRollOdds.of(2, 10, 1, 20);
+		for (int s = 0; s <= odds.getMaxSuccesses(); s++) {
+			assertEquals(odds.getSuccessProbability(s), result.getFrequency(s), 0.01, "Successes " + s);
+		}
+		assertEquals(odds.getExpectedSuccesses(), result.getMean(), 0.02);
+		assertEquals(1.0 - odds.getComplicationProbability(0), 1.0 - result.getSecondaryFrequency(0), 0.01);
+	}
+
+	@Test
+	void testCDMatchesOdds() {
+		RollSimulator simulator = new RollSimulator();
+		SimulationResult result = simulator.simulateCD(200000, 11L, DiceRoller.NEW_COMBAT_DIE, 4, 2, 3);
+		CombatDiceOdds odds = CombatDiceOdds.of(DiceRoller.NEW_COMBAT_DIE, 4);
+		assertEquals(odds.getMinDamage(2, 3), result.getMinValue());
+		for (int d = odds.getMinDamage(2, 3); d <= odds.getMaxDamage(2, 3); d++) {
+			assertEquals(odds.getDamageProbability(2, 3, d), result.getFrequency(d), 0.01, "Damage " + d);
+		}
+		assertEquals(odds.getExpectedDamage(2, 3), result.getMean(), 0.05);
+		assertEquals(odds.getExpectedEffects(), result.getSecondaryMean(), 0.02);
+		assertThrows(IllegalArgumentException.class, () -> simulator.simulateCD(-1, 0L, null, 1, 0, 0));
+	}
+
+	@Test
+	void testCDWithHugeSpecialTotal() {
+		RollSimulator simulator = new RollSimulator(ForkJoinPool.commonPool(), 100);
+		SimulationResult result = simulator.simulateCD(1000, 1L, DiceRoller.OLD_COMBAT_DIE, 20, 0, 100_000_000);
+		long total = 0;
+		int previous = Integer.MIN_VALUE;
+		for (int damage : result.getValues()) {
+			assertTrue(damage > previous);
+			total += result.getCount(damage);
+			previous = damage;
+		}
+		assertEquals(1000, total);
+		assertEquals(result.getValues()[0], result.getMinValue());
+		assertEquals(previous, result.getMaxValue());
+		assertEquals(result.getSecondaryMean() * 100_000_000, result.getMean(), 100.0);
+		assertThrows(IllegalArgumentException.class,
+				() -> simulator.simulateCD(1000, 1L, DiceRoller.OLD_COMBAT_DIE, 40, 0, 100_000_000));
+	}
+}
@@ -0,0 +1,68 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpecialAccumulatorTest {
+
+	private static Special special(String name, boolean stacks, int value) {
+		return SpecialValue.of(name, stacks, value, Optional.empty());
+	}
+
+	@Test
+	void testMergingRules() {
+		SpecialAccumulator accumulator = new SpecialAccumulator(1);
+		accumulator.addAll(Arrays.asList(special("Vicious", true, 1), special("Area", false, 1),
+				special("Piercing", false, 2), null, special("Vicious", false, 3), special("Area", false, 4),
+				special("Piercing", true, 1)));
+		assertEquals(Arrays.asList(special("Area", false, 1), special("Piercing", true, 3), special("Vicious", true, 4)),
+				accumulator.toList());
+		assertEquals(3, accumulator.size());
+		accumulator.clear();
+		assertEquals(0, accumulator.size());
+		assertTrue(accumulator.toList().isEmpty());
+	}
+
+	@Test
+	void testRepeatedSameAsSequentialAdding() {
+		DiceRoller roller = new DiceRoller();
+		Random random = new Random(7);
+		String[] names = { "Area", "Piercing", "Vicious", "Spread" };
+		for (int round = 0; round < 200; round++) {
+			List<Special> specials = new ArrayList<>();
+			for (int index = random.nextInt(6); index > 0; index--) {
+				specials.add(special(names[random.nextInt(names.length)], random.nextBoolean(), random.nextInt(4)));
+			}
+			int times = random.nextInt(5);
+			List<Special> expected = new ArrayList<>();
+			for (int time = 0; time < times; time++) {
+				roller.addSpecial(expected, specials);
+			}
+			SpecialAccumulator accumulator = new SpecialAccumulator();
+			accumulator.addRepeated(specials, times);
+			assertEquals(expected, accumulator.toList(), "Specials " + specials + " times " + times);
+
+			// Adding after the repeated adding.
+			Special added = special(names[random.nextInt(names.length)], random.nextBoolean(), 1);
+			roller.addSpecial(expected, added);
+			accumulator.add(added);
+			assertEquals(expected, accumulator.toList());
+		}
+	}
+
+	@Test
+	void testEffectsMergedInRollResult() {
+		DiceRoller roller = new DiceRoller();
+		List<Special> specials = Arrays.asList(special("Vicious", true, 1), special("Area", false, 1));
+		RollResult result = roller.getCDRollResult(1,
+				Arrays.asList(DiceRoller.EFFECT_RESULT, 2, DiceRoller.EFFECT_RESULT, DiceRoller.EFFECT_RESULT), specials);
+		assertEquals(Arrays.asList(special("Area", false, 1), special("Vicious", true, 3)), result.getSpecials());
+	}
+}
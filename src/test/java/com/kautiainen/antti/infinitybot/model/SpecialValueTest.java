@@ -0,0 +1,66 @@
+package com.kautiainen.antti.infinitybot.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class SpecialValueTest {
+
+	@Test
+	void testInterning() {
+		SpecialValue vicious = SpecialValue.of("Vicious", true, 1, Optional.empty());
+		assertSame(vicious, SpecialValue.of("Vicious", true, 1, Optional.empty()));
+		assertSame(SpecialValue.of("Vicious", true, 2, Optional.empty()), vicious.getStacked(1));
+		assertNotSame(vicious, SpecialValue.of("Vicious", false, 1, Optional.empty()));
+		// Values outside the value table are interned too.
+		assertSame(SpecialValue.of("Spread", false, 1000, Optional.of(2)),
+				SpecialValue.of("Spread", false, 1000, Optional.of(2)));
+		assertSame(Special.of("Piercing", false, 2, Optional.empty()),
+				SpecialValue.of("Piercing", false, 2, Optional.empty()));
+		assertThrows(IllegalArgumentException.class, () -> SpecialValue.of(" Bad", false, 1, Optional.empty()));
+	}
+
+	@Test
+	void testStacking() {
+		SpecialValue area = SpecialValue.of("Area", false, 1, Optional.empty());
+		assertSame(area, area.getStacked(3));
+		SpecialValue spread = SpecialValue.of("Spread", true, 1, Optional.of(4));
+		assertEquals(3, spread.getStacked(2).getValue());
+		assertEquals(Optional.of(4), spread.getStacked(2).getNumberValue());
+		assertEquals("Spread(s3=4)", spread.getStacked(2).toString());
+
+		List<Special> combined = new DiceRoller().combineSpecials(new ArrayList<>(
+				Arrays.asList(SpecialValue.of("Vicious", true, 1, Optional.empty()),
+						SpecialValue.of("Vicious", true, 1, Optional.empty()))));
+		assertEquals(1, combined.size());
+		assertSame(SpecialValue.of("Vicious", true, 2, Optional.empty()), combined.get(0));
+	}
+
+	@Test
+	void testBasicSpecialStacksToValue() {
+		BasicSpecial special = new BasicSpecial("Piercing", true, 2, Optional.empty());
+		assertSame(SpecialValue.of("Piercing", true, 3, Optional.empty()), special.getStacked(1));
+	}
+
+	@Test
+	void testBotSpecialStacksToValue() {
+		com.kautiainen.antti.infinitybot.DiscordBot.Special area = new com.kautiainen.antti.infinitybot.DiscordBot.Special(
+				"Area", 2, false);
+		assertSame(area, area.getStacked(1));
+		com.kautiainen.antti.infinitybot.DiscordBot.Special piercing = new com.kautiainen.antti.infinitybot.DiscordBot.Special(
+				"Piercing", 1, true);
+		assertSame(SpecialValue.of("Piercing", true, 3, Optional.empty()), piercing.getStacked(2));
+
+		com.kautiainen.antti.infinitybot.DiscordBot.Vicious vicious = new com.kautiainen.antti.infinitybot.DiscordBot.Vicious(
+				1);
+		Special stacked = vicious.getStacked(1);
+		assertSame(SpecialValue.of("Vicious", true, 2, Optional.of(2)), stacked);
+		assertSame(stacked, vicious.getStacked(1));
+		assertEquals(Optional.of(2), stacked.getNumberValue());
+	}
+}